@@ -4,10 +4,11 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 
 import io.leopard.redis.Redis;
+import io.leopard.redis.util.ScanIterator;
 import io.leopard.timer.AbstractTimer;
 import io.leopard.timer.PerHourPeriod;
 import io.leopard.timer.Period;
@@ -137,11 +138,10 @@ public class CountRankTimeBucketImpl implements CountRank {
 	@Override
 	public boolean clean() {
 		boolean success = totalImpl.clean();
-		Set<String> keySet = redis.keys(this.key + ":*");
-		if (keySet != null) {
-			for (String key : keySet) {
-				redis.del(key);
-			}
+		// 用SCAN代替keys，避免阻塞服务器
+		Iterator<String> iterator = ScanIterator.scan(redis, this.key + ":*", ScanIterator.DEFAULT_COUNT);
+		while (iterator.hasNext()) {
+			redis.del(iterator.next());
 		}
 		return success;
 	}
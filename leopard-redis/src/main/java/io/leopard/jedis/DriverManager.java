@@ -1,45 +1,69 @@
 package io.leopard.jedis;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.ServiceLoader;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Jedis驱动管理(通过ServiceLoader加载Driver).
+ * 
+ * 连接池中的连接在建立时包装一次(见DriverPooledObjectFactory)，获取和归还连接时不再查找或解包.
+ * 
+ */
 public class DriverManager {
 
-	private static List<Driver> list = new ArrayList<Driver>();
+	private static final List<Driver> list;
 
 	static {
-		loadInitialDrivers();
+		list = Collections.unmodifiableList(loadInitialDrivers());
 	}
 
-	private static void loadInitialDrivers() {
+	private static List<Driver> loadInitialDrivers() {
+		List<Driver> list = new ArrayList<Driver>();
 		ServiceLoader<Driver> loadedDrivers = ServiceLoader.load(Driver.class);
 		Iterator<Driver> driversIterator = loadedDrivers.iterator();
 		while (driversIterator.hasNext()) {
 			Driver driver = driversIterator.next();
 			list.add(driver);
 		}
+		return list;
 	}
 
-	// TODO 这里要改成LUR.
-	private static Map<Integer, redis.clients.jedis.Jedis> cache = new ConcurrentHashMap<Integer, redis.clients.jedis.Jedis>();
+	/**
+	 * 是否加载了驱动.
+	 * 
+	 * @return
+	 */
+	public static boolean hasDriver() {
+		return !list.isEmpty();
+	}
 
+	/**
+	 * 用所有驱动包装jedis，没有驱动时返回原对象.
+	 * 
+	 * @param jedis
+	 * @return
+	 */
 	public static redis.clients.jedis.Jedis wrapper(redis.clients.jedis.Jedis jedis) {
-		int key = jedis.hashCode();
-		{
-			redis.clients.jedis.Jedis jedis2 = cache.get(key);
-			if (jedis2 != null) {
-				return jedis2;
-			}
-		}
-		for (Driver driver : list) {
+		return wrapper(jedis, list);
+	}
+
+	static redis.clients.jedis.Jedis wrapper(redis.clients.jedis.Jedis jedis, List<Driver> drivers) {
+		for (Driver driver : drivers) {
 			jedis = driver.connect(jedis);
 		}
-		cache.put(key, jedis);
 		return jedis;
 	}
 
+	/**
+	 * 已加载的驱动.
+	 * 
+	 * @return
+	 */
+	public static List<Driver> getDrivers() {
+		return list;
+	}
+
 }
@@ -0,0 +1,76 @@
+package io.leopard.jedis;
+
+import java.util.List;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+/**
+ * 建立连接时用驱动包装的连接工厂.
+ * 
+ * 连接池中保存的是包装后的对象，原始连接保存在池对象中，由原工厂负责连接的激活、校验和销毁.
+ * 
+ */
+public class DriverPooledObjectFactory implements PooledObjectFactory<redis.clients.jedis.Jedis> {
+
+	private final PooledObjectFactory<redis.clients.jedis.Jedis> factory;
+
+	private final List<Driver> drivers;
+
+	private static class DriverPooledObject extends DefaultPooledObject<redis.clients.jedis.Jedis> {
+		private final PooledObject<redis.clients.jedis.Jedis> raw;
+
+		public DriverPooledObject(redis.clients.jedis.Jedis jedis, PooledObject<redis.clients.jedis.Jedis> raw) {
+			super(jedis);
+			this.raw = raw;
+		}
+	}
+
+	public DriverPooledObjectFactory(PooledObjectFactory<redis.clients.jedis.Jedis> factory) {
+		this(factory, DriverManager.getDrivers());
+	}
+
+	public DriverPooledObjectFactory(PooledObjectFactory<redis.clients.jedis.Jedis> factory, List<Driver> drivers) {
+		this.factory = factory;
+		this.drivers = drivers;
+	}
+
+	private static PooledObject<redis.clients.jedis.Jedis> raw(PooledObject<redis.clients.jedis.Jedis> pooledObject) {
+		if (pooledObject instanceof DriverPooledObject) {
+			return ((DriverPooledObject) pooledObject).raw;
+		}
+		return pooledObject;
+	}
+
+	@Override
+	public PooledObject<redis.clients.jedis.Jedis> makeObject() throws Exception {
+		PooledObject<redis.clients.jedis.Jedis> raw = factory.makeObject();
+		redis.clients.jedis.Jedis jedis = DriverManager.wrapper(raw.getObject(), drivers);
+		if (jedis == raw.getObject()) {
+			return raw;
+		}
+		return new DriverPooledObject(jedis, raw);
+	}
+
+	@Override
+	public void destroyObject(PooledObject<redis.clients.jedis.Jedis> pooledObject) throws Exception {
+		factory.destroyObject(raw(pooledObject));
+	}
+
+	@Override
+	public boolean validateObject(PooledObject<redis.clients.jedis.Jedis> pooledObject) {
+		return factory.validateObject(raw(pooledObject));
+	}
+
+	@Override
+	public void activateObject(PooledObject<redis.clients.jedis.Jedis> pooledObject) throws Exception {
+		factory.activateObject(raw(pooledObject));
+	}
+
+	@Override
+	public void passivateObject(PooledObject<redis.clients.jedis.Jedis> pooledObject) throws Exception {
+		factory.passivateObject(raw(pooledObject));
+	}
+
+}
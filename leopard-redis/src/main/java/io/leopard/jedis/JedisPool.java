@@ -6,66 +6,55 @@ public class JedisPool extends redis.clients.jedis.JedisPool {
 
 	public JedisPool() {
 		super();
+		this.initDriver(new GenericObjectPoolConfig());
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host) {
 		super(poolConfig, host);
+		this.initDriver(poolConfig);
 	}
 
 	public JedisPool(String host, int port) {
 		super(host, port);
+		this.initDriver(new GenericObjectPoolConfig());
 	}
 
 	public JedisPool(final String host) {
 		super(host);
+		this.initDriver(new GenericObjectPoolConfig());
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host, int port, int timeout, final String password) {
 		super(poolConfig, host, port, timeout, password);
+		this.initDriver(poolConfig);
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host, final int port) {
 		super(poolConfig, host, port);
+		this.initDriver(poolConfig);
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host, final int port, final int timeout) {
 		super(poolConfig, host, port, timeout);
+		this.initDriver(poolConfig);
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host, int port, int timeout, final String password, final int database) {
 		super(poolConfig, host, port, timeout, password, database);
+		this.initDriver(poolConfig);
 	}
 
 	public JedisPool(final GenericObjectPoolConfig poolConfig, final String host, int port, int timeout, final String password, final int database, final String clientName) {
 		super(poolConfig, host, port, timeout, password, database, clientName);
+		this.initDriver(poolConfig);
 	}
 
-	public redis.clients.jedis.Jedis getResource() {
-		redis.clients.jedis.Jedis jedis = super.getResource();
-		// System.out.println("\ngetResource:" + jedis);
-		// if (true) {
-		// return jedis;
-		// }
-		if (jedis instanceof JedisWrapper) {
-			// System.out.println("JedisWrapper:" + jedis);
-			return jedis;
+	/**
+	 * 有驱动时替换连接工厂，连接建立时包装一次.
+	 */
+	private void initDriver(GenericObjectPoolConfig poolConfig) {
+		if (DriverManager.hasDriver()) {
+			this.initPool(poolConfig, new DriverPooledObjectFactory(internalPool.getFactory()));
 		}
-		return DriverManager.wrapper(jedis);
-		// System.out.println("getResource:" + jedis);
-		// return jedis;
-	}
-
-	@Deprecated
-	public void returnBrokenResource(final redis.clients.jedis.Jedis resource) {
-		super.returnBrokenResource(resource);
-	}
-
-	@Deprecated
-	public void returnResource(redis.clients.jedis.Jedis resource) {
-		while (resource instanceof JedisWrapper) {
-			resource = ((JedisWrapper) resource).getJedis();
-			// System.out.println("returnResource:" + resource);
-		}
-		super.returnResource(resource);
 	}
 }
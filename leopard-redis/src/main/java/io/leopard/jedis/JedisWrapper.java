@@ -1335,10 +1335,28 @@ public class JedisWrapper extends redis.clients.jedis.Jedis {
 		return jedis.pubsubNumSub(channels);
 	}
 
+	/**
+	 * 归还连接池时重置的是原始连接的状态(事务、pipeline、watch)，包装对象自身的client没有连接.
+	 */
 	@Override
-	public void close() {
+	public void resetState() {
+		jedis.resetState();
+	}
 
-		super.close();
+	/**
+	 * 从连接池获取时归还包装对象(按原始连接判断是否已损坏)，否则关闭原始连接.
+	 */
+	@Override
+	public void close() {
+		if (dataSource == null) {
+			jedis.close();
+		}
+		else if (jedis.getClient().isBroken()) {
+			dataSource.returnBrokenResource(this);
+		}
+		else {
+			dataSource.returnResource(this);
+		}
 	}
 
 	@Override
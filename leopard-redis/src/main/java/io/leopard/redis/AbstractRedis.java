@@ -1,5 +1,10 @@
 package io.leopard.redis;
 
+import io.leopard.redis.codec.BinaryCodec;
+import io.leopard.redis.codec.RedisCodec;
+
+import java.util.Map;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -9,10 +14,25 @@ public class AbstractRedis {
 	protected int maxActive;
 	protected int timeout;
 	protected int initialPoolSize;// 默认初始化连接数量
+	protected int minIdle;// 最小空闲连接数
+	protected int idleTimeout;// 空闲连接回收时间(秒)，0表示不回收
 
 	protected boolean enableBackup;
 	protected String backupTime;
 
+	protected int hotKeySampleRate;// 热点key采样率，0表示不采样
+	protected long hotKeyThreshold = 10000;// 10秒内访问次数达到该值为热点key
+	protected int hotKeyCacheSeconds;// 热点key本地缓存时间，0表示不缓存
+
+	protected int asyncConnections = 4;// 异步接口同时使用的连接数
+
+	protected int multiplexConnections;// 多路复用连接数，0表示每个指令从连接池独占一个连接
+
+	protected RedisCodec codec = BinaryCodec.getInstance();// 对象编码
+
+	protected int compressThreshold;// value压缩阈值(字节)，0表示不压缩
+	protected Map<String, Integer> compressPolicies;// 按key前缀的压缩阈值
+
 	public void setMaxActive(int maxActive) {
 		this.maxActive = maxActive;
 	}
@@ -25,6 +45,19 @@ public class AbstractRedis {
 		this.initialPoolSize = initialPoolSize;
 	}
 
+	public void setMinIdle(int minIdle) {
+		this.minIdle = minIdle;
+	}
+
+	/**
+	 * 空闲连接回收时间(秒)，大于0时连接池按最近的最大活动连接数调整空闲连接数.
+	 * 
+	 * @param idleTimeout
+	 */
+	public void setIdleTimeout(int idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
 	public void setEnableBackup(boolean enableBackup) {
 		this.enableBackup = enableBackup;
 	}
@@ -33,4 +66,62 @@ public class AbstractRedis {
 		this.backupTime = backupTime;
 	}
 
+	public void setHotKeySampleRate(int hotKeySampleRate) {
+		this.hotKeySampleRate = hotKeySampleRate;
+	}
+
+	public void setHotKeyThreshold(long hotKeyThreshold) {
+		this.hotKeyThreshold = hotKeyThreshold;
+	}
+
+	public void setHotKeyCacheSeconds(int hotKeyCacheSeconds) {
+		this.hotKeyCacheSeconds = hotKeyCacheSeconds;
+	}
+
+	public void setAsyncConnections(int asyncConnections) {
+		this.asyncConnections = asyncConnections;
+	}
+
+	/**
+	 * 多路复用连接数，大于0时单个指令通过少量共享的NIO连接执行，并发指令自动合并发送.
+	 * 
+	 * @param multiplexConnections
+	 */
+	public void setMultiplexConnections(int multiplexConnections) {
+		this.multiplexConnections = multiplexConnections;
+	}
+
+	public RedisCodec getCodec() {
+		return codec;
+	}
+
+	/**
+	 * 对象编码，用于get(key, Class)、set(key, T)等方法，默认是BinaryCodec.
+	 * 
+	 * @param codec
+	 */
+	public void setCodec(RedisCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * value压缩阈值(字节)，大于0时超过阈值的String value使用Deflate压缩后保存，读取时自动解压.
+	 * 
+	 * 压缩后的key不能使用append、getrange、setrange、strlen，这些key需要通过compressPolicies设置阈值为0.
+	 * 
+	 * @param compressThreshold
+	 */
+	public void setCompressThreshold(int compressThreshold) {
+		this.compressThreshold = compressThreshold;
+	}
+
+	/**
+	 * 按key前缀设置压缩阈值(最长前缀优先)，小于等于0表示不压缩.
+	 * 
+	 * @param compressPolicies
+	 */
+	public void setCompressPolicies(Map<String, Integer> compressPolicies) {
+		this.compressPolicies = compressPolicies;
+	}
+
 }
@@ -0,0 +1,224 @@
+package io.leopard.redis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * Redis异步接口(指令立即返回RedisFuture，不阻塞调用线程).
+ * 
+ * 并发提交的指令合并到少量连接的管道中批量发送，多个互不依赖的指令总耗时接近其中最慢的一个.
+ * 
+ * @author 阿海
+ * 
+ */
+public interface AsyncRedis {
+
+	/**
+	 * 将字符串值 value 关联到 key.
+	 */
+	RedisFuture<String> set(String key, String value);
+
+	/**
+	 * 将字符串值 value 关联到 key，并设置生存时间.
+	 */
+	RedisFuture<String> set(String key, String value, int seconds);
+
+	/**
+	 * 返回 key 所关联的字符串值.
+	 */
+	RedisFuture<String> get(String key);
+
+	/**
+	 * 删除 key.
+	 */
+	RedisFuture<Long> del(String key);
+
+	/**
+	 * 检查给定 key 是否存在.
+	 */
+	RedisFuture<Boolean> exists(String key);
+
+	/**
+	 * 为给定 key 设置生存时间.
+	 */
+	RedisFuture<Long> expire(String key, int seconds);
+
+	/**
+	 * 为给定 key 设置过期时间(UNIX 时间戳).
+	 */
+	RedisFuture<Long> expireAt(String key, long unixTime);
+
+	/**
+	 * 返回给定 key 的剩余生存时间.
+	 */
+	RedisFuture<Long> ttl(String key);
+
+	/**
+	 * 将 key 中储存的数字值增一.
+	 */
+	RedisFuture<Long> incr(String key);
+
+	/**
+	 * 将 key 所储存的值加上增量 integer.
+	 */
+	RedisFuture<Long> incrBy(String key, long integer);
+
+	/**
+	 * 将 key 中储存的数字值减一.
+	 */
+	RedisFuture<Long> decr(String key);
+
+	/**
+	 * 将哈希表 key 中的域 field 的值设为 value.
+	 */
+	RedisFuture<Long> hset(String key, String field, String value);
+
+	/**
+	 * 返回哈希表 key 中给定域 field 的值.
+	 */
+	RedisFuture<String> hget(String key, String field);
+
+	/**
+	 * 同时将多个 field-value 对设置到哈希表 key 中.
+	 */
+	RedisFuture<String> hmset(String key, Map<String, String> hash);
+
+	/**
+	 * 返回哈希表 key 中，一个或多个给定域的值.
+	 */
+	RedisFuture<List<String>> hmget(String key, String... fields);
+
+	/**
+	 * 返回哈希表 key 中，所有的域和值.
+	 */
+	RedisFuture<Map<String, String>> hgetAll(String key);
+
+	/**
+	 * 删除哈希表 key 中的一个或多个指定域.
+	 */
+	RedisFuture<Long> hdel(String key, String... fields);
+
+	/**
+	 * 为哈希表 key 中的域 field 的值加上增量 value.
+	 */
+	RedisFuture<Long> hincrBy(String key, String field, long value);
+
+	/**
+	 * 将 member 元素及其 score 值加入到有序集 key 中.
+	 */
+	RedisFuture<Long> zadd(String key, double score, String member);
+
+	/**
+	 * 将多个 member 元素及其 score 值加入到有序集 key 中.
+	 */
+	RedisFuture<Long> zadd(String key, Map<String, Double> scoreMembers);
+
+	/**
+	 * 移除有序集 key 中的一个或多个成员.
+	 */
+	RedisFuture<Long> zrem(String key, String... members);
+
+	/**
+	 * 返回有序集 key 中，成员 member 的 score 值.
+	 */
+	RedisFuture<Double> zscore(String key, String member);
+
+	/**
+	 * 为有序集 key 的成员 member 的 score 值加上增量.
+	 */
+	RedisFuture<Double> zincrby(String key, double score, String member);
+
+	/**
+	 * 返回有序集 key 的基数.
+	 */
+	RedisFuture<Long> zcard(String key);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员(score 递增).
+	 */
+	RedisFuture<Set<String>> zrange(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员(score 递减).
+	 */
+	RedisFuture<Set<String>> zrevrange(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员及score(score 递增).
+	 */
+	RedisFuture<Set<Tuple>> zrangeWithScores(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员及score(score 递减).
+	 */
+	RedisFuture<Set<Tuple>> zrevrangeWithScores(String key, long start, long end);
+
+	/**
+	 * 移除有序集 key 中，指定排名(rank)区间内的所有成员.
+	 */
+	RedisFuture<Long> zremrangeByRank(String key, long start, long end);
+
+	/**
+	 * 移除有序集 key 中，所有 score 值介于 start 和 end 之间的成员.
+	 */
+	RedisFuture<Long> zremrangeByScore(String key, double start, double end);
+
+	/**
+	 * 将一个或多个 member 元素加入到集合 key 当中.
+	 */
+	RedisFuture<Long> sadd(String key, String... members);
+
+	/**
+	 * 移除集合 key 中的一个或多个 member 元素.
+	 */
+	RedisFuture<Long> srem(String key, String... members);
+
+	/**
+	 * 返回集合 key 中的所有成员.
+	 */
+	RedisFuture<Set<String>> smembers(String key);
+
+	/**
+	 * 判断 member 元素是否集合 key 的成员.
+	 */
+	RedisFuture<Boolean> sismember(String key, String member);
+
+	/**
+	 * 将一个或多个值插入到列表 key 的表头.
+	 */
+	RedisFuture<Long> lpush(String key, String... strings);
+
+	/**
+	 * 将一个或多个值插入到列表 key 的表尾.
+	 */
+	RedisFuture<Long> rpush(String key, String... strings);
+
+	/**
+	 * 返回列表 key 中指定区间内的元素.
+	 */
+	RedisFuture<List<String>> lrange(String key, long start, long end);
+
+	/**
+	 * 对列表进行修剪，只保留指定区间内的元素.
+	 */
+	RedisFuture<String> ltrim(String key, long start, long end);
+
+	/**
+	 * 返回列表 key 的长度.
+	 */
+	RedisFuture<Long> llen(String key);
+
+	/**
+	 * 移除并返回列表 key 的头元素.
+	 */
+	RedisFuture<String> lpop(String key);
+
+	/**
+	 * 移除并返回列表 key 的尾元素.
+	 */
+	RedisFuture<String> rpop(String key);
+
+}
@@ -0,0 +1,601 @@
+package io.leopard.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * Redis异步实现(自动合并管道).
+ * 
+ * 提交的指令进入队列，connections个发送线程各自取出队列中所有的指令(最多maxBatch个)，通过pipelined()一次发送，sync()后设置各指令的结果.
+ * 
+ * 同时使用的连接数不超过connections，并发越高每批合并的指令越多.
+ * 
+ * @author 阿海
+ * 
+ */
+public class AsyncRedisImpl implements AsyncRedis {
+
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	private final Redis redis;
+
+	private final int connections;
+
+	private final int maxBatch;
+
+	private final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<Task<?>>();
+
+	private volatile boolean shutdown = false;
+
+	/**
+	 * 在管道中发送的指令.
+	 */
+	protected static interface Command<T> {
+		RedisResponse<T> send(RedisPipeline pipeline);
+	}
+
+	private static class Task<T> {
+		private final Command<T> command;
+		private final RedisFuture<T> future = new RedisFuture<T>();
+		private RedisResponse<T> response;
+
+		public Task(Command<T> command) {
+			this.command = command;
+		}
+
+		public void send(RedisPipeline pipeline) {
+			try {
+				this.response = command.send(pipeline);
+			}
+			catch (RuntimeException e) {
+				future.setException(e);
+			}
+		}
+
+		/**
+		 * 管道执行后设置结果，syncException不为null时表示sync()出错.
+		 */
+		public void complete(RuntimeException syncException) {
+			if (response != null && response.isDone()) {
+				try {
+					future.set(response.get());
+				}
+				catch (RuntimeException e) {
+					future.setException(e);
+				}
+			}
+			else if (syncException != null) {
+				future.setException(syncException);
+			}
+		}
+	}
+
+	public AsyncRedisImpl(Redis redis) {
+		this(redis, 4, 128);
+	}
+
+	/**
+	 * @param redis 执行指令的redis(RedisImpl、RedisHashImpl等支持pipelined()的实现)
+	 * @param connections 发送线程数(即同时使用的连接数)
+	 * @param maxBatch 一次管道最多发送的指令数
+	 */
+	public AsyncRedisImpl(Redis redis, int connections, int maxBatch) {
+		if (connections <= 0) {
+			throw new IllegalArgumentException("connections必须大于0.");
+		}
+		if (maxBatch <= 0) {
+			throw new IllegalArgumentException("maxBatch必须大于0.");
+		}
+		this.redis = redis;
+		this.connections = connections;
+		this.maxBatch = maxBatch;
+		for (int i = 0; i < connections; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					loop();
+				}
+			}, "leopard-redis-async-" + i);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	public int getConnections() {
+		return connections;
+	}
+
+	/**
+	 * 等待发送的指令数.
+	 * 
+	 * @return
+	 */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	protected <T> RedisFuture<T> submit(Command<T> command) {
+		Task<T> task = new Task<T>(command);
+		if (shutdown) {
+			task.future.setException(new IllegalStateException("AsyncRedis已关闭."));
+			return task.future;
+		}
+		queue.add(task);
+		return task.future;
+	}
+
+	private void loop() {
+		List<Task<?>> batch = new ArrayList<Task<?>>(maxBatch);
+		while (!shutdown || !queue.isEmpty()) {
+			Task<?> task;
+			try {
+				task = queue.poll(1, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (task == null) {
+				continue;
+			}
+			batch.add(task);
+			queue.drainTo(batch, maxBatch - 1);
+			try {
+				this.flush(batch);
+			}
+			catch (RuntimeException e) {
+				logger.error(e.getMessage(), e);
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * 通过一个管道发送一批指令.
+	 */
+	protected void flush(List<Task<?>> batch) {
+		RuntimeException syncException = null;
+		try {
+			RedisPipeline pipeline = redis.pipelined();
+			for (Task<?> task : batch) {
+				task.send(pipeline);
+			}
+			pipeline.sync();
+		}
+		catch (RuntimeException e) {
+			syncException = e;
+		}
+		for (Task<?> task : batch) {
+			task.complete(syncException);
+		}
+	}
+
+	/**
+	 * 关闭发送线程，已提交的指令会执行完.
+	 */
+	public void destroy() {
+		this.shutdown = true;
+	}
+
+	@Override
+	public RedisFuture<String> set(final String key, final String value) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.set(key, value);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> set(final String key, final String value, final int seconds) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.set(key, value, seconds);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> get(final String key) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.get(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> del(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.del(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Boolean> exists(final String key) {
+		return this.submit(new Command<Boolean>() {
+			@Override
+			public RedisResponse<Boolean> send(RedisPipeline pipeline) {
+				return pipeline.exists(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> expire(final String key, final int seconds) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.expire(key, seconds);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> expireAt(final String key, final long unixTime) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.expireAt(key, unixTime);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> ttl(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.ttl(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> incr(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.incr(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> incrBy(final String key, final long integer) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.incrBy(key, integer);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> decr(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.decr(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> hset(final String key, final String field, final String value) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.hset(key, field, value);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> hget(final String key, final String field) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.hget(key, field);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> hmset(final String key, final Map<String, String> hash) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.hmset(key, hash);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<List<String>> hmget(final String key, final String... fields) {
+		return this.submit(new Command<List<String>>() {
+			@Override
+			public RedisResponse<List<String>> send(RedisPipeline pipeline) {
+				return pipeline.hmget(key, fields);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Map<String, String>> hgetAll(final String key) {
+		return this.submit(new Command<Map<String, String>>() {
+			@Override
+			public RedisResponse<Map<String, String>> send(RedisPipeline pipeline) {
+				return pipeline.hgetAll(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> hdel(final String key, final String... fields) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.hdel(key, fields);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> hincrBy(final String key, final String field, final long value) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.hincrBy(key, field, value);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zadd(final String key, final double score, final String member) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zadd(key, score, member);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zadd(final String key, final Map<String, Double> scoreMembers) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zadd(key, scoreMembers);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zrem(final String key, final String... members) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zrem(key, members);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Double> zscore(final String key, final String member) {
+		return this.submit(new Command<Double>() {
+			@Override
+			public RedisResponse<Double> send(RedisPipeline pipeline) {
+				return pipeline.zscore(key, member);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Double> zincrby(final String key, final double score, final String member) {
+		return this.submit(new Command<Double>() {
+			@Override
+			public RedisResponse<Double> send(RedisPipeline pipeline) {
+				return pipeline.zincrby(key, score, member);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zcard(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zcard(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Set<String>> zrange(final String key, final long start, final long end) {
+		return this.submit(new Command<Set<String>>() {
+			@Override
+			public RedisResponse<Set<String>> send(RedisPipeline pipeline) {
+				return pipeline.zrange(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Set<String>> zrevrange(final String key, final long start, final long end) {
+		return this.submit(new Command<Set<String>>() {
+			@Override
+			public RedisResponse<Set<String>> send(RedisPipeline pipeline) {
+				return pipeline.zrevrange(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Set<Tuple>> zrangeWithScores(final String key, final long start, final long end) {
+		return this.submit(new Command<Set<Tuple>>() {
+			@Override
+			public RedisResponse<Set<Tuple>> send(RedisPipeline pipeline) {
+				return pipeline.zrangeWithScores(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Set<Tuple>> zrevrangeWithScores(final String key, final long start, final long end) {
+		return this.submit(new Command<Set<Tuple>>() {
+			@Override
+			public RedisResponse<Set<Tuple>> send(RedisPipeline pipeline) {
+				return pipeline.zrevrangeWithScores(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zremrangeByRank(final String key, final long start, final long end) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zremrangeByRank(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> zremrangeByScore(final String key, final double start, final double end) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.zremrangeByScore(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> sadd(final String key, final String... members) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.sadd(key, members);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> srem(final String key, final String... members) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.srem(key, members);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Set<String>> smembers(final String key) {
+		return this.submit(new Command<Set<String>>() {
+			@Override
+			public RedisResponse<Set<String>> send(RedisPipeline pipeline) {
+				return pipeline.smembers(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Boolean> sismember(final String key, final String member) {
+		return this.submit(new Command<Boolean>() {
+			@Override
+			public RedisResponse<Boolean> send(RedisPipeline pipeline) {
+				return pipeline.sismember(key, member);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> lpush(final String key, final String... strings) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.lpush(key, strings);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> rpush(final String key, final String... strings) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.rpush(key, strings);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<List<String>> lrange(final String key, final long start, final long end) {
+		return this.submit(new Command<List<String>>() {
+			@Override
+			public RedisResponse<List<String>> send(RedisPipeline pipeline) {
+				return pipeline.lrange(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> ltrim(final String key, final long start, final long end) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.ltrim(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<Long> llen(final String key) {
+		return this.submit(new Command<Long>() {
+			@Override
+			public RedisResponse<Long> send(RedisPipeline pipeline) {
+				return pipeline.llen(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> lpop(final String key) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.lpop(key);
+			}
+		});
+	}
+
+	@Override
+	public RedisFuture<String> rpop(final String key) {
+		return this.submit(new Command<String>() {
+			@Override
+			public RedisResponse<String> send(RedisPipeline pipeline) {
+				return pipeline.rpop(key);
+			}
+		});
+	}
+}
@@ -0,0 +1,25 @@
+package io.leopard.redis;
+
+/**
+ * 一致性hash(由hash环直接定位服务器，增减服务器只影响少量key).
+ * 
+ * @author 阿海
+ * 
+ */
+public interface ConsistentHashType extends HashType {
+
+	/**
+	 * 根据服务器列表构建hash环.
+	 * 
+	 * @param serverList 服务器列表
+	 */
+	void init(String[] serverList);
+
+	/**
+	 * 返回key所在服务器的索引.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	int getIndex(String key);
+}
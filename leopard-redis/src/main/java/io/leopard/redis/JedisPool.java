@@ -109,6 +109,32 @@ public class JedisPool extends io.leopard.jedis.JedisPool {
 		}
 	}
 
+	/**
+	 * 新建一个空闲连接放入连接池.
+	 * 
+	 * @throws Exception
+	 */
+	public void addObject() throws Exception {
+		internalPool.addObject();
+	}
+
+	/**
+	 * 设置最小空闲连接数(空闲连接回收线程会补足).
+	 * 
+	 * @param minIdle
+	 */
+	public void setMinIdle(int minIdle) {
+		internalPool.setMinIdle(minIdle);
+	}
+
+	public int getMinIdle() {
+		return internalPool.getMinIdle();
+	}
+
+	public int getMaxTotal() {
+		return internalPool.getMaxTotal();
+	}
+
 	// // protected GenericObjectPool<Jedis> internalPool2;
 	//
 	// // @SuppressWarnings("unchecked")
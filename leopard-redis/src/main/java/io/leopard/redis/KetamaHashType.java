@@ -0,0 +1,104 @@
+package io.leopard.redis;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import redis.clients.util.Hashing;
+
+/**
+ * Ketama一致性hash(虚拟节点 + MurmurHash).
+ * 
+ * 每台服务器在hash环上有VIRTUAL_NODES个虚拟节点，key顺时针找到的第一个虚拟节点即所在服务器.
+ * 
+ * @author 阿海
+ * 
+ */
+public class KetamaHashType implements ConsistentHashType {
+
+	/**
+	 * 每台服务器的虚拟节点数量.
+	 */
+	public static final int VIRTUAL_NODES = 160;
+
+	private static final Hashing HASHING = Hashing.MURMUR_HASH;
+
+	private volatile Ring ring;
+
+	private static class Ring {
+		private final long[] points;
+		private final int[] indexes;
+
+		public Ring(long[] points, int[] indexes) {
+			this.points = points;
+			this.indexes = indexes;
+		}
+	}
+
+	@Override
+	public void init(String[] serverList) {
+		int size = serverList.length * VIRTUAL_NODES;
+		final long[] pointArr = new long[size];
+		Integer[] order = new Integer[size];
+		int[] indexArr = new int[size];
+		for (int i = 0; i < serverList.length; i++) {
+			String node = getNodeName(serverList[i]);
+			for (int j = 0; j < VIRTUAL_NODES; j++) {
+				int position = i * VIRTUAL_NODES + j;
+				pointArr[position] = HASHING.hash(node + "-" + j);
+				indexArr[position] = i;
+				order[position] = position;
+			}
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				long p1 = pointArr[o1];
+				long p2 = pointArr[o2];
+				return p1 < p2 ? -1 : (p1 == p2 ? 0 : 1);
+			}
+		});
+		long[] points = new long[size];
+		int[] indexes = new int[size];
+		for (int i = 0; i < size; i++) {
+			points[i] = pointArr[order[i]];
+			indexes[i] = indexArr[order[i]];
+		}
+		this.ring = new Ring(points, indexes);
+	}
+
+	/**
+	 * 虚拟节点名称只取host:port，修改密码不会导致key迁移.
+	 * 
+	 * @param server
+	 * @return
+	 */
+	protected String getNodeName(String server) {
+		String[] serverInfo = server.split(":");
+		if (serverInfo.length > 2) {
+			return serverInfo[0].trim() + ":" + serverInfo[1].trim();
+		}
+		return server.trim();
+	}
+
+	@Override
+	public long getHashCode(String key) {
+		return HASHING.hash(key);
+	}
+
+	@Override
+	public int getIndex(String key) {
+		Ring ring = this.ring;
+		if (ring == null) {
+			throw new IllegalStateException("hash环未初始化.");
+		}
+		int position = Arrays.binarySearch(ring.points, this.getHashCode(key));
+		if (position < 0) {
+			position = -position - 1;
+			if (position == ring.points.length) {
+				position = 0;
+			}
+		}
+		return ring.indexes[position];
+	}
+
+}
@@ -1,5 +1,6 @@
 package io.leopard.redis;
 
+import io.leopard.redis.monitor.RedisMetrics;
 import io.leopard.redis.util.IJedisPool;
 
 import java.util.List;
@@ -7,6 +8,8 @@ import java.util.Set;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Transaction;
 import redis.clients.jedis.ZParams;
 
@@ -85,6 +88,94 @@ public interface Redis extends JedisCommands {
 	 */
 	Long setrange(String key, int offset, String value);
 
+	/**
+	 * 返回 key 所关联的二进制值.
+	 *
+	 * @param key
+	 * @return key不存在返回null
+	 */
+	byte[] getBytes(String key);
+
+	/**
+	 * 将二进制值 value 关联到 key.
+	 *
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	String set(String key, byte[] value);
+
+	/**
+	 * 返回哈希表 key 中给定域 field 的二进制值.
+	 *
+	 * @param key
+	 * @param field
+	 * @return
+	 */
+	byte[] hgetBytes(String key, String field);
+
+	/**
+	 * 将哈希表 key 中的域 field 的值设为二进制值 value.
+	 *
+	 * @param key
+	 * @param field
+	 * @param value
+	 * @return
+	 */
+	Long hset(String key, String field, byte[] value);
+
+	/**
+	 * 返回 key 所关联的对象(使用RedisCodec解码).
+	 *
+	 * @param key
+	 * @param clazz 对象类型，String返回get(key)的结果
+	 * @return key不存在返回null
+	 */
+	<T> T get(String key, Class<T> clazz);
+
+	/**
+	 * 将对象 value 编码(RedisCodec)后关联到 key.
+	 *
+	 * @param key
+	 * @param value 不能为null，String等同于set(key, value)
+	 * @return
+	 */
+	<T> String set(String key, T value);
+
+	/**
+	 * 返回哈希表 key 中给定域 field 的对象(使用RedisCodec解码).
+	 *
+	 * @param key
+	 * @param field
+	 * @param clazz
+	 * @return
+	 */
+	<T> T hget(String key, String field, Class<T> clazz);
+
+	/**
+	 * 将哈希表 key 中的域 field 的值设为编码(RedisCodec)后的对象.
+	 *
+	 * @param key
+	 * @param field
+	 * @param value
+	 * @return
+	 */
+	<T> Long hset(String key, String field, T value);
+
+	/**
+	 * 返回管道，多个相互独立的指令一次网络往返发送(非事务).
+	 * 
+	 * @return
+	 */
+	RedisPipeline pipelined();
+
+	/**
+	 * 返回客户端统计数据(指令耗时、获取连接耗时、错误数)，不支持时返回null.
+	 * 
+	 * @return
+	 */
+	RedisMetrics getMetrics();
+
 	/**
 	 * 标记一个事务块的开始.
 	 * 
@@ -224,6 +315,18 @@ public interface Redis extends JedisCommands {
 	 */
 	Set<String> keys(String pattern);
 
+	/**
+	 * 增量迭代key(SCAN)，不会像keys那样阻塞服务器.
+	 * 
+	 * 分片实现会依次迭代每个分片，游标只能用于返回它的Redis对象.
+	 * 
+	 * @param cursor 游标，从"0"开始，返回"0"表示迭代结束
+	 * @param params MATCH、COUNT参数
+	 * @return
+	 * @see io.leopard.redis.util.ScanIterator
+	 */
+	ScanResult<String> scan(String cursor, ScanParams params);
+
 	/**
 	 * 计算给定的一个或多个有序集的并集，并将该并集(结果集)储存到 dstkey.
 	 * 
@@ -414,6 +517,14 @@ public interface Redis extends JedisCommands {
 	 */
 	Object evalAssertSha(String sha, String script);
 
+	/**
+	 * 将脚本加载到服务器的脚本缓存中(SCRIPT LOAD)，返回脚本的sha1校验码.
+	 * 
+	 * @param script 脚本
+	 * @return sha1校验码
+	 */
+	String scriptLoad(String script);
+
 	/**
 	 * 在后台执行一个 AOF文件 重写操作.
 	 * 
@@ -1,11 +1,28 @@
 package io.leopard.redis;
 
+import io.leopard.redis.codec.BinaryCodec;
+import io.leopard.redis.codec.CodecUtil;
+import io.leopard.redis.codec.RedisCodec;
+import io.leopard.redis.monitor.RedisMetrics;
 import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.RedisUtil;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import redis.clients.jedis.BinaryClient.LIST_POSITION;
 import redis.clients.jedis.BitPosParams;
@@ -27,14 +44,46 @@ import redis.clients.jedis.params.sortedset.ZIncrByParams;
 /**
  * Redis接口实现(一个指令在所有服务器执行).
  * 
+ * 写指令并发发送到所有服务器，成功数达到writeQuorum即返回；非幂等的写指令(INCR、APPEND、LPUSH、脚本等)不能重试修复，必须所有服务器都成功才返回；
+ * 写失败的服务器数据会与其他服务器不一致，记录在error日志并通过getWriteErrorCount()统计，需要重新同步；读指令发送到当前负载最低的服务器，超过hedgeDelay毫秒未返回时再发送到下一台服务器，取最先返回的结果.
+ * 
  * @author 阿海
  * 
  */
 public class RedisAllImpl implements Redis {
 
+	protected Log logger = LogFactory.getLog(this.getClass());
+
 	protected String[] serverList;
 	protected Redis[] redisList;
 
+	/**
+	 * 写成功的服务器数，小于等于0表示所有服务器.
+	 */
+	private int writeQuorum = 0;
+
+	/**
+	 * 读请求对冲等待时间(毫秒)，小于等于0表示不对冲.
+	 */
+	private long hedgeDelay = 50;
+
+	protected int maxActive;
+
+	protected int timeout;
+
+	/**
+	 * 并发执行指令的线程数，小于等于0时为服务器数×每台服务器的最大连接数(超出的线程只会等待连接).
+	 */
+	private int threads = 0;
+
+	private final AtomicLong writeErrorCount = new AtomicLong();
+
+	private RedisCodec codec = BinaryCodec.getInstance();
+
+	protected ExecutorService executor;
+
+	private Replica[] replicas;
+
 	public Redis[] getRedisList() {
 		return redisList;
 	}
@@ -43,6 +92,55 @@ public class RedisAllImpl implements Redis {
 		this.serverList = serverList;
 	}
 
+	public int getWriteQuorum() {
+		return writeQuorum;
+	}
+
+	public void setWriteQuorum(int writeQuorum) {
+		this.writeQuorum = writeQuorum;
+	}
+
+	public long getHedgeDelay() {
+		return hedgeDelay;
+	}
+
+	public void setHedgeDelay(long hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	public void setMaxActive(int maxActive) {
+		this.maxActive = maxActive;
+	}
+
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * 在单台服务器写失败的次数(包括成功数达到writeQuorum后返回的写指令)，不为0时说明服务器之间的数据可能不一致.
+	 * 
+	 * @return
+	 */
+	public long getWriteErrorCount() {
+		return writeErrorCount.get();
+	}
+
+	public RedisCodec getCodec() {
+		return codec;
+	}
+
+	public void setCodec(RedisCodec codec) {
+		this.codec = codec;
+	}
+
 	@Override
 	public void init() {
 		// super.init();
@@ -50,17 +148,28 @@ public class RedisAllImpl implements Redis {
 			Redis[] redisList = new Redis[serverList.length];
 			for (int i = 0; i < serverList.length; i++) {
 				String server = serverList[i];
-				RedisImpl redis = new RedisImpl();
-				redis.setServer(server);
+				RedisImpl redis = new RedisImpl(server, maxActive, timeout);
 				redis.init();
 				redisList[i] = redis;
 			}
 			this.redisList = redisList;
+			if (redisList.length > 1) {
+				int size = threads;
+				if (size <= 0) {
+					// maxActive小于等于0时连接池默认最大连接数为128
+					size = redisList.length * (maxActive > 0 ? maxActive : 128);
+				}
+				this.executor = RedisUtil.newExecutor("leopard-redis-all", size);
+			}
 		}
 	}
 
 	@Override
 	public void destroy() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
 		if (redisList != null) {
 			for (Redis redis : redisList) {
 				redis.destroy();
@@ -69,448 +178,1162 @@ public class RedisAllImpl implements Redis {
 		// super.destroy();
 	}
 
+	/**
+	 * 在一台服务器上执行的指令.
+	 */
+	protected static interface Command<T> {
+		T execute(Redis redis);
+	}
+
+	/**
+	 * 服务器及其负载统计(正在执行的请求数、平均耗时).
+	 */
+	protected static class Replica {
+		private final Redis redis;
+		private final String server;
+		private final AtomicInteger active = new AtomicInteger();
+		private volatile long latency;
+
+		public Replica(Redis redis, String server) {
+			this.redis = redis;
+			this.server = server;
+		}
+
+		public <T> T execute(Command<T> command) {
+			active.incrementAndGet();
+			long start = System.nanoTime();
+			try {
+				return command.execute(redis);
+			}
+			finally {
+				long time = System.nanoTime() - start;
+				long latency = this.latency;
+				// 指数加权移动平均
+				this.latency = (latency == 0) ? time : (latency * 7 + time) / 8;
+				active.decrementAndGet();
+			}
+		}
+
+		public <T> Callable<T> toCallable(final Command<T> command) {
+			return new Callable<T>() {
+				@Override
+				public T call() {
+					return execute(command);
+				}
+			};
+		}
+
+		public int getActive() {
+			return active.get();
+		}
+
+		public long getLatency() {
+			return latency;
+		}
+	}
+
+	protected Replica[] getReplicas() {
+		Replica[] replicas = this.replicas;
+		Redis[] redisList = this.redisList;
+		if (replicas == null || replicas.length != redisList.length || replicas[0].redis != redisList[0]) {
+			replicas = new Replica[redisList.length];
+			for (int i = 0; i < redisList.length; i++) {
+				String server = (serverList != null && serverList.length == redisList.length) ? serverList[i] : String.valueOf(i);
+				replicas[i] = new Replica(redisList[i], server);
+			}
+			this.replicas = replicas;
+		}
+		return replicas;
+	}
+
+	/**
+	 * 按负载从低到高排序(先比较正在执行的请求数，再比较平均耗时).
+	 */
+	protected Replica[] sortByLoad(Replica[] replicas) {
+		Replica[] sorted = new Replica[replicas.length];
+		int[] active = new int[replicas.length];
+		for (int i = 0; i < replicas.length; i++) {
+			Replica replica = replicas[i];
+			int load = replica.getActive();
+			int j = i;
+			while (j > 0 && (active[j - 1] > load || (active[j - 1] == load && sorted[j - 1].getLatency() > replica.getLatency()))) {
+				sorted[j] = sorted[j - 1];
+				active[j] = active[j - 1];
+				j--;
+			}
+			sorted[j] = replica;
+			active[j] = load;
+		}
+		return sorted;
+	}
+
+	/**
+	 * 写指令，在所有服务器执行，成功数达到writeQuorum时返回第一个成功的结果.
+	 */
+	protected <T> T write(Command<T> command) {
+		return this.write(command, writeQuorum);
+	}
+
+	/**
+	 * 非幂等的写指令，在所有服务器执行，所有服务器都成功才返回(不受writeQuorum影响).
+	 */
+	protected <T> T writeAll(Command<T> command) {
+		return this.write(command, 0);
+	}
+
+	/**
+	 * 写指令，在所有服务器执行，成功数达到quorum时返回第一个成功的结果.
+	 * 
+	 * @param command
+	 * @param quorum 写成功的服务器数，小于等于0表示所有服务器
+	 * @return
+	 */
+	protected <T> T write(final Command<T> command, int quorum) {
+		Replica[] replicas = this.getReplicas();
+		quorum = quorum <= 0 ? replicas.length : Math.min(quorum, replicas.length);
+		T result = null;
+		int success = 0;
+		RuntimeException error = null;
+		if (executor == null || replicas.length == 1) {
+			for (Replica replica : replicas) {
+				try {
+					T data = this.write(replica, command);
+					if (success == 0) {
+						result = data;
+					}
+					success++;
+				}
+				catch (RuntimeException e) {
+					error = e;
+				}
+			}
+			if (success < quorum) {
+				throw error;
+			}
+			return result;
+		}
+		CompletionService<T> service = new ExecutorCompletionService<T>(executor);
+		for (final Replica replica : replicas) {
+			service.submit(new Callable<T>() {
+				@Override
+				public T call() {
+					return write(replica, command);
+				}
+			});
+		}
+		int failure = 0;
+		while (true) {
+			Future<T> future = take(service);
+			try {
+				T data = RedisUtil.getFutureResult(future);
+				if (success == 0) {
+					result = data;
+				}
+				success++;
+				if (success >= quorum) {
+					return result;
+				}
+			}
+			catch (RuntimeException e) {
+				error = e;
+				failure++;
+				if (replicas.length - failure < quorum) {
+					throw error;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 在一台服务器执行写指令，失败时记录日志和次数(达到writeQuorum返回后才失败的也会记录).
+	 */
+	private <T> T write(Replica replica, Command<T> command) {
+		try {
+			return replica.execute(command);
+		}
+		catch (RuntimeException e) {
+			writeErrorCount.incrementAndGet();
+			logger.error("服务器[" + replica.server + "]写入失败，数据可能与其他服务器不一致:" + e.getMessage(), e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 游标类读指令(SCAN/HSCAN/SSCAN/ZSCAN)，游标只在返回它的服务器有效，固定在第一台服务器执行.
+	 */
+	protected <T> T readCursor(Command<T> command) {
+		return this.getReplicas()[0].execute(command);
+	}
+
+	/**
+	 * 只在第一台服务器执行的指令(如PUBLISH，在所有服务器执行时订阅者会收到多份消息).
+	 */
+	protected <T> T executeOnFirst(Command<T> command) {
+		return this.getReplicas()[0].execute(command);
+	}
+
+	/**
+	 * 读指令，在负载最低的服务器执行，超过hedgeDelay未返回或执行出错时发送到下一台服务器.
+	 */
+	protected <T> T read(Command<T> command) {
+		Replica[] replicas = this.sortByLoad(this.getReplicas());
+		RuntimeException error = null;
+		if (executor == null || replicas.length == 1) {
+			for (Replica replica : replicas) {
+				try {
+					return replica.execute(command);
+				}
+				catch (RuntimeException e) {
+					error = e;
+				}
+			}
+			throw error;
+		}
+		CompletionService<T> service = new ExecutorCompletionService<T>(executor);
+		service.submit(replicas[0].toCallable(command));
+		int submitted = 1;
+		int failure = 0;
+		while (true) {
+			Future<T> future;
+			if (hedgeDelay > 0 && submitted < replicas.length) {
+				future = poll(service, hedgeDelay);
+				if (future == null) {
+					service.submit(replicas[submitted++].toCallable(command));
+					continue;
+				}
+			}
+			else {
+				future = take(service);
+			}
+			try {
+				return RedisUtil.getFutureResult(future);
+			}
+			catch (RuntimeException e) {
+				error = e;
+				failure++;
+				if (submitted < replicas.length) {
+					service.submit(replicas[submitted++].toCallable(command));
+				}
+				else if (failure >= submitted) {
+					throw error;
+				}
+			}
+		}
+	}
+
+	private static <T> Future<T> take(CompletionService<T> service) {
+		try {
+			return service.take();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	private static <T> Future<T> poll(CompletionService<T> service, long timeout) {
+		try {
+			return service.poll(timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
 	@Override
-	public Long append(String key, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long append(final String key, final String value) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.append(key, value);
+			}
+		});
 	}
 
 	@Override
-	public String set(String key, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String set(final String key, final String value) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.set(key, value);
+			}
+		});
 	}
 
 	@Override
-	public Long expire(String key, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long expire(final String key, final int seconds) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.expire(key, seconds);
+			}
+		});
 	}
 
 	@Override
-	public Long ttl(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long ttl(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.ttl(key);
+			}
+		});
 	}
 
 	@Override
-	public Long incr(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long incr(final String key) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.incr(key);
+			}
+		});
 	}
 
 	@Override
-	public String get(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String get(final String key) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.get(key);
+			}
+		});
 	}
 
 	@Override
-	public String getSet(String key, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String getSet(final String key, final String value) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.getSet(key, value);
+			}
+		});
 	}
 
 	@Override
-	public Long zcard(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zcard(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zcard(key);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrevrangeWithScores(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrevrangeWithScores(final String key, final long start, final long end) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrevrangeWithScores(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrange(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrevrange(final String key, final long start, final long end) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrange(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrange(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrange(final String key, final long start, final long end) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrange(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Long zadd(String key, double score, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zadd(final String key, final double score, final String member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zadd(key, score, member);
+			}
+		});
 	}
 
 	@Override
-	public Long zadd(String key, Map<String, Double> scoreMembers) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zadd(final String key, final Map<String, Double> scoreMembers) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zadd(key, scoreMembers);
+			}
+		});
 	}
 
 	@Override
-	public Long srem(String key, String... member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long srem(final String key, final String... member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.srem(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Boolean exists(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean exists(final String key) {
+		return this.read(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.exists(key);
+			}
+		});
 	}
 
 	@Override
-	public String type(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String type(final String key) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.type(key);
+			}
+		});
 	}
 
 	@Override
-	public Long expireAt(String key, long unixTime) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long expireAt(final String key, final long unixTime) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.expireAt(key, unixTime);
+			}
+		});
 	}
 
 	@Override
-	public Boolean setbit(String key, long offset, boolean value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean setbit(final String key, final long offset, final boolean value) {
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.setbit(key, offset, value);
+			}
+		});
 	}
 
 	@Override
-	public Boolean getbit(String key, long offset) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean getbit(final String key, final long offset) {
+		return this.read(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.getbit(key, offset);
+			}
+		});
 	}
 
 	@Override
-	public String getrange(String key, long startOffset, long endOffset) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String getrange(final String key, final long startOffset, final long endOffset) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.getrange(key, startOffset, endOffset);
+			}
+		});
 	}
 
 	@Override
-	public Long setnx(String key, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long setnx(final String key, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.setnx(key, value);
+			}
+		});
 	}
 
 	@Override
-	public String setex(String key, int seconds, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String setex(final String key, final int seconds, final String value) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.setex(key, seconds, value);
+			}
+		});
 	}
 
 	@Override
-	public Long decrBy(String key, long integer) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long decrBy(final String key, final long integer) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.decrBy(key, integer);
+			}
+		});
 	}
 
 	@Override
-	public Long decr(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long decr(final String key) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.decr(key);
+			}
+		});
 	}
 
 	@Override
-	public Long incrBy(String key, long integer) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long incrBy(final String key, final long integer) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.incrBy(key, integer);
+			}
+		});
 	}
 
 	@Override
-	public String substr(String key, int start, int end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String substr(final String key, final int start, final int end) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.substr(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Long hset(String key, String field, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hset(final String key, final String field, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hset(key, field, value);
+			}
+		});
 	}
 
 	@Override
-	public Long hset(String key, long field, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hset(final String key, final long field, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hset(key, field, value);
+			}
+		});
 	}
 
 	@Override
-	public String hget(String key, String field) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String hget(final String key, final String field) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.hget(key, field);
+			}
+		});
 	}
 
 	@Override
-	public Long hsetnx(String key, String field, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hsetnx(final String key, final String field, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hsetnx(key, field, value);
+			}
+		});
 	}
 
 	@Override
-	public String hmset(String key, Map<String, String> hash) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String hmset(final String key, final Map<String, String> hash) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.hmset(key, hash);
+			}
+		});
 	}
 
 	@Override
-	public List<String> hmget(String key, String... fields) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> hmget(final String key, final String... fields) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.hmget(key, fields);
+			}
+		});
 	}
 
 	@Override
-	public Long hincrBy(String key, String field, long value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hincrBy(final String key, final String field, final long value) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hincrBy(key, field, value);
+			}
+		});
 	}
 
 	@Override
-	public Boolean hexists(String key, String field) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean hexists(final String key, final String field) {
+		return this.read(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.hexists(key, field);
+			}
+		});
 	}
 
 	@Override
-	public Long hdel(String key, String... field) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hdel(final String key, final String... field) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hdel(key, field);
+			}
+		});
 	}
 
 	@Override
-	public Long hlen(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hlen(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hlen(key);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> hkeys(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> hkeys(final String key) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.hkeys(key);
+			}
+		});
 	}
 
 	@Override
-	public List<String> hvals(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> hvals(final String key) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.hvals(key);
+			}
+		});
 	}
 
 	@Override
-	public Map<String, String> hgetAll(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Map<String, String> hgetAll(final String key) {
+		return this.read(new Command<Map<String, String>>() {
+			@Override
+			public Map<String, String> execute(Redis redis) {
+				return redis.hgetAll(key);
+			}
+		});
 	}
 
 	@Override
-	public Long rpush(String key, String... strings) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long rpush(final String key, final String... strings) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.rpush(key, strings);
+			}
+		});
 	}
 
 	@Override
-	public Long lpush(String key, String... strings) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long lpush(final String key, final String... strings) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.lpush(key, strings);
+			}
+		});
 	}
 
 	@Override
-	public Long llen(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long llen(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.llen(key);
+			}
+		});
 	}
 
 	@Override
-	public List<String> lrange(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> lrange(final String key, final long start, final long end) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.lrange(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public String ltrim(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String ltrim(final String key, final long start, final long end) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.ltrim(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public String lindex(String key, long index) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String lindex(final String key, final long index) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.lindex(key, index);
+			}
+		});
 	}
 
 	@Override
-	public String lset(String key, long index, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String lset(final String key, final long index, final String value) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.lset(key, index, value);
+			}
+		});
 	}
 
 	@Override
-	public Long lrem(String key, long count, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long lrem(final String key, final long count, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.lrem(key, count, value);
+			}
+		});
 	}
 
 	@Override
-	public String lpop(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String lpop(final String key) {
+		return this.writeAll(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.lpop(key);
+			}
+		});
 	}
 
 	@Override
-	public String rpop(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String rpop(final String key) {
+		return this.writeAll(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.rpop(key);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> smembers(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> smembers(final String key) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.smembers(key);
+			}
+		});
 	}
 
+	/**
+	 * 各服务器SPOP弹出的元素不同，先用SRANDMEMBER选出元素，再在所有服务器SREM(被并发弹出时重新选择，最多重试10次).
+	 */
 	@Override
-	public String spop(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String spop(final String key) {
+		String member = null;
+		for (int i = 0; i < 10; i++) {
+			member = this.srandmember(key);
+			if (member == null) {
+				return null;
+			}
+			final String value = member;
+			Long count = this.writeAll(new Command<Long>() {
+				@Override
+				public Long execute(Redis redis) {
+					return redis.srem(key, value);
+				}
+			});
+			if (count != null && count > 0) {
+				return member;
+			}
+		}
+		return member;
 	}
 
 	@Override
-	public Long scard(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long scard(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.scard(key);
+			}
+		});
 	}
 
 	@Override
-	public Boolean sismember(String key, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean sismember(final String key, final String member) {
+		return this.read(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.sismember(key, member);
+			}
+		});
 	}
 
 	@Override
-	public String srandmember(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String srandmember(final String key) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.srandmember(key);
+			}
+		});
 	}
 
 	@Override
-	public Long zrem(String key, String... members) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zrem(final String key, final String... members) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zrem(key, members);
+			}
+		});
 	}
 
 	@Override
-	public Double zincrby(String key, double score, long member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Double zincrby(final String key, final double score, final long member) {
+		return this.writeAll(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.zincrby(key, score, member);
+			}
+		});
 	}
 
 	@Override
-	public Double zincrby(String key, double score, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Double zincrby(final String key, final double score, final String member) {
+		return this.writeAll(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.zincrby(key, score, member);
+			}
+		});
 	}
 
 	@Override
-	public Long zrank(String key, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zrank(final String key, final String member) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zrank(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Long zrevrank(String key, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zrevrank(final String key, final String member) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zrevrank(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrangeWithScores(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrangeWithScores(final String key, final long start, final long end) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrangeWithScores(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Double zscore(String key, String member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Double zscore(final String key, final String member) {
+		return this.read(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.zscore(key, member);
+			}
+		});
 	}
 
 	@Override
 	public Double zscore(final String key, final long member) {
-		return this.zscore(key, Long.toString(member));
+		return this.read(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.zscore(key, member);
+			}
+		});
 	}
 
 	@Override
-	public List<String> sort(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> sort(final String key) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.sort(key);
+			}
+		});
 	}
 
 	@Override
-	public List<String> sort(String key, SortingParams sortingParameters) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> sort(final String key, final SortingParams sortingParameters) {
+		return this.write(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.sort(key, sortingParameters);
+			}
+		});
 	}
 
 	@Override
-	public Long zcount(String key, double min, double max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zcount(final String key, final double min, final double max) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zcount(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Long zcount(String key, String min, String max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zcount(final String key, final String min, final String max) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zcount(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByScore(String key, double min, double max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrangeByScore(final String key, final double min, final double max) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByScore(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByScore(String key, String min, String max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrangeByScore(final String key, final String min, final String max) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByScore(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByScore(String key, String min, String max, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrangeByScore(final String key, final String min, final String max, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByScore(key, min, max, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByScore(String key, double max, double min) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrevrangeByScore(final String key, final double max, final double min) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByScore(key, max, min);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByScore(String key, String max, String min, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrevrangeByScore(final String key, final String max, final String min, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByScore(key, max, min, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByScore(String key, String max, String min) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrevrangeByScore(final String key, final String max, final String min) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByScore(key, max, min);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrangeByScore(final String key, final double min, final double max, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByScore(key, min, max, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zrevrangeByScore(final String key, final double max, final double min, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByScore(key, max, min, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrangeByScoreWithScores(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max, final int offset, final int count) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrangeByScoreWithScores(key, min, max, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrangeByScoreWithScores(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrevrangeByScoreWithScores(key, max, min);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min, final int offset, final int count) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrevrangeByScoreWithScores(key, max, min, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrevrangeByScoreWithScores(key, max, min);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max, final int offset, final int count) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrangeByScoreWithScores(key, min, max, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min, final int offset, final int count) {
+		return this.read(new Command<Set<Tuple>>() {
+			@Override
+			public Set<Tuple> execute(Redis redis) {
+				return redis.zrevrangeByScoreWithScores(key, max, min, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Long zremrangeByRank(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zremrangeByRank(final String key, final long start, final long end) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zremrangeByRank(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Long zremrangeByScore(String key, double start, double end) {
-		Long result = null;
-		for (Redis redis : this.redisList) {
-			result = redis.zremrangeByScore(key, start, end);
-		}
-		return result;
+	public Long zremrangeByScore(final String key, final double start, final double end) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zremrangeByScore(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Long zremrangeByScore(String key, String start, String end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zremrangeByScore(final String key, final String start, final String end) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zremrangeByScore(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public Long linsert(String key, LIST_POSITION where, String pivot, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long linsert(final String key, final LIST_POSITION where, final String pivot, final String value) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.linsert(key, where, pivot, value);
+			}
+		});
 	}
 
 	@Override
-	public Long lpushx(String key, String string) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long lpushx(final String key, final String string) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.lpushx(key, string);
+			}
+		});
 	}
 
 	@Override
-	public Long rpushx(String key, String string) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long rpushx(final String key, final String string) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.rpushx(key, string);
+			}
+		});
 	}
 
 	@Override
@@ -519,30 +1342,139 @@ public class RedisAllImpl implements Redis {
 	}
 
 	@Override
-	public boolean append(String key, String value, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean append(final String key, final String value, final int seconds) {
+		return this.writeAll(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.append(key, value, seconds);
+			}
+		});
 	}
 
 	@Override
-	public boolean rename(String oldkey, String newkey) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean rename(final String oldkey, final String newkey) {
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.rename(oldkey, newkey);
+			}
+		});
 	}
 
 	@Override
-	public Long setrange(String key, long offset, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long setrange(final String key, final long offset, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.setrange(key, offset, value);
+			}
+		});
 	}
 
 	@Override
-	public Long setrange(String key, int offset, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long setrange(final String key, final int offset, final String value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.setrange(key, offset, value);
+			}
+		});
+	}
+
+	@Override
+	public byte[] getBytes(final String key) {
+		return this.read(new Command<byte[]>() {
+			@Override
+			public byte[] execute(Redis redis) {
+				return redis.getBytes(key);
+			}
+		});
+	}
+
+	@Override
+	public String set(final String key, final byte[] value) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.set(key, value);
+			}
+		});
+	}
+
+	@Override
+	public byte[] hgetBytes(final String key, final String field) {
+		return this.read(new Command<byte[]>() {
+			@Override
+			public byte[] execute(Redis redis) {
+				return redis.hgetBytes(key, field);
+			}
+		});
+	}
+
+	@Override
+	public Long hset(final String key, final String field, final byte[] value) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hset(key, field, value);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.get(key);
+		}
+		return CodecUtil.decode(codec, this.getBytes(key), clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		if (value instanceof String) {
+			return this.set(key, (String) value);
+		}
+		return this.set(key, CodecUtil.encode(codec, value));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.hget(key, field);
+		}
+		return CodecUtil.decode(codec, this.hgetBytes(key, field), clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		if (value instanceof String) {
+			return this.hset(key, field, (String) value);
+		}
+		return this.hset(key, field, CodecUtil.encode(codec, value));
+	}
+
+	@Override
+	public Long sadd(final String key, final String... members) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.sadd(key, members);
+			}
+		});
 	}
 
 	@Override
-	public Long sadd(String key, String... members) {
+	public RedisPipeline pipelined() {
 		throw new UnsupportedOperationException("Not Implemented");
 	}
 
+	@Override
+	public RedisMetrics getMetrics() {
+		return RedisUtil.mergeMetrics(redisList);
+	}
+
 	@Override
 	public Transaction multi() {
 		throw new UnsupportedOperationException("Not Implemented");
@@ -550,65 +1482,112 @@ public class RedisAllImpl implements Redis {
 
 	@Override
 	public boolean flushDB() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.flushDB();
+			}
+		});
 	}
 
 	@Override
 	public RedisInfo info() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.read(new Command<RedisInfo>() {
+			@Override
+			public RedisInfo execute(Redis redis) {
+				return redis.info();
+			}
+		});
 	}
 
 	@Override
-	public boolean rename(String oldkey, String newkey, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean rename(final String oldkey, final String newkey, final int seconds) {
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.rename(oldkey, newkey, seconds);
+			}
+		});
 	}
 
 	@Override
 	public long getUsedMemory() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.getUsedMemory();
+			}
+		});
 	}
 
 	@Override
 	public long dbSize() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.dbSize();
+			}
+		});
 	}
 
 	@Override
-	public String set(String key, String value, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String set(final String key, final String value, final int seconds) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.set(key, value, seconds);
+			}
+		});
 	}
 
 	@Override
 	public boolean flushAll() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.flushAll();
+			}
+		});
 	}
 
 	@Override
-	public boolean set(List<String> keyList, List<String> valueList) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean set(final List<String> keyList, final List<String> valueList) {
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.set(keyList, valueList);
+			}
+		});
 	}
 
 	@Override
-	public boolean append(List<String> keyList, List<String> valueList, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean append(final List<String> keyList, final List<String> valueList, final int seconds) {
+		return this.writeAll(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.append(keyList, valueList, seconds);
+			}
+		});
 	}
 
 	@Override
-	public Long del(String... keys) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long del(final String... keys) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.del(keys);
+			}
+		});
 	}
 
 	@Override
-	public Long del(String key) {
-		// throw new UnsupportedOperationException("Not Implemented");
-		long result = 0;
-		for (Redis redis : redisList) {
-			Long success = redis.del(key);
-			if (success != null && success > 0) {
-				result = 1;
+	public Long del(final String key) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.del(key);
 			}
-		}
-		return result;
+		});
 	}
 
 	@Override
@@ -617,28 +1596,63 @@ public class RedisAllImpl implements Redis {
 	}
 
 	@Override
-	public List<String> mget(String... keys) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> mget(final String... keys) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.mget(keys);
+			}
+		});
 	}
 
 	@Override
-	public Long zinterstore(String dstkey, String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zinterstore(final String dstkey, final String... sets) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zinterstore(dstkey, sets);
+			}
+		});
 	}
 
 	@Override
-	public Long zinterstore(String dstkey, ZParams params, String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zinterstore(final String dstkey, final ZParams params, final String... sets) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zinterstore(dstkey, params, sets);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> keys(String pattern) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> keys(final String pattern) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.keys(pattern);
+			}
+		});
 	}
 
 	@Override
-	public Long zunionstore(String dstkey, String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<String> scan(final String cursor, final ScanParams params) {
+		return this.readCursor(new Command<ScanResult<String>>() {
+			@Override
+			public ScanResult<String> execute(Redis redis) {
+				return redis.scan(cursor, params);
+			}
+		});
+	}
+
+	@Override
+	public Long zunionstore(final String dstkey, final String... sets) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zunionstore(dstkey, sets);
+			}
+		});
 	}
 
 	@Override
@@ -652,8 +1666,13 @@ public class RedisAllImpl implements Redis {
 	// }
 
 	@Override
-	public String hget(String key, long field) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String hget(final String key, final long field) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.hget(key, field);
+			}
+		});
 	}
 
 	// @Override
@@ -667,32 +1686,53 @@ public class RedisAllImpl implements Redis {
 	// }
 
 	@Override
-	public Long hdel(String key, long field) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long hdel(final String key, final long field) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.hdel(key, field);
+			}
+		});
 	}
 
 	@Override
-	public Long zadd(String key, double score, long member) {
-		Long result = null;
-		for (Redis redis : this.redisList) {
-			result = redis.zadd(key, score, member);
-		}
-		return result;
+	public Long zadd(final String key, final double score, final long member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zadd(key, score, member);
+			}
+		});
 	}
 
 	@Override
-	public Long zrem(String key, long member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zrem(final String key, final long member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zrem(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zunionStoreInJava(String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zunionStoreInJava(final String... sets) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zunionStoreInJava(sets);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zunionStoreByScoreInJava(double min, double max, String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> zunionStoreByScoreInJava(final double min, final double max, final String... sets) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zunionStoreByScoreInJava(min, max, sets);
+			}
+		});
 	}
 
 	// @Override
@@ -705,53 +1745,113 @@ public class RedisAllImpl implements Redis {
 	// }
 
 	@Override
-	public Object evalsha(String script) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object evalsha(final String script) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.evalsha(script);
+			}
+		});
 	}
 
 	@Override
-	public Object eval(String script) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object eval(final String script) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.eval(script);
+			}
+		});
 	}
 
 	@Override
-	public Object eval(String script, int keyCount, String... params) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object eval(final String script, final int keyCount, final String... params) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.eval(script, keyCount, params);
+			}
+		});
 	}
 
 	@Override
-	public Object evalsha(String sha1, List<String> keys, List<String> args) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object evalsha(final String sha1, final List<String> keys, final List<String> args) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.evalsha(sha1, keys, args);
+			}
+		});
 	}
 
 	@Override
-	public Object evalsha(String sha1, int keyCount, String... params) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object evalsha(final String sha1, final int keyCount, final String... params) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.evalsha(sha1, keyCount, params);
+			}
+		});
 	}
 
 	@Override
-	public String evalReturnSha(String script) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String evalReturnSha(final String script) {
+		return this.writeAll(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.evalReturnSha(script);
+			}
+		});
 	}
 
 	@Override
-	public Object evalAssertSha(String sha, String script) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Object evalAssertSha(final String sha, final String script) {
+		return this.writeAll(new Command<Object>() {
+			@Override
+			public Object execute(Redis redis) {
+				return redis.evalAssertSha(sha, script);
+			}
+		});
+	}
+
+	@Override
+	public String scriptLoad(final String script) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.scriptLoad(script);
+			}
+		});
 	}
 
 	@Override
 	public String bgrewriteaof() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.bgrewriteaof();
+			}
+		});
 	}
 
 	@Override
 	public String bgsave() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.bgsave();
+			}
+		});
 	}
 
 	@Override
 	public String save() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.save();
+			}
+		});
 	}
 
 	@Override
@@ -760,8 +1860,13 @@ public class RedisAllImpl implements Redis {
 	}
 
 	@Override
-	public Long publish(String channel, String message) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long publish(final String channel, final String message) {
+		return this.executeOnFirst(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.publish(channel, message);
+			}
+		});
 	}
 
 	@Override
@@ -775,43 +1880,83 @@ public class RedisAllImpl implements Redis {
 	}
 
 	@Override
-	public Set<String> sdiff(String... keys) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Set<String> sdiff(final String... keys) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.sdiff(keys);
+			}
+		});
 	}
 
 	@Override
-	public Long zunionstore(String dstkey, ZParams params, String... sets) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long zunionstore(final String dstkey, final ZParams params, final String... sets) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zunionstore(dstkey, params, sets);
+			}
+		});
 	}
 
 	@Override
 	public String randomKey() {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.randomKey();
+			}
+		});
 	}
 
 	@Override
-	public Long persist(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long persist(final String key) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.persist(key);
+			}
+		});
 	}
 
 	@Override
-	public Boolean setbit(String key, long offset, String value) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Boolean setbit(final String key, final long offset, final String value) {
+		return this.write(new Command<Boolean>() {
+			@Override
+			public Boolean execute(Redis redis) {
+				return redis.setbit(key, offset, value);
+			}
+		});
 	}
 
 	@Override
-	public Long strlen(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long strlen(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.strlen(key);
+			}
+		});
 	}
 
 	@Override
-	public Long lpushx(String key, String... string) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long lpushx(final String key, final String... string) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.lpushx(key, string);
+			}
+		});
 	}
 
 	@Override
-	public Long rpushx(String key, String... string) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long rpushx(final String key, final String... string) {
+		return this.writeAll(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.rpushx(key, string);
+			}
+		});
 	}
 
 	@Override
@@ -825,298 +1970,516 @@ public class RedisAllImpl implements Redis {
 	}
 
 	@Override
-	public String echo(String string) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String echo(final String string) {
+		return this.read(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.echo(string);
+			}
+		});
 	}
 
 	@Override
-	public Long move(String key, int dbIndex) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long move(final String key, final int dbIndex) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.move(key, dbIndex);
+			}
+		});
 	}
 
 	@Override
-	public Long bitcount(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long bitcount(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.bitcount(key);
+			}
+		});
 	}
 
 	@Override
-	public Long bitcount(String key, long start, long end) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long bitcount(final String key, final long start, final long end) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.bitcount(key, start, end);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<Entry<String, String>> hscan(final String key, final int cursor) {
+		return this.readCursor(new Command<ScanResult<Entry<String, String>>>() {
+			@Override
+			public ScanResult<Entry<String, String>> execute(Redis redis) {
+				return redis.hscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<String> sscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<String> sscan(final String key, final int cursor) {
+		return this.readCursor(new Command<ScanResult<String>>() {
+			@Override
+			public ScanResult<String> execute(Redis redis) {
+				return redis.sscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Tuple> zscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<Tuple> zscan(final String key, final int cursor) {
+		return this.readCursor(new Command<ScanResult<Tuple>>() {
+			@Override
+			public ScanResult<Tuple> execute(Redis redis) {
+				return redis.zscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<Entry<String, String>> hscan(final String key, final String cursor) {
+		return this.readCursor(new Command<ScanResult<Entry<String, String>>>() {
+			@Override
+			public ScanResult<Entry<String, String>> execute(Redis redis) {
+				return redis.hscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<String> sscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<String> sscan(final String key, final String cursor) {
+		return this.readCursor(new Command<ScanResult<String>>() {
+			@Override
+			public ScanResult<String> execute(Redis redis) {
+				return redis.sscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Tuple> zscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public ScanResult<Tuple> zscan(final String key, final String cursor) {
+		return this.readCursor(new Command<ScanResult<Tuple>>() {
+			@Override
+			public ScanResult<Tuple> execute(Redis redis) {
+				return redis.zscan(key, cursor);
+			}
+		});
 	}
 
 	@Override
-	public Long pfadd(String key, String... elements) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long pfadd(final String key, final String... elements) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.pfadd(key, elements);
+			}
+		});
 	}
 
 	@Override
-	public long pfcount(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public long pfcount(final String key) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.pfcount(key);
+			}
+		});
 	}
 
 	@Override
-	public String set(String key, String arg1, String arg2, String arg3, long arg4) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String set(final String key, final String arg1, final String arg2, final String arg3, final long arg4) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.set(key, arg1, arg2, arg3, arg4);
+			}
+		});
 	}
 
 	@Override
-	public List<String> srandmember(String key, int count) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public List<String> srandmember(final String key, final int count) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.srandmember(key, count);
+			}
+		});
 	}
 
 	@Override
-	public Long pexpire(String key, long milliseconds) {
-
-		return null;
+	public Long pexpire(final String key, final long milliseconds) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.pexpire(key, milliseconds);
+			}
+		});
 	}
 
 	@Override
-	public Long pexpireAt(String key, long millisecondsTimestamp) {
-
-		return null;
+	public Long pexpireAt(final String key, final long millisecondsTimestamp) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.pexpireAt(key, millisecondsTimestamp);
+			}
+		});
 	}
 
 	@Override
-	public Double incrByFloat(String key, double value) {
-
-		return null;
+	public Double incrByFloat(final String key, final double value) {
+		return this.writeAll(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.incrByFloat(key, value);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> spop(String key, long count) {
-
-		return null;
+	public Set<String> spop(final String key, final long count) {
+		Set<String> set = new LinkedHashSet<String>();
+		for (long i = 0; i < count; i++) {
+			String member = this.spop(key);
+			if (member == null) {
+				break;
+			}
+			set.add(member);
+		}
+		return set;
 	}
 
 	@Override
-	public Long zlexcount(String key, String min, String max) {
-
-		return null;
+	public Long zlexcount(final String key, final String min, final String max) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zlexcount(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByLex(String key, String min, String max) {
-
-		return null;
+	public Set<String> zrangeByLex(final String key, final String min, final String max) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByLex(key, min, max);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrangeByLex(String key, String min, String max, int offset, int count) {
-
-		return null;
+	public Set<String> zrangeByLex(final String key, final String min, final String max, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrangeByLex(key, min, max, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByLex(String key, String max, String min) {
-
-		return null;
+	public Set<String> zrevrangeByLex(final String key, final String max, final String min) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByLex(key, max, min);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> zrevrangeByLex(String key, String max, String min, int offset, int count) {
-
-		return null;
+	public Set<String> zrevrangeByLex(final String key, final String max, final String min, final int offset, final int count) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.zrevrangeByLex(key, max, min, offset, count);
+			}
+		});
 	}
 
 	@Override
-	public Long zremrangeByLex(String key, String min, String max) {
-
-		return null;
+	public Long zremrangeByLex(final String key, final String min, final String max) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zremrangeByLex(key, min, max);
+			}
+		});
 	}
 
 	@Override
 	public List<String> blpop(int timeout, String key) {
-
-		return null;
+		throw new UnsupportedOperationException("Not Implemented");
 	}
 
 	@Override
 	public List<String> brpop(int timeout, String key) {
-
-		return null;
+		throw new UnsupportedOperationException("Not Implemented");
 	}
 
 	@Override
-	public Long sdiffstore(String dstkey, String... keys) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long sdiffstore(final String dstkey, final String... keys) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.sdiffstore(dstkey, keys);
+			}
+		});
 	}
 
 	@Override
-	public Long sadd(String key, long member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long sadd(final String key, final long member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.sadd(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Long srem(String key, long member) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public Long srem(final String key, final long member) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.srem(key, member);
+			}
+		});
 	}
 
 	@Override
-	public Long bitpos(String arg0, boolean arg1) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long bitpos(final String arg0, final boolean arg1) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.bitpos(arg0, arg1);
+			}
+		});
 	}
 
 	@Override
-	public Long bitpos(String arg0, boolean arg1, BitPosParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long bitpos(final String arg0, final boolean arg1, final BitPosParams arg2) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.bitpos(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Long geoadd(String arg0, Map<String, GeoCoordinate> arg1) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long geoadd(final String arg0, final Map<String, GeoCoordinate> arg1) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.geoadd(arg0, arg1);
+			}
+		});
 	}
 
 	@Override
-	public Long geoadd(String arg0, double arg1, double arg2, String arg3) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long geoadd(final String arg0, final double arg1, final double arg2, final String arg3) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.geoadd(arg0, arg1, arg2, arg3);
+			}
+		});
 	}
 
 	@Override
-	public Double geodist(String arg0, String arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public Double geodist(final String arg0, final String arg1, final String arg2) {
+		return this.read(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.geodist(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Double geodist(String arg0, String arg1, String arg2, GeoUnit arg3) {
-		// TODO Auto-generated method stub
-		return null;
+	public Double geodist(final String arg0, final String arg1, final String arg2, final GeoUnit arg3) {
+		return this.read(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.geodist(arg0, arg1, arg2, arg3);
+			}
+		});
 	}
 
 	@Override
-	public List<String> geohash(String arg0, String... arg1) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<String> geohash(final String arg0, final String... arg1) {
+		return this.read(new Command<List<String>>() {
+			@Override
+			public List<String> execute(Redis redis) {
+				return redis.geohash(arg0, arg1);
+			}
+		});
 	}
 
 	@Override
-	public List<GeoCoordinate> geopos(String arg0, String... arg1) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<GeoCoordinate> geopos(final String arg0, final String... arg1) {
+		return this.read(new Command<List<GeoCoordinate>>() {
+			@Override
+			public List<GeoCoordinate> execute(Redis redis) {
+				return redis.geopos(arg0, arg1);
+			}
+		});
 	}
 
 	@Override
-	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<GeoRadiusResponse> georadius(final String arg0, final double arg1, final double arg2, final double arg3, final GeoUnit arg4) {
+		return this.read(new Command<List<GeoRadiusResponse>>() {
+			@Override
+			public List<GeoRadiusResponse> execute(Redis redis) {
+				return redis.georadius(arg0, arg1, arg2, arg3, arg4);
+			}
+		});
 	}
 
 	@Override
-	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4, GeoRadiusParam arg5) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<GeoRadiusResponse> georadius(final String arg0, final double arg1, final double arg2, final double arg3, final GeoUnit arg4, final GeoRadiusParam arg5) {
+		return this.read(new Command<List<GeoRadiusResponse>>() {
+			@Override
+			public List<GeoRadiusResponse> execute(Redis redis) {
+				return redis.georadius(arg0, arg1, arg2, arg3, arg4, arg5);
+			}
+		});
 	}
 
 	@Override
-	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<GeoRadiusResponse> georadiusByMember(final String arg0, final String arg1, final double arg2, final GeoUnit arg3) {
+		return this.read(new Command<List<GeoRadiusResponse>>() {
+			@Override
+			public List<GeoRadiusResponse> execute(Redis redis) {
+				return redis.georadiusByMember(arg0, arg1, arg2, arg3);
+			}
+		});
 	}
 
 	@Override
-	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3, GeoRadiusParam arg4) {
-		// TODO Auto-generated method stub
-		return null;
+	public List<GeoRadiusResponse> georadiusByMember(final String arg0, final String arg1, final double arg2, final GeoUnit arg3, final GeoRadiusParam arg4) {
+		return this.read(new Command<List<GeoRadiusResponse>>() {
+			@Override
+			public List<GeoRadiusResponse> execute(Redis redis) {
+				return redis.georadiusByMember(arg0, arg1, arg2, arg3, arg4);
+			}
+		});
 	}
 
 	@Override
-	public Double hincrByFloat(String arg0, String arg1, double arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public Double hincrByFloat(final String arg0, final String arg1, final double arg2) {
+		return this.writeAll(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.hincrByFloat(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Entry<String, String>> hscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return this.readCursor(new Command<ScanResult<Entry<String, String>>>() {
+			@Override
+			public ScanResult<Entry<String, String>> execute(Redis redis) {
+				return redis.hscan(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public String psetex(String arg0, long arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public String psetex(final String arg0, final long arg1, final String arg2) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.psetex(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Long pttl(String arg0) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long pttl(final String arg0) {
+		return this.read(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.pttl(arg0);
+			}
+		});
 	}
 
 	@Override
-	public String set(String arg0, String arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public String set(final String arg0, final String arg1, final String arg2) {
+		return this.write(new Command<String>() {
+			@Override
+			public String execute(Redis redis) {
+				return redis.set(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<String> sscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return this.readCursor(new Command<ScanResult<String>>() {
+			@Override
+			public ScanResult<String> execute(Redis redis) {
+				return redis.sscan(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Long zadd(String arg0, Map<String, Double> arg1, ZAddParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long zadd(final String arg0, final Map<String, Double> arg1, final ZAddParams arg2) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zadd(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Long zadd(String arg0, double arg1, String arg2, ZAddParams arg3) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long zadd(final String arg0, final double arg1, final String arg2, final ZAddParams arg3) {
+		return this.write(new Command<Long>() {
+			@Override
+			public Long execute(Redis redis) {
+				return redis.zadd(arg0, arg1, arg2, arg3);
+			}
+		});
 	}
 
 	@Override
-	public Double zincrby(String arg0, double arg1, String arg2, ZIncrByParams arg3) {
-		// TODO Auto-generated method stub
-		return null;
+	public Double zincrby(final String arg0, final double arg1, final String arg2, final ZIncrByParams arg3) {
+		return this.writeAll(new Command<Double>() {
+			@Override
+			public Double execute(Redis redis) {
+				return redis.zincrby(arg0, arg1, arg2, arg3);
+			}
+		});
 	}
 
 	@Override
-	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Tuple> zscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return this.readCursor(new Command<ScanResult<Tuple>>() {
+			@Override
+			public ScanResult<Tuple> execute(Redis redis) {
+				return redis.zscan(arg0, arg1, arg2);
+			}
+		});
 	}
 
 	@Override
-	public Set<String> sinter(String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+	public Set<String> sinter(final String... keys) {
+		return this.read(new Command<Set<String>>() {
+			@Override
+			public Set<String> execute(Redis redis) {
+				return redis.sinter(keys);
+			}
+		});
 	}
 
 }
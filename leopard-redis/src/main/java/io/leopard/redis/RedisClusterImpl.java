@@ -0,0 +1,2581 @@
+package io.leopard.redis;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import io.leopard.redis.codec.CodecUtil;
+import io.leopard.redis.monitor.RedisMetrics;
+import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.RedisUtil;
+import io.leopard.redis.util.ScriptRegistry;
+import redis.clients.jedis.BinaryClient.LIST_POSITION;
+import redis.clients.jedis.BitPosParams;
+import redis.clients.jedis.GeoCoordinate;
+import redis.clients.jedis.GeoRadiusResponse;
+import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisClusterConnectionHandler;
+import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.SortingParams;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.ZParams;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.params.geo.GeoRadiusParam;
+import redis.clients.jedis.params.sortedset.ZAddParams;
+import redis.clients.jedis.params.sortedset.ZIncrByParams;
+import redis.clients.util.JedisClusterCRC16;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * Redis实现(Redis Cluster).
+ * 
+ * 基于JedisCluster：按CRC16计算key的slot(支持{hash tag})，启动时从节点获取slot分布，收到MOVED时刷新slot分布，ASK时转到目标节点执行，每个节点使用独立的连接池.
+ * 
+ * mget、del、set(keyList, valueList)按slot分组，同一个节点的各slot指令通过一个pipeline发送，不同节点并发执行(threads个线程)，收到MOVED、ASK或连接出错的slot改用JedisCluster重新执行；
+ * 其他多key指令(如sinter、rename、eval)的key必须在同一个slot，可以使用{hash tag}.
+ * 
+ * 统计数据(getMetrics)包含所有节点，指令耗时包含获取连接的时间.
+ * 
+ * keys、dbSize、flushAll等指令在所有master节点执行，不支持pipeline、事务、scan、randomKey和没有key的脚本，不支持value压缩和热点key统计.
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisClusterImpl extends AbstractRedis implements Redis {
+
+	private static final ScriptRegistry SCRIPTS = new ScriptRegistry();
+
+	private ClusterClient cluster;
+
+	private RedisMetrics metrics = new RedisMetrics(null);
+
+	protected ExecutorService executor;
+
+	/**
+	 * 集群节点(host:port)，只需要其中部分节点，其他节点自动发现.
+	 */
+	protected String[] serverList;
+
+	protected int maxRedirections = 5;// MOVED、ASK最大重定向次数
+
+	protected int threads = 16;// 多key指令并发访问节点的线程数
+
+	private interface Invoker {
+		public Object execute(JedisCluster cluster);
+	}
+
+	private interface NodeCommand<T> {
+		public T execute(Jedis jedis);
+	}
+
+	/**
+	 * 按slot分组执行的多key指令.
+	 */
+	private interface SlotCommand<T> {
+		/**
+		 * 在slot所在节点的pipeline中发送.
+		 */
+		public Response<T> send(Pipeline pipeline, String[] keys);
+
+		/**
+		 * 收到MOVED、ASK或连接出错时通过JedisCluster执行.
+		 */
+		public T execute(JedisCluster cluster, String[] keys);
+	}
+
+	/**
+	 * 可以按slot获取连接的JedisCluster.
+	 */
+	private static class ClusterClient extends JedisCluster {
+		private final JedisClusterInfoCache cache;
+
+		public ClusterClient(Set<HostAndPort> nodes, int timeout, int maxRedirections, GenericObjectPoolConfig poolConfig) {
+			super(nodes, timeout, maxRedirections, poolConfig);
+			this.cache = getCache(connectionHandler);
+		}
+
+		/**
+		 * slot所在master节点的连接池(只查本地的slot分布缓存，不获取连接)，slot分布未知时返回null.
+		 */
+		public JedisPool getSlotPool(int slot) {
+			return cache.getSlotPool(slot);
+		}
+
+		/**
+		 * slot分布缓存中的master节点连接池.
+		 */
+		public Set<JedisPool> getMasterPools() {
+			Set<JedisPool> pools = new LinkedHashSet<JedisPool>();
+			for (int slot = 0; slot < HASHSLOTS; slot++) {
+				JedisPool pool = cache.getSlotPool(slot);
+				if (pool != null) {
+					pools.add(pool);
+				}
+			}
+			return pools;
+		}
+
+		/**
+		 * JedisClusterConnectionHandler没有公开slot分布缓存.
+		 */
+		private static JedisClusterInfoCache getCache(JedisClusterConnectionHandler connectionHandler) {
+			try {
+				Field field = JedisClusterConnectionHandler.class.getDeclaredField("cache");
+				field.setAccessible(true);
+				return (JedisClusterInfoCache) field.get(connectionHandler);
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e.getMessage(), e);
+			}
+		}
+	}
+
+	public RedisClusterImpl() {
+
+	}
+
+	public RedisClusterImpl(String[] serverList, int maxActive, int timeout) {
+		this.setServerList(serverList);
+		this.setMaxActive(maxActive);
+		this.setTimeout(timeout);
+	}
+
+	public void setServerList(String[] serverList) {
+		this.serverList = serverList;
+	}
+
+	public void setMaxRedirections(int maxRedirections) {
+		this.maxRedirections = maxRedirections;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public JedisCluster getCluster() {
+		return cluster;
+	}
+
+	@Override
+	public Long append(final String key, final String value) {
+		return (Long) this.execute("append", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.append(key, value);
+			}
+		});
+	}
+
+	@Override
+	public String set(final String key, final String value) {
+		return (String) this.execute("set", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.set(key, value);
+			}
+		});
+	}
+
+	@Override
+	public Long expire(final String key, final int seconds) {
+		return (Long) this.execute("expire", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.expire(key, seconds);
+			}
+		});
+	}
+
+	@Override
+	public Long ttl(final String key) {
+		return (Long) this.execute("ttl", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.ttl(key);
+			}
+		});
+	}
+
+	@Override
+	public Long incr(final String key) {
+		return (Long) this.execute("incr", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.incr(key);
+			}
+		});
+	}
+
+	@Override
+	public String get(final String key) {
+		return (String) this.execute("get", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.get(key);
+			}
+		});
+	}
+
+	@Override
+	public String getSet(final String key, final String value) {
+		return (String) this.execute("getSet", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.getSet(key, value);
+			}
+		});
+	}
+
+	@Override
+	public Long zcard(final String key) {
+		return (Long) this.execute("zcard", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zcard(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrevrangeWithScores(final String key, final long start, final long end) {
+		return (Set<Tuple>) this.execute("zrevrangeWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeWithScores(key, start, end);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrange(final String key, final long start, final long end) {
+		return (Set<String>) this.execute("zrevrange", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrange(key, start, end);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrange(final String key, final long start, final long end) {
+		return (Set<String>) this.execute("zrange", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrange(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Long zadd(final String key, final double score, final String member) {
+		return (Long) this.execute("zadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zadd(key, score, member);
+			}
+		});
+	}
+
+	@Override
+	public Long zadd(final String key, final Map<String, Double> scoreMembers) {
+		return (Long) this.execute("zadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zadd(key, scoreMembers);
+			}
+		});
+	}
+
+	@Override
+	public Long srem(final String key, final String... member) {
+		return (Long) this.execute("srem", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.srem(key, member);
+			}
+		});
+	}
+
+	@Override
+	public Boolean exists(final String key) {
+		return (Boolean) this.execute("exists", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.exists(key);
+			}
+		});
+	}
+
+	@Override
+	public String type(final String key) {
+		return (String) this.execute("type", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.type(key);
+			}
+		});
+	}
+
+	@Override
+	public Long expireAt(final String key, final long unixTime) {
+		return (Long) this.execute("expireAt", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.expireAt(key, unixTime);
+			}
+		});
+	}
+
+	@Override
+	public Boolean setbit(final String key, final long offset, final boolean value) {
+		return (Boolean) this.execute("setbit", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setbit(key, offset, value);
+			}
+		});
+	}
+
+	@Override
+	public Boolean getbit(final String key, final long offset) {
+		return (Boolean) this.execute("getbit", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.getbit(key, offset);
+			}
+		});
+	}
+
+	@Override
+	public String getrange(final String key, final long startOffset, final long endOffset) {
+		return (String) this.execute("getrange", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.getrange(key, startOffset, endOffset);
+			}
+		});
+	}
+
+	@Override
+	public Long setnx(final String key, final String value) {
+		return (Long) this.execute("setnx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setnx(key, value);
+			}
+		});
+	}
+
+	@Override
+	public String setex(final String key, final int seconds, final String value) {
+		return (String) this.execute("setex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setex(key, seconds, value);
+			}
+		});
+	}
+
+	@Override
+	public Long decrBy(final String key, final long integer) {
+		return (Long) this.execute("decrBy", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.decrBy(key, integer);
+			}
+		});
+	}
+
+	@Override
+	public Long decr(final String key) {
+		return (Long) this.execute("decr", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.decr(key);
+			}
+		});
+	}
+
+	@Override
+	public Long incrBy(final String key, final long integer) {
+		return (Long) this.execute("incrBy", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.incrBy(key, integer);
+			}
+		});
+	}
+
+	@Override
+	public String substr(final String key, final int start, final int end) {
+		return (String) this.execute("substr", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.substr(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Long hset(final String key, final String field, final String value) {
+		return (Long) this.execute("hset", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hset(key, field, value);
+			}
+		});
+	}
+
+	@Override
+	public String hget(final String key, final String field) {
+		return (String) this.execute("hget", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hget(key, field);
+			}
+		});
+	}
+
+	@Override
+	public Long hsetnx(final String key, final String field, final String value) {
+		return (Long) this.execute("hsetnx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hsetnx(key, field, value);
+			}
+		});
+	}
+
+	@Override
+	public String hmset(final String key, final Map<String, String> hash) {
+		return (String) this.execute("hmset", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hmset(key, hash);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> hmget(final String key, final String... fields) {
+		return (List<String>) this.execute("hmget", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hmget(key, fields);
+			}
+		});
+	}
+
+	@Override
+	public Long hincrBy(final String key, final String field, final long value) {
+		return (Long) this.execute("hincrBy", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hincrBy(key, field, value);
+			}
+		});
+	}
+
+	@Override
+	public Boolean hexists(final String key, final String field) {
+		return (Boolean) this.execute("hexists", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hexists(key, field);
+			}
+		});
+	}
+
+	@Override
+	public Long hdel(final String key, final String... field) {
+		return (Long) this.execute("hdel", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hdel(key, field);
+			}
+		});
+	}
+
+	@Override
+	public Long hlen(final String key) {
+		return (Long) this.execute("hlen", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hlen(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> hkeys(final String key) {
+		return (Set<String>) this.execute("hkeys", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hkeys(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> hvals(final String key) {
+		return (List<String>) this.execute("hvals", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hvals(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Map<String, String> hgetAll(final String key) {
+		return (Map<String, String>) this.execute("hgetAll", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hgetAll(key);
+			}
+		});
+	}
+
+	@Override
+	public Long rpush(final String key, final String... strings) {
+		return (Long) this.execute("rpush", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.rpush(key, strings);
+			}
+		});
+	}
+
+	@Override
+	public Long lpush(final String key, final String... strings) {
+		return (Long) this.execute("lpush", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lpush(key, strings);
+			}
+		});
+	}
+
+	@Override
+	public Long llen(final String key) {
+		return (Long) this.execute("llen", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.llen(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> lrange(final String key, final long start, final long end) {
+		return (List<String>) this.execute("lrange", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lrange(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public String ltrim(final String key, final long start, final long end) {
+		return (String) this.execute("ltrim", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.ltrim(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public String lindex(final String key, final long index) {
+		return (String) this.execute("lindex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lindex(key, index);
+			}
+		});
+	}
+
+	@Override
+	public String lset(final String key, final long index, final String value) {
+		return (String) this.execute("lset", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lset(key, index, value);
+			}
+		});
+	}
+
+	@Override
+	public Long lrem(final String key, final long count, final String value) {
+		return (Long) this.execute("lrem", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lrem(key, count, value);
+			}
+		});
+	}
+
+	@Override
+	public String lpop(final String key) {
+		return (String) this.execute("lpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lpop(key);
+			}
+		});
+	}
+
+	@Override
+	public String rpop(final String key) {
+		return (String) this.execute("rpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.rpop(key);
+			}
+		});
+	}
+
+	@Override
+	public Long sadd(final String key, final String... members) {
+		return (Long) this.execute("sadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sadd(key, members);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> smembers(final String key) {
+		return (Set<String>) this.execute("smembers", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.smembers(key);
+			}
+		});
+	}
+
+	@Override
+	public String spop(final String key) {
+		return (String) this.execute("spop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.spop(key);
+			}
+		});
+	}
+
+	@Override
+	public Long scard(final String key) {
+		return (Long) this.execute("scard", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.scard(key);
+			}
+		});
+	}
+
+	@Override
+	public Boolean sismember(final String key, final String member) {
+		return (Boolean) this.execute("sismember", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sismember(key, member);
+			}
+		});
+	}
+
+	@Override
+	public String srandmember(final String key) {
+		return (String) this.execute("srandmember", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.srandmember(key);
+			}
+		});
+	}
+
+	@Override
+	public Long zrem(final String key, final String... members) {
+		return (Long) this.execute("zrem", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrem(key, members);
+			}
+		});
+	}
+
+	@Override
+	public Double zincrby(final String key, final double score, final long member) {
+		return (Double) this.execute("zincrby", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zincrby(key, score, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Double zincrby(final String key, final double score, final String member) {
+		return (Double) this.execute("zincrby", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zincrby(key, score, member);
+			}
+		});
+	}
+
+	@Override
+	public Long zrank(final String key, final String member) {
+		return (Long) this.execute("zrank", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrank(key, member);
+			}
+		});
+	}
+
+	@Override
+	public Long zrevrank(final String key, final String member) {
+		return (Long) this.execute("zrevrank", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrank(key, member);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrangeWithScores(final String key, final long start, final long end) {
+		return (Set<Tuple>) this.execute("zrangeWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeWithScores(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Double zscore(final String key, final String member) {
+		return (Double) this.execute("zscore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zscore(key, member);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> sort(final String key) {
+		return (List<String>) this.execute("sort", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sort(key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> sort(final String key, final SortingParams sortingParameters) {
+		return (List<String>) this.execute("sort", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sort(key, sortingParameters);
+			}
+		});
+	}
+
+	@Override
+	public Long zcount(final String key, final double min, final double max) {
+		return (Long) this.execute("zcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zcount(key, min, max);
+			}
+		});
+	}
+
+	@Override
+	public Long zcount(final String key, final String min, final String max) {
+		return (Long) this.execute("zcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zcount(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByScore(final String key, final double min, final double max) {
+		return (Set<String>) this.execute("zrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScore(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByScore(final String key, final String min, final String max) {
+		return (Set<String>) this.execute("zrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScore(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByScore(final String key, final String min, final String max, final int offset, final int count) {
+		return (Set<String>) this.execute("zrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScore(key, min, max, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByScore(final String key, final double max, final double min) {
+		return (Set<String>) this.execute("zrevrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScore(key, max, min);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByScore(final String key, final String max, final String min, final int offset, final int count) {
+		return (Set<String>) this.execute("zrevrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScore(key, max, min, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByScore(final String key, final String max, final String min) {
+		return (Set<String>) this.execute("zrevrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScore(key, max, min);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByScore(final String key, final double min, final double max, final int offset, final int count) {
+		return (Set<String>) this.execute("zrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScore(key, min, max, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByScore(final String key, final double max, final double min, final int offset, final int count) {
+		return (Set<String>) this.execute("zrevrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScore(key, max, min, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max) {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScoreWithScores(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max, final int offset, final int count) {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScoreWithScores(key, min, max, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max) {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScoreWithScores(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min) {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScoreWithScores(key, max, min);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min, final int offset, final int count) {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScoreWithScores(key, max, min, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min) {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScoreWithScores(key, max, min);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max, final int offset, final int count) {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByScoreWithScores(key, min, max, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min, final int offset, final int count) {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByScoreWithScores(key, max, min, offset, count);
+			}
+		});
+	}
+
+	@Override
+	public Long zremrangeByRank(final String key, final long start, final long end) {
+		return (Long) this.execute("zremrangeByRank", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zremrangeByRank(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Long zremrangeByScore(final String key, final double start, final double end) {
+		return (Long) this.execute("zremrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zremrangeByScore(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Long zremrangeByScore(final String key, final String start, final String end) {
+		return (Long) this.execute("zremrangeByScore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zremrangeByScore(key, start, end);
+			}
+		});
+	}
+
+	@Override
+	public Long linsert(final String key, final LIST_POSITION where, final String pivot, final String value) {
+		return (Long) this.execute("linsert", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.linsert(key, where, pivot, value);
+			}
+		});
+	}
+
+	@Override
+	public Long lpushx(final String key, final String string) {
+		return (Long) this.execute("lpushx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lpushx(key, string);
+			}
+		});
+	}
+
+	@Override
+	public Long rpushx(final String key, final String string) {
+		return (Long) this.execute("rpushx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.rpushx(key, string);
+			}
+		});
+	}
+
+	@Override
+	public Long pfadd(final String key, final String... elements) {
+		return (Long) this.execute("pfadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.pfadd(key, elements);
+			}
+		});
+	}
+
+	@Override
+	public long pfcount(final String key) {
+		return (Long) this.execute("pfcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.pfcount(key);
+			}
+		});
+	}
+
+	@Override
+	public String set(final String key, final String arg1, final String arg2, final String arg3, final long arg4) {
+		return (String) this.execute("set", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.set(key, arg1, arg2, arg3, arg4);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> srandmember(final String key, final int count) {
+		return (List<String>) this.execute("srandmember", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.srandmember(key, count);
+			}
+		});
+	}
+
+	@Override
+	public Long persist(final String key) {
+		return (Long) this.execute("persist", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.persist(key);
+			}
+		});
+	}
+
+	@Override
+	public Boolean setbit(final String key, final long offset, final String value) {
+		return (Boolean) this.execute("setbit", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setbit(key, offset, value);
+			}
+		});
+	}
+
+	@Override
+	public Long strlen(final String key) {
+		return (Long) this.execute("strlen", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.strlen(key);
+			}
+		});
+	}
+
+	@Override
+	public Long lpushx(final String key, final String... string) {
+		return (Long) this.execute("lpushx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.lpushx(key, string);
+			}
+		});
+	}
+
+	@Override
+	public Long rpushx(final String key, final String... string) {
+		return (Long) this.execute("rpushx", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.rpushx(key, string);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> blpop(final String arg) {
+		return (List<String>) this.execute("blpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.blpop(arg);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> brpop(final String arg) {
+		return (List<String>) this.execute("brpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.brpop(arg);
+			}
+		});
+	}
+
+	@Override
+	public String echo(final String string) {
+		return (String) this.execute("echo", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.echo(string);
+			}
+		});
+	}
+
+	@Override
+	public Long move(final String key, final int dbIndex) {
+		return (Long) this.execute("move", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.move(key, dbIndex);
+			}
+		});
+	}
+
+	@Override
+	public Long bitcount(final String key) {
+		return (Long) this.execute("bitcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bitcount(key);
+			}
+		});
+	}
+
+	@Override
+	public Long bitcount(final String key, final long start, final long end) {
+		return (Long) this.execute("bitcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bitcount(key, start, end);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Entry<String, String>> hscan(final String key, final int cursor) {
+		return (ScanResult<Entry<String, String>>) this.execute("hscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hscan(key, cursor);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<String> sscan(final String key, final int cursor) {
+		return (ScanResult<String>) this.execute("sscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sscan(key, cursor);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Tuple> zscan(final String key, final int cursor) {
+		return (ScanResult<Tuple>) this.execute("zscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zscan(key, cursor);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Entry<String, String>> hscan(final String key, final String cursor) {
+		return (ScanResult<Entry<String, String>>) this.execute("hscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hscan(key, cursor);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<String> sscan(final String key, final String cursor) {
+		return (ScanResult<String>) this.execute("sscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sscan(key, cursor);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Tuple> zscan(final String key, final String cursor) {
+		return (ScanResult<Tuple>) this.execute("zscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zscan(key, cursor);
+			}
+		});
+	}
+
+	@PostConstruct
+	@Override
+	public void init() {
+		if (serverList == null || serverList.length == 0) {
+			throw new IllegalArgumentException("没有设置集群节点.");
+		}
+		Set<HostAndPort> nodes = new LinkedHashSet<HostAndPort>();
+		for (String server : serverList) {
+			String[] serverInfo = server.trim().split(":");
+			if (serverInfo.length != 2) {
+				throw new IllegalArgumentException("集群节点[" + server + "]格式不对.");
+			}
+			nodes.add(new HostAndPort(serverInfo[0], Integer.parseInt(serverInfo[1])));
+		}
+		int maxActive = this.maxActive <= 0 ? 128 : this.maxActive;
+		JedisPoolConfig poolConfig = new JedisPoolConfig();
+		poolConfig.setMaxTotal(maxActive);
+		poolConfig.setMaxIdle(maxActive);
+		poolConfig.setMinIdle(Math.min(minIdle, maxActive));
+		int timeout = this.timeout <= 0 ? 10000 : this.timeout;
+		this.metrics = new RedisMetrics(this.getServerInfo());
+		this.cluster = new ClusterClient(nodes, timeout, maxRedirections, poolConfig);
+		if (threads > 0) {
+			this.executor = RedisUtil.newExecutor("leopard-redis-cluster", threads);
+		}
+	}
+
+	@PreDestroy
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+		if (cluster == null) {
+			return;
+		}
+		try {
+			cluster.close();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		cluster = null;
+	}
+
+	@Override
+	public IJedisPool getJedisPool() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Jedis getResource() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public boolean append(final String key, final String value, final int seconds) {
+		return (Boolean) this.execute("append", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				cluster.append(key, value);
+				cluster.expire(key, seconds);
+				return true;
+			}
+		});
+	}
+
+	@Override
+	public boolean rename(final String oldkey, final String newkey) {
+		String result = (String) this.execute("rename", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.rename(oldkey, newkey);
+			}
+		});
+		return "OK".equalsIgnoreCase(result);
+	}
+
+	@Override
+	public Long setrange(final String key, final long offset, final String value) {
+		return (Long) this.execute("setrange", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setrange(key, offset, value);
+			}
+		});
+	}
+
+	@Override
+	public Long setrange(String key, int offset, String value) {
+		Long temp = (long) offset;
+		return this.setrange(key, temp, value);
+	}
+
+	@Override
+	public byte[] getBytes(final String key) {
+		return (byte[]) this.execute("getBytes", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.get(SafeEncoder.encode(key));
+			}
+		});
+	}
+
+	@Override
+	public String set(final String key, final byte[] value) {
+		return (String) this.execute("set", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.set(SafeEncoder.encode(key), value);
+			}
+		});
+	}
+
+	@Override
+	public byte[] hgetBytes(final String key, final String field) {
+		return (byte[]) this.execute("hgetBytes", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hget(SafeEncoder.encode(key), SafeEncoder.encode(field));
+			}
+		});
+	}
+
+	@Override
+	public Long hset(final String key, final String field, final byte[] value) {
+		return (Long) this.execute("hset", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hset(SafeEncoder.encode(key), SafeEncoder.encode(field), value);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.get(key);
+		}
+		return CodecUtil.decode(codec, this.getBytes(key), clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		if (value instanceof String) {
+			return this.set(key, (String) value);
+		}
+		return this.set(key, CodecUtil.encode(codec, value));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.hget(key, field);
+		}
+		return CodecUtil.decode(codec, this.hgetBytes(key, field), clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		if (value instanceof String) {
+			return this.hset(key, field, (String) value);
+		}
+		return this.hset(key, field, CodecUtil.encode(codec, value));
+	}
+
+	@Override
+	public RedisPipeline pipelined() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public RedisMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public Transaction multi() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public boolean flushDB() {
+		return this.flushAll();
+	}
+
+	@Override
+	public RedisInfo info() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public boolean rename(String oldkey, String newkey, int seconds) {
+		boolean success = this.rename(oldkey, newkey);
+		this.expire(newkey, seconds);
+		return success;
+	}
+
+	@Override
+	public long getUsedMemory() {
+		long usedMemory = 0;
+		for (String info : this.executeOnMasters("getUsedMemory", new NodeCommand<String>() {
+			@Override
+			public String execute(Jedis jedis) {
+				return jedis.info("memory");
+			}
+		})) {
+			usedMemory += new RedisInfo(info).getUsedMemory();
+		}
+		return usedMemory;
+	}
+
+	@Override
+	public long dbSize() {
+		long dbSize = 0;
+		for (Long size : this.executeOnMasters("dbSize", new NodeCommand<Long>() {
+			@Override
+			public Long execute(Jedis jedis) {
+				return jedis.dbSize();
+			}
+		})) {
+			dbSize += size;
+		}
+		return dbSize;
+	}
+
+	@Override
+	public String set(final String key, final String value, final int seconds) {
+		return (String) this.execute("set", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.setex(key, seconds, value);
+			}
+		});
+	}
+
+	@Override
+	public boolean flushAll() {
+		this.executeOnMasters("flushAll", new NodeCommand<String>() {
+			@Override
+			public String execute(Jedis jedis) {
+				return jedis.flushAll();
+			}
+		});
+		return true;
+	}
+
+	@Override
+	public boolean set(List<String> keyList, List<String> valueList) {
+		RedisUtil.checkList(keyList, valueList);
+		if (keyList.isEmpty()) {
+			return true;
+		}
+		final Map<String, String> map = new HashMap<String, String>();
+		for (int i = 0; i < keyList.size(); i++) {
+			map.put(keyList.get(i), valueList.get(i));
+		}
+		this.executeBySlot("mset", this.groupBySlot(keyList.toArray(new String[keyList.size()])), new SlotCommand<String>() {
+			@Override
+			public Response<String> send(Pipeline pipeline, String[] keys) {
+				return pipeline.mset(keysvalues(keys));
+			}
+
+			@Override
+			public String execute(JedisCluster cluster, String[] keys) {
+				return cluster.mset(keysvalues(keys));
+			}
+
+			private String[] keysvalues(String[] keys) {
+				String[] keysvalues = new String[keys.length * 2];
+				int i = 0;
+				for (String key : keys) {
+					keysvalues[i++] = key;
+					keysvalues[i++] = map.get(key);
+				}
+				return keysvalues;
+			}
+		});
+		return true;
+	}
+
+	@Override
+	public boolean append(List<String> keyList, List<String> valueList, int seconds) {
+		RedisUtil.checkList(keyList, valueList);
+		for (int i = 0; i < keyList.size(); i++) {
+			this.append(keyList.get(i), valueList.get(i), seconds);
+		}
+		return true;
+	}
+
+	@Override
+	public Long del(String... keys) {
+		if (keys.length == 0) {
+			return 0L;
+		}
+		Map<Integer, Long> results = this.executeBySlot("del", this.groupBySlot(keys), new SlotCommand<Long>() {
+			@Override
+			public Response<Long> send(Pipeline pipeline, String[] keys) {
+				return pipeline.del(keys);
+			}
+
+			@Override
+			public Long execute(JedisCluster cluster, String[] keys) {
+				return cluster.del(keys);
+			}
+		});
+		long count = 0;
+		for (Long result : results.values()) {
+			count += result;
+		}
+		return count;
+	}
+
+	@Override
+	public Long del(final String key) {
+		return (Long) this.execute("del", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.del(key);
+			}
+		});
+	}
+
+	@Override
+	public void returnResource(Jedis jedis) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public List<String> mget(String... keys) {
+		if (keys.length == 0) {
+			return new ArrayList<String>();
+		}
+		Map<Integer, List<String>> slots = this.groupBySlot(keys);
+		Map<Integer, List<String>> results = this.executeBySlot("mget", slots, new SlotCommand<List<String>>() {
+			@Override
+			public Response<List<String>> send(Pipeline pipeline, String[] keys) {
+				return pipeline.mget(keys);
+			}
+
+			@Override
+			public List<String> execute(JedisCluster cluster, String[] keys) {
+				return cluster.mget(keys);
+			}
+		});
+		// 按原来的顺序返回
+		Map<String, String> map = new HashMap<String, String>();
+		for (Entry<Integer, List<String>> entry : slots.entrySet()) {
+			List<String> slotKeys = entry.getValue();
+			List<String> values = results.get(entry.getKey());
+			for (int i = 0; i < slotKeys.size(); i++) {
+				map.put(slotKeys.get(i), values.get(i));
+			}
+		}
+		List<String> values = new ArrayList<String>(keys.length);
+		for (String key : keys) {
+			values.add(map.get(key));
+		}
+		return values;
+	}
+
+	@Override
+	public Long zinterstore(final String dstkey, final String... sets) {
+		return (Long) this.execute("zinterstore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zinterstore(dstkey, sets);
+			}
+		});
+	}
+
+	@Override
+	public Long zinterstore(final String dstkey, final ZParams params, final String... sets) {
+		return (Long) this.execute("zinterstore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zinterstore(dstkey, params, sets);
+			}
+		});
+	}
+
+	@Override
+	public Set<String> keys(final String pattern) {
+		Set<String> keys = new HashSet<String>();
+		for (Set<String> set : this.executeOnMasters("keys", new NodeCommand<Set<String>>() {
+			@Override
+			public Set<String> execute(Jedis jedis) {
+				return jedis.keys(pattern);
+			}
+		})) {
+			keys.addAll(set);
+		}
+		return keys;
+	}
+
+	@Override
+	public ScanResult<String> scan(String cursor, ScanParams params) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Long zunionstore(final String dstkey, final String... sets) {
+		return (Long) this.execute("zunionstore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zunionstore(dstkey, sets);
+			}
+		});
+	}
+
+	@Override
+	public Long zunionstore(final String dstkey, final ZParams params, final String... sets) {
+		return (Long) this.execute("zunionstore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zunionstore(dstkey, params, sets);
+			}
+		});
+	}
+
+	@Override
+	public String getServerInfo() {
+		StringBuilder sb = new StringBuilder();
+		for (String server : serverList) {
+			if (sb.length() > 0) {
+				sb.append(",");
+			}
+			sb.append(server);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String hget(final String key, final long field) {
+		return (String) this.execute("hget", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hget(key, Long.toString(field));
+			}
+		});
+	}
+
+	@Override
+	public Long hset(final String key, final long field, final String value) {
+		return (Long) this.execute("hset", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hset(key, Long.toString(field), value);
+			}
+		});
+	}
+
+	@Override
+	public Long hdel(final String key, final long field) {
+		return (Long) this.execute("hdel", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hdel(key, Long.toString(field));
+			}
+		});
+	}
+
+	@Override
+	public Long zadd(final String key, final double score, final long member) {
+		return (Long) this.execute("zadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zadd(key, score, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Double zscore(final String key, final long member) {
+		return (Double) this.execute("zscore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zscore(key, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Long zrem(final String key, final long member) {
+		return (Long) this.execute("zrem", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrem(key, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Set<String> zunionStoreInJava(String... sets) {
+		Set<String> strings = new HashSet<String>(75 * sets.length);
+		for (int i = 1; i < sets.length; i++) {
+			Set<String> _sets = cluster.zrange(sets[i], 0, -1);
+			strings.addAll(_sets);
+		}
+		return strings;
+	}
+
+	@Override
+	public Set<String> zunionStoreByScoreInJava(double min, double max, String... sets) {
+		Set<String> strings = new HashSet<String>(75 * sets.length);
+		for (int i = 0; i < sets.length; i++) {
+			Set<String> _sets = cluster.zrangeByScore(sets[i], min, max);
+			strings.addAll(_sets);
+		}
+		return strings;
+	}
+
+	@Override
+	public Object evalsha(String script) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Object eval(String script) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Object eval(String script, int keyCount, String... params) {
+		return this.evalScript(SCRIPTS.register(script), script, keyCount, params);
+	}
+
+	@Override
+	public Object evalsha(String sha1, List<String> keys, List<String> args) {
+		String[] params = new String[keys.size() + args.size()];
+		int i = 0;
+		for (String key : keys) {
+			params[i++] = key;
+		}
+		for (String arg : args) {
+			params[i++] = arg;
+		}
+		return this.evalsha(sha1, keys.size(), params);
+	}
+
+	@Override
+	public Object evalsha(String sha1, int keyCount, String... params) {
+		return this.evalScript(sha1, SCRIPTS.getScript(sha1), keyCount, params);
+	}
+
+	@Override
+	public String evalReturnSha(String script) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Object evalAssertSha(String sha, String script) {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public String scriptLoad(final String script) {
+		SCRIPTS.register(script);
+		List<String> results = this.executeOnMasters("scriptLoad", new NodeCommand<String>() {
+			@Override
+			public String execute(Jedis jedis) {
+				return jedis.scriptLoad(script);
+			}
+		});
+		return results.isEmpty() ? ScriptRegistry.sha1(script) : results.get(0);
+	}
+
+	@Override
+	public String bgrewriteaof() {
+		return (String) this.execute("bgrewriteaof", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bgrewriteaof();
+			}
+		});
+	}
+
+	@Override
+	public String bgsave() {
+		return (String) this.execute("bgsave", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bgsave();
+			}
+		});
+	}
+
+	@Override
+	public String save() {
+		return (String) this.execute("save", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.save();
+			}
+		});
+	}
+
+	@Override
+	public Long publish(final String channel, final String message) {
+		return (Long) this.execute("publish", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.publish(channel, message);
+			}
+		});
+	}
+
+	@Override
+	public void psubscribe(final JedisPubSub jedisPubSub, final String... patterns) {
+		this.execute("psubscribe", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				cluster.psubscribe(jedisPubSub, patterns);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public void subscribe(final JedisPubSub jedisPubSub, final String... channels) {
+		this.execute("subscribe", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				cluster.subscribe(jedisPubSub, channels);
+				return null;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> sdiff(final String... keys) {
+		return (Set<String>) this.execute("sdiff", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sdiff(keys);
+			}
+		});
+	}
+
+	@Override
+	public Long sadd(final String key, final long member) {
+		return (Long) this.execute("sadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sadd(key, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Long srem(final String key, final long member) {
+		return (Long) this.execute("srem", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.srem(key, Long.toString(member));
+			}
+		});
+	}
+
+	@Override
+	public Long sdiffstore(final String dstkey, final String... keys) {
+		return (Long) this.execute("sdiffstore", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sdiffstore(dstkey, keys);
+			}
+		});
+	}
+
+	@Override
+	public String randomKey() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	@Override
+	public Long pexpire(final String key, final long milliseconds) {
+		return (Long) this.execute("pexpire", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.pexpire(key, milliseconds);
+			}
+		});
+	}
+
+	@Override
+	public Long pexpireAt(final String key, final long millisecondsTimestamp) {
+		return (Long) this.execute("pexpireAt", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.pexpireAt(key, millisecondsTimestamp);
+			}
+		});
+	}
+
+	@Override
+	public Double incrByFloat(final String key, final double value) {
+		return (Double) this.execute("incrByFloat", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.incrByFloat(key, value);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> spop(final String key, final long count) {
+		return (Set<String>) this.execute("spop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.spop(key, count);
+			}
+		});
+	}
+
+	@Override
+	public Long zlexcount(final String key, final String min, final String max) {
+		return (Long) this.execute("zlexcount", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zlexcount(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByLex(final String key, final String min, final String max) {
+		return (Set<String>) this.execute("zrangeByLex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByLex(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrangeByLex(final String key, final String min, final String max, final int offset, final int count) {
+		return (Set<String>) this.execute("zrangeByLex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrangeByLex(key, min, max, offset, count);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByLex(final String key, final String max, final String min) {
+		return (Set<String>) this.execute("zrevrangeByLex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByLex(key, max, min);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> zrevrangeByLex(final String key, final String max, final String min, final int offset, final int count) {
+		return (Set<String>) this.execute("zrevrangeByLex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zrevrangeByLex(key, max, min, offset, count);
+			}
+		});
+	}
+
+	@Override
+	public Long zremrangeByLex(final String key, final String min, final String max) {
+		return (Long) this.execute("zremrangeByLex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zremrangeByLex(key, min, max);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> blpop(final int timeout, final String key) {
+		return (List<String>) this.execute("blpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.blpop(timeout, key);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> brpop(final int timeout, final String key) {
+		return (List<String>) this.execute("brpop", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.brpop(timeout, key);
+			}
+		});
+	}
+
+	@Override
+	public Long bitpos(final String arg0, final boolean arg1) {
+		return (Long) this.execute("bitpos", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bitpos(arg0, arg1);
+			}
+		});
+	}
+
+	@Override
+	public Long bitpos(final String arg0, final boolean arg1, final BitPosParams arg2) {
+		return (Long) this.execute("bitpos", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.bitpos(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public Long geoadd(final String arg0, final Map<String, GeoCoordinate> arg1) {
+		return (Long) this.execute("geoadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geoadd(arg0, arg1);
+			}
+		});
+	}
+
+	@Override
+	public Long geoadd(final String arg0, final double arg1, final double arg2, final String arg3) {
+		return (Long) this.execute("geoadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geoadd(arg0, arg1, arg2, arg3);
+			}
+		});
+	}
+
+	@Override
+	public Double geodist(final String arg0, final String arg1, final String arg2) {
+		return (Double) this.execute("geodist", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geodist(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public Double geodist(final String arg0, final String arg1, final String arg2, final GeoUnit arg3) {
+		return (Double) this.execute("geodist", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geodist(arg0, arg1, arg2, arg3);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> geohash(final String arg0, final String... arg1) {
+		return (List<String>) this.execute("geohash", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geohash(arg0, arg1);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<GeoCoordinate> geopos(final String arg0, final String... arg1) {
+		return (List<GeoCoordinate>) this.execute("geopos", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.geopos(arg0, arg1);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<GeoRadiusResponse> georadius(final String arg0, final double arg1, final double arg2, final double arg3, final GeoUnit arg4) {
+		return (List<GeoRadiusResponse>) this.execute("georadius", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.georadius(arg0, arg1, arg2, arg3, arg4);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<GeoRadiusResponse> georadius(final String arg0, final double arg1, final double arg2, final double arg3, final GeoUnit arg4, final GeoRadiusParam arg5) {
+		return (List<GeoRadiusResponse>) this.execute("georadius", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.georadius(arg0, arg1, arg2, arg3, arg4, arg5);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(final String arg0, final String arg1, final double arg2, final GeoUnit arg3) {
+		return (List<GeoRadiusResponse>) this.execute("georadiusByMember", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.georadiusByMember(arg0, arg1, arg2, arg3);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(final String arg0, final String arg1, final double arg2, final GeoUnit arg3, final GeoRadiusParam arg4) {
+		return (List<GeoRadiusResponse>) this.execute("georadiusByMember", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.georadiusByMember(arg0, arg1, arg2, arg3, arg4);
+			}
+		});
+	}
+
+	@Override
+	public Double hincrByFloat(final String arg0, final String arg1, final double arg2) {
+		return (Double) this.execute("hincrByFloat", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hincrByFloat(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Entry<String, String>> hscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return (ScanResult<Entry<String, String>>) this.execute("hscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.hscan(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public String psetex(final String arg0, final long arg1, final String arg2) {
+		return (String) this.execute("psetex", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.psetex(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public Long pttl(final String arg0) {
+		return (Long) this.execute("pttl", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.pttl(arg0);
+			}
+		});
+	}
+
+	@Override
+	public String set(final String arg0, final String arg1, final String arg2) {
+		return (String) this.execute("set", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.set(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<String> sscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return (ScanResult<String>) this.execute("sscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sscan(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public Long zadd(final String arg0, final Map<String, Double> arg1, final ZAddParams arg2) {
+		return (Long) this.execute("zadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zadd(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@Override
+	public Long zadd(final String arg0, final double arg1, final String arg2, final ZAddParams arg3) {
+		return (Long) this.execute("zadd", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zadd(arg0, arg1, arg2, arg3);
+			}
+		});
+	}
+
+	@Override
+	public Double zincrby(final String arg0, final double arg1, final String arg2, final ZIncrByParams arg3) {
+		return (Double) this.execute("zincrby", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zincrby(arg0, arg1, arg2, arg3);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<Tuple> zscan(final String arg0, final String arg1, final ScanParams arg2) {
+		return (ScanResult<Tuple>) this.execute("zscan", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.zscan(arg0, arg1, arg2);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> sinter(final String... keys) {
+		return (Set<String>) this.execute("sinter", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				return cluster.sinter(keys);
+			}
+		});
+	}
+
+	/**
+	 * 执行指令.
+	 * 
+	 * @param command 指令，用于统计
+	 * @param invoker
+	 * @return
+	 */
+	private Object execute(String command, Invoker invoker) {
+		long startTime = System.nanoTime();
+		try {
+			return invoker.execute(cluster);
+		}
+		catch (JedisConnectionException e) {
+			metrics.incrError();
+			metrics.incrBroken();
+			throw e;
+		}
+		catch (RuntimeException e) {
+			metrics.incrError();
+			throw e;
+		}
+		finally {
+			metrics.recordCommand(command, (System.nanoTime() - startTime) / 1000L);
+		}
+	}
+
+	/**
+	 * 使用EVALSHA执行脚本，节点返回NOSCRIPT时改用EVAL(节点会缓存脚本).
+	 * 
+	 * @param sha1 脚本的sha1值
+	 * @param script 脚本，为null时不重试
+	 * @param keyCount 键名参数的个数，集群模式下根据第一个key选择节点，不能为0
+	 * @param params 参数
+	 * @return
+	 */
+	protected Object evalScript(final String sha1, final String script, final int keyCount, final String... params) {
+		if (keyCount <= 0) {
+			throw new IllegalArgumentException("集群模式下脚本必须有key参数.");
+		}
+		return this.execute("evalsha", new Invoker() {
+			@Override
+			public Object execute(JedisCluster cluster) {
+				try {
+					return cluster.evalsha(sha1, keyCount, params);
+				}
+				catch (JedisDataException e) {
+					if (script == null || !ScriptRegistry.isNoScript(e)) {
+						throw e;
+					}
+				}
+				return cluster.eval(script, keyCount, params);
+			}
+		});
+	}
+
+	/**
+	 * 按slot分组，保持key的原有顺序.
+	 * 
+	 * @param keys
+	 * @return slot -> key列表
+	 */
+	protected Map<Integer, List<String>> groupBySlot(String... keys) {
+		Map<Integer, List<String>> slots = new LinkedHashMap<Integer, List<String>>();
+		for (String key : keys) {
+			int slot = JedisClusterCRC16.getSlot(key);
+			List<String> list = slots.get(slot);
+			if (list == null) {
+				list = new ArrayList<String>();
+				slots.put(slot, list);
+			}
+			list.add(key);
+		}
+		return slots;
+	}
+
+	/**
+	 * 按slot所在节点分组(根据本地的slot分布缓存，不获取连接).
+	 * 
+	 * @param slots
+	 * @return 节点连接池 -> slot列表，slot分布未知的slot对应的key为null
+	 */
+	protected Map<JedisPool, List<Integer>> groupByNode(Collection<Integer> slots) {
+		Map<JedisPool, List<Integer>> nodes = new LinkedHashMap<JedisPool, List<Integer>>();
+		for (Integer slot : slots) {
+			JedisPool node = cluster.getSlotPool(slot);
+			List<Integer> list = nodes.get(node);
+			if (list == null) {
+				list = new ArrayList<Integer>();
+				nodes.put(node, list);
+			}
+			list.add(slot);
+		}
+		return nodes;
+	}
+
+	/**
+	 * 按slot执行多key指令，同一个节点的各slot指令通过一个pipeline发送，不同节点并发执行.
+	 * 
+	 * @param command 指令，用于统计
+	 * @param slots slot -> key列表
+	 * @param slotCommand
+	 * @return slot -> 返回值
+	 */
+	protected <T> Map<Integer, T> executeBySlot(String command, final Map<Integer, List<String>> slots, final SlotCommand<T> slotCommand) {
+		long startTime = System.nanoTime();
+		try {
+			List<Callable<Map<Integer, T>>> tasks = new ArrayList<Callable<Map<Integer, T>>>();
+			for (Entry<JedisPool, List<Integer>> entry : this.groupByNode(slots.keySet()).entrySet()) {
+				final JedisPool node = entry.getKey();
+				final List<Integer> slotList = entry.getValue();
+				tasks.add(new Callable<Map<Integer, T>>() {
+					@Override
+					public Map<Integer, T> call() {
+						return executeOnNode(node, slotList, slots, slotCommand);
+					}
+				});
+			}
+			Map<Integer, T> results = new HashMap<Integer, T>();
+			for (Map<Integer, T> result : RedisUtil.invokeAll(executor, tasks)) {
+				results.putAll(result);
+			}
+			return results;
+		}
+		catch (RuntimeException e) {
+			metrics.incrError();
+			throw e;
+		}
+		finally {
+			metrics.recordCommand(command, (System.nanoTime() - startTime) / 1000L);
+		}
+	}
+
+	/**
+	 * 在一个节点的pipeline中执行多个slot的指令，slot分布未知(pool为null)、收到MOVED、ASK(slot已迁移)或连接出错时改用JedisCluster执行(会重定向并刷新slot分布).
+	 */
+	private <T> Map<Integer, T> executeOnNode(JedisPool pool, List<Integer> slotList, Map<Integer, List<String>> slots, SlotCommand<T> slotCommand) {
+		List<Response<T>> responses = new ArrayList<Response<T>>(slotList.size());
+		if (pool != null) {
+			Jedis jedis = null;
+			try {
+				jedis = pool.getResource();
+				Pipeline pipeline = jedis.pipelined();
+				for (Integer slot : slotList) {
+					responses.add(slotCommand.send(pipeline, toArray(slots.get(slot))));
+				}
+				pipeline.sync();
+			}
+			catch (JedisConnectionException e) {
+				logger.warn("节点[" + this.getNodeKey(pool) + "]连接出错，改用JedisCluster执行:" + e.getMessage());
+				responses.clear();
+			}
+			finally {
+				if (jedis != null) {
+					jedis.close();
+				}
+			}
+		}
+		Map<Integer, T> results = new HashMap<Integer, T>();
+		for (int i = 0; i < slotList.size(); i++) {
+			Integer slot = slotList.get(i);
+			T result = null;
+			boolean done = false;
+			if (i < responses.size()) {
+				try {
+					result = responses.get(i).get();
+					done = true;
+				}
+				catch (JedisRedirectionException e) {
+					// slot已迁移
+				}
+			}
+			if (!done) {
+				result = slotCommand.execute(cluster, toArray(slots.get(slot)));
+			}
+			results.put(slot, result);
+		}
+		return results;
+	}
+
+	private String getNodeKey(JedisPool pool) {
+		for (Entry<String, JedisPool> entry : cluster.getClusterNodes().entrySet()) {
+			if (entry.getValue() == pool) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	private static String[] toArray(List<String> list) {
+		return list.toArray(new String[list.size()]);
+	}
+
+	/**
+	 * 在所有master节点执行指令.
+	 * 
+	 * @param command 指令，用于统计
+	 * @param nodeCommand
+	 * @return 各节点的返回值
+	 */
+	protected <T> List<T> executeOnMasters(String command, NodeCommand<T> nodeCommand) {
+		long startTime = System.nanoTime();
+		try {
+			List<T> results = new ArrayList<T>();
+			Set<JedisPool> masters = cluster.getMasterPools();
+			// slot分布缓存为空时通过INFO判断
+			boolean checkRole = masters.isEmpty();
+			for (JedisPool pool : checkRole ? cluster.getClusterNodes().values() : masters) {
+				Jedis jedis = pool.getResource();
+				try {
+					if (!checkRole || jedis.info("replication").contains("role:master")) {
+						results.add(nodeCommand.execute(jedis));
+					}
+				}
+				finally {
+					jedis.close();
+				}
+			}
+			return results;
+		}
+		catch (RuntimeException e) {
+			metrics.incrError();
+			throw e;
+		}
+		finally {
+			metrics.recordCommand(command, (System.nanoTime() - startTime) / 1000L);
+		}
+	}
+}
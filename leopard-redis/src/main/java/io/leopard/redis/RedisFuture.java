@@ -0,0 +1,177 @@
+package io.leopard.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * 异步指令的返回值.
+ * 
+ * 不支持取消，指令提交后一定会执行.
+ * 
+ * @author 阿海
+ * 
+ * @param <T>
+ */
+public class RedisFuture<T> implements Future<T> {
+
+	private static final Log logger = LogFactory.getLog(RedisFuture.class);
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+
+	private T data;
+
+	private RuntimeException exception;
+
+	private List<RedisFutureListener<T>> listenerList;
+
+	/**
+	 * 设置执行结果，已完成时忽略.
+	 * 
+	 * @param data
+	 */
+	public void set(T data) {
+		List<RedisFutureListener<T>> listenerList;
+		synchronized (this) {
+			if (this.isDone()) {
+				return;
+			}
+			this.data = data;
+			listenerList = this.listenerList;
+			this.listenerList = null;
+			latch.countDown();
+		}
+		if (listenerList != null) {
+			for (RedisFutureListener<T> listener : listenerList) {
+				this.notifySuccess(listener);
+			}
+		}
+	}
+
+	/**
+	 * 设置执行异常，已完成时忽略.
+	 * 
+	 * @param exception
+	 */
+	public void setException(RuntimeException exception) {
+		List<RedisFutureListener<T>> listenerList;
+		synchronized (this) {
+			if (this.isDone()) {
+				return;
+			}
+			this.exception = exception;
+			listenerList = this.listenerList;
+			this.listenerList = null;
+			latch.countDown();
+		}
+		if (listenerList != null) {
+			for (RedisFutureListener<T> listener : listenerList) {
+				this.notifyFailure(listener);
+			}
+		}
+	}
+
+	/**
+	 * 添加完成回调，已完成时在当前线程立即调用.
+	 * 
+	 * @param listener
+	 */
+	public void addListener(RedisFutureListener<T> listener) {
+		synchronized (this) {
+			if (!this.isDone()) {
+				if (listenerList == null) {
+					listenerList = new ArrayList<RedisFutureListener<T>>(2);
+				}
+				listenerList.add(listener);
+				return;
+			}
+		}
+		if (exception == null) {
+			this.notifySuccess(listener);
+		}
+		else {
+			this.notifyFailure(listener);
+		}
+	}
+
+	private void notifySuccess(RedisFutureListener<T> listener) {
+		try {
+			listener.onSuccess(data);
+		}
+		catch (RuntimeException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	private void notifyFailure(RedisFutureListener<T> listener) {
+		try {
+			listener.onFailure(exception);
+		}
+		catch (RuntimeException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 等待并返回执行结果，指令抛出的RuntimeException原样抛出.
+	 * 
+	 * @return
+	 */
+	public T join() {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		if (exception != null) {
+			throw exception;
+		}
+		return data;
+	}
+
+	@Override
+	public T get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return this.getData();
+	}
+
+	@Override
+	public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!latch.await(timeout, unit)) {
+			throw new TimeoutException("等待redis指令执行超时.");
+		}
+		return this.getData();
+	}
+
+	private T getData() throws ExecutionException {
+		if (exception != null) {
+			throw new ExecutionException(exception.getMessage(), exception);
+		}
+		return data;
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return false;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return false;
+	}
+
+	@Override
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+}
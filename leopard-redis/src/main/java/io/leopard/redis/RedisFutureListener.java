@@ -0,0 +1,22 @@
+package io.leopard.redis;
+
+/**
+ * 异步指令完成回调(在执行指令的线程中调用，不要执行耗时操作).
+ * 
+ * @author 阿海
+ * 
+ * @param <T>
+ */
+public interface RedisFutureListener<T> {
+
+	/**
+	 * 指令执行成功.
+	 */
+	void onSuccess(T data);
+
+	/**
+	 * 指令执行出错.
+	 */
+	void onFailure(RuntimeException exception);
+
+}
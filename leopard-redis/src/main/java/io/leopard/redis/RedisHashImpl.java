@@ -1,12 +1,23 @@
 package io.leopard.redis;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import io.leopard.redis.monitor.HotKey;
+import io.leopard.redis.monitor.HotKeySampler;
+import io.leopard.redis.monitor.RedisMetrics;
+import io.leopard.redis.util.CircuitBreaker;
+import io.leopard.redis.util.CircuitBreakerRedis;
 import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.RedisUtil;
 import redis.clients.jedis.BinaryClient.LIST_POSITION;
 import redis.clients.jedis.BitPosParams;
 import redis.clients.jedis.GeoCoordinate;
@@ -38,18 +49,89 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	protected HashType hashType;
 
+	/**
+	 * 多key指令按服务器并发执行的线程池.
+	 */
+	protected ExecutorService executor;
+
+	/**
+	 * 线程池大小，小于等于0时为服务器数×每台服务器的最大连接数(超出的线程只会等待连接).
+	 */
+	protected int threads = 0;
+
+	/**
+	 * 备用服务器(和serverList一一对应)，服务器熔断时使用.
+	 */
+	protected String[] fallbackServerList;
+
+	protected Redis[] fallbackRedisList;
+
+	/**
+	 * 连续连接失败多少次后熔断，小于等于0表示不熔断.
+	 */
+	protected int circuitBreakerThreshold = 5;
+
+	/**
+	 * 熔断时间(毫秒)，之后放行一个探测请求.
+	 */
+	protected long circuitBreakerOpenTime = 5000;
+
+	protected CircuitBreaker[] circuitBreakers;
+
+	/**
+	 * 带熔断器的服务器列表(和redisList一一对应).
+	 */
+	protected Redis[] guardedList;
+
+	private AsyncRedisImpl asyncRedis;
+
 	public void setServerList(String[] serverList) {
 		// System.out.println("serverList:" + StringUtils.join(serverList,","));
 		this.serverList = serverList;
 	}
 
+	public void setFallbackServerList(String[] fallbackServerList) {
+		this.fallbackServerList = fallbackServerList;
+	}
+
+	public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+		this.circuitBreakerThreshold = circuitBreakerThreshold;
+	}
+
+	public void setCircuitBreakerOpenTime(long circuitBreakerOpenTime) {
+		this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * 线程池大小，多个调用者的多key指令可以同时执行，不会互相排队.
+	 */
+	protected int getThreads(int servers) {
+		if (threads > 0) {
+			return threads;
+		}
+		// maxActive小于等于0时连接池默认最大连接数为128
+		return servers * (maxActive > 0 ? maxActive : 128);
+	}
+
+	public CircuitBreaker[] getCircuitBreakers() {
+		return circuitBreakers;
+	}
+
 	public Redis[] getRedisList() {
 		return redisList;
 	}
 
 	/**
 	 * 
-	 * @param hashType string,long,default,其他自定义实现类名.
+	 * @param hashType string,long,default,ketama,其他自定义实现类名.
 	 */
 	public void setHashType(String hashType) {
 		String className = getHashTypeClassName(hashType);
@@ -79,6 +161,9 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 		else if ("default".equalsIgnoreCase(hashType)) {
 			className = DefaultHashType.class.getName();
 		}
+		else if ("ketama".equalsIgnoreCase(hashType)) {
+			className = KetamaHashType.class.getName();
+		}
 		else if (hashType == null || hashType.isEmpty()) {
 			className = DefaultHashType.class.getName();
 		}
@@ -90,19 +175,116 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public void init() {
+		if (serverList != null && serverList.length > 1) {
+			this.executor = RedisUtil.newExecutor("leopard-redis-hash", this.getThreads(serverList.length));
+		}
+		if (serverList != null) {
+			// 并行初始化各服务器的连接池
+			List<Callable<Redis>> tasks = new ArrayList<Callable<Redis>>(serverList.length);
+			for (final String server : serverList) {
+				tasks.add(new Callable<Redis>() {
+					@Override
+					public Redis call() {
+						return initRedis(server);
+					}
+				});
+			}
+			List<Redis> list = this.invokeAll(tasks);
+			this.redisList = list.toArray(new Redis[list.size()]);
+		}
+		else if (redisList != null && redisList.length > 1) {
+			this.executor = RedisUtil.newExecutor("leopard-redis-hash", this.getThreads(redisList.length));
+		}
+		if (hashType instanceof ConsistentHashType && redisList != null) {
+			((ConsistentHashType) hashType).init(this.getNodeNames());
+		}
+		if (fallbackServerList != null) {
+			if (redisList == null || fallbackServerList.length != redisList.length) {
+				throw new IllegalArgumentException("备用服务器数量和服务器数量不一致.");
+			}
+			Redis[] fallbackRedisList = new Redis[fallbackServerList.length];
+			for (int i = 0; i < fallbackServerList.length; i++) {
+				fallbackRedisList[i] = this.initRedis(fallbackServerList[i]);
+			}
+			this.fallbackRedisList = fallbackRedisList;
+		}
+		this.initCircuitBreaker();
+	}
+
+	/**
+	 * 一致性hash环的节点名，没有配置serverList(直接设置redisList)时使用各服务器的getServerInfo()，不支持时使用索引.
+	 */
+	protected String[] getNodeNames() {
 		if (serverList != null) {
-			Redis[] redisList = new Redis[serverList.length];
-			for (int i = 0; i < serverList.length; i++) {
-				String server = serverList[i];
-				Redis redis = this.initRedis(server);
-				redisList[i] = redis;
+			return serverList;
+		}
+		String[] names = new String[redisList.length];
+		for (int i = 0; i < redisList.length; i++) {
+			try {
+				names[i] = redisList[i].getServerInfo();
+			}
+			catch (UnsupportedOperationException e) {
+				names[i] = null;
 			}
-			this.redisList = redisList;
+			if (names[i] == null) {
+				names[i] = Integer.toString(i);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * 为每台服务器创建熔断器，服务器不可用时请求直接失败(或转到备用服务器)，不再等待连接超时.
+	 */
+	protected void initCircuitBreaker() {
+		if (redisList == null || circuitBreakerThreshold <= 0) {
+			return;
+		}
+		CircuitBreaker[] circuitBreakers = new CircuitBreaker[redisList.length];
+		Redis[] guardedList = new Redis[redisList.length];
+		for (int i = 0; i < redisList.length; i++) {
+			String server = this.getServer(i);
+			circuitBreakers[i] = new CircuitBreaker(circuitBreakerThreshold, circuitBreakerOpenTime);
+			guardedList[i] = CircuitBreakerRedis.wrap(server, redisList[i], this.getFallbackRedis(i), circuitBreakers[i]);
 		}
+		this.circuitBreakers = circuitBreakers;
+		this.guardedList = guardedList;
+	}
+
+	/**
+	 * 服务器地址(用于错误信息)，直接设置redisList时返回索引.
+	 * 
+	 * @param index 服务器索引
+	 * @return
+	 */
+	protected String getServer(int index) {
+		return serverList == null ? Integer.toString(index) : serverList[index];
+	}
+
+	/**
+	 * 返回服务器熔断时使用的备用服务器，没有返回null.
+	 * 
+	 * @param index 服务器索引
+	 * @return
+	 */
+	protected Redis getFallbackRedis(int index) {
+		if (fallbackRedisList == null) {
+			return null;
+		}
+		return fallbackRedisList[index];
 	}
 
 	protected Redis initRedis(String server) {
 		RedisImpl redis = new RedisImpl(server, maxActive, initialPoolSize, enableBackup, backupTime, timeout);
+		redis.setMinIdle(minIdle);
+		redis.setIdleTimeout(idleTimeout);
+		redis.setMultiplexConnections(multiplexConnections);
+		redis.setCodec(codec);
+		redis.setCompressThreshold(compressThreshold);
+		redis.setCompressPolicies(compressPolicies);
+		redis.setHotKeySampleRate(hotKeySampleRate);
+		redis.setHotKeyThreshold(hotKeyThreshold);
+		redis.setHotKeyCacheSeconds(hotKeyCacheSeconds);
 		redis.init();
 		return redis;
 
@@ -110,11 +292,41 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public void destroy() {
+		synchronized (this) {
+			if (asyncRedis != null) {
+				asyncRedis.destroy();
+				asyncRedis = null;
+			}
+		}
+		if (executor != null) {
+			executor.shutdown();
+		}
 		if (redisList != null) {
 			for (Redis redis : redisList) {
 				redis.destroy();
 			}
 		}
+		if (fallbackRedisList != null) {
+			for (Redis redis : fallbackRedisList) {
+				redis.destroy();
+			}
+		}
+	}
+
+	/**
+	 * 返回所有服务器上一个统计窗口的热点key，按访问次数从多到少排序.
+	 * 
+	 * @return
+	 */
+	public List<HotKey> getHotKeys() {
+		List<HotKey> list = new ArrayList<HotKey>();
+		for (Redis redis : redisList) {
+			if (redis instanceof RedisImpl) {
+				list.addAll(((RedisImpl) redis).getHotKeys());
+			}
+		}
+		Collections.sort(list, HotKeySampler.COUNT_COMPARATOR);
+		return list;
 	}
 
 	protected int getIndex(String key) {
@@ -124,8 +336,15 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 			}
 		}
 
+		if (hashType instanceof ConsistentHashType) {
+			return ((ConsistentHashType) hashType).getIndex(key);
+		}
 		long hashCode = hashType.getHashCode(key);
 		int index = (int) (hashCode % this.redisList.length);
+		if (index < 0) {
+			// String.hashCode()可能为负数
+			index = -index;
+		}
 		return index;
 
 		//
@@ -156,9 +375,60 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	protected Redis getRedis(String key) {
 		int index = this.getIndex(key);
+		return this.getRedis(index);
+	}
+
+	/**
+	 * 返回指定索引的服务器(启用熔断时返回带熔断器的服务器).
+	 * 
+	 * @param index
+	 * @return
+	 */
+	protected Redis getRedis(int index) {
+		if (guardedList != null) {
+			return guardedList[index];
+		}
 		return redisList[index];
 	}
 
+	/**
+	 * 按服务器对key分组.
+	 * 
+	 * @param keys
+	 * @return 服务器索引 -> key在参数中的位置列表
+	 */
+	protected Map<Integer, List<Integer>> groupByIndex(List<String> keys) {
+		Map<Integer, List<Integer>> map = new LinkedHashMap<Integer, List<Integer>>();
+		for (int i = 0; i < keys.size(); i++) {
+			int index = this.getIndex(keys.get(i));
+			List<Integer> positionList = map.get(index);
+			if (positionList == null) {
+				positionList = new ArrayList<Integer>();
+				map.put(index, positionList);
+			}
+			positionList.add(i);
+		}
+		return map;
+	}
+
+	protected static List<String> subList(List<String> list, List<Integer> positionList) {
+		List<String> result = new ArrayList<String>(positionList.size());
+		for (int position : positionList) {
+			result.add(list.get(position));
+		}
+		return result;
+	}
+
+	/**
+	 * 在多个服务器并发执行任务.
+	 * 
+	 * @param tasks
+	 * @return
+	 */
+	protected <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		return RedisUtil.invokeAll(executor, tasks);
+	}
+
 	@Override
 	public Long append(String key, String value) {
 		return this.getRedis(key).append(key, value);
@@ -620,11 +890,92 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 		return this.setrange(key, (long) offset, value);
 	}
 
+	@Override
+	public byte[] getBytes(String key) {
+		return this.getRedis(key).getBytes(key);
+	}
+
+	@Override
+	public String set(String key, byte[] value) {
+		return this.getRedis(key).set(key, value);
+	}
+
+	@Override
+	public byte[] hgetBytes(String key, String field) {
+		return this.getRedis(key).hgetBytes(key, field);
+	}
+
+	@Override
+	public Long hset(String key, String field, byte[] value) {
+		return this.getRedis(key).hset(key, field, value);
+	}
+
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		return this.getRedis(key).get(key, clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		return this.getRedis(key).set(key, value);
+	}
+
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		return this.getRedis(key).hget(key, field, clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		return this.getRedis(key).hset(key, field, value);
+	}
+
 	@Override
 	public Long sadd(String key, String... members) {
 		return this.getRedis(key).sadd(key, members);
 	}
 
+	@Override
+	public RedisPipeline pipelined() {
+		return new RedisPipelineHashImpl(this);
+	}
+
+	/**
+	 * 返回异步接口(第一次调用时创建，destroy()时关闭).
+	 * 
+	 * @return
+	 */
+	public synchronized AsyncRedis async() {
+		if (asyncRedis == null) {
+			asyncRedis = new AsyncRedisImpl(this, asyncConnections, 128);
+		}
+		return asyncRedis;
+	}
+
+	/**
+	 * 返回所有服务器汇总的统计数据.
+	 */
+	@Override
+	public RedisMetrics getMetrics() {
+		return RedisUtil.mergeMetrics(redisList);
+	}
+
+	/**
+	 * 返回每台服务器的统计数据.
+	 * 
+	 * @return
+	 */
+	public List<RedisMetrics> getMetricsList() {
+		List<RedisMetrics> list = new ArrayList<RedisMetrics>(redisList.length);
+		for (Redis redis : redisList) {
+			RedisMetrics metrics = redis.getMetrics();
+			if (metrics != null) {
+				list.add(metrics);
+			}
+		}
+		return list;
+	}
+
 	@Override
 	public Transaction multi() {
 		throw new UnsupportedOperationException("Not Implemented");
@@ -666,20 +1017,61 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 	}
 
 	@Override
-	public boolean set(List<String> keyList, List<String> valueList) {
-		throw new UnsupportedOperationException("Not Implemented");
-	}
-
-	@Override
-	public boolean append(List<String> keyList, List<String> valueList, int seconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+	public boolean set(final List<String> keyList, final List<String> valueList) {
+		RedisUtil.checkList(keyList, valueList);
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (Entry<Integer, List<Integer>> entry : this.groupByIndex(keyList).entrySet()) {
+			final Redis redis = this.getRedis(entry.getKey());
+			final List<Integer> positionList = entry.getValue();
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return redis.set(subList(keyList, positionList), subList(valueList, positionList));
+				}
+			});
+		}
+		this.invokeAll(tasks);
+		return true;
+	}
+
+	@Override
+	public boolean append(final List<String> keyList, final List<String> valueList, final int seconds) {
+		RedisUtil.checkList(keyList, valueList);
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (Entry<Integer, List<Integer>> entry : this.groupByIndex(keyList).entrySet()) {
+			final Redis redis = this.getRedis(entry.getKey());
+			final List<Integer> positionList = entry.getValue();
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return redis.append(subList(keyList, positionList), subList(valueList, positionList), seconds);
+				}
+			});
+		}
+		this.invokeAll(tasks);
+		return true;
 	}
 
 	@Override
 	public Long del(String... keys) {
+		final List<String> keyList = Arrays.asList(keys);
+		List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+		for (Entry<Integer, List<Integer>> entry : this.groupByIndex(keyList).entrySet()) {
+			final Redis redis = this.getRedis(entry.getKey());
+			final List<Integer> positionList = entry.getValue();
+			tasks.add(new Callable<Long>() {
+				@Override
+				public Long call() {
+					List<String> list = subList(keyList, positionList);
+					return redis.del(list.toArray(new String[list.size()]));
+				}
+			});
+		}
 		long total = 0;
-		for (String key : keys) {
-			total += this.del(key);
+		for (Long count : this.invokeAll(tasks)) {
+			if (count != null) {
+				total += count;
+			}
 		}
 		return total;
 	}
@@ -696,12 +1088,32 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public List<String> mget(String... keys) {
-		List<String> result = new ArrayList<String>();
-		for (String key : keys) {
-			String value = this.get(key);
-			result.add(value);
+		final List<String> keyList = Arrays.asList(keys);
+		final Map<Integer, List<Integer>> map = this.groupByIndex(keyList);
+		List<Callable<List<String>>> tasks = new ArrayList<Callable<List<String>>>();
+		for (Entry<Integer, List<Integer>> entry : map.entrySet()) {
+			final Redis redis = this.getRedis(entry.getKey());
+			final List<Integer> positionList = entry.getValue();
+			tasks.add(new Callable<List<String>>() {
+				@Override
+				public List<String> call() {
+					List<String> list = subList(keyList, positionList);
+					return redis.mget(list.toArray(new String[list.size()]));
+				}
+			});
 		}
-		return result;
+		List<List<String>> valuesList = this.invokeAll(tasks);
+
+		// 按参数顺序组装结果
+		String[] result = new String[keys.length];
+		int i = 0;
+		for (List<Integer> positionList : map.values()) {
+			List<String> values = valuesList.get(i++);
+			for (int j = 0; j < positionList.size(); j++) {
+				result[positionList.get(j)] = values.get(j);
+			}
+		}
+		return Arrays.asList(result);
 	}
 
 	@Override
@@ -719,6 +1131,37 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 		throw new UnsupportedOperationException("Not Implemented");
 	}
 
+	/**
+	 * 依次迭代每个分片.
+	 * 
+	 * 游标格式为"分片索引:分片游标"，最后一个分片迭代结束时返回"0".
+	 */
+	@Override
+	public ScanResult<String> scan(String cursor, ScanParams params) {
+		int index = 0;
+		String shardCursor = ScanParams.SCAN_POINTER_START;
+		if (!ScanParams.SCAN_POINTER_START.equals(cursor)) {
+			int pos = cursor.indexOf(':');
+			if (pos <= 0) {
+				throw new IllegalArgumentException("非法游标[" + cursor + "].");
+			}
+			index = Integer.parseInt(cursor.substring(0, pos));
+			shardCursor = cursor.substring(pos + 1);
+			if (index < 0 || index >= redisList.length) {
+				throw new IllegalArgumentException("非法游标[" + cursor + "].");
+			}
+		}
+		ScanResult<String> result = this.getRedis(index).scan(shardCursor, params);
+		String nextCursor = result.getStringCursor();
+		if (ScanParams.SCAN_POINTER_START.equals(nextCursor)) {
+			index++;
+			if (index >= redisList.length) {
+				return new ScanResult<String>(ScanParams.SCAN_POINTER_START, result.getResult());
+			}
+		}
+		return new ScanResult<String>(index + ":" + nextCursor, result.getResult());
+	}
+
 	@Override
 	public Long zunionstore(String dstkey, String... sets) {
 		throw new UnsupportedOperationException("Not Implemented");
@@ -796,17 +1239,45 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Object eval(String script, int keyCount, String... params) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getScriptRedis(keyCount, params).eval(script, keyCount, params);
 	}
 
 	@Override
 	public Object evalsha(String sha1, List<String> keys, List<String> args) {
-		throw new UnsupportedOperationException("Not Implemented");
+		if (keys == null || keys.isEmpty()) {
+			throw new IllegalArgumentException("脚本没有键名参数，无法确定服务器.");
+		}
+		return this.getRedis(keys.get(0)).evalsha(sha1, keys, args);
 	}
 
 	@Override
 	public Object evalsha(String sha1, int keyCount, String... params) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getScriptRedis(keyCount, params).evalsha(sha1, keyCount, params);
+	}
+
+	/**
+	 * 根据脚本的第一个键名参数选择服务器(脚本用到的key需要在同一台服务器).
+	 */
+	protected Redis getScriptRedis(int keyCount, String... params) {
+		if (keyCount <= 0 || params == null || params.length == 0) {
+			throw new IllegalArgumentException("脚本没有键名参数，无法确定服务器.");
+		}
+		return this.getRedis(params[0]);
+	}
+
+	@Override
+	public String scriptLoad(final String script) {
+		List<Callable<String>> tasks = new ArrayList<Callable<String>>(redisList.length);
+		for (int i = 0; i < redisList.length; i++) {
+			final Redis redis = this.getRedis(i);
+			tasks.add(new Callable<String>() {
+				@Override
+				public String call() {
+					return redis.scriptLoad(script);
+				}
+			});
+		}
+		return this.invokeAll(tasks).get(0);
 	}
 
 	// @Override
@@ -846,7 +1317,7 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long publish(String channel, String message) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(channel).publish(channel, message);
 	}
 
 	@Override
@@ -856,7 +1327,14 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public void subscribe(JedisPubSub jedisPubSub, String... channels) {
-		throw new UnsupportedOperationException("Not Implemented");
+		// 按channel选择服务器，一个JedisPubSub只能订阅同一台服务器上的channel
+		int index = this.getIndex(channels[0]);
+		for (String channel : channels) {
+			if (this.getIndex(channel) != index) {
+				throw new IllegalArgumentException("channel[" + channels[0] + "," + channel + "]不在同一台服务器.");
+			}
+		}
+		this.getRedis(index).subscribe(jedisPubSub, channels);
 	}
 
 	@Override
@@ -931,32 +1409,32 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).hscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).sscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).zscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).hscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).sscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.getRedis(key).zscan(key, cursor);
 	}
 
 	@Override
@@ -1145,9 +1623,8 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 	}
 
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Entry<String, String>> hscan(String key, String cursor, ScanParams params) {
+		return this.getRedis(key).hscan(key, cursor, params);
 	}
 
 	@Override
@@ -1169,9 +1646,8 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 	}
 
 	@Override
-	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<String> sscan(String key, String cursor, ScanParams params) {
+		return this.getRedis(key).sscan(key, cursor, params);
 	}
 
 	@Override
@@ -1193,9 +1669,8 @@ public class RedisHashImpl extends AbstractRedis implements Redis {
 	}
 
 	@Override
-	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Tuple> zscan(String key, String cursor, ScanParams params) {
+		return this.getRedis(key).zscan(key, cursor, params);
 	}
 
 	@Override
@@ -2,6 +2,11 @@ package io.leopard.redis;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -11,9 +16,16 @@ import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
+import io.leopard.redis.codec.CodecUtil;
+import io.leopard.redis.codec.ValueCompressor;
+import io.leopard.redis.monitor.HotKey;
+import io.leopard.redis.monitor.HotKeySampler;
+import io.leopard.redis.monitor.RedisMetrics;
 import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.NearCache;
 import io.leopard.redis.util.RedisBackup;
 import io.leopard.redis.util.RedisUtil;
+import io.leopard.redis.util.ScriptRegistry;
 import redis.clients.jedis.BinaryClient.LIST_POSITION;
 import redis.clients.jedis.BitPosParams;
 import redis.clients.jedis.GeoCoordinate;
@@ -28,6 +40,8 @@ import redis.clients.jedis.Transaction;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.ZParams;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.SafeEncoder;
 import redis.clients.jedis.params.geo.GeoRadiusParam;
 import redis.clients.jedis.params.sortedset.ZAddParams;
 import redis.clients.jedis.params.sortedset.ZIncrByParams;
@@ -35,16 +49,42 @@ import redis.clients.jedis.params.sortedset.ZIncrByParams;
 /**
  * Redis实现(单机Redis).
  * 
+ * 设置了压缩阈值时，字符串和哈希的String value超过阈值后压缩保存，读取时自动解压；byte[]的value(包括对象编码)原样读写，不压缩.
+ * 
+ * 压缩后的key不能使用append、getrange、setrange、strlen等按字节操作value的指令，需要使用这些指令的key前缀应通过compressPolicies设置阈值为0.
+ * 
  * @author 阿海
  * 
  */
 public class RedisImpl extends AbstractRedis implements Redis {
 
+	/**
+	 * 不修改数据的指令，其他指令执行后失效热点key缓存.
+	 */
+	private static final Set<String> READ_COMMANDS = new HashSet<String>(Arrays.asList("get", "exists", "type", "ttl", "pttl", "getbit", "getrange", "substr", "strlen", "bitcount", "bitpos", "echo", "hget", "hmget",
+			"hexists", "hlen", "hkeys", "hvals", "hgetAll", "hscan", "llen", "lrange", "lindex", "smembers", "scard", "sismember", "srandmember", "sscan", "sdiff", "sinter", "zcard", "zrange", "zrevrange",
+			"zrangeWithScores", "zrevrangeWithScores", "zrank", "zrevrank", "zscore", "zcount", "zlexcount", "zrangeByScore", "zrevrangeByScore", "zrangeByScoreWithScores", "zrevrangeByScoreWithScores",
+			"zrangeByLex", "zrevrangeByLex", "zscan", "zunionStoreInJava", "zunionStoreByScoreInJava", "mget", "keys", "scan", "info", "dbSize", "randomKey", "geodist", "geohash", "geopos", "georadius",
+			"georadiusByMember", "pfcount", "publish", "subscribe", "psubscribe", "scriptLoad", "bgrewriteaof", "bgsave", "save"));
+
 	private IJedisPool pool;
 
 	protected String server;
 	protected String password;
 
+	private RedisMetrics metrics = new RedisMetrics(null);
+
+	private HotKeySampler hotKeySampler;
+
+	private NearCache hotKeyCache;
+
+	/**
+	 * value压缩，没有设置压缩阈值时为null.
+	 */
+	private ValueCompressor compressor;
+
+	private AsyncRedisImpl asyncRedis;
+
 	public RedisImpl() {
 
 	}
@@ -81,16 +121,34 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		this.password = password;
 	}
 
+	private static final ScriptRegistry SCRIPTS = new ScriptRegistry();
+
 	private interface Invoker {
 		public Object execute(Jedis jedis);
 	}
 
+	/**
+	 * 需要独占连接的指令(事务、阻塞指令、订阅)，多路复用模式下不能使用共享连接.
+	 */
+	private interface ExclusiveInvoker extends Invoker {
+	}
+
 	@PostConstruct
 	@Override
 	public void init() {
+		this.metrics = new RedisMetrics(server);
+		if (compressThreshold > 0 || (compressPolicies != null && !compressPolicies.isEmpty())) {
+			this.compressor = new ValueCompressor(compressThreshold, compressPolicies);
+		}
+		if (hotKeySampleRate > 0) {
+			this.hotKeySampler = new HotKeySampler(server, hotKeySampleRate, 32, 10 * 1000L);
+			if (hotKeyCacheSeconds > 0) {
+				this.hotKeyCache = new NearCache(1000, hotKeyCacheSeconds * 1000L);
+			}
+		}
 		// System.err.println("RedisImpl server:" + server);
 		try {
-			this.pool = RedisUtil.createJedisPool(server, timeout, maxActive, password);
+			this.pool = RedisUtil.createJedisPool(server, timeout, maxActive, password, minIdle, idleTimeout, multiplexConnections);
 		}
 		catch (RuntimeException e) {
 			System.err.println("server:" + server + " timeout:" + timeout);
@@ -114,40 +172,23 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	}
 
 	/**
-	 * 初始化默认连接数量.
+	 * 初始化默认连接数量(并行建立连接).
 	 */
 	protected void initPool() {
-		// System.err.println("initPool server:" + this.server +
-		// " initialPoolSize:" + initialPoolSize + " start");
 		if (this.initialPoolSize <= 0) {
 			return;
 		}
-		// windows环境关闭初始化默认redis连接功能?
-		if (System.getProperty("os.name").startsWith("Windows")) {
-			return;
-		}
 		int size;
-		if (this.initialPoolSize > this.maxActive) {
+		if (this.maxActive > 0 && this.initialPoolSize > this.maxActive) {
 			size = this.maxActive;
 		}
 		else {
 			size = this.initialPoolSize;
 		}
-
-		Jedis[] jedisArr = new Jedis[size];
-		for (int i = 0; i < jedisArr.length; i++) {
-			jedisArr[i] = this.getResource();
-		}
-
-		// int numActive = pool.getInternalPool().getNumActive();
-
-		for (int i = 0; i < jedisArr.length; i++) {
-			this.returnResource(jedisArr[i]);
+		int count = this.pool.warmUp(size);
+		if (count < size) {
+			logger.warn("初始化redis[" + this.server + "]连接数:" + count + "/" + size);
 		}
-		// int numActive2 = pool.getInternalPool().getNumActive();
-		// System.err.println("initPool server:" + this.server +
-		// " initialPoolSize:" + initialPoolSize + " numActive:" + numActive +
-		// " numActive2:" + numActive2 + " end");
 	}
 
 	/**
@@ -173,45 +214,52 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Jedis getResource() {
-		// long startTime = System.nanoTime();
+		return this.getResource(true);
+	}
+
+	/**
+	 * 获取连接.
+	 * 
+	 * @param exclusive 是否独占连接，false时多路复用模式下返回共享连接
+	 * @return
+	 */
+	protected Jedis getResource(boolean exclusive) {
+		long startTime = System.nanoTime();
 		try {
-			return this.pool.getResource();
+			if (exclusive) {
+				return this.pool.getResource();
+			}
+			return this.pool.getCommandResource();
 		}
 		// ahai 20131026 新版redis连接池的异常信息已经包含了IP和端口信息.
 		catch (JedisConnectionException e) {
+			metrics.incrPoolError();
 			String message = this.getErrorMessage(e);
 			throw new JedisConnectionException(message, e);
 			// throw e;
 		}
-		// finally {
-		// long endTime = System.nanoTime();
-		// long time = (endTime - startTime) / 1000L / 1000L; // time 单位:毫秒
-		// if (time >= 10) {
-		// String message = "server:" + server;
-		// message += " time:" + time;
-		// DataSourceLog.debug("getResource", message);
-		// }
-		// if (time >= 50) {
-		// this.getResourceSlowLog(time);
-		// }
-		// METHOD_TIME.addByStartTime("io.leopard.data.redis.RedisImpl.getResource",
-		// startTime);
-		// }
+		finally {
+			long micros = (System.nanoTime() - startTime) / 1000L;
+			metrics.recordPoolWait(micros);
+			long time = micros / 1000L; // time 单位:毫秒
+			if (time >= 50) {
+				this.getResourceSlowLog(time);
+			}
+		}
 	}
 
-	// private int slowCount = 0;
-
 	/**
 	 * Redis连接慢日志.
 	 * 
 	 * @param time
 	 */
 	protected void getResourceSlowLog(long time) {
-		// slowCount++;
-		// if (slowCount > 10) {
-		// AlarmSenderImpl.getInstance().send("连接Redis太慢,server:" + server +
-		// " time[" + time + "]");
-		// }
+		logger.warn("获取Redis连接太慢,server:" + server + " time[" + time + "ms].");
+	}
+
+	@Override
+	public RedisMetrics getMetrics() {
+		return metrics;
 	}
 
 	@Override
@@ -221,7 +269,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long del(final String... keys) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("del", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.del(keys);
@@ -231,7 +279,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long del(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("del", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.del(key);
@@ -241,7 +289,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long append(final String key, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("append", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.append(key, value);
@@ -251,7 +299,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public boolean append(final String key, final String value, final int seconds) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("append", key, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				Transaction transaction = jedis.multi();
@@ -267,7 +315,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	public boolean append(final List<String> keyList, final List<String> valueList, final int seconds) {
 		RedisUtil.checkList(keyList, valueList);
 
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("append", null, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				Transaction transaction = jedis.multi();
@@ -283,7 +331,10 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String set(final String key, final String value) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			return this.set(key, compressor.compress(key, SafeEncoder.encode(value)));
+		}
+		return (String) this.execute("set", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.set(key, value);
@@ -296,7 +347,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	public boolean set(final List<String> keyList, final List<String> valueList) {
 		RedisUtil.checkList(keyList, valueList);
 
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("set", null, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				Transaction transaction = jedis.multi();
@@ -312,7 +363,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long expire(final String key, final int seconds) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("expire", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.expire(key, seconds);
@@ -322,7 +373,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long ttl(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("ttl", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.ttl(key);
@@ -332,7 +383,10 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String set(final String key, final String value, final int seconds) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			return this.setex(key, seconds, value);
+		}
+		return (String) this.execute("set", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setex(key, seconds, value);
@@ -342,7 +396,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public boolean rename(final String oldkey, final String newkey) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("rename", oldkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				String result = jedis.rename(oldkey, newkey);
@@ -360,7 +414,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public RedisInfo info() {
-		String info = (String) this.execute(new Invoker() {
+		String info = (String) this.execute("info", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.info();
@@ -380,7 +434,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public long dbSize() {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("dbSize", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.dbSize();
@@ -390,7 +444,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public boolean flushAll() {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("flushAll", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				jedis.flushAll();
@@ -401,7 +455,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public boolean flushDB() {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("flushDB", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				jedis.flushDB();
@@ -413,7 +467,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long incr(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("incr", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.incr(key);
@@ -424,7 +478,16 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@Override
 	public String get(final String key) {
 		// System.out.println("redisImpl get:" + key);
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			// 不管key是否匹配压缩策略都按二进制读取，修改策略前压缩的value也能解压
+			return (String) this.executeCacheable("get", key, null, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.get(SafeEncoder.encode(key)));
+				}
+			});
+		}
+		return (String) this.executeCacheable("get", key, null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				// System.out.println("jedis:" + jedis);
@@ -438,31 +501,104 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	}
 
 	/**
-	 * 执行jedis的操作.
+	 * 返回热点key采样器，没有开启采样时返回null.
 	 * 
-	 * @param invoker 调度接口
 	 * @return
 	 */
-	protected Object execute(Invoker invoker) {
-		Jedis jedis = this.getResource();
+	public HotKeySampler getHotKeySampler() {
+		return hotKeySampler;
+	}
+
+	/**
+	 * 返回上一个统计窗口的热点key.
+	 * 
+	 * @return
+	 */
+	public List<HotKey> getHotKeys() {
+		if (hotKeySampler == null) {
+			return Collections.emptyList();
+		}
+		return hotKeySampler.getHotKeys();
+	}
+
+	/**
+	 * 执行指令，热点key的结果缓存在本地(hotKeyCacheSeconds秒).
+	 * 
+	 * @param command 指令
+	 * @param key
+	 * @param field 缓存字段
+	 * @param invoker
+	 * @return
+	 */
+	protected Object executeCacheable(String command, String key, String field, Invoker invoker) {
+		if (hotKeyCache == null || !hotKeySampler.isHot(command, key, hotKeyThreshold)) {
+			return this.execute(command, key, invoker);
+		}
+		Object value = hotKeyCache.get(key, field);
+		if (value != null) {
+			hotKeySampler.sample(command, key);
+			return value == NearCache.NULL ? null : value;
+		}
+		long version = hotKeyCache.getVersion(key);
+		Object result = this.execute(command, key, invoker);
+		hotKeyCache.put(key, field, result, version);
+		return result;
+	}
+
+	/**
+	 * 执行指令.
+	 * 
+	 * @param command 指令，用于统计
+	 * @param key 指令的第一个key，没有或有多个key时为null
+	 * @param invoker
+	 * @return
+	 */
+	protected Object execute(String command, String key, Invoker invoker) {
+		if (hotKeySampler != null) {
+			hotKeySampler.sample(command, key);
+		}
+		try {
+			return this.execute(command, invoker);
+		}
+		finally {
+			if (hotKeyCache != null && !READ_COMMANDS.contains(command)) {
+				// 没有key(多个key或重命名等)时清空
+				if (key == null || "rename".equals(command)) {
+					hotKeyCache.clear();
+				}
+				else {
+					hotKeyCache.invalidate(key);
+				}
+			}
+		}
+	}
+
+	private Object execute(String command, Invoker invoker) {
+		Jedis jedis = this.getResource(invoker instanceof ExclusiveInvoker);
+		long startTime = System.nanoTime();
 		try {
 			return invoker.execute(jedis);
 		}
 		catch (JedisConnectionException e) {
+			metrics.incrError();
+			metrics.incrBroken();
 			this.returnBrokenResource(jedis);
 			String message = this.getErrorMessage(e);
 			// message += " key:" + key;
 			throw new JedisConnectionException(message, e);
 		}
 		catch (RuntimeException e) {
+			metrics.incrError();
 			this.returnBrokenResource(jedis);
 			throw e;
 		}
 		catch (Exception e) {
+			metrics.incrError();
 			this.returnBrokenResource(jedis);
 			throw new RuntimeException(e.getMessage(), e);
 		}
 		finally {
+			metrics.recordCommand(command, (System.nanoTime() - startTime) / 1000L);
 			// jedis.close();
 			this.returnResource(jedis);
 		}
@@ -470,7 +606,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String getSet(final String key, final String value) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (String) this.execute("getSet", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.getSet(SafeEncoder.encode(key), compressor.compress(key, SafeEncoder.encode(value))));
+				}
+			});
+		}
+		return (String) this.execute("getSet", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.getSet(key, value);
@@ -480,7 +624,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zcard(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zcard", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zcard(key);
@@ -491,7 +635,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrevrangeWithScores(final String key, final long start, final long end) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrevrangeWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeWithScores(key, start, end);
@@ -502,7 +646,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrevrange(final String key, final long start, final long end) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrevrange", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrange(key, start, end);
@@ -513,7 +657,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrange(final String key, final long start, final long end) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrange", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrange(key, start, end);
@@ -528,7 +672,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zadd(final String key, final double score, final String member) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zadd", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zadd(key, score, member);
@@ -538,7 +682,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zadd(final String key, final Map<String, Double> scoreMembers) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zadd", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zadd(key, scoreMembers);
@@ -548,7 +692,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long setrange(final String key, final long offset, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("setrange", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setrange(key, offset, value);
@@ -562,9 +706,26 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		return jedis.multi();
 	}
 
+	@Override
+	public RedisPipeline pipelined() {
+		return new RedisPipelineImpl(this);
+	}
+
+	/**
+	 * 返回异步接口(第一次调用时创建，destroy()时关闭).
+	 * 
+	 * @return
+	 */
+	public synchronized AsyncRedis async() {
+		if (asyncRedis == null) {
+			asyncRedis = new AsyncRedisImpl(this, asyncConnections, 128);
+		}
+		return asyncRedis;
+	}
+
 	@Override
 	public Long srem(final String key, final String... member) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("srem", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.srem(key, member);
@@ -574,7 +735,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Boolean exists(final String key) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("exists", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.exists(key);
@@ -584,7 +745,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String type(final String key) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("type", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.type(key);
@@ -594,7 +755,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long expireAt(final String key, final long unixTime) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("expireAt", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.expireAt(key, unixTime);
@@ -604,7 +765,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Boolean setbit(final String key, final long offset, final boolean value) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("setbit", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setbit(key, offset, value);
@@ -614,7 +775,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Boolean getbit(final String key, final long offset) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("getbit", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.getbit(key, offset);
@@ -624,7 +785,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String getrange(final String key, final long startOffset, final long endOffset) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("getrange", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.getrange(key, startOffset, endOffset);
@@ -634,7 +795,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long setnx(final String key, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("setnx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setnx(key, value);
@@ -644,7 +805,16 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String setex(final String key, final int seconds, final String value) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			final byte[] bytes = compressor.compress(key, SafeEncoder.encode(value));
+			return (String) this.execute("setex", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return jedis.setex(SafeEncoder.encode(key), seconds, bytes);
+				}
+			});
+		}
+		return (String) this.execute("setex", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setex(key, seconds, value);
@@ -654,7 +824,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long decrBy(final String key, final long integer) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("decrBy", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.decrBy(key, integer);
@@ -664,7 +834,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long decr(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("decr", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.decr(key);
@@ -674,7 +844,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long incrBy(final String key, final long integer) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("incrBy", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.incrBy(key, integer);
@@ -684,7 +854,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String substr(final String key, final int start, final int end) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("substr", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.substr(key, start, end);
@@ -699,7 +869,10 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long hset(final String key, final String field, final String value) {
-		return (Long) this.execute(new Invoker() {
+		if (compressor != null) {
+			return this.hset(key, field, compressor.compress(key, SafeEncoder.encode(value)));
+		}
+		return (Long) this.execute("hset", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hset(key, field, value);
@@ -714,7 +887,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String hget(final String key, final String field) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (String) this.executeCacheable("hget", key, field, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.hget(SafeEncoder.encode(key), SafeEncoder.encode(field)));
+				}
+			});
+		}
+		return (String) this.executeCacheable("hget", key, field, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hget(key, field);
@@ -727,7 +908,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hsetnx(String, String, String)
 	 */
 	public Long hsetnx(final String key, final String field, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("hsetnx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hsetnx(key, field, value);
@@ -737,7 +918,19 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String hmset(final String key, final Map<String, String> hash) {
-		return (String) this.execute(new Invoker() {
+		if (compressor != null) {
+			final Map<byte[], byte[]> map = new HashMap<byte[], byte[]>(hash.size() * 2);
+			for (Entry<String, String> entry : hash.entrySet()) {
+				map.put(SafeEncoder.encode(entry.getKey()), compressor.compress(key, SafeEncoder.encode(entry.getValue())));
+			}
+			return (String) this.execute("hmset", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return jedis.hmset(SafeEncoder.encode(key), map);
+				}
+			});
+		}
+		return (String) this.execute("hmset", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hmset(key, hash);
@@ -748,7 +941,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> mget(final String... keys) {
-		return (List<String>) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (List<String>) this.execute("mget", null, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.mget(SafeEncoder.encodeMany(keys)));
+				}
+			});
+		}
+		return (List<String>) this.execute("mget", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.mget(keys);
@@ -759,7 +960,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> hmget(final String key, final String... fields) {
-		return (List<String>) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (List<String>) this.execute("hmget", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.hmget(SafeEncoder.encode(key), SafeEncoder.encodeMany(fields)));
+				}
+			});
+		}
+		return (List<String>) this.execute("hmget", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hmget(key, fields);
@@ -769,7 +978,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long hincrBy(final String key, final String field, final long value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("hincrBy", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hincrBy(key, field, value);
@@ -782,7 +991,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hexists(String, String)
 	 */
 	public Boolean hexists(final String key, final String field) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("hexists", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hexists(key, field);
@@ -827,7 +1036,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hdel(String, String...)
 	 */
 	public Long hdel(final String key, final String... field) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("hdel", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hdel(key, field);
@@ -856,7 +1065,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hlen(String)
 	 */
 	public Long hlen(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("hlen", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hlen(key);
@@ -885,7 +1094,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hkeys(String)
 	 */
 	public Set<String> hkeys(final String key) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("hkeys", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hkeys(key);
@@ -915,7 +1124,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hvals(String)
 	 */
 	public List<String> hvals(final String key) {
-		return (List<String>) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (List<String>) this.execute("hvals", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.hvals(SafeEncoder.encode(key)));
+				}
+			});
+		}
+		return (List<String>) this.execute("hvals", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hvals(key);
@@ -944,7 +1161,20 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#hgetAll(String)
 	 */
 	public Map<String, String> hgetAll(final String key) {
-		return (Map<String, String>) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (Map<String, String>) this.execute("hgetAll", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					Map<byte[], byte[]> map = jedis.hgetAll(SafeEncoder.encode(key));
+					Map<String, String> result = new HashMap<String, String>(map.size() * 2);
+					for (Entry<byte[], byte[]> entry : map.entrySet()) {
+						result.put(SafeEncoder.encode(entry.getKey()), decompress(entry.getValue()));
+					}
+					return result;
+				}
+			});
+		}
+		return (Map<String, String>) this.execute("hgetAll", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hgetAll(key);
@@ -957,7 +1187,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	 * @see io.leopard.data.redis.JedisCommands#rpush(String, String...)
 	 */
 	public Long rpush(final String key, final String... strings) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("rpush", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.rpush(key, strings);
@@ -967,7 +1197,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long lpush(final String key, final String... strings) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("lpush", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lpush(key, strings);
@@ -977,7 +1207,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long llen(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("llen", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.llen(key);
@@ -988,7 +1218,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> lrange(final String key, final long start, final long end) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("lrange", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lrange(key, start, end);
@@ -998,7 +1228,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String ltrim(final String key, final long start, final long end) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("ltrim", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.ltrim(key, start, end);
@@ -1008,7 +1238,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String lindex(final String key, final long index) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("lindex", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lindex(key, index);
@@ -1018,7 +1248,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String lset(final String key, final long index, final String value) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("lset", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lset(key, index, value);
@@ -1028,7 +1258,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long lrem(final String key, final long count, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("lrem", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lrem(key, count, value);
@@ -1038,7 +1268,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String lpop(final String key) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("lpop", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lpop(key);
@@ -1048,7 +1278,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String rpop(final String key) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("rpop", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.rpop(key);
@@ -1058,7 +1288,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long sadd(final String key, final String... members) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("sadd", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sadd(key, members);
@@ -1069,7 +1299,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> smembers(final String key) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("smembers", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.smembers(key);
@@ -1079,7 +1309,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String spop(final String key) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("spop", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.spop(key);
@@ -1089,7 +1319,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long scard(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("scard", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.scard(key);
@@ -1099,7 +1329,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Boolean sismember(final String key, final String member) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("sismember", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sismember(key, member);
@@ -1110,7 +1340,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> srandmember(final String key, final int count) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("srandmember", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.srandmember(key, count);
@@ -1120,7 +1350,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String srandmember(final String key) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("srandmember", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.srandmember(key);
@@ -1137,7 +1367,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@Override
 
 	public Long zrem(final String key, final String... members) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zrem", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrem(key, members);
@@ -1152,7 +1382,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Double zincrby(final String key, final double score, final String member) {
-		return (Double) this.execute(new Invoker() {
+		return (Double) this.execute("zincrby", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zincrby(key, score, member);
@@ -1162,7 +1392,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zrank(final String key, final String member) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zrank", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrank(key, member);
@@ -1172,7 +1402,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zrevrank(final String key, final String member) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zrevrank", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrank(key, member);
@@ -1182,7 +1412,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zinterstore(final String dstkey, final String... sets) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zinterstore", dstkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				// System.out.println("sets:" + StringUtils.join(sets, ","));
@@ -1193,7 +1423,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zinterstore(final String dstkey, final ZParams params, final String... sets) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zinterstore", dstkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zinterstore(dstkey, params, sets);
@@ -1204,7 +1434,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrangeWithScores(final String key, final long start, final long end) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrangeWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeWithScores(key, start, end);
@@ -1214,7 +1444,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Double zscore(final String key, final String member) {
-		return (Double) this.execute(new Invoker() {
+		return (Double) this.execute("zscore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 
@@ -1232,7 +1462,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> sort(final String key) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("sort", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sort(key);
@@ -1243,7 +1473,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> sort(final String key, final SortingParams sortingParameters) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("sort", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sort(key, sortingParameters);
@@ -1253,7 +1483,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zcount(final String key, final double min, final double max) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zcount", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zcount(key, min, max);
@@ -1263,7 +1493,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zcount(final String key, final String min, final String max) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zcount", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zcount(key, min, max);
@@ -1274,7 +1504,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrangeByScore(final String key, final double min, final double max) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScore(key, min, max);
@@ -1285,7 +1515,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrangeByScore(final String key, final String min, final String max) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScore(key, min, max);
@@ -1296,7 +1526,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrangeByScore(final String key, final String min, final String max, final int offset, final int count) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScore(key, min, max, offset, count);
@@ -1307,7 +1537,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrevrangeByScore(final String key, final double max, final double min) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrevrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScore(key, max, min);
@@ -1318,7 +1548,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrevrangeByScore(final String key, final String max, final String min, final int offset, final int count) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrevrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScore(key, max, min, offset, count);
@@ -1329,7 +1559,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrevrangeByScore(final String key, final String max, final String min) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrevrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScore(key, max, min);
@@ -1340,7 +1570,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrangeByScore(final String key, final double min, final double max, final int offset, final int count) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScore(key, min, max, offset, count);
@@ -1351,7 +1581,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zrevrangeByScore(final String key, final double max, final double min, final int offset, final int count) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zrevrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScore(key, max, min, offset, count);
@@ -1362,7 +1592,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScoreWithScores(key, min, max);
@@ -1373,7 +1603,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max, final int offset, final int count) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScoreWithScores(key, min, max, offset, count);
@@ -1384,7 +1614,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(final String key, final String min, final String max) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScoreWithScores(key, min, max);
@@ -1395,7 +1625,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScoreWithScores(key, max, min);
@@ -1406,7 +1636,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min, final int offset, final int count) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScoreWithScores(key, max, min, offset, count);
@@ -1417,7 +1647,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final String max, final String min) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScoreWithScores(key, max, min);
@@ -1428,7 +1658,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max, final int offset, final int count) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrangeByScoreWithScores(key, min, max, offset, count);
@@ -1439,7 +1669,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min, final int offset, final int count) {
-		return (Set<Tuple>) this.execute(new Invoker() {
+		return (Set<Tuple>) this.execute("zrevrangeByScoreWithScores", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zrevrangeByScoreWithScores(key, max, min, offset, count);
@@ -1449,7 +1679,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zremrangeByRank(final String key, final long start, final long end) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zremrangeByRank", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zremrangeByRank(key, start, end);
@@ -1459,7 +1689,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zremrangeByScore(final String key, final double start, final double end) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zremrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zremrangeByScore(key, start, end);
@@ -1469,7 +1699,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zremrangeByScore(final String key, final String start, final String end) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zremrangeByScore", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zremrangeByScore(key, start, end);
@@ -1479,7 +1709,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long linsert(final String key, final LIST_POSITION where, final String pivot, final String value) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("linsert", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.linsert(key, where, pivot, value);
@@ -1490,7 +1720,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> keys(final String pattern) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("keys", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.keys(pattern);
@@ -1498,9 +1728,20 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		});
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public ScanResult<String> scan(final String cursor, final ScanParams params) {
+		return (ScanResult<String>) this.execute("scan", null, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.scan(cursor, params);
+			}
+		});
+	}
+
 	@Override
 	public Long zunionstore(final String dstkey, final String... sets) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zunionstore", dstkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zunionstore(dstkey, sets);
@@ -1510,7 +1751,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long zunionstore(final String dstkey, final ZParams params, final String... sets) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("zunionstore", dstkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zunionstore(dstkey, params, sets);
@@ -1520,7 +1761,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long lpushx(final String key, final String string) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("lpushx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lpushx(key, string);
@@ -1530,7 +1771,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long rpushx(final String key, final String string) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("rpushx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.rpushx(key, string);
@@ -1546,7 +1787,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zunionStoreInJava(final String... sets) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zunionStoreInJava", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				Set<String> strings = new HashSet<String>(75 * sets.length);
@@ -1562,7 +1803,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> zunionStoreByScoreInJava(final double min, final double max, final String... sets) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("zunionStoreByScoreInJava", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				Set<String> strings = new HashSet<String>(75 * sets.length);
@@ -1582,73 +1823,210 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	}
 
 	@Override
-	public Object evalsha(final String sha1, final int keyCount, final String... params) {
-		return this.execute(new Invoker() {
+	public byte[] getBytes(final String key) {
+		return (byte[]) this.execute("get", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
-				return jedis.evalsha(sha1, keyCount, params);
+				return jedis.get(SafeEncoder.encode(key));
 			}
 		});
 	}
 
 	@Override
-	public Object evalsha(final String sha1, final List<String> keys, final List<String> args) {
-		return this.execute(new Invoker() {
+	public String set(final String key, final byte[] value) {
+		return (String) this.execute("set", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
-				return jedis.evalsha(sha1, keys, args);
+				return jedis.set(SafeEncoder.encode(key), value);
 			}
 		});
 	}
 
+	@Override
+	public byte[] hgetBytes(final String key, final String field) {
+		return (byte[]) this.execute("hget", key, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.hget(SafeEncoder.encode(key), SafeEncoder.encode(field));
+			}
+		});
+	}
+
+	@Override
+	public Long hset(final String key, final String field, final byte[] value) {
+		return (Long) this.execute("hset", key, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.hset(SafeEncoder.encode(key), SafeEncoder.encode(field), value);
+			}
+		});
+	}
+
+	/**
+	 * value压缩，没有设置压缩阈值时返回null.
+	 */
+	protected ValueCompressor getCompressor() {
+		return compressor;
+	}
+
+	/**
+	 * 解压并转换为String.
+	 */
+	protected String decompress(byte[] value) {
+		return value == null ? null : SafeEncoder.encode(compressor.decompress(value));
+	}
+
+	protected List<String> decompress(List<byte[]> values) {
+		List<String> list = new ArrayList<String>(values.size());
+		for (byte[] value : values) {
+			list.add(this.decompress(value));
+		}
+		return list;
+	}
+
+	protected ScanResult<Entry<String, String>> decompress(ScanResult<Entry<byte[], byte[]>> result) {
+		List<Entry<String, String>> list = new ArrayList<Entry<String, String>>(result.getResult().size());
+		for (Entry<byte[], byte[]> entry : result.getResult()) {
+			list.add(new SimpleEntry<String, String>(SafeEncoder.encode(entry.getKey()), this.decompress(entry.getValue())));
+		}
+		return new ScanResult<Entry<String, String>>(result.getCursorAsBytes(), list);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.get(key);
+		}
+		return CodecUtil.decode(codec, this.getBytes(key), clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		if (value instanceof String) {
+			return this.set(key, (String) value);
+		}
+		return this.set(key, CodecUtil.encode(codec, value));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.hget(key, field);
+		}
+		return CodecUtil.decode(codec, this.hgetBytes(key, field), clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		if (value instanceof String) {
+			return this.hset(key, field, (String) value);
+		}
+		return this.hset(key, field, CodecUtil.encode(codec, value));
+	}
+
+	@Override
+	public Object evalsha(final String sha1, final int keyCount, final String... params) {
+		return this.evalScript(sha1, SCRIPTS.getScript(sha1), keyCount, params);
+	}
+
+	@Override
+	public Object evalsha(final String sha1, final List<String> keys, final List<String> args) {
+		String[] params = new String[keys.size() + args.size()];
+		int i = 0;
+		for (String key : keys) {
+			params[i++] = key;
+		}
+		for (String arg : args) {
+			params[i++] = arg;
+		}
+		return this.evalsha(sha1, keys.size(), params);
+	}
+
 	@Override
 	public Object evalAssertSha(String sha, String script) {
-		String sha1 = Integer.toString(script.hashCode());
+		String sha1 = SCRIPTS.register(script);
 		if (!sha1.equals(sha)) {
 			throw new IllegalArgumentException("sha[" + sha + "][" + sha1 + "]值不对.");
 		}
-		return this.eval(script);
+		return this.evalScript(sha1, script, 0);
 	}
 
 	@Override
 	public String evalReturnSha(String script) {
-		this.eval(script);
-		return Integer.toString(script.hashCode());
+		String sha1 = SCRIPTS.register(script);
+		this.evalScript(sha1, script, 0);
+		return sha1;
 	}
 
 	@Override
 	public Object eval(final String script) {
-		return this.execute(new Invoker() {
-			@Override
-			public Object execute(Jedis jedis) {
-				return jedis.eval(script);
-			}
-		});
+		return this.evalScript(SCRIPTS.register(script), script, 0);
 	}
 
 	@Override
 	public Object eval(final String script, final int keyCount, final String... params) {
-		return this.execute(new Invoker() {
-			@Override
-			public Object execute(Jedis jedis) {
-				return jedis.eval(script, keyCount, params);
-			}
-		});
+		return this.evalScript(SCRIPTS.register(script), script, keyCount, params);
 	}
 
 	@Override
 	public Object evalsha(final String script) {
-		return this.execute(new Invoker() {
+		return this.evalScript(script, SCRIPTS.getScript(script), 0);
+	}
+
+	@Override
+	public String scriptLoad(final String script) {
+		SCRIPTS.register(script);
+		return (String) this.execute("scriptLoad", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
-				return jedis.evalsha(script);
+				return jedis.scriptLoad(script);
 			}
 		});
 	}
 
+	/**
+	 * 使用EVALSHA执行脚本，服务器返回NOSCRIPT时加载脚本后重试.
+	 * 
+	 * 执行后只失效脚本声明的key的热点缓存(脚本只能访问声明的key)，没有key的脚本不失效.
+	 * 
+	 * @param sha1 脚本的sha1值
+	 * @param script 脚本，为null时不重试
+	 * @param keyCount 键名参数的个数
+	 * @param params 参数
+	 * @return
+	 */
+	protected Object evalScript(final String sha1, final String script, final int keyCount, final String... params) {
+		try {
+			return this.execute("evalsha", new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					try {
+						return jedis.evalsha(sha1, keyCount, params);
+					}
+					catch (JedisDataException e) {
+						if (script == null || !ScriptRegistry.isNoScript(e)) {
+							throw e;
+						}
+					}
+					jedis.scriptLoad(script);
+					return jedis.evalsha(sha1, keyCount, params);
+				}
+			});
+		}
+		finally {
+			if (hotKeyCache != null) {
+				for (int i = 0; i < keyCount && i < params.length; i++) {
+					hotKeyCache.invalidate(params[i]);
+				}
+			}
+		}
+	}
+
 	@Override
 	public String bgrewriteaof() {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("bgrewriteaof", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.bgrewriteaof();
@@ -1658,7 +2036,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String bgsave() {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("bgsave", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.bgsave();
@@ -1668,7 +2046,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String save() {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("save", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.save();
@@ -1683,7 +2061,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long publish(final String channel, final String message) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("publish", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.publish(channel, message);
@@ -1693,7 +2071,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public void psubscribe(final JedisPubSub jedisPubSub, final String... patterns) {
-		this.execute(new Invoker() {
+		this.execute("psubscribe", null, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				jedis.psubscribe(jedisPubSub, patterns);
@@ -1704,7 +2082,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public void subscribe(final JedisPubSub jedisPubSub, final String... channels) {
-		this.execute(new Invoker() {
+		this.execute("subscribe", null, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				jedis.subscribe(jedisPubSub, channels);
@@ -1716,7 +2094,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> sdiff(final String... keys) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("sdiff", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sdiff(keys);
@@ -1726,7 +2104,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long sdiffstore(final String dstkey, final String... keys) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("sdiffstore", dstkey, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sdiffstore(dstkey, keys);
@@ -1736,7 +2114,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String randomKey() {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("randomKey", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.randomKey();
@@ -1746,7 +2124,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long persist(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("persist", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.persist(key);
@@ -1756,7 +2134,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Boolean setbit(final String key, final long offset, final String value) {
-		return (Boolean) this.execute(new Invoker() {
+		return (Boolean) this.execute("setbit", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.setbit(key, offset, value);
@@ -1766,7 +2144,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long strlen(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("strlen", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.strlen(key);
@@ -1776,7 +2154,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long lpushx(final String key, final String... string) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("lpushx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.lpushx(key, string);
@@ -1786,7 +2164,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long rpushx(final String key, final String... string) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("rpushx", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.rpushx(key, string);
@@ -1797,7 +2175,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> blpop(final String arg) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("blpop", null, new ExclusiveInvoker() {
 			@SuppressWarnings("deprecation")
 			@Override
 			public Object execute(Jedis jedis) {
@@ -1809,7 +2187,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> brpop(final String arg) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("brpop", null, new ExclusiveInvoker() {
 			@SuppressWarnings("deprecation")
 			@Override
 			public Object execute(Jedis jedis) {
@@ -1820,7 +2198,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public String echo(final String string) {
-		return (String) this.execute(new Invoker() {
+		return (String) this.execute("echo", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.echo(string);
@@ -1830,7 +2208,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long move(final String key, final int dbIndex) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("move", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.move(key, dbIndex);
@@ -1840,7 +2218,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long bitcount(final String key) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("bitcount", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.bitcount(key);
@@ -1850,7 +2228,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public Long bitcount(final String key, final long start, final long end) {
-		return (Long) this.execute(new Invoker() {
+		return (Long) this.execute("bitcount", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.bitcount(key, start, end);
@@ -1860,13 +2238,21 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(final String key, final int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.hscan(key, String.valueOf(cursor));
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public ScanResult<Entry<String, String>> hscan(final String key, final String cursor) {
-		return (ScanResult<Entry<String, String>>) this.execute(new Invoker() {
+		if (compressor != null) {
+			return (ScanResult<Entry<String, String>>) this.execute("hscan", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.hscan(SafeEncoder.encode(key), SafeEncoder.encode(cursor)));
+				}
+			});
+		}
+		return (ScanResult<Entry<String, String>>) this.execute("hscan", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.hscan(key, cursor);
@@ -1876,18 +2262,18 @@ public class RedisImpl extends AbstractRedis implements Redis {
 
 	@Override
 	public ScanResult<String> sscan(final String key, final int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.sscan(key, String.valueOf(cursor));
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(final String key, final int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.zscan(key, String.valueOf(cursor));
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public ScanResult<String> sscan(final String key, final String cursor) {
-		return (ScanResult<String>) this.execute(new Invoker() {
+		return (ScanResult<String>) this.execute("sscan", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sscan(key, cursor);
@@ -1898,7 +2284,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public ScanResult<Tuple> zscan(final String key, final String cursor) {
-		return (ScanResult<Tuple>) this.execute(new Invoker() {
+		return (ScanResult<Tuple>) this.execute("zscan", key, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.zscan(key, cursor);
@@ -1924,6 +2310,12 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@PreDestroy
 	@Override
 	public void destroy() {
+		synchronized (this) {
+			if (asyncRedis != null) {
+				asyncRedis.destroy();
+				asyncRedis = null;
+			}
+		}
 		if (pool != null) {
 			pool.destroy();
 		}
@@ -1992,7 +2384,7 @@ public class RedisImpl extends AbstractRedis implements Redis {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> blpop(final int timeout, final String key) {
-		return (List<String>) this.execute(new Invoker() {
+		return (List<String>) this.execute("blpop", null, new ExclusiveInvoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.blpop(timeout, key);
@@ -2094,10 +2486,23 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Entry<String, String>> hscan(final String key, final String cursor, final ScanParams params) {
+		if (compressor != null) {
+			return (ScanResult<Entry<String, String>>) this.execute("hscan", key, new Invoker() {
+				@Override
+				public Object execute(Jedis jedis) {
+					return decompress(jedis.hscan(SafeEncoder.encode(key), SafeEncoder.encode(cursor), params));
+				}
+			});
+		}
+		return (ScanResult<Entry<String, String>>) this.execute("hscan", key, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.hscan(key, cursor, params);
+			}
+		});
 	}
 
 	@Override
@@ -2118,10 +2523,15 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
-	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<String> sscan(final String key, final String cursor, final ScanParams params) {
+		return (ScanResult<String>) this.execute("sscan", key, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.sscan(key, cursor, params);
+			}
+		});
 	}
 
 	@Override
@@ -2142,16 +2552,21 @@ public class RedisImpl extends AbstractRedis implements Redis {
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
-	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Tuple> zscan(final String key, final String cursor, final ScanParams params) {
+		return (ScanResult<Tuple>) this.execute("zscan", key, new Invoker() {
+			@Override
+			public Object execute(Jedis jedis) {
+				return jedis.zscan(key, cursor, params);
+			}
+		});
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public Set<String> sinter(final String... keys) {
-		return (Set<String>) this.execute(new Invoker() {
+		return (Set<String>) this.execute("sinter", null, new Invoker() {
 			@Override
 			public Object execute(Jedis jedis) {
 				return jedis.sinter(keys);
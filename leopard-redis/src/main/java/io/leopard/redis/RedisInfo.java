@@ -122,6 +122,42 @@ public class RedisInfo {
 		return Float.parseFloat(map.get("used_cpu_sys"));
 	}
 
+	/**
+	 * 角色(master或slave).
+	 * 
+	 * @return
+	 */
+	public String getRole() {
+		return map.get("role");
+	}
+
+	/**
+	 * 主服务器的复制偏移量.
+	 * 
+	 * @return
+	 */
+	public long getMasterReplOffset() {
+		return Long.parseLong(map.get("master_repl_offset").trim());
+	}
+
+	/**
+	 * 从服务器已复制的偏移量.
+	 * 
+	 * @return
+	 */
+	public long getSlaveReplOffset() {
+		return Long.parseLong(map.get("slave_repl_offset").trim());
+	}
+
+	/**
+	 * 从服务器和主服务器的连接是否正常.
+	 * 
+	 * @return
+	 */
+	public boolean isMasterLinkUp() {
+		return "up".equals(map.get("master_link_status"));
+	}
+
 	@Override
 	public String toString() {
 		return map.toString();
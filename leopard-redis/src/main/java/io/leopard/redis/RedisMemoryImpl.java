@@ -1,23 +1,48 @@
 package io.leopard.redis;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.leopard.redis.codec.BinaryCodec;
+import io.leopard.redis.codec.CodecUtil;
+import io.leopard.redis.codec.RedisCodec;
 import io.leopard.redis.memory.IRedisHashes;
 import io.leopard.redis.memory.IRedisList;
 import io.leopard.redis.memory.IRedisSet;
 import io.leopard.redis.memory.IRedisSortedSet;
 import io.leopard.redis.memory.IRedisString;
+import io.leopard.redis.memory.KeyLockHandler;
+import io.leopard.redis.memory.RedisKeyspace;
 import io.leopard.redis.memory.RedisHashesImpl;
 import io.leopard.redis.memory.RedisListImpl;
 import io.leopard.redis.memory.RedisSetImpl;
+import io.leopard.redis.memory.RedisSnapshot;
 import io.leopard.redis.memory.RedisSortedSetImpl;
 import io.leopard.redis.memory.RedisStringImpl;
+import io.leopard.redis.monitor.RedisMetrics;
 import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.ScanUtil;
 import redis.clients.jedis.BinaryClient.LIST_POSITION;
 import redis.clients.jedis.BitPosParams;
 import redis.clients.jedis.GeoCoordinate;
@@ -43,29 +68,197 @@ import redis.clients.jedis.params.sortedset.ZIncrByParams;
  */
 public class RedisMemoryImpl implements Redis {
 
-	private IRedisString redisString = new RedisStringImpl();
-	private IRedisHashes redisHashes = new RedisHashesImpl();
-	private IRedisSortedSet redisSortedSet = new RedisSortedSetImpl();
-	private IRedisSet redisSet = new RedisSetImpl();
-	private IRedisList redisList = new RedisListImpl();
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	private static ScheduledExecutorService expireExecutor;
+
+	/**
+	 * 二进制值按ISO-8859-1保存为String(每个字节对应一个字符，不会丢失数据).
+	 */
+	private static final Charset BINARY = Charset.forName("ISO-8859-1");
+
+	private RedisKeyspace keyspace = new RedisKeyspace();
+	// 每个命令持有key的锁执行
+	private IRedisString redisString = KeyLockHandler.wrap(IRedisString.class, new RedisStringImpl(keyspace), keyspace);
+	private IRedisHashes redisHashes = KeyLockHandler.wrap(IRedisHashes.class, new RedisHashesImpl(keyspace), keyspace);
+	private IRedisSortedSet redisSortedSet = KeyLockHandler.wrap(IRedisSortedSet.class, new RedisSortedSetImpl(keyspace), keyspace);
+	private IRedisSet redisSet = KeyLockHandler.wrap(IRedisSet.class, new RedisSetImpl(keyspace), keyspace);
+	private IRedisList redisList = KeyLockHandler.wrap(IRedisList.class, new RedisListImpl(keyspace), keyspace);
+
+	/**
+	 * 主动过期间隔(毫秒)，小于等于0表示只在访问时删除过期的key.
+	 */
+	private long activeExpireInterval = 100;
+
+	/**
+	 * 每次主动过期最多检查的key数量.
+	 */
+	private int activeExpireKeys = 200;
+
+	private ScheduledFuture<?> expireFuture;
+
+	/**
+	 * 快照文件，设置后init()时加载、destroy()时保存.
+	 */
+	private File snapshotFile;
+
+	private final AtomicBoolean saving = new AtomicBoolean(false);
+
+	private volatile long lastSaveTime;
+
+	private RedisCodec codec = BinaryCodec.getInstance();
+
+	public void setActiveExpireInterval(long activeExpireInterval) {
+		this.activeExpireInterval = activeExpireInterval;
+	}
+
+	public void setActiveExpireKeys(int activeExpireKeys) {
+		this.activeExpireKeys = activeExpireKeys;
+	}
+
+	/**
+	 * 设置内存上限(估算的字节数)，小于等于0表示不限制.
+	 */
+	public void setMaxmemory(long maxmemory) {
+		keyspace.setMaxmemory(maxmemory);
+	}
+
+	/**
+	 * 设置淘汰策略(noeviction、allkeys-lru、allkeys-lfu、volatile-ttl)，默认noeviction.
+	 */
+	public void setMaxmemoryPolicy(String maxmemoryPolicy) {
+		keyspace.setMaxmemoryPolicy(maxmemoryPolicy);
+	}
+
+	public void setMaxmemorySamples(int maxmemorySamples) {
+		keyspace.setMaxmemorySamples(maxmemorySamples);
+	}
+
+	public void setSnapshotFile(String snapshotFile) {
+		this.snapshotFile = snapshotFile == null ? null : new File(snapshotFile);
+	}
+
+	/**
+	 * 上次保存快照成功的时间(毫秒时间戳)，没有保存过返回0.
+	 */
+	public long getLastSaveTime() {
+		return lastSaveTime;
+	}
+
+	public RedisCodec getCodec() {
+		return codec;
+	}
+
+	/**
+	 * 对象编码，用于get(key, Class)、set(key, T)等方法，默认是BinaryCodec.
+	 */
+	public void setCodec(RedisCodec codec) {
+		this.codec = codec;
+	}
+
+	public RedisKeyspace getKeyspace() {
+		return keyspace;
+	}
 
 	@Override
 	public void init() {
+		if (snapshotFile != null && snapshotFile.exists()) {
+			long startTime = System.currentTimeMillis();
+			long count = this.load(snapshotFile);
+			logger.info("加载快照[" + snapshotFile + "] key:" + count + " time:" + (System.currentTimeMillis() - startTime) + "ms");
+		}
+		if (activeExpireInterval > 0 && expireFuture == null) {
+			this.expireFuture = getExpireExecutor().scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					keyspace.activeExpireCycle(activeExpireKeys);
+				}
+			}, activeExpireInterval, activeExpireInterval, TimeUnit.MILLISECONDS);
+		}
+	}
 
+	private static synchronized ScheduledExecutorService getExpireExecutor() {
+		if (expireExecutor == null) {
+			expireExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "leopard-redis-memory-expire");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return expireExecutor;
 	}
 
 	@Override
 	public void destroy() {
+		if (expireFuture != null) {
+			expireFuture.cancel(false);
+			expireFuture = null;
+		}
+		if (snapshotFile != null) {
+			this.save();
+		}
+	}
 
+	protected RedisSnapshot newSnapshot() {
+		return new RedisSnapshot(keyspace, redisString, redisHashes, redisList, redisSet, redisSortedSet);
+	}
+
+	/**
+	 * 保存快照到指定文件.
+	 *
+	 * @param file
+	 * @return 保存的key数量
+	 */
+	public long save(File file) {
+		try {
+			long count = this.newSnapshot().save(file);
+			lastSaveTime = System.currentTimeMillis();
+			return count;
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 从快照文件加载数据.
+	 *
+	 * @param file
+	 * @return 加载的key数量
+	 */
+	public long load(File file) {
+		try {
+			return this.newSnapshot().load(file);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	private File getSnapshotFile() {
+		if (snapshotFile == null) {
+			throw new IllegalStateException("没有设置快照文件.");
+		}
+		return snapshotFile;
 	}
 
 	@Override
 	public Long append(String key, String value) {
-		String current = this.get(key);
-		current = current == null ? "" : current;
-		String str = current + value;
-		this.set(key, str);
-		return (long) str.length();
+		Lock lock = keyspace.getLock(key);
+		lock.lock();
+		try {
+			String current = this.get(key);
+			current = current == null ? "" : current;
+			String str = current + value;
+			this.set(key, str);
+			return (long) str.length();
+		}
+		finally {
+			lock.unlock();
+		}
 		// throw new UnsupportedOperationException("Not Implemented");
 	}
 
@@ -76,35 +269,35 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public Long del(String... keys) {
-		long count = 0;
-		for (String key : keys) {
-			long result = this.decr(key);
-			count += result;
+		Lock[] locks = keyspace.lock(keys);
+		try {
+			long count = 0;
+			for (String key : keys) {
+				long result = this.del(key);
+				count += result;
+			}
+			return count;
+		}
+		finally {
+			keyspace.unlock(locks);
 		}
-		return count;
 	}
 
 	@Override
 	public Long del(String key) {
-		Long result = redisString.del(key);
-		if (result == 0) {
-			//
-		}
-		return result;
+		return keyspace.del(key) ? 1L : 0L;
 	}
 
 	@Override
 	public Long expire(String key, int seconds) {
-		Long result = redisString.expire(key, seconds);
-		if (result == 0) {
-			//
-		}
-		return result;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
 	public Long ttl(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+		long pttl = keyspace.pttl(key);
+		// -1:没有过期时间，-2:key不存在
+		return pttl < 0 ? pttl : (pttl + 500) / 1000;
 	}
 
 	@Override
@@ -119,9 +312,16 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public String getSet(String key, String value) {
-		String current = this.get(key);
-		this.set(key, value);
-		return current;
+		Lock lock = keyspace.getLock(key);
+		lock.lock();
+		try {
+			String current = this.get(key);
+			this.set(key, value);
+			return current;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
@@ -161,22 +361,7 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public Boolean exists(String key) {
-		if (this.redisString.exists(key)) {
-			return true;
-		}
-		else if (this.redisList.exists(key)) {
-			return true;
-		}
-		else if (this.redisSet.exists(key)) {
-			return true;
-		}
-		else if (this.redisSortedSet.exists(key)) {
-			return true;
-		}
-		else if (this.redisHashes.exists(key)) {
-			return true;
-		}
-		return false;
+		return keyspace.exists(key);
 	}
 
 	@Override
@@ -578,9 +763,16 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public boolean append(String key, String value, int seconds) {
-		this.append(key, value);
-		this.expire(key, seconds);
-		return true;
+		Lock lock = keyspace.getLock(key);
+		lock.lock();
+		try {
+			this.append(key, value);
+			this.expire(key, seconds);
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
@@ -598,11 +790,77 @@ public class RedisMemoryImpl implements Redis {
 		return this.setrange(key, (long) offset, value);
 	}
 
+	@Override
+	public byte[] getBytes(String key) {
+		String value = this.get(key);
+		return value == null ? null : value.getBytes(BINARY);
+	}
+
+	@Override
+	public String set(String key, byte[] value) {
+		return this.set(key, new String(value, BINARY));
+	}
+
+	@Override
+	public byte[] hgetBytes(String key, String field) {
+		String value = this.hget(key, field);
+		return value == null ? null : value.getBytes(BINARY);
+	}
+
+	@Override
+	public Long hset(String key, String field, byte[] value) {
+		return this.hset(key, field, new String(value, BINARY));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.get(key);
+		}
+		return CodecUtil.decode(codec, this.getBytes(key), clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		if (value instanceof String) {
+			return this.set(key, (String) value);
+		}
+		return this.set(key, CodecUtil.encode(codec, value));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		if (clazz == String.class) {
+			return (T) this.hget(key, field);
+		}
+		return CodecUtil.decode(codec, this.hgetBytes(key, field), clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		if (value instanceof String) {
+			return this.hset(key, field, (String) value);
+		}
+		return this.hset(key, field, CodecUtil.encode(codec, value));
+	}
+
 	@Override
 	public Long sadd(String key, String... members) {
 		return this.redisSet.sadd(key, members);
 	}
 
+	@Override
+	public RedisPipeline pipelined() {
+		return new RedisPipelineMemoryImpl(this);
+	}
+
+	@Override
+	public RedisMetrics getMetrics() {
+		return null;
+	}
+
 	@Override
 	public Transaction multi() {
 		throw new UnsupportedOperationException("Not Implemented");
@@ -611,14 +869,12 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public boolean flushAll() {
-		return this.redisString.flushAll();
-		// return true;
+		return keyspace.flushAll();
 	}
 
 	@Override
 	public boolean flushDB() {
-		return this.redisString.flushAll();
-		// return true;
+		return keyspace.flushAll();
 	}
 
 	@Override
@@ -635,8 +891,7 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public long getUsedMemory() {
-		throw new UnsupportedOperationException("Not Implemented");
-
+		return keyspace.getUsedMemory();
 	}
 
 	@Override
@@ -652,12 +907,18 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public boolean set(List<String> keyList, List<String> valueList) {
-		for (int i = 0; i < keyList.size(); i++) {
-			String key = keyList.get(i);
-			String value = valueList.get(i);
-			this.set(key, value);
+		Lock[] locks = keyspace.lock(keyList.toArray(new String[keyList.size()]));
+		try {
+			for (int i = 0; i < keyList.size(); i++) {
+				String key = keyList.get(i);
+				String value = valueList.get(i);
+				this.set(key, value);
+			}
+			return true;
+		}
+		finally {
+			keyspace.unlock(locks);
 		}
-		return true;
 	}
 
 	@Override
@@ -674,11 +935,17 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public List<String> mget(String... keys) {
-		List<String> list = new ArrayList<String>();
-		for (String key : keys) {
-			list.add(this.get(key));
+		Lock[] locks = keyspace.lock(keys);
+		try {
+			List<String> list = new ArrayList<String>();
+			for (String key : keys) {
+				list.add(this.get(key));
+			}
+			return list;
+		}
+		finally {
+			keyspace.unlock(locks);
 		}
-		return list;
 	}
 
 	@Override
@@ -693,7 +960,29 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public Set<String> keys(String pattern) {
-		return null;
+		Set<String> result = new TreeSet<String>();
+		for (String key : this.keySnapshot().keySet()) {
+			if (ScanUtil.match(pattern, key)) {
+				result.add(key);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public ScanResult<String> scan(String cursor, ScanParams params) {
+		return ScanUtil.scan(this.keySnapshot(), cursor, params);
+	}
+
+	/**
+	 * 所有数据类型的key(按key排序).
+	 */
+	protected NavigableMap<String, String> keySnapshot() {
+		NavigableMap<String, String> map = new TreeMap<String, String>();
+		for (String key : keyspace.keys()) {
+			map.put(key, key);
+		}
+		return map;
 	}
 
 	@Override
@@ -805,21 +1094,46 @@ public class RedisMemoryImpl implements Redis {
 	}
 
 	@Override
-	public String bgrewriteaof() {
+	public String scriptLoad(String script) {
 		throw new UnsupportedOperationException("Not Implemented");
 
 	}
 
 	@Override
-	public String bgsave() {
+	public String bgrewriteaof() {
 		throw new UnsupportedOperationException("Not Implemented");
 
 	}
 
 	@Override
-	public String save() {
-		throw new UnsupportedOperationException("Not Implemented");
+	public String bgsave() {
+		final File file = this.getSnapshotFile();
+		if (!saving.compareAndSet(false, true)) {
+			throw new IllegalStateException("Background save already in progress");
+		}
+		Thread thread = new Thread("leopard-redis-memory-bgsave") {
+			@Override
+			public void run() {
+				try {
+					save(file);
+				}
+				catch (RuntimeException e) {
+					logger.error(e.getMessage(), e);
+				}
+				finally {
+					saving.set(false);
+				}
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+		return "Background saving started";
+	}
 
+	@Override
+	public String save() {
+		this.save(this.getSnapshotFile());
+		return "OK";
 	}
 
 	@Override
@@ -863,7 +1177,7 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public Long persist(String key) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return keyspace.persist(key);
 	}
 
 	@Override
@@ -918,32 +1232,32 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.hscan(key, String.valueOf(cursor));
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.sscan(key, String.valueOf(cursor));
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, int cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.zscan(key, String.valueOf(cursor));
 	}
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.hscan(key, cursor, new ScanParams());
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.sscan(key, cursor, new ScanParams());
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, String cursor) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return this.zscan(key, cursor, new ScanParams());
 	}
 
 	@Override
@@ -968,12 +1282,12 @@ public class RedisMemoryImpl implements Redis {
 
 	@Override
 	public Long pexpire(String key, long milliseconds) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return keyspace.pexpireAt(key, System.currentTimeMillis() + milliseconds);
 	}
 
 	@Override
 	public Long pexpireAt(String key, long millisecondsTimestamp) {
-		throw new UnsupportedOperationException("Not Implemented");
+		return keyspace.pexpireAt(key, millisecondsTimestamp);
 	}
 
 	@Override
@@ -1120,9 +1434,12 @@ public class RedisMemoryImpl implements Redis {
 	}
 
 	@Override
-	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Entry<String, String>> hscan(String key, String cursor, ScanParams params) {
+		NavigableMap<String, Entry<String, String>> map = new TreeMap<String, Entry<String, String>>();
+		for (Entry<String, String> entry : this.hgetAll(key).entrySet()) {
+			map.put(entry.getKey(), new AbstractMap.SimpleImmutableEntry<String, String>(entry));
+		}
+		return ScanUtil.scan(map, cursor, params);
 	}
 
 	@Override
@@ -1132,9 +1449,8 @@ public class RedisMemoryImpl implements Redis {
 	}
 
 	@Override
-	public Long pttl(String arg0) {
-		// TODO Auto-generated method stub
-		return null;
+	public Long pttl(String key) {
+		return keyspace.pttl(key);
 	}
 
 	@Override
@@ -1144,9 +1460,12 @@ public class RedisMemoryImpl implements Redis {
 	}
 
 	@Override
-	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<String> sscan(String key, String cursor, ScanParams params) {
+		NavigableMap<String, String> map = new TreeMap<String, String>();
+		for (String member : this.smembers(key)) {
+			map.put(member, member);
+		}
+		return ScanUtil.scan(map, cursor, params);
 	}
 
 	@Override
@@ -1168,9 +1487,12 @@ public class RedisMemoryImpl implements Redis {
 	}
 
 	@Override
-	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+	public ScanResult<Tuple> zscan(String key, String cursor, ScanParams params) {
+		NavigableMap<String, Tuple> map = new TreeMap<String, Tuple>();
+		for (Tuple tuple : this.zrangeWithScores(key, 0, -1)) {
+			map.put(tuple.getElement(), tuple);
+		}
+		return ScanUtil.scan(map, cursor, params);
 	}
 
 	@Override
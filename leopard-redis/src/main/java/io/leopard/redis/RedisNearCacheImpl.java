@@ -0,0 +1,915 @@
+package io.leopard.redis;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.leopard.redis.util.NearCache;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.ZParams;
+import redis.clients.jedis.params.sortedset.ZAddParams;
+import redis.clients.jedis.params.sortedset.ZIncrByParams;
+
+/**
+ * 带本地缓存的Redis(GET、HGET、ZSCORE的结果缓存在本地).
+ * 
+ * 通过本对象执行的写指令会失效本地缓存，并在channel上发布失效消息，其他节点订阅该channel后失效各自的本地缓存.
+ * 
+ * 注意：管道、事务、没有键名参数的脚本执行的写操作以及key在服务器上过期不会触发失效，需要依靠本地过期时间(expireSeconds).
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisNearCacheImpl extends RedisWrapper {
+
+	/**
+	 * 清空所有节点本地缓存的消息.
+	 */
+	protected static final String CLEAR_MESSAGE = "\0clear";
+
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	private String channel = "leopard:nearcache:invalidate";
+
+	private int maxSize = 10000;
+
+	private int expireSeconds = 60;
+
+	protected NearCache cache;
+
+	private volatile boolean running;
+
+	private Thread subscriber;
+
+	private final JedisPubSub pubSub = new JedisPubSub() {
+		@Override
+		public void onMessage(String channel, String message) {
+			onInvalidate(message);
+		}
+
+		@Override
+		public void onSubscribe(String channel, int subscribedChannels) {
+			// 重新订阅成功，断开期间可能漏掉了失效消息
+			cache.clear();
+		}
+	};
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public void setChannel(String channel) {
+		this.channel = channel;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public int getExpireSeconds() {
+		return expireSeconds;
+	}
+
+	/**
+	 * 本地缓存过期时间(秒)，小于等于0表示只依靠失效消息.
+	 * 
+	 * @param expireSeconds
+	 */
+	public void setExpireSeconds(int expireSeconds) {
+		this.expireSeconds = expireSeconds;
+	}
+
+	public NearCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public void init() {
+		this.cache = new NearCache(maxSize, expireSeconds * 1000L);
+		this.running = true;
+		this.subscriber = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				subscribe();
+			}
+		}, "leopard-redis-nearcache");
+		this.subscriber.setDaemon(true);
+		this.subscriber.start();
+	}
+
+	@Override
+	public void destroy() {
+		this.running = false;
+		if (pubSub.isSubscribed()) {
+			pubSub.unsubscribe();
+		}
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * 订阅失效消息，连接断开后清空本地缓存并重新订阅.
+	 */
+	protected void subscribe() {
+		while (running) {
+			try {
+				getRedis().subscribe(pubSub, channel);
+				// 取消订阅或订阅不阻塞(如RedisMemoryImpl)
+				return;
+			}
+			catch (RuntimeException e) {
+				if (!running) {
+					return;
+				}
+				logger.error("订阅本地缓存失效消息出错:" + e.getMessage());
+				cache.clear();
+			}
+			try {
+				Thread.sleep(1000);
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	protected void onInvalidate(String message) {
+		if (CLEAR_MESSAGE.equals(message)) {
+			cache.clear();
+		}
+		else {
+			cache.invalidate(message);
+		}
+	}
+
+	/**
+	 * 失效本地缓存并通知其他节点.
+	 * 
+	 * @param key
+	 */
+	protected void invalidate(String key) {
+		cache.invalidate(key);
+		this.publish(key);
+	}
+
+	protected void invalidate(String... keys) {
+		for (String key : keys) {
+			this.invalidate(key);
+		}
+	}
+
+	protected void invalidate(List<String> keyList) {
+		if (keyList != null) {
+			for (String key : keyList) {
+				this.invalidate(key);
+			}
+		}
+	}
+
+	protected void invalidateAll() {
+		cache.clear();
+		this.publish(CLEAR_MESSAGE);
+	}
+
+	private void publish(String message) {
+		try {
+			getRedis().publish(channel, message);
+		}
+		catch (RuntimeException e) {
+			// 写操作已经成功，通知失败只记录日志，其他节点依靠本地过期时间
+			logger.error("发布本地缓存失效消息出错:" + e.getMessage());
+		}
+	}
+
+	@Override
+	public String get(String key) {
+		Object value = cache.get(key, null);
+		if (value != null) {
+			return value == NearCache.NULL ? null : (String) value;
+		}
+		long version = cache.getVersion(key);
+		String result = getRedis().get(key);
+		cache.put(key, null, result, version);
+		return result;
+	}
+
+	@Override
+	public String hget(String key, String field) {
+		String cacheField = "h:" + field;
+		Object value = cache.get(key, cacheField);
+		if (value != null) {
+			return value == NearCache.NULL ? null : (String) value;
+		}
+		long version = cache.getVersion(key);
+		String result = getRedis().hget(key, field);
+		cache.put(key, cacheField, result, version);
+		return result;
+	}
+
+	@Override
+	public String hget(String key, long field) {
+		return this.hget(key, Long.toString(field));
+	}
+
+	@Override
+	public Double zscore(String key, String member) {
+		String cacheField = "z:" + member;
+		Object value = cache.get(key, cacheField);
+		if (value != null) {
+			return value == NearCache.NULL ? null : (Double) value;
+		}
+		long version = cache.getVersion(key);
+		Double result = getRedis().zscore(key, member);
+		cache.put(key, cacheField, result, version);
+		return result;
+	}
+
+	@Override
+	public Double zscore(String key, long member) {
+		return this.zscore(key, Long.toString(member));
+	}
+
+	@Override
+	public Long append(String key, String value) {
+		try {
+			return getRedis().append(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String set(String key, String value) {
+		try {
+			return getRedis().set(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long expire(String key, int seconds) {
+		try {
+			return getRedis().expire(key, seconds);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long incr(String key) {
+		try {
+			return getRedis().incr(key);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String getSet(String key, String value) {
+		try {
+			return getRedis().getSet(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zadd(String key, double score, String member) {
+		try {
+			return getRedis().zadd(key, score, member);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zadd(String key, Map<String, Double> scoreMembers) {
+		try {
+			return getRedis().zadd(key, scoreMembers);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long expireAt(String key, long unixTime) {
+		try {
+			return getRedis().expireAt(key, unixTime);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Boolean setbit(String key, long offset, boolean value) {
+		try {
+			return getRedis().setbit(key, offset, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long setnx(String key, String value) {
+		try {
+			return getRedis().setnx(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String setex(String key, int seconds, String value) {
+		try {
+			return getRedis().setex(key, seconds, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long decrBy(String key, long integer) {
+		try {
+			return getRedis().decrBy(key, integer);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long decr(String key) {
+		try {
+			return getRedis().decr(key);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long incrBy(String key, long integer) {
+		try {
+			return getRedis().incrBy(key, integer);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hset(String key, String field, String value) {
+		try {
+			return getRedis().hset(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hsetnx(String key, String field, String value) {
+		try {
+			return getRedis().hsetnx(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String hmset(String key, Map<String, String> hash) {
+		try {
+			return getRedis().hmset(key, hash);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hincrBy(String key, String field, long value) {
+		try {
+			return getRedis().hincrBy(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hdel(String key, String... field) {
+		try {
+			return getRedis().hdel(key, field);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zrem(String key, String... members) {
+		try {
+			return getRedis().zrem(key, members);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Double zincrby(String key, double score, long member) {
+		try {
+			return getRedis().zincrby(key, score, member);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Double zincrby(String key, double score, String member) {
+		try {
+			return getRedis().zincrby(key, score, member);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zremrangeByRank(String key, long start, long end) {
+		try {
+			return getRedis().zremrangeByRank(key, start, end);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zremrangeByScore(String key, double start, double end) {
+		try {
+			return getRedis().zremrangeByScore(key, start, end);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zremrangeByScore(String key, String start, String end) {
+		try {
+			return getRedis().zremrangeByScore(key, start, end);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String set(String key, String arg1, String arg2, String arg3, long arg4) {
+		try {
+			return getRedis().set(key, arg1, arg2, arg3, arg4);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long persist(String key) {
+		try {
+			return getRedis().persist(key);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Boolean setbit(String key, long offset, String value) {
+		try {
+			return getRedis().setbit(key, offset, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long move(String key, int dbIndex) {
+		try {
+			return getRedis().move(key, dbIndex);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public boolean append(String key, String value, int seconds) {
+		try {
+			return getRedis().append(key, value, seconds);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long setrange(String key, long offset, String value) {
+		try {
+			return getRedis().setrange(key, offset, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long setrange(String key, int offset, String value) {
+		try {
+			return getRedis().setrange(key, offset, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String set(String key, byte[] value) {
+		try {
+			return getRedis().set(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hset(String key, String field, byte[] value) {
+		try {
+			return getRedis().hset(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		try {
+			return getRedis().set(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		try {
+			return getRedis().hset(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public String set(String key, String value, int seconds) {
+		try {
+			return getRedis().set(key, value, seconds);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long del(String key) {
+		try {
+			return getRedis().del(key);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zinterstore(String dstkey, String... sets) {
+		try {
+			return getRedis().zinterstore(dstkey, sets);
+		}
+		finally {
+			this.invalidate(dstkey);
+		}
+	}
+
+	@Override
+	public Long zinterstore(String dstkey, ZParams params, String... sets) {
+		try {
+			return getRedis().zinterstore(dstkey, params, sets);
+		}
+		finally {
+			this.invalidate(dstkey);
+		}
+	}
+
+	@Override
+	public Long zunionstore(String dstkey, String... sets) {
+		try {
+			return getRedis().zunionstore(dstkey, sets);
+		}
+		finally {
+			this.invalidate(dstkey);
+		}
+	}
+
+	@Override
+	public Long zunionstore(String dstkey, ZParams params, String... sets) {
+		try {
+			return getRedis().zunionstore(dstkey, params, sets);
+		}
+		finally {
+			this.invalidate(dstkey);
+		}
+	}
+
+	@Override
+	public Long hset(String key, long field, String value) {
+		try {
+			return getRedis().hset(key, field, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long hdel(String key, long field) {
+		try {
+			return getRedis().hdel(key, field);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zadd(String key, double score, long member) {
+		try {
+			return getRedis().zadd(key, score, member);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zrem(String key, long member) {
+		try {
+			return getRedis().zrem(key, member);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long sdiffstore(String dstkey, String... keys) {
+		try {
+			return getRedis().sdiffstore(dstkey, keys);
+		}
+		finally {
+			this.invalidate(dstkey);
+		}
+	}
+
+	@Override
+	public Long pexpire(String key, long milliseconds) {
+		try {
+			return getRedis().pexpire(key, milliseconds);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long pexpireAt(String key, long millisecondsTimestamp) {
+		try {
+			return getRedis().pexpireAt(key, millisecondsTimestamp);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Double incrByFloat(String key, double value) {
+		try {
+			return getRedis().incrByFloat(key, value);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Long zremrangeByLex(String key, String min, String max) {
+		try {
+			return getRedis().zremrangeByLex(key, min, max);
+		}
+		finally {
+			this.invalidate(key);
+		}
+	}
+
+	@Override
+	public Double hincrByFloat(String arg0, String arg1, double arg2) {
+		try {
+			return getRedis().hincrByFloat(arg0, arg1, arg2);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public String psetex(String arg0, long arg1, String arg2) {
+		try {
+			return getRedis().psetex(arg0, arg1, arg2);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public String set(String arg0, String arg1, String arg2) {
+		try {
+			return getRedis().set(arg0, arg1, arg2);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public Long zadd(String arg0, Map<String, Double> arg1, ZAddParams arg2) {
+		try {
+			return getRedis().zadd(arg0, arg1, arg2);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public Long zadd(String arg0, double arg1, String arg2, ZAddParams arg3) {
+		try {
+			return getRedis().zadd(arg0, arg1, arg2, arg3);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public Double zincrby(String arg0, double arg1, String arg2, ZIncrByParams arg3) {
+		try {
+			return getRedis().zincrby(arg0, arg1, arg2, arg3);
+		}
+		finally {
+			this.invalidate(arg0);
+		}
+	}
+
+	@Override
+	public Long del(String... keys) {
+		try {
+			return getRedis().del(keys);
+		}
+		finally {
+			this.invalidate(keys);
+		}
+	}
+
+	@Override
+	public boolean set(List<String> keyList, List<String> valueList) {
+		try {
+			return getRedis().set(keyList, valueList);
+		}
+		finally {
+			this.invalidate(keyList);
+		}
+	}
+
+	@Override
+	public boolean append(List<String> keyList, List<String> valueList, int seconds) {
+		try {
+			return getRedis().append(keyList, valueList, seconds);
+		}
+		finally {
+			this.invalidate(keyList);
+		}
+	}
+
+	@Override
+	public boolean rename(String oldkey, String newkey) {
+		try {
+			return getRedis().rename(oldkey, newkey);
+		}
+		finally {
+			this.invalidate(oldkey, newkey);
+		}
+	}
+
+	@Override
+	public boolean rename(String oldkey, String newkey, int seconds) {
+		try {
+			return getRedis().rename(oldkey, newkey, seconds);
+		}
+		finally {
+			this.invalidate(oldkey, newkey);
+		}
+	}
+
+	@Override
+	public boolean flushDB() {
+		try {
+			return getRedis().flushDB();
+		}
+		finally {
+			this.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean flushAll() {
+		try {
+			return getRedis().flushAll();
+		}
+		finally {
+			this.invalidateAll();
+		}
+	}
+
+	@Override
+	public Object eval(String script, int keyCount, String... params) {
+		try {
+			return getRedis().eval(script, keyCount, params);
+		}
+		finally {
+			this.invalidate(keyCount, params);
+		}
+	}
+
+	@Override
+	public Object evalsha(String sha1, int keyCount, String... params) {
+		try {
+			return getRedis().evalsha(sha1, keyCount, params);
+		}
+		finally {
+			this.invalidate(keyCount, params);
+		}
+	}
+
+	@Override
+	public Object evalsha(String sha1, List<String> keys, List<String> args) {
+		try {
+			return getRedis().evalsha(sha1, keys, args);
+		}
+		finally {
+			this.invalidate(keys);
+		}
+	}
+
+	private void invalidate(int keyCount, String... params) {
+		for (int i = 0; i < keyCount && i < params.length; i++) {
+			this.invalidate(params[i]);
+		}
+	}
+
+}
@@ -0,0 +1,230 @@
+package io.leopard.redis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * Redis管道(批量发送指令，一次网络往返).
+ * 
+ * 与multi()不同，管道不保证事务性，只是把多个相互独立的指令合并发送.
+ * 
+ * 指令的返回值在调用sync()之后才能通过RedisResponse.get()获取.
+ * 
+ * @author 阿海
+ * 
+ */
+public interface RedisPipeline {
+
+	/**
+	 * 将字符串值 value 关联到 key.
+	 */
+	RedisResponse<String> set(String key, String value);
+
+	/**
+	 * 将字符串值 value 关联到 key，并设置生存时间.
+	 */
+	RedisResponse<String> set(String key, String value, int seconds);
+
+	/**
+	 * 返回 key 所关联的字符串值.
+	 */
+	RedisResponse<String> get(String key);
+
+	/**
+	 * 删除 key.
+	 */
+	RedisResponse<Long> del(String key);
+
+	/**
+	 * 检查给定 key 是否存在.
+	 */
+	RedisResponse<Boolean> exists(String key);
+
+	/**
+	 * 为给定 key 设置生存时间.
+	 */
+	RedisResponse<Long> expire(String key, int seconds);
+
+	/**
+	 * 为给定 key 设置过期时间(UNIX 时间戳).
+	 */
+	RedisResponse<Long> expireAt(String key, long unixTime);
+
+	/**
+	 * 返回给定 key 的剩余生存时间.
+	 */
+	RedisResponse<Long> ttl(String key);
+
+	/**
+	 * 将 key 中储存的数字值增一.
+	 */
+	RedisResponse<Long> incr(String key);
+
+	/**
+	 * 将 key 所储存的值加上增量 integer.
+	 */
+	RedisResponse<Long> incrBy(String key, long integer);
+
+	/**
+	 * 将 key 中储存的数字值减一.
+	 */
+	RedisResponse<Long> decr(String key);
+
+	/**
+	 * 将哈希表 key 中的域 field 的值设为 value.
+	 */
+	RedisResponse<Long> hset(String key, String field, String value);
+
+	/**
+	 * 返回哈希表 key 中给定域 field 的值.
+	 */
+	RedisResponse<String> hget(String key, String field);
+
+	/**
+	 * 同时将多个 field-value 对设置到哈希表 key 中.
+	 */
+	RedisResponse<String> hmset(String key, Map<String, String> hash);
+
+	/**
+	 * 返回哈希表 key 中，一个或多个给定域的值.
+	 */
+	RedisResponse<List<String>> hmget(String key, String... fields);
+
+	/**
+	 * 返回哈希表 key 中，所有的域和值.
+	 */
+	RedisResponse<Map<String, String>> hgetAll(String key);
+
+	/**
+	 * 删除哈希表 key 中的一个或多个指定域.
+	 */
+	RedisResponse<Long> hdel(String key, String... fields);
+
+	/**
+	 * 为哈希表 key 中的域 field 的值加上增量 value.
+	 */
+	RedisResponse<Long> hincrBy(String key, String field, long value);
+
+	/**
+	 * 将 member 元素及其 score 值加入到有序集 key 中.
+	 */
+	RedisResponse<Long> zadd(String key, double score, String member);
+
+	/**
+	 * 将多个 member 元素及其 score 值加入到有序集 key 中.
+	 */
+	RedisResponse<Long> zadd(String key, Map<String, Double> scoreMembers);
+
+	/**
+	 * 移除有序集 key 中的一个或多个成员.
+	 */
+	RedisResponse<Long> zrem(String key, String... members);
+
+	/**
+	 * 返回有序集 key 中，成员 member 的 score 值.
+	 */
+	RedisResponse<Double> zscore(String key, String member);
+
+	/**
+	 * 为有序集 key 的成员 member 的 score 值加上增量.
+	 */
+	RedisResponse<Double> zincrby(String key, double score, String member);
+
+	/**
+	 * 返回有序集 key 的基数.
+	 */
+	RedisResponse<Long> zcard(String key);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员(score 递增).
+	 */
+	RedisResponse<Set<String>> zrange(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员(score 递减).
+	 */
+	RedisResponse<Set<String>> zrevrange(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员及score(score 递增).
+	 */
+	RedisResponse<Set<Tuple>> zrangeWithScores(String key, long start, long end);
+
+	/**
+	 * 返回有序集 key 中，指定区间内的成员及score(score 递减).
+	 */
+	RedisResponse<Set<Tuple>> zrevrangeWithScores(String key, long start, long end);
+
+	/**
+	 * 移除有序集 key 中，指定排名(rank)区间内的所有成员.
+	 */
+	RedisResponse<Long> zremrangeByRank(String key, long start, long end);
+
+	/**
+	 * 移除有序集 key 中，所有 score 值介于 start 和 end 之间的成员.
+	 */
+	RedisResponse<Long> zremrangeByScore(String key, double start, double end);
+
+	/**
+	 * 将一个或多个 member 元素加入到集合 key 当中.
+	 */
+	RedisResponse<Long> sadd(String key, String... members);
+
+	/**
+	 * 移除集合 key 中的一个或多个 member 元素.
+	 */
+	RedisResponse<Long> srem(String key, String... members);
+
+	/**
+	 * 返回集合 key 中的所有成员.
+	 */
+	RedisResponse<Set<String>> smembers(String key);
+
+	/**
+	 * 判断 member 元素是否集合 key 的成员.
+	 */
+	RedisResponse<Boolean> sismember(String key, String member);
+
+	/**
+	 * 将一个或多个值插入到列表 key 的表头.
+	 */
+	RedisResponse<Long> lpush(String key, String... strings);
+
+	/**
+	 * 将一个或多个值插入到列表 key 的表尾.
+	 */
+	RedisResponse<Long> rpush(String key, String... strings);
+
+	/**
+	 * 返回列表 key 中指定区间内的元素.
+	 */
+	RedisResponse<List<String>> lrange(String key, long start, long end);
+
+	/**
+	 * 对列表进行修剪，只保留指定区间内的元素.
+	 */
+	RedisResponse<String> ltrim(String key, long start, long end);
+
+	/**
+	 * 返回列表 key 的长度.
+	 */
+	RedisResponse<Long> llen(String key);
+
+	/**
+	 * 移除并返回列表 key 的头元素.
+	 */
+	RedisResponse<String> lpop(String key);
+
+	/**
+	 * 移除并返回列表 key 的尾元素.
+	 */
+	RedisResponse<String> rpop(String key);
+
+	/**
+	 * 发送管道中的所有指令并读取返回值，同时释放占用的连接.
+	 */
+	void sync();
+}
@@ -0,0 +1,320 @@
+package io.leopard.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import io.leopard.redis.util.CircuitBreaker;
+import io.leopard.redis.util.CircuitBreakerRedis;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Redis管道负载均衡实现(按key hash把指令分配到对应服务器的管道).
+ * 
+ * 启用熔断时，服务器熔断中的管道使用备用服务器(没有备用服务器时抛出JedisConnectionException)，sync()的结果记录到熔断器.
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisPipelineHashImpl implements RedisPipeline {
+
+	private final RedisHashImpl redis;
+
+	private final RedisPipeline[] pipelineList;
+
+	/**
+	 * 各管道对应的熔断器(没有启用熔断或使用备用服务器时为null).
+	 */
+	private final CircuitBreaker[] circuitBreakerList;
+
+	public RedisPipelineHashImpl(RedisHashImpl redis) {
+		this.redis = redis;
+		this.pipelineList = new RedisPipeline[redis.getRedisList().length];
+		this.circuitBreakerList = new CircuitBreaker[pipelineList.length];
+	}
+
+	protected RedisPipeline getPipeline(String key) {
+		int index = redis.getIndex(key);
+		RedisPipeline pipeline = pipelineList[index];
+		if (pipeline == null) {
+			pipeline = this.createPipeline(index);
+			pipelineList[index] = pipeline;
+		}
+		return pipeline;
+	}
+
+	private RedisPipeline createPipeline(int index) {
+		CircuitBreaker[] circuitBreakers = redis.getCircuitBreakers();
+		if (circuitBreakers == null) {
+			return redis.getRedisList()[index].pipelined();
+		}
+		CircuitBreaker circuitBreaker = circuitBreakers[index];
+		if (!circuitBreaker.allowRequest()) {
+			Redis fallback = redis.getFallbackRedis(index);
+			if (fallback == null) {
+				throw new JedisConnectionException("redis[" + redis.getServer(index) + "]熔断中.");
+			}
+			return fallback.pipelined();
+		}
+		RedisPipeline pipeline;
+		try {
+			pipeline = redis.getRedisList()[index].pipelined();
+		}
+		catch (JedisConnectionException e) {
+			onFailure(circuitBreaker, e);
+			throw e;
+		}
+		circuitBreakerList[index] = circuitBreaker;
+		return pipeline;
+	}
+
+	private static void onFailure(CircuitBreaker circuitBreaker, JedisConnectionException e) {
+		// 连接池耗尽说明服务器繁忙，不是服务器故障
+		if (!CircuitBreakerRedis.isPoolExhausted(e)) {
+			circuitBreaker.onFailure();
+		}
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value) {
+		return this.getPipeline(key).set(key, value);
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value, int seconds) {
+		return this.getPipeline(key).set(key, value, seconds);
+	}
+
+	@Override
+	public RedisResponse<String> get(String key) {
+		return this.getPipeline(key).get(key);
+	}
+
+	@Override
+	public RedisResponse<Long> del(String key) {
+		return this.getPipeline(key).del(key);
+	}
+
+	@Override
+	public RedisResponse<Boolean> exists(String key) {
+		return this.getPipeline(key).exists(key);
+	}
+
+	@Override
+	public RedisResponse<Long> expire(String key, int seconds) {
+		return this.getPipeline(key).expire(key, seconds);
+	}
+
+	@Override
+	public RedisResponse<Long> expireAt(String key, long unixTime) {
+		return this.getPipeline(key).expireAt(key, unixTime);
+	}
+
+	@Override
+	public RedisResponse<Long> ttl(String key) {
+		return this.getPipeline(key).ttl(key);
+	}
+
+	@Override
+	public RedisResponse<Long> incr(String key) {
+		return this.getPipeline(key).incr(key);
+	}
+
+	@Override
+	public RedisResponse<Long> incrBy(String key, long integer) {
+		return this.getPipeline(key).incrBy(key, integer);
+	}
+
+	@Override
+	public RedisResponse<Long> decr(String key) {
+		return this.getPipeline(key).decr(key);
+	}
+
+	@Override
+	public RedisResponse<Long> hset(String key, String field, String value) {
+		return this.getPipeline(key).hset(key, field, value);
+	}
+
+	@Override
+	public RedisResponse<String> hget(String key, String field) {
+		return this.getPipeline(key).hget(key, field);
+	}
+
+	@Override
+	public RedisResponse<String> hmset(String key, Map<String, String> hash) {
+		return this.getPipeline(key).hmset(key, hash);
+	}
+
+	@Override
+	public RedisResponse<List<String>> hmget(String key, String... fields) {
+		return this.getPipeline(key).hmget(key, fields);
+	}
+
+	@Override
+	public RedisResponse<Map<String, String>> hgetAll(String key) {
+		return this.getPipeline(key).hgetAll(key);
+	}
+
+	@Override
+	public RedisResponse<Long> hdel(String key, String... fields) {
+		return this.getPipeline(key).hdel(key, fields);
+	}
+
+	@Override
+	public RedisResponse<Long> hincrBy(String key, String field, long value) {
+		return this.getPipeline(key).hincrBy(key, field, value);
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, double score, String member) {
+		return this.getPipeline(key).zadd(key, score, member);
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, Map<String, Double> scoreMembers) {
+		return this.getPipeline(key).zadd(key, scoreMembers);
+	}
+
+	@Override
+	public RedisResponse<Long> zrem(String key, String... members) {
+		return this.getPipeline(key).zrem(key, members);
+	}
+
+	@Override
+	public RedisResponse<Double> zscore(String key, String member) {
+		return this.getPipeline(key).zscore(key, member);
+	}
+
+	@Override
+	public RedisResponse<Double> zincrby(String key, double score, String member) {
+		return this.getPipeline(key).zincrby(key, score, member);
+	}
+
+	@Override
+	public RedisResponse<Long> zcard(String key) {
+		return this.getPipeline(key).zcard(key);
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrange(String key, long start, long end) {
+		return this.getPipeline(key).zrange(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrevrange(String key, long start, long end) {
+		return this.getPipeline(key).zrevrange(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrangeWithScores(String key, long start, long end) {
+		return this.getPipeline(key).zrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrevrangeWithScores(String key, long start, long end) {
+		return this.getPipeline(key).zrevrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByRank(String key, long start, long end) {
+		return this.getPipeline(key).zremrangeByRank(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByScore(String key, double start, double end) {
+		return this.getPipeline(key).zremrangeByScore(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Long> sadd(String key, String... members) {
+		return this.getPipeline(key).sadd(key, members);
+	}
+
+	@Override
+	public RedisResponse<Long> srem(String key, String... members) {
+		return this.getPipeline(key).srem(key, members);
+	}
+
+	@Override
+	public RedisResponse<Set<String>> smembers(String key) {
+		return this.getPipeline(key).smembers(key);
+	}
+
+	@Override
+	public RedisResponse<Boolean> sismember(String key, String member) {
+		return this.getPipeline(key).sismember(key, member);
+	}
+
+	@Override
+	public RedisResponse<Long> lpush(String key, String... strings) {
+		return this.getPipeline(key).lpush(key, strings);
+	}
+
+	@Override
+	public RedisResponse<Long> rpush(String key, String... strings) {
+		return this.getPipeline(key).rpush(key, strings);
+	}
+
+	@Override
+	public RedisResponse<List<String>> lrange(String key, long start, long end) {
+		return this.getPipeline(key).lrange(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<String> ltrim(String key, long start, long end) {
+		return this.getPipeline(key).ltrim(key, start, end);
+	}
+
+	@Override
+	public RedisResponse<Long> llen(String key) {
+		return this.getPipeline(key).llen(key);
+	}
+
+	@Override
+	public RedisResponse<String> lpop(String key) {
+		return this.getPipeline(key).lpop(key);
+	}
+
+	@Override
+	public RedisResponse<String> rpop(String key) {
+		return this.getPipeline(key).rpop(key);
+	}
+
+	/**
+	 * 各服务器的管道并发执行sync().
+	 */
+	@Override
+	public void sync() {
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for (int i = 0; i < pipelineList.length; i++) {
+			final RedisPipeline pipeline = pipelineList[i];
+			if (pipeline == null) {
+				continue;
+			}
+			final CircuitBreaker circuitBreaker = circuitBreakerList[i];
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					if (circuitBreaker == null) {
+						pipeline.sync();
+						return null;
+					}
+					try {
+						pipeline.sync();
+					}
+					catch (JedisConnectionException e) {
+						onFailure(circuitBreaker, e);
+						throw e;
+					}
+					circuitBreaker.onSuccess();
+					return null;
+				}
+			});
+		}
+		redis.invokeAll(tasks);
+	}
+
+}
@@ -0,0 +1,384 @@
+package io.leopard.redis;
+
+import io.leopard.redis.codec.ValueCompressor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * Redis管道实现(单机Redis，基于Jedis Pipeline).
+ * 
+ * 第一个指令时从连接池获取连接，sync()之后归还.
+ * 
+ * RedisImpl设置了压缩阈值时，字符串和哈希的value与RedisImpl一样压缩和解压.
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisPipelineImpl implements RedisPipeline {
+
+	private final RedisImpl redis;
+
+	private final ValueCompressor compressor;
+
+	private Jedis jedis;
+	private Pipeline pipeline;
+
+	private final List<Entry<?, ?>> entryList = new ArrayList<Entry<?, ?>>();
+
+	/**
+	 * 管道返回值的转换(如解压).
+	 */
+	private static interface Converter<S, T> {
+		T convert(S value);
+	}
+
+	private static class Entry<S, T> {
+		private final Response<S> response;
+		private final Converter<S, T> converter;
+		private final RedisResponse<T> result = new RedisResponse<T>();
+
+		public Entry(Response<S> response, Converter<S, T> converter) {
+			this.response = response;
+			this.converter = converter;
+		}
+
+		public void build() {
+			try {
+				result.set(converter.convert(response.get()));
+			}
+			catch (RuntimeException e) {
+				result.setException(e);
+			}
+		}
+	}
+
+	private static final Converter<Object, Object> IDENTITY = new Converter<Object, Object>() {
+		@Override
+		public Object convert(Object value) {
+			return value;
+		}
+	};
+
+	private final Converter<byte[], String> decompressConverter = new Converter<byte[], String>() {
+		@Override
+		public String convert(byte[] value) {
+			return redis.decompress(value);
+		}
+	};
+
+	public RedisPipelineImpl(RedisImpl redis) {
+		this.redis = redis;
+		this.compressor = redis.getCompressor();
+	}
+
+	protected Pipeline getPipeline() {
+		if (pipeline == null) {
+			this.jedis = redis.getResource();
+			this.pipeline = jedis.pipelined();
+		}
+		return pipeline;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> RedisResponse<T> add(Response<T> response) {
+		return this.add(response, (Converter<T, T>) (Converter<?, ?>) IDENTITY);
+	}
+
+	protected <S, T> RedisResponse<T> add(Response<S> response, Converter<S, T> converter) {
+		Entry<S, T> entry = new Entry<S, T>(response, converter);
+		entryList.add(entry);
+		return entry.result;
+	}
+
+	private byte[] compress(String key, String value) {
+		return compressor.compress(key, SafeEncoder.encode(value));
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().set(SafeEncoder.encode(key), this.compress(key, value)));
+		}
+		return this.add(this.getPipeline().set(key, value));
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value, int seconds) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().setex(SafeEncoder.encode(key), seconds, this.compress(key, value)));
+		}
+		return this.add(this.getPipeline().setex(key, seconds, value));
+	}
+
+	@Override
+	public RedisResponse<String> get(String key) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().get(SafeEncoder.encode(key)), decompressConverter);
+		}
+		return this.add(this.getPipeline().get(key));
+	}
+
+	@Override
+	public RedisResponse<Long> del(String key) {
+		return this.add(this.getPipeline().del(key));
+	}
+
+	@Override
+	public RedisResponse<Boolean> exists(String key) {
+		return this.add(this.getPipeline().exists(key));
+	}
+
+	@Override
+	public RedisResponse<Long> expire(String key, int seconds) {
+		return this.add(this.getPipeline().expire(key, seconds));
+	}
+
+	@Override
+	public RedisResponse<Long> expireAt(String key, long unixTime) {
+		return this.add(this.getPipeline().expireAt(key, unixTime));
+	}
+
+	@Override
+	public RedisResponse<Long> ttl(String key) {
+		return this.add(this.getPipeline().ttl(key));
+	}
+
+	@Override
+	public RedisResponse<Long> incr(String key) {
+		return this.add(this.getPipeline().incr(key));
+	}
+
+	@Override
+	public RedisResponse<Long> incrBy(String key, long integer) {
+		return this.add(this.getPipeline().incrBy(key, integer));
+	}
+
+	@Override
+	public RedisResponse<Long> decr(String key) {
+		return this.add(this.getPipeline().decr(key));
+	}
+
+	@Override
+	public RedisResponse<Long> hset(String key, String field, String value) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().hset(SafeEncoder.encode(key), SafeEncoder.encode(field), this.compress(key, value)));
+		}
+		return this.add(this.getPipeline().hset(key, field, value));
+	}
+
+	@Override
+	public RedisResponse<String> hget(String key, String field) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().hget(SafeEncoder.encode(key), SafeEncoder.encode(field)), decompressConverter);
+		}
+		return this.add(this.getPipeline().hget(key, field));
+	}
+
+	@Override
+	public RedisResponse<String> hmset(String key, Map<String, String> hash) {
+		if (compressor != null) {
+			Map<byte[], byte[]> map = new HashMap<byte[], byte[]>(hash.size() * 2);
+			for (Map.Entry<String, String> entry : hash.entrySet()) {
+				map.put(SafeEncoder.encode(entry.getKey()), this.compress(key, entry.getValue()));
+			}
+			return this.add(this.getPipeline().hmset(SafeEncoder.encode(key), map));
+		}
+		return this.add(this.getPipeline().hmset(key, hash));
+	}
+
+	@Override
+	public RedisResponse<List<String>> hmget(String key, String... fields) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().hmget(SafeEncoder.encode(key), SafeEncoder.encodeMany(fields)), new Converter<List<byte[]>, List<String>>() {
+				@Override
+				public List<String> convert(List<byte[]> values) {
+					return redis.decompress(values);
+				}
+			});
+		}
+		return this.add(this.getPipeline().hmget(key, fields));
+	}
+
+	@Override
+	public RedisResponse<Map<String, String>> hgetAll(String key) {
+		if (compressor != null) {
+			return this.add(this.getPipeline().hgetAll(SafeEncoder.encode(key)), new Converter<Map<byte[], byte[]>, Map<String, String>>() {
+				@Override
+				public Map<String, String> convert(Map<byte[], byte[]> map) {
+					Map<String, String> result = new HashMap<String, String>(map.size() * 2);
+					for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+						result.put(SafeEncoder.encode(entry.getKey()), redis.decompress(entry.getValue()));
+					}
+					return result;
+				}
+			});
+		}
+		return this.add(this.getPipeline().hgetAll(key));
+	}
+
+	@Override
+	public RedisResponse<Long> hdel(String key, String... fields) {
+		return this.add(this.getPipeline().hdel(key, fields));
+	}
+
+	@Override
+	public RedisResponse<Long> hincrBy(String key, String field, long value) {
+		return this.add(this.getPipeline().hincrBy(key, field, value));
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, double score, String member) {
+		return this.add(this.getPipeline().zadd(key, score, member));
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, Map<String, Double> scoreMembers) {
+		return this.add(this.getPipeline().zadd(key, scoreMembers));
+	}
+
+	@Override
+	public RedisResponse<Long> zrem(String key, String... members) {
+		return this.add(this.getPipeline().zrem(key, members));
+	}
+
+	@Override
+	public RedisResponse<Double> zscore(String key, String member) {
+		return this.add(this.getPipeline().zscore(key, member));
+	}
+
+	@Override
+	public RedisResponse<Double> zincrby(String key, double score, String member) {
+		return this.add(this.getPipeline().zincrby(key, score, member));
+	}
+
+	@Override
+	public RedisResponse<Long> zcard(String key) {
+		return this.add(this.getPipeline().zcard(key));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrange(String key, long start, long end) {
+		return this.add(this.getPipeline().zrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrevrange(String key, long start, long end) {
+		return this.add(this.getPipeline().zrevrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrangeWithScores(String key, long start, long end) {
+		return this.add(this.getPipeline().zrangeWithScores(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrevrangeWithScores(String key, long start, long end) {
+		return this.add(this.getPipeline().zrevrangeWithScores(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByRank(String key, long start, long end) {
+		return this.add(this.getPipeline().zremrangeByRank(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByScore(String key, double start, double end) {
+		return this.add(this.getPipeline().zremrangeByScore(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> sadd(String key, String... members) {
+		return this.add(this.getPipeline().sadd(key, members));
+	}
+
+	@Override
+	public RedisResponse<Long> srem(String key, String... members) {
+		return this.add(this.getPipeline().srem(key, members));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> smembers(String key) {
+		return this.add(this.getPipeline().smembers(key));
+	}
+
+	@Override
+	public RedisResponse<Boolean> sismember(String key, String member) {
+		return this.add(this.getPipeline().sismember(key, member));
+	}
+
+	@Override
+	public RedisResponse<Long> lpush(String key, String... strings) {
+		return this.add(this.getPipeline().lpush(key, strings));
+	}
+
+	@Override
+	public RedisResponse<Long> rpush(String key, String... strings) {
+		return this.add(this.getPipeline().rpush(key, strings));
+	}
+
+	@Override
+	public RedisResponse<List<String>> lrange(String key, long start, long end) {
+		return this.add(this.getPipeline().lrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<String> ltrim(String key, long start, long end) {
+		return this.add(this.getPipeline().ltrim(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> llen(String key) {
+		return this.add(this.getPipeline().llen(key));
+	}
+
+	@Override
+	public RedisResponse<String> lpop(String key) {
+		return this.add(this.getPipeline().lpop(key));
+	}
+
+	@Override
+	public RedisResponse<String> rpop(String key) {
+		return this.add(this.getPipeline().rpop(key));
+	}
+
+	@Override
+	public void sync() {
+		if (pipeline == null) {
+			return;
+		}
+		Jedis jedis = this.jedis;
+		Pipeline pipeline = this.pipeline;
+		List<Entry<?, ?>> entryList = new ArrayList<Entry<?, ?>>(this.entryList);
+		this.jedis = null;
+		this.pipeline = null;
+		this.entryList.clear();
+		try {
+			pipeline.sync();
+		}
+		catch (JedisConnectionException e) {
+			redis.returnBrokenResource(jedis);
+			String message = redis.getErrorMessage(e);
+			throw new JedisConnectionException(message, e);
+		}
+		catch (RuntimeException e) {
+			redis.returnBrokenResource(jedis);
+			throw e;
+		}
+		redis.returnResource(jedis);
+		for (Entry<?, ?> entry : entryList) {
+			entry.build();
+		}
+	}
+
+}
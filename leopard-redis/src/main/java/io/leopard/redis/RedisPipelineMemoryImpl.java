@@ -0,0 +1,239 @@
+package io.leopard.redis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * Redis管道内存实现(指令立即执行，sync()不做任何操作).
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisPipelineMemoryImpl implements RedisPipeline {
+
+	private final Redis redis;
+
+	public RedisPipelineMemoryImpl(Redis redis) {
+		this.redis = redis;
+	}
+
+	protected <T> RedisResponse<T> done(T data) {
+		RedisResponse<T> response = new RedisResponse<T>();
+		response.set(data);
+		return response;
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value) {
+		return this.done(redis.set(key, value));
+	}
+
+	@Override
+	public RedisResponse<String> set(String key, String value, int seconds) {
+		return this.done(redis.set(key, value, seconds));
+	}
+
+	@Override
+	public RedisResponse<String> get(String key) {
+		return this.done(redis.get(key));
+	}
+
+	@Override
+	public RedisResponse<Long> del(String key) {
+		return this.done(redis.del(key));
+	}
+
+	@Override
+	public RedisResponse<Boolean> exists(String key) {
+		return this.done(redis.exists(key));
+	}
+
+	@Override
+	public RedisResponse<Long> expire(String key, int seconds) {
+		return this.done(redis.expire(key, seconds));
+	}
+
+	@Override
+	public RedisResponse<Long> expireAt(String key, long unixTime) {
+		return this.done(redis.expireAt(key, unixTime));
+	}
+
+	@Override
+	public RedisResponse<Long> ttl(String key) {
+		return this.done(redis.ttl(key));
+	}
+
+	@Override
+	public RedisResponse<Long> incr(String key) {
+		return this.done(redis.incr(key));
+	}
+
+	@Override
+	public RedisResponse<Long> incrBy(String key, long integer) {
+		return this.done(redis.incrBy(key, integer));
+	}
+
+	@Override
+	public RedisResponse<Long> decr(String key) {
+		return this.done(redis.decr(key));
+	}
+
+	@Override
+	public RedisResponse<Long> hset(String key, String field, String value) {
+		return this.done(redis.hset(key, field, value));
+	}
+
+	@Override
+	public RedisResponse<String> hget(String key, String field) {
+		return this.done(redis.hget(key, field));
+	}
+
+	@Override
+	public RedisResponse<String> hmset(String key, Map<String, String> hash) {
+		return this.done(redis.hmset(key, hash));
+	}
+
+	@Override
+	public RedisResponse<List<String>> hmget(String key, String... fields) {
+		return this.done(redis.hmget(key, fields));
+	}
+
+	@Override
+	public RedisResponse<Map<String, String>> hgetAll(String key) {
+		return this.done(redis.hgetAll(key));
+	}
+
+	@Override
+	public RedisResponse<Long> hdel(String key, String... fields) {
+		return this.done(redis.hdel(key, fields));
+	}
+
+	@Override
+	public RedisResponse<Long> hincrBy(String key, String field, long value) {
+		return this.done(redis.hincrBy(key, field, value));
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, double score, String member) {
+		return this.done(redis.zadd(key, score, member));
+	}
+
+	@Override
+	public RedisResponse<Long> zadd(String key, Map<String, Double> scoreMembers) {
+		return this.done(redis.zadd(key, scoreMembers));
+	}
+
+	@Override
+	public RedisResponse<Long> zrem(String key, String... members) {
+		return this.done(redis.zrem(key, members));
+	}
+
+	@Override
+	public RedisResponse<Double> zscore(String key, String member) {
+		return this.done(redis.zscore(key, member));
+	}
+
+	@Override
+	public RedisResponse<Double> zincrby(String key, double score, String member) {
+		return this.done(redis.zincrby(key, score, member));
+	}
+
+	@Override
+	public RedisResponse<Long> zcard(String key) {
+		return this.done(redis.zcard(key));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrange(String key, long start, long end) {
+		return this.done(redis.zrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> zrevrange(String key, long start, long end) {
+		return this.done(redis.zrevrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrangeWithScores(String key, long start, long end) {
+		return this.done(redis.zrangeWithScores(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Set<Tuple>> zrevrangeWithScores(String key, long start, long end) {
+		return this.done(redis.zrevrangeWithScores(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByRank(String key, long start, long end) {
+		return this.done(redis.zremrangeByRank(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> zremrangeByScore(String key, double start, double end) {
+		return this.done(redis.zremrangeByScore(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> sadd(String key, String... members) {
+		return this.done(redis.sadd(key, members));
+	}
+
+	@Override
+	public RedisResponse<Long> srem(String key, String... members) {
+		return this.done(redis.srem(key, members));
+	}
+
+	@Override
+	public RedisResponse<Set<String>> smembers(String key) {
+		return this.done(redis.smembers(key));
+	}
+
+	@Override
+	public RedisResponse<Boolean> sismember(String key, String member) {
+		return this.done(redis.sismember(key, member));
+	}
+
+	@Override
+	public RedisResponse<Long> lpush(String key, String... strings) {
+		return this.done(redis.lpush(key, strings));
+	}
+
+	@Override
+	public RedisResponse<Long> rpush(String key, String... strings) {
+		return this.done(redis.rpush(key, strings));
+	}
+
+	@Override
+	public RedisResponse<List<String>> lrange(String key, long start, long end) {
+		return this.done(redis.lrange(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<String> ltrim(String key, long start, long end) {
+		return this.done(redis.ltrim(key, start, end));
+	}
+
+	@Override
+	public RedisResponse<Long> llen(String key) {
+		return this.done(redis.llen(key));
+	}
+
+	@Override
+	public RedisResponse<String> lpop(String key) {
+		return this.done(redis.lpop(key));
+	}
+
+	@Override
+	public RedisResponse<String> rpop(String key) {
+		return this.done(redis.rpop(key));
+	}
+
+	@Override
+	public void sync() {
+
+	}
+
+}
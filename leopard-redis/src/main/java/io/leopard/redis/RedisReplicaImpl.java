@@ -0,0 +1,711 @@
+package io.leopard.redis;
+
+import io.leopard.redis.util.CircuitBreaker;
+import io.leopard.redis.util.CircuitBreakerRedis;
+import io.leopard.redis.util.IJedisPool;
+import io.leopard.redis.util.JedisPoolMultiplexImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import redis.clients.jedis.BitPosParams;
+import redis.clients.jedis.GeoCoordinate;
+import redis.clients.jedis.GeoRadiusResponse;
+import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.params.geo.GeoRadiusParam;
+
+/**
+ * Redis主从实现(写指令在主服务器执行，读指令在从服务器执行).
+ * 
+ * 定时通过INFO检查从服务器的复制偏移量，和主服务器相差超过maxLag字节或复制连接断开的从服务器不参与读，没有可用的从服务器时在主服务器读.
+ * 
+ * keys、dbSize、randomKey、info等运维指令在主服务器执行.
+ * 
+ * 游标只在返回它的服务器有效，HSCAN/SSCAN/ZSCAN在主服务器执行(轮询或按负载选择从服务器时同一次遍历的各页会落到不同服务器).
+ * 
+ * @author 阿海
+ * 
+ */
+public class RedisReplicaImpl extends RedisWrapper {
+
+	public static final String BALANCE_ROUND_ROBIN = "roundRobin";
+
+	public static final String BALANCE_LEAST_ACTIVE = "leastActive";
+
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	protected String server;
+
+	protected String[] replicaServerList;
+
+	protected int maxActive;
+
+	protected int timeout;
+
+	/**
+	 * 负载均衡方式，roundRobin:轮询，leastActive:正在执行的请求数最少(多路复用模式下为等待应答的指令数).
+	 */
+	protected String balance = BALANCE_LEAST_ACTIVE;
+
+	/**
+	 * 从服务器允许落后的复制偏移量(字节).
+	 */
+	protected long maxLag = 1024 * 1024;
+
+	/**
+	 * 检查复制延迟的间隔(毫秒).
+	 */
+	protected long checkInterval = 1000;
+
+	protected Redis[] replicaList;
+
+	/**
+	 * 可用的从服务器(带熔断器，熔断时回到主服务器读).
+	 */
+	private volatile Replica[] readList = new Replica[0];
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	private ScheduledExecutorService checkExecutor;
+
+	protected static class Replica {
+		private final Redis redis;
+		private final Redis guarded;
+
+		public Replica(Redis redis, Redis guarded) {
+			this.redis = redis;
+			this.guarded = guarded;
+		}
+
+		/**
+		 * 正在执行的请求数.
+		 * 
+		 * 多路复用模式下单个指令不占用连接池的连接(getNumActive()基本为0)，加上共享连接上等待应答的指令数.
+		 */
+		public int getActive() {
+			IJedisPool pool = redis.getJedisPool();
+			if (pool == null) {
+				return 0;
+			}
+			if (pool instanceof JedisPoolMultiplexImpl) {
+				return pool.getNumActive() + ((JedisPoolMultiplexImpl) pool).getPendingCount();
+			}
+			return pool.getNumActive();
+		}
+	}
+
+	public void setServer(String server) {
+		this.server = server;
+	}
+
+	public void setReplicaServerList(String[] replicaServerList) {
+		this.replicaServerList = replicaServerList;
+	}
+
+	public void setMaxActive(int maxActive) {
+		this.maxActive = maxActive;
+	}
+
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	public void setBalance(String balance) {
+		if (!BALANCE_ROUND_ROBIN.equals(balance) && !BALANCE_LEAST_ACTIVE.equals(balance)) {
+			throw new IllegalArgumentException("未知负载均衡方式[" + balance + "].");
+		}
+		this.balance = balance;
+	}
+
+	public void setMaxLag(long maxLag) {
+		this.maxLag = maxLag;
+	}
+
+	public void setCheckInterval(long checkInterval) {
+		this.checkInterval = checkInterval;
+	}
+
+	public Redis[] getReplicaList() {
+		return replicaList;
+	}
+
+	@Override
+	public void init() {
+		if (server != null) {
+			this.setRedis(this.initRedis(server));
+		}
+		if (replicaServerList != null) {
+			Redis[] replicaList = new Redis[replicaServerList.length];
+			for (int i = 0; i < replicaServerList.length; i++) {
+				replicaList[i] = this.initRedis(replicaServerList[i]);
+			}
+			this.replicaList = replicaList;
+		}
+		if (replicaList == null || replicaList.length == 0) {
+			return;
+		}
+		this.checkReplication();
+		if (checkInterval > 0) {
+			checkExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "leopard-redis-replica-check");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			checkExecutor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					checkReplication();
+				}
+			}, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	protected Redis initRedis(String server) {
+		RedisImpl redis = new RedisImpl(server, maxActive, timeout);
+		redis.init();
+		return redis;
+	}
+
+	@Override
+	public void destroy() {
+		if (checkExecutor != null) {
+			checkExecutor.shutdown();
+		}
+		if (this.getRedis() != null) {
+			this.getRedis().destroy();
+		}
+		if (replicaList != null) {
+			for (Redis redis : replicaList) {
+				redis.destroy();
+			}
+		}
+	}
+
+	/**
+	 * 检查从服务器的复制状态，更新可读的从服务器列表.
+	 */
+	public void checkReplication() {
+		long masterOffset;
+		try {
+			masterOffset = this.getRedis().info().getMasterReplOffset();
+		}
+		catch (RuntimeException e) {
+			// 主服务器状态未知时保持原来的列表
+			logger.error("获取主服务器复制偏移量出错:" + e.getMessage());
+			return;
+		}
+		Replica[] current = this.readList;
+		List<Replica> list = new ArrayList<Replica>(replicaList.length);
+		for (Redis redis : replicaList) {
+			if (!this.isAvailable(redis, masterOffset)) {
+				continue;
+			}
+			Replica replica = null;
+			for (Replica old : current) {
+				if (old.redis == redis) {
+					replica = old;
+					break;
+				}
+			}
+			if (replica == null) {
+				CircuitBreaker circuitBreaker = new CircuitBreaker(3, checkInterval);
+				replica = new Replica(redis, CircuitBreakerRedis.wrap("replica", redis, this.getRedis(), circuitBreaker));
+			}
+			list.add(replica);
+		}
+		this.readList = list.toArray(new Replica[list.size()]);
+	}
+
+	protected boolean isAvailable(Redis redis, long masterOffset) {
+		RedisInfo info;
+		try {
+			info = redis.info();
+		}
+		catch (RuntimeException e) {
+			logger.error("获取从服务器复制状态出错:" + e.getMessage());
+			return false;
+		}
+		if (!info.isMasterLinkUp()) {
+			return false;
+		}
+		return masterOffset - info.getSlaveReplOffset() <= maxLag;
+	}
+
+	/**
+	 * 返回执行读指令的服务器.
+	 * 
+	 * @return
+	 */
+	protected Redis getReadRedis() {
+		Replica[] readList = this.readList;
+		if (readList.length == 0) {
+			return this.getRedis();
+		}
+		if (readList.length == 1) {
+			return readList[0].guarded;
+		}
+		int start = (counter.getAndIncrement() & Integer.MAX_VALUE) % readList.length;
+		if (BALANCE_ROUND_ROBIN.equals(balance)) {
+			return readList[start].guarded;
+		}
+		// 从轮询位置开始找连接数最少的，连接数相同时不总是选第一台
+		Replica min = null;
+		int minActive = Integer.MAX_VALUE;
+		for (int i = 0; i < readList.length; i++) {
+			Replica replica = readList[(start + i) % readList.length];
+			int active = replica.getActive();
+			if (active < minActive) {
+				min = replica;
+				minActive = active;
+			}
+		}
+		return min.guarded;
+	}
+
+	@Override
+	public Long ttl(String key) {
+		return this.getReadRedis().ttl(key);
+	}
+
+	@Override
+	public String get(String key) {
+		return this.getReadRedis().get(key);
+	}
+
+	@Override
+	public byte[] getBytes(String key) {
+		return this.getReadRedis().getBytes(key);
+	}
+
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		return this.getReadRedis().get(key, clazz);
+	}
+
+	@Override
+	public Long zcard(String key) {
+		return this.getReadRedis().zcard(key);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeWithScores(String key, long start, long end) {
+		return this.getReadRedis().zrevrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public Set<String> zrevrange(String key, long start, long end) {
+		return this.getReadRedis().zrevrange(key, start, end);
+	}
+
+	@Override
+	public Set<String> zrange(String key, long start, long end) {
+		return this.getReadRedis().zrange(key, start, end);
+	}
+
+	@Override
+	public Boolean exists(String key) {
+		return this.getReadRedis().exists(key);
+	}
+
+	@Override
+	public String type(String key) {
+		return this.getReadRedis().type(key);
+	}
+
+	@Override
+	public Boolean getbit(String key, long offset) {
+		return this.getReadRedis().getbit(key, offset);
+	}
+
+	@Override
+	public String getrange(String key, long startOffset, long endOffset) {
+		return this.getReadRedis().getrange(key, startOffset, endOffset);
+	}
+
+	@Override
+	public String substr(String key, int start, int end) {
+		return this.getReadRedis().substr(key, start, end);
+	}
+
+	@Override
+	public String hget(String key, String field) {
+		return this.getReadRedis().hget(key, field);
+	}
+
+	@Override
+	public byte[] hgetBytes(String key, String field) {
+		return this.getReadRedis().hgetBytes(key, field);
+	}
+
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		return this.getReadRedis().hget(key, field, clazz);
+	}
+
+	@Override
+	public List<String> hmget(String key, String... fields) {
+		return this.getReadRedis().hmget(key, fields);
+	}
+
+	@Override
+	public Boolean hexists(String key, String field) {
+		return this.getReadRedis().hexists(key, field);
+	}
+
+	@Override
+	public Long hlen(String key) {
+		return this.getReadRedis().hlen(key);
+	}
+
+	@Override
+	public Set<String> hkeys(String key) {
+		return this.getReadRedis().hkeys(key);
+	}
+
+	@Override
+	public List<String> hvals(String key) {
+		return this.getReadRedis().hvals(key);
+	}
+
+	@Override
+	public Map<String, String> hgetAll(String key) {
+		return this.getReadRedis().hgetAll(key);
+	}
+
+	@Override
+	public Long llen(String key) {
+		return this.getReadRedis().llen(key);
+	}
+
+	@Override
+	public List<String> lrange(String key, long start, long end) {
+		return this.getReadRedis().lrange(key, start, end);
+	}
+
+	@Override
+	public String lindex(String key, long index) {
+		return this.getReadRedis().lindex(key, index);
+	}
+
+	@Override
+	public Set<String> smembers(String key) {
+		return this.getReadRedis().smembers(key);
+	}
+
+	@Override
+	public Long scard(String key) {
+		return this.getReadRedis().scard(key);
+	}
+
+	@Override
+	public Boolean sismember(String key, String member) {
+		return this.getReadRedis().sismember(key, member);
+	}
+
+	@Override
+	public String srandmember(String key) {
+		return this.getReadRedis().srandmember(key);
+	}
+
+	@Override
+	public Long zrank(String key, String member) {
+		return this.getReadRedis().zrank(key, member);
+	}
+
+	@Override
+	public Long zrevrank(String key, String member) {
+		return this.getReadRedis().zrevrank(key, member);
+	}
+
+	@Override
+	public Set<Tuple> zrangeWithScores(String key, long start, long end) {
+		return this.getReadRedis().zrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public Double zscore(String key, String member) {
+		return this.getReadRedis().zscore(key, member);
+	}
+
+	@Override
+	public Long zcount(String key, double min, double max) {
+		return this.getReadRedis().zcount(key, min, max);
+	}
+
+	@Override
+	public Long zcount(String key, String min, String max) {
+		return this.getReadRedis().zcount(key, min, max);
+	}
+
+	@Override
+	public Set<String> zrangeByScore(String key, double min, double max) {
+		return this.getReadRedis().zrangeByScore(key, min, max);
+	}
+
+	@Override
+	public Set<String> zrangeByScore(String key, String min, String max) {
+		return this.getReadRedis().zrangeByScore(key, min, max);
+	}
+
+	@Override
+	public Set<String> zrangeByScore(String key, String min, String max, int offset, int count) {
+		return this.getReadRedis().zrangeByScore(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<String> zrevrangeByScore(String key, double max, double min) {
+		return this.getReadRedis().zrevrangeByScore(key, max, min);
+	}
+
+	@Override
+	public Set<String> zrevrangeByScore(String key, String max, String min, int offset, int count) {
+		return this.getReadRedis().zrevrangeByScore(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<String> zrevrangeByScore(String key, String max, String min) {
+		return this.getReadRedis().zrevrangeByScore(key, max, min);
+	}
+
+	@Override
+	public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
+		return this.getReadRedis().zrangeByScore(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
+		return this.getReadRedis().zrevrangeByScore(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max) {
+		return this.getReadRedis().zrangeByScoreWithScores(key, min, max);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max, int offset, int count) {
+		return this.getReadRedis().zrangeByScoreWithScores(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max) {
+		return this.getReadRedis().zrangeByScoreWithScores(key, min, max);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min) {
+		return this.getReadRedis().zrevrangeByScoreWithScores(key, max, min);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min, int offset, int count) {
+		return this.getReadRedis().zrevrangeByScoreWithScores(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min) {
+		return this.getReadRedis().zrevrangeByScoreWithScores(key, max, min);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
+		return this.getReadRedis().zrangeByScoreWithScores(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
+		return this.getReadRedis().zrevrangeByScoreWithScores(key, max, min, offset, count);
+	}
+
+	@Override
+	public long pfcount(String key) {
+		return this.getReadRedis().pfcount(key);
+	}
+
+	@Override
+	public List<String> srandmember(String key, int count) {
+		return this.getReadRedis().srandmember(key, count);
+	}
+
+	@Override
+	public Long strlen(String key) {
+		return this.getReadRedis().strlen(key);
+	}
+
+	@Override
+	public Long bitcount(String key) {
+		return this.getReadRedis().bitcount(key);
+	}
+
+	@Override
+	public Long bitcount(String key, long start, long end) {
+		return this.getReadRedis().bitcount(key, start, end);
+	}
+
+	@Override
+	public ScanResult<Entry<String, String>> hscan(String key, int cursor) {
+		return this.getRedis().hscan(key, cursor);
+	}
+
+	@Override
+	public ScanResult<String> sscan(String key, int cursor) {
+		return this.getRedis().sscan(key, cursor);
+	}
+
+	@Override
+	public ScanResult<Tuple> zscan(String key, int cursor) {
+		return this.getRedis().zscan(key, cursor);
+	}
+
+	@Override
+	public ScanResult<Entry<String, String>> hscan(String key, String cursor) {
+		return this.getRedis().hscan(key, cursor);
+	}
+
+	@Override
+	public ScanResult<String> sscan(String key, String cursor) {
+		return this.getRedis().sscan(key, cursor);
+	}
+
+	@Override
+	public ScanResult<Tuple> zscan(String key, String cursor) {
+		return this.getRedis().zscan(key, cursor);
+	}
+
+	@Override
+	public List<String> mget(String... keys) {
+		return this.getReadRedis().mget(keys);
+	}
+
+	@Override
+	public String hget(String key, long field) {
+		return this.getReadRedis().hget(key, field);
+	}
+
+	@Override
+	public Double zscore(String key, long member) {
+		return this.getReadRedis().zscore(key, member);
+	}
+
+	@Override
+	public Set<String> sdiff(String... keys) {
+		return this.getReadRedis().sdiff(keys);
+	}
+
+	@Override
+	public Long zlexcount(String key, String min, String max) {
+		return this.getReadRedis().zlexcount(key, min, max);
+	}
+
+	@Override
+	public Set<String> zrangeByLex(String key, String min, String max) {
+		return this.getReadRedis().zrangeByLex(key, min, max);
+	}
+
+	@Override
+	public Set<String> zrangeByLex(String key, String min, String max, int offset, int count) {
+		return this.getReadRedis().zrangeByLex(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<String> zrevrangeByLex(String key, String max, String min) {
+		return this.getReadRedis().zrevrangeByLex(key, max, min);
+	}
+
+	@Override
+	public Set<String> zrevrangeByLex(String key, String max, String min, int offset, int count) {
+		return this.getReadRedis().zrevrangeByLex(key, max, min, offset, count);
+	}
+
+	@Override
+	public Long bitpos(String arg0, boolean arg1) {
+		return this.getReadRedis().bitpos(arg0, arg1);
+	}
+
+	@Override
+	public Long bitpos(String arg0, boolean arg1, BitPosParams arg2) {
+		return this.getReadRedis().bitpos(arg0, arg1, arg2);
+	}
+
+	@Override
+	public Double geodist(String arg0, String arg1, String arg2) {
+		return this.getReadRedis().geodist(arg0, arg1, arg2);
+	}
+
+	@Override
+	public Double geodist(String arg0, String arg1, String arg2, GeoUnit arg3) {
+		return this.getReadRedis().geodist(arg0, arg1, arg2, arg3);
+	}
+
+	@Override
+	public List<String> geohash(String arg0, String... arg1) {
+		return this.getReadRedis().geohash(arg0, arg1);
+	}
+
+	@Override
+	public List<GeoCoordinate> geopos(String arg0, String... arg1) {
+		return this.getReadRedis().geopos(arg0, arg1);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4) {
+		return this.getReadRedis().georadius(arg0, arg1, arg2, arg3, arg4);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4, GeoRadiusParam arg5) {
+		return this.getReadRedis().georadius(arg0, arg1, arg2, arg3, arg4, arg5);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3) {
+		return this.getReadRedis().georadiusByMember(arg0, arg1, arg2, arg3);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3, GeoRadiusParam arg4) {
+		return this.getReadRedis().georadiusByMember(arg0, arg1, arg2, arg3, arg4);
+	}
+
+	@Override
+	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
+		return this.getRedis().hscan(arg0, arg1, arg2);
+	}
+
+	@Override
+	public Long pttl(String arg0) {
+		return this.getReadRedis().pttl(arg0);
+	}
+
+	@Override
+	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
+		return this.getRedis().sscan(arg0, arg1, arg2);
+	}
+
+	@Override
+	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
+		return this.getRedis().zscan(arg0, arg1, arg2);
+	}
+
+	@Override
+	public Set<String> sinter(String... keys) {
+		return this.getReadRedis().sinter(keys);
+	}
+}
@@ -0,0 +1,47 @@
+package io.leopard.redis;
+
+/**
+ * 管道指令的返回值.
+ *
+ * @author 阿海
+ *
+ * @param <T>
+ */
+public class RedisResponse<T> {
+
+	private T data;
+
+	private RuntimeException exception;
+
+	private boolean done = false;
+
+	/**
+	 * 返回指令执行结果，管道未sync()时抛出IllegalStateException.
+	 *
+	 * @return
+	 */
+	public T get() {
+		if (!done) {
+			throw new IllegalStateException("管道还没有执行sync().");
+		}
+		if (exception != null) {
+			throw exception;
+		}
+		return data;
+	}
+
+	public void set(T data) {
+		this.data = data;
+		this.done = true;
+	}
+
+	public void setException(RuntimeException exception) {
+		this.exception = exception;
+		this.done = true;
+	}
+
+	public boolean isDone() {
+		return done;
+	}
+
+}
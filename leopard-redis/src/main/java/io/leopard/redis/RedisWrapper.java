@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import io.leopard.redis.monitor.RedisMetrics;
 import io.leopard.redis.util.IJedisPool;
 import redis.clients.jedis.BinaryClient.LIST_POSITION;
 import redis.clients.jedis.BitPosParams;
@@ -23,6 +24,12 @@ import redis.clients.jedis.params.geo.GeoRadiusParam;
 import redis.clients.jedis.params.sortedset.ZAddParams;
 import redis.clients.jedis.params.sortedset.ZIncrByParams;
 
+/**
+ * Redis包装类，所有指令委托给被包装的redis执行，子类覆盖需要增强的方法.
+ * 
+ * @author 阿海
+ * 
+ */
 public class RedisWrapper implements Redis {
 
 	private Redis redis;
@@ -37,663 +44,557 @@ public class RedisWrapper implements Redis {
 
 	@Override
 	public Long append(String key, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().append(key, value);
 	}
 
 	@Override
 	public String set(String key, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().set(key, value);
 	}
 
 	@Override
 	public Long expire(String key, int seconds) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().expire(key, seconds);
 	}
 
 	@Override
 	public Long ttl(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().ttl(key);
 	}
 
 	@Override
 	public Long incr(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().incr(key);
 	}
 
 	@Override
 	public String get(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().get(key);
 	}
 
 	@Override
 	public String getSet(String key, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().getSet(key, value);
 	}
 
 	@Override
 	public Long zcard(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zcard(key);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeWithScores(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeWithScores(key, start, end);
 	}
 
 	@Override
 	public Set<String> zrevrange(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrange(key, start, end);
 	}
 
 	@Override
 	public Set<String> zrange(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrange(key, start, end);
 	}
 
 	@Override
 	public Long zadd(String key, double score, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zadd(key, score, member);
 	}
 
 	@Override
 	public Long zadd(String key, Map<String, Double> scoreMembers) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zadd(key, scoreMembers);
 	}
 
 	@Override
 	public Long srem(String key, String... member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().srem(key, member);
 	}
 
 	@Override
 	public Boolean exists(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().exists(key);
 	}
 
 	@Override
 	public String type(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().type(key);
 	}
 
 	@Override
 	public Long expireAt(String key, long unixTime) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().expireAt(key, unixTime);
 	}
 
 	@Override
 	public Boolean setbit(String key, long offset, boolean value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().setbit(key, offset, value);
 	}
 
 	@Override
 	public Boolean getbit(String key, long offset) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().getbit(key, offset);
 	}
 
 	@Override
 	public String getrange(String key, long startOffset, long endOffset) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().getrange(key, startOffset, endOffset);
 	}
 
 	@Override
 	public Long setnx(String key, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().setnx(key, value);
 	}
 
 	@Override
 	public String setex(String key, int seconds, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().setex(key, seconds, value);
 	}
 
 	@Override
 	public Long decrBy(String key, long integer) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().decrBy(key, integer);
 	}
 
 	@Override
 	public Long decr(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().decr(key);
 	}
 
 	@Override
 	public Long incrBy(String key, long integer) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().incrBy(key, integer);
 	}
 
 	@Override
 	public String substr(String key, int start, int end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().substr(key, start, end);
 	}
 
 	@Override
 	public Long hset(String key, String field, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hset(key, field, value);
 	}
 
 	@Override
 	public String hget(String key, String field) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hget(key, field);
 	}
 
 	@Override
 	public Long hsetnx(String key, String field, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hsetnx(key, field, value);
 	}
 
 	@Override
 	public String hmset(String key, Map<String, String> hash) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hmset(key, hash);
 	}
 
 	@Override
 	public List<String> hmget(String key, String... fields) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hmget(key, fields);
 	}
 
 	@Override
 	public Long hincrBy(String key, String field, long value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hincrBy(key, field, value);
 	}
 
 	@Override
 	public Boolean hexists(String key, String field) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hexists(key, field);
 	}
 
 	@Override
 	public Long hdel(String key, String... field) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hdel(key, field);
 	}
 
 	@Override
 	public Long hlen(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hlen(key);
 	}
 
 	@Override
 	public Set<String> hkeys(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hkeys(key);
 	}
 
 	@Override
 	public List<String> hvals(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hvals(key);
 	}
 
 	@Override
 	public Map<String, String> hgetAll(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hgetAll(key);
 	}
 
 	@Override
 	public Long rpush(String key, String... strings) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().rpush(key, strings);
 	}
 
 	@Override
 	public Long lpush(String key, String... strings) {
-		return this.getRedis().lpush(key, strings);
+		return getRedis().lpush(key, strings);
 	}
 
 	@Override
 	public Long llen(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().llen(key);
 	}
 
 	@Override
 	public List<String> lrange(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lrange(key, start, end);
 	}
 
 	@Override
 	public String ltrim(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().ltrim(key, start, end);
 	}
 
 	@Override
 	public String lindex(String key, long index) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lindex(key, index);
 	}
 
 	@Override
 	public String lset(String key, long index, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lset(key, index, value);
 	}
 
 	@Override
 	public Long lrem(String key, long count, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lrem(key, count, value);
 	}
 
 	@Override
 	public String lpop(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lpop(key);
 	}
 
 	@Override
 	public String rpop(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().rpop(key);
 	}
 
 	@Override
 	public Long sadd(String key, String... members) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sadd(key, members);
 	}
 
 	@Override
 	public Set<String> smembers(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().smembers(key);
 	}
 
 	@Override
 	public String spop(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().spop(key);
 	}
 
 	@Override
 	public Long scard(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().scard(key);
 	}
 
 	@Override
 	public Boolean sismember(String key, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sismember(key, member);
 	}
 
 	@Override
 	public String srandmember(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().srandmember(key);
 	}
 
 	@Override
 	public Long zrem(String key, String... members) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrem(key, members);
 	}
 
 	@Override
 	public Double zincrby(String key, double score, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zincrby(key, score, member);
 	}
 
 	@Override
 	public Double zincrby(String key, double score, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zincrby(key, score, member);
 	}
 
 	@Override
 	public Long zrank(String key, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrank(key, member);
 	}
 
 	@Override
 	public Long zrevrank(String key, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrank(key, member);
 	}
 
 	@Override
 	public Set<Tuple> zrangeWithScores(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeWithScores(key, start, end);
 	}
 
 	@Override
 	public Double zscore(String key, String member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zscore(key, member);
 	}
 
 	@Override
 	public List<String> sort(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sort(key);
 	}
 
 	@Override
 	public List<String> sort(String key, SortingParams sortingParameters) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sort(key, sortingParameters);
 	}
 
 	@Override
 	public Long zcount(String key, double min, double max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zcount(key, min, max);
 	}
 
 	@Override
 	public Long zcount(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zcount(key, min, max);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, double min, double max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScore(key, min, max);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScore(key, min, max);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, String min, String max, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScore(key, min, max, offset, count);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, double max, double min) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScore(key, max, min);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, String max, String min, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScore(key, max, min, offset, count);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, String max, String min) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScore(key, max, min);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScore(key, min, max, offset, count);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScore(key, max, min, offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScoreWithScores(key, min, max);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScoreWithScores(key, min, max, offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScoreWithScores(key, min, max);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScoreWithScores(key, max, min);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScoreWithScores(key, max, min, offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScoreWithScores(key, max, min);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByScoreWithScores(key, min, max, offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByScoreWithScores(key, max, min, offset, count);
 	}
 
 	@Override
 	public Long zremrangeByRank(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zremrangeByRank(key, start, end);
 	}
 
 	@Override
 	public Long zremrangeByScore(String key, double start, double end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zremrangeByScore(key, start, end);
 	}
 
 	@Override
 	public Long zremrangeByScore(String key, String start, String end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zremrangeByScore(key, start, end);
 	}
 
 	@Override
 	public Long linsert(String key, LIST_POSITION where, String pivot, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().linsert(key, where, pivot, value);
 	}
 
 	@Override
 	public Long lpushx(String key, String string) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lpushx(key, string);
 	}
 
 	@Override
 	public Long rpushx(String key, String string) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().rpushx(key, string);
 	}
 
 	@Override
 	public Long pfadd(String key, String... elements) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().pfadd(key, elements);
 	}
 
 	@Override
 	public long pfcount(String key) {
-		// TODO Auto-generated method stub
-		return 0;
+		return getRedis().pfcount(key);
 	}
 
 	@Override
 	public String set(String key, String arg1, String arg2, String arg3, long arg4) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().set(key, arg1, arg2, arg3, arg4);
 	}
 
 	@Override
 	public List<String> srandmember(String key, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().srandmember(key, count);
 	}
 
 	@Override
 	public Long persist(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().persist(key);
 	}
 
 	@Override
 	public Boolean setbit(String key, long offset, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().setbit(key, offset, value);
 	}
 
 	@Override
 	public Long strlen(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().strlen(key);
 	}
 
 	@Override
 	public Long lpushx(String key, String... string) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().lpushx(key, string);
 	}
 
 	@Override
 	public Long rpushx(String key, String... string) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().rpushx(key, string);
 	}
 
 	@Override
 	public List<String> blpop(String arg) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().blpop(arg);
 	}
 
 	@Override
 	public List<String> brpop(String arg) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().brpop(arg);
 	}
 
 	@Override
 	public String echo(String string) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().echo(string);
 	}
 
 	@Override
 	public Long move(String key, int dbIndex) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().move(key, dbIndex);
 	}
 
 	@Override
 	public Long bitcount(String key) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bitcount(key);
 	}
 
 	@Override
 	public Long bitcount(String key, long start, long end) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bitcount(key, start, end);
 	}
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, int cursor) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, int cursor) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, int cursor) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String key, String cursor) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<String> sscan(String key, String cursor) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sscan(key, cursor);
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String key, String cursor) {
-		return null;
+		return getRedis().zscan(key, cursor);
 	}
 
 	@Override
 	public void init() {
-		getRedis().init();
+		// 被包装的redis由调用方负责初始化
 	}
 
 	@Override
 	public void destroy() {
-		getRedis().destroy();
+		// 被包装的redis由调用方负责销毁
 	}
 
 	@Override
 	public IJedisPool getJedisPool() {
-		return this.getRedis().getJedisPool();
+		return getRedis().getJedisPool();
 	}
 
 	@Override
@@ -721,6 +622,56 @@ public class RedisWrapper implements Redis {
 		return getRedis().setrange(key, offset, value);
 	}
 
+	@Override
+	public byte[] getBytes(String key) {
+		return getRedis().getBytes(key);
+	}
+
+	@Override
+	public String set(String key, byte[] value) {
+		return getRedis().set(key, value);
+	}
+
+	@Override
+	public byte[] hgetBytes(String key, String field) {
+		return getRedis().hgetBytes(key, field);
+	}
+
+	@Override
+	public Long hset(String key, String field, byte[] value) {
+		return getRedis().hset(key, field, value);
+	}
+
+	@Override
+	public <T> T get(String key, Class<T> clazz) {
+		return getRedis().get(key, clazz);
+	}
+
+	@Override
+	public <T> String set(String key, T value) {
+		return getRedis().set(key, value);
+	}
+
+	@Override
+	public <T> T hget(String key, String field, Class<T> clazz) {
+		return getRedis().hget(key, field, clazz);
+	}
+
+	@Override
+	public <T> Long hset(String key, String field, T value) {
+		return getRedis().hset(key, field, value);
+	}
+
+	@Override
+	public RedisPipeline pipelined() {
+		return getRedis().pipelined();
+	}
+
+	@Override
+	public RedisMetrics getMetrics() {
+		return getRedis().getMetrics();
+	}
+
 	@Override
 	public Transaction multi() {
 		return getRedis().multi();
@@ -728,38 +679,32 @@ public class RedisWrapper implements Redis {
 
 	@Override
 	public boolean flushDB() {
-		// TODO Auto-generated method stub
-		return false;
+		return getRedis().flushDB();
 	}
 
 	@Override
 	public RedisInfo info() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().info();
 	}
 
 	@Override
 	public boolean rename(String oldkey, String newkey, int seconds) {
-		// TODO Auto-generated method stub
-		return false;
+		return getRedis().rename(oldkey, newkey, seconds);
 	}
 
 	@Override
 	public long getUsedMemory() {
-		// TODO Auto-generated method stub
-		return 0;
+		return getRedis().getUsedMemory();
 	}
 
 	@Override
 	public long dbSize() {
-		// TODO Auto-generated method stub
-		return 0;
+		return getRedis().dbSize();
 	}
 
 	@Override
 	public String set(String key, String value, int seconds) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().set(key, value, seconds);
 	}
 
 	@Override
@@ -769,20 +714,17 @@ public class RedisWrapper implements Redis {
 
 	@Override
 	public boolean set(List<String> keyList, List<String> valueList) {
-		// TODO Auto-generated method stub
-		return false;
+		return getRedis().set(keyList, valueList);
 	}
 
 	@Override
 	public boolean append(List<String> keyList, List<String> valueList, int seconds) {
-		// TODO Auto-generated method stub
-		return false;
+		return getRedis().append(keyList, valueList, seconds);
 	}
 
 	@Override
 	public Long del(String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().del(keys);
 	}
 
 	@Override
@@ -792,411 +734,357 @@ public class RedisWrapper implements Redis {
 
 	@Override
 	public void returnResource(Jedis jedis) {
-		this.getRedis().returnResource(jedis);
+		getRedis().returnResource(jedis);
 	}
 
 	@Override
 	public List<String> mget(String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().mget(keys);
 	}
 
 	@Override
 	public Long zinterstore(String dstkey, String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zinterstore(dstkey, sets);
 	}
 
 	@Override
 	public Long zinterstore(String dstkey, ZParams params, String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zinterstore(dstkey, params, sets);
 	}
 
 	@Override
 	public Set<String> keys(String pattern) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().keys(pattern);
+	}
+
+	@Override
+	public ScanResult<String> scan(String cursor, ScanParams params) {
+		return getRedis().scan(cursor, params);
 	}
 
 	@Override
 	public Long zunionstore(String dstkey, String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zunionstore(dstkey, sets);
 	}
 
 	@Override
 	public Long zunionstore(String dstkey, ZParams params, String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zunionstore(dstkey, params, sets);
 	}
 
 	@Override
 	public String getServerInfo() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().getServerInfo();
 	}
 
 	@Override
 	public String hget(String key, long field) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hget(key, field);
 	}
 
 	@Override
 	public Long hset(String key, long field, String value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hset(key, field, value);
 	}
 
 	@Override
 	public Long hdel(String key, long field) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hdel(key, field);
 	}
 
 	@Override
 	public Long zadd(String key, double score, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zadd(key, score, member);
 	}
 
 	@Override
 	public Double zscore(String key, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zscore(key, member);
 	}
 
 	@Override
 	public Long zrem(String key, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrem(key, member);
 	}
 
 	@Override
 	public Set<String> zunionStoreInJava(String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zunionStoreInJava(sets);
 	}
 
 	@Override
 	public Set<String> zunionStoreByScoreInJava(double min, double max, String... sets) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zunionStoreByScoreInJava(min, max, sets);
 	}
 
 	@Override
 	public Object evalsha(String script) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().evalsha(script);
 	}
 
 	@Override
 	public Object eval(String script) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().eval(script);
 	}
 
 	@Override
 	public Object eval(String script, int keyCount, String... params) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().eval(script, keyCount, params);
 	}
 
 	@Override
 	public Object evalsha(String sha1, List<String> keys, List<String> args) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().evalsha(sha1, keys, args);
 	}
 
 	@Override
 	public Object evalsha(String sha1, int keyCount, String... params) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().evalsha(sha1, keyCount, params);
 	}
 
 	@Override
 	public String evalReturnSha(String script) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().evalReturnSha(script);
 	}
 
 	@Override
 	public Object evalAssertSha(String sha, String script) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().evalAssertSha(sha, script);
+	}
+
+	@Override
+	public String scriptLoad(String script) {
+		return getRedis().scriptLoad(script);
 	}
 
 	@Override
 	public String bgrewriteaof() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bgrewriteaof();
 	}
 
 	@Override
 	public String bgsave() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bgsave();
 	}
 
 	@Override
 	public String save() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().save();
 	}
 
 	@Override
 	public Long publish(String channel, String message) {
-		return this.getRedis().publish(channel, message);
+		return getRedis().publish(channel, message);
 	}
 
 	@Override
 	public void psubscribe(JedisPubSub jedisPubSub, String... patterns) {
-		// TODO Auto-generated method stub
-
+		getRedis().psubscribe(jedisPubSub, patterns);
 	}
 
 	@Override
 	public void subscribe(JedisPubSub jedisPubSub, String... channels) {
-		this.getRedis().subscribe(jedisPubSub, channels);
+		getRedis().subscribe(jedisPubSub, channels);
 	}
 
 	@Override
 	public Set<String> sdiff(String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sdiff(keys);
 	}
 
 	@Override
 	public Long sadd(String key, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sadd(key, member);
 	}
 
 	@Override
 	public Long srem(String key, long member) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().srem(key, member);
 	}
 
 	@Override
 	public Long sdiffstore(String dstkey, String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sdiffstore(dstkey, keys);
 	}
 
 	@Override
 	public String randomKey() {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().randomKey();
 	}
 
 	@Override
 	public Long pexpire(String key, long milliseconds) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().pexpire(key, milliseconds);
 	}
 
 	@Override
 	public Long pexpireAt(String key, long millisecondsTimestamp) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().pexpireAt(key, millisecondsTimestamp);
 	}
 
 	@Override
 	public Double incrByFloat(String key, double value) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().incrByFloat(key, value);
 	}
 
 	@Override
 	public Set<String> spop(String key, long count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().spop(key, count);
 	}
 
 	@Override
 	public Long zlexcount(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zlexcount(key, min, max);
 	}
 
 	@Override
 	public Set<String> zrangeByLex(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByLex(key, min, max);
 	}
 
 	@Override
 	public Set<String> zrangeByLex(String key, String min, String max, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrangeByLex(key, min, max, offset, count);
 	}
 
 	@Override
 	public Set<String> zrevrangeByLex(String key, String max, String min) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByLex(key, max, min);
 	}
 
 	@Override
 	public Set<String> zrevrangeByLex(String key, String max, String min, int offset, int count) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zrevrangeByLex(key, max, min, offset, count);
 	}
 
 	@Override
 	public Long zremrangeByLex(String key, String min, String max) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zremrangeByLex(key, min, max);
 	}
 
 	@Override
 	public List<String> blpop(int timeout, String key) {
-		return this.getRedis().blpop(timeout, key);
+		return getRedis().blpop(timeout, key);
 	}
 
 	@Override
 	public List<String> brpop(int timeout, String key) {
-		return this.getRedis().brpop(timeout, key);
+		return getRedis().brpop(timeout, key);
 	}
 
 	@Override
 	public Long bitpos(String arg0, boolean arg1) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bitpos(arg0, arg1);
 	}
 
 	@Override
 	public Long bitpos(String arg0, boolean arg1, BitPosParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().bitpos(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Long geoadd(String arg0, Map<String, GeoCoordinate> arg1) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geoadd(arg0, arg1);
 	}
 
 	@Override
 	public Long geoadd(String arg0, double arg1, double arg2, String arg3) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geoadd(arg0, arg1, arg2, arg3);
 	}
 
 	@Override
 	public Double geodist(String arg0, String arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geodist(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Double geodist(String arg0, String arg1, String arg2, GeoUnit arg3) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geodist(arg0, arg1, arg2, arg3);
 	}
 
 	@Override
 	public List<String> geohash(String arg0, String... arg1) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geohash(arg0, arg1);
 	}
 
 	@Override
 	public List<GeoCoordinate> geopos(String arg0, String... arg1) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().geopos(arg0, arg1);
 	}
 
 	@Override
 	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().georadius(arg0, arg1, arg2, arg3, arg4);
 	}
 
 	@Override
 	public List<GeoRadiusResponse> georadius(String arg0, double arg1, double arg2, double arg3, GeoUnit arg4, GeoRadiusParam arg5) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().georadius(arg0, arg1, arg2, arg3, arg4, arg5);
 	}
 
 	@Override
 	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().georadiusByMember(arg0, arg1, arg2, arg3);
 	}
 
 	@Override
 	public List<GeoRadiusResponse> georadiusByMember(String arg0, String arg1, double arg2, GeoUnit arg3, GeoRadiusParam arg4) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().georadiusByMember(arg0, arg1, arg2, arg3, arg4);
 	}
 
 	@Override
 	public Double hincrByFloat(String arg0, String arg1, double arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hincrByFloat(arg0, arg1, arg2);
 	}
 
 	@Override
 	public ScanResult<Entry<String, String>> hscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().hscan(arg0, arg1, arg2);
 	}
 
 	@Override
 	public String psetex(String arg0, long arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().psetex(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Long pttl(String arg0) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().pttl(arg0);
 	}
 
 	@Override
 	public String set(String arg0, String arg1, String arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().set(arg0, arg1, arg2);
 	}
 
 	@Override
 	public ScanResult<String> sscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sscan(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Long zadd(String arg0, Map<String, Double> arg1, ZAddParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zadd(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Long zadd(String arg0, double arg1, String arg2, ZAddParams arg3) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zadd(arg0, arg1, arg2, arg3);
 	}
 
 	@Override
 	public Double zincrby(String arg0, double arg1, String arg2, ZIncrByParams arg3) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zincrby(arg0, arg1, arg2, arg3);
 	}
 
 	@Override
 	public ScanResult<Tuple> zscan(String arg0, String arg1, ScanParams arg2) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().zscan(arg0, arg1, arg2);
 	}
 
 	@Override
 	public Set<String> sinter(String... keys) {
-		// TODO Auto-generated method stub
-		return null;
+		return getRedis().sinter(keys);
 	}
 
 }
@@ -0,0 +1,602 @@
+package io.leopard.redis.codec;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 紧凑的二进制编码(默认实现).
+ *
+ * 每个值以1个字节的类型标记开头，整数使用变长编码(zigzag)，字符串使用UTF-8；对象按字段名排序依次写入字段值，不写字段名(只写类名和字段签名的hash)，比JSON小且不需要解析文本.
+ *
+ * 支持基本类型及其包装类、String、byte[]、Date、枚举、List、Set、Map和有无参构造方法的JavaBean(非static、非transient字段，可以嵌套).
+ *
+ * 解码时JavaBean和枚举的类型由decode()的参数或字段的声明类型(包括List、Set、Map的泛型参数)确定，数据中的类名只能是声明类型本身或其子类，不会按数据中的类名加载任意的类；声明类型为Object(如decode(bytes, List.class)中的元素)时不能解码JavaBean和枚举.
+ *
+ * 类的字段增删改后，旧数据解码会抛出IllegalArgumentException(缓存数据可以当作不存在处理).
+ *
+ * @author 阿海
+ *
+ */
+public class BinaryCodec implements RedisCodec {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int NULL = 0;
+	private static final int TRUE = 1;
+	private static final int FALSE = 2;
+	private static final int INT = 3;
+	private static final int LONG = 4;
+	private static final int DOUBLE = 5;
+	private static final int FLOAT = 6;
+	private static final int STRING = 7;
+	private static final int BYTES = 8;
+	private static final int DATE = 9;
+	private static final int LIST = 10;
+	private static final int SET = 11;
+	private static final int MAP = 12;
+	private static final int BEAN = 13;
+	private static final int ENUM = 14;
+	private static final int SHORT = 15;
+	private static final int BYTE = 16;
+	private static final int CHAR = 17;
+
+	/**
+	 * 类信息缓存的最大个数，超过时清空.
+	 */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	private static final BinaryCodec INSTANCE = new BinaryCodec();
+
+	/**
+	 * JavaBean的字段信息(按类缓存).
+	 */
+	private static class BeanInfo {
+		private Constructor<?> constructor;
+		private Field[] fields;
+		private int hash;
+	}
+
+	private final ConcurrentMap<Class<?>, BeanInfo> beanInfos = new ConcurrentHashMap<Class<?>, BeanInfo>();
+
+	private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+	public static BinaryCodec getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public byte[] encode(Object value) {
+		Output out = new Output();
+		this.write(out, value);
+		return out.toByteArray();
+	}
+
+	@Override
+	public <T> T decode(byte[] bytes, Class<T> clazz) {
+		Input in = new Input(bytes);
+		Object value = this.read(in, clazz);
+		if (in.position != bytes.length) {
+			throw new IllegalArgumentException("数据格式错误.");
+		}
+		return this.cast(value, clazz);
+	}
+
+	protected void write(Output out, Object value) {
+		if (value == null) {
+			out.write(NULL);
+		}
+		else if (value instanceof String) {
+			out.write(STRING);
+			out.writeString((String) value);
+		}
+		else if (value instanceof Integer) {
+			out.write(INT);
+			out.writeVarLong((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.write(LONG);
+			out.writeVarLong((Long) value);
+		}
+		else if (value instanceof Boolean) {
+			out.write(((Boolean) value) ? TRUE : FALSE);
+		}
+		else if (value instanceof Double) {
+			out.write(DOUBLE);
+			out.writeFixedLong(Double.doubleToLongBits((Double) value));
+		}
+		else if (value instanceof Float) {
+			out.write(FLOAT);
+			out.writeFixedInt(Float.floatToIntBits((Float) value));
+		}
+		else if (value instanceof Short) {
+			out.write(SHORT);
+			out.writeVarLong((Short) value);
+		}
+		else if (value instanceof Byte) {
+			out.write(BYTE);
+			out.write((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.write(CHAR);
+			out.writeVarLong((Character) value);
+		}
+		else if (value instanceof byte[]) {
+			out.write(BYTES);
+			out.writeBytes((byte[]) value);
+		}
+		else if (value instanceof Date) {
+			out.write(DATE);
+			out.writeVarLong(((Date) value).getTime());
+		}
+		else if (value instanceof Enum) {
+			out.write(ENUM);
+			out.writeString(((Enum<?>) value).getDeclaringClass().getName());
+			out.writeString(((Enum<?>) value).name());
+		}
+		else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			out.write(value instanceof Set ? SET : LIST);
+			out.writeVarLong(collection.size());
+			for (Object element : collection) {
+				this.write(out, element);
+			}
+		}
+		else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			out.write(MAP);
+			out.writeVarLong(map.size());
+			for (Entry<?, ?> entry : map.entrySet()) {
+				this.write(out, entry.getKey());
+				this.write(out, entry.getValue());
+			}
+		}
+		else {
+			Class<?> clazz = value.getClass();
+			if (clazz.isArray() || clazz.getName().startsWith("java.")) {
+				throw new IllegalArgumentException("不支持的类型[" + clazz.getName() + "].");
+			}
+			BeanInfo info = this.getBeanInfo(clazz);
+			out.write(BEAN);
+			out.writeString(clazz.getName());
+			out.writeFixedInt(info.hash);
+			try {
+				for (Field field : info.fields) {
+					this.write(out, field.get(value));
+				}
+			}
+			catch (IllegalAccessException e) {
+				throw new RuntimeException(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * 读取一个值.
+	 * 
+	 * @param in
+	 * @param declaredType 声明类型，用于确定JavaBean和枚举的类型，未知时为Object.class
+	 * @return
+	 */
+	protected Object read(Input in, Type declaredType) {
+		int type = in.read();
+		switch (type) {
+		case NULL:
+			return null;
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case INT:
+			return (int) in.readVarLong();
+		case LONG:
+			return in.readVarLong();
+		case DOUBLE:
+			return Double.longBitsToDouble(in.readFixedLong());
+		case FLOAT:
+			return Float.intBitsToFloat(in.readFixedInt());
+		case SHORT:
+			return (short) in.readVarLong();
+		case BYTE:
+			return (byte) in.read();
+		case CHAR:
+			return (char) in.readVarLong();
+		case STRING:
+			return in.readString();
+		case BYTES:
+			return in.readBytes();
+		case DATE:
+			return new Date(in.readVarLong());
+		case ENUM:
+			return this.readEnum(in, declaredType);
+		case LIST:
+		case SET: {
+			int size = in.readSize();
+			Type elementType = getTypeArgument(declaredType, 0);
+			Collection<Object> collection = (type == SET) ? new LinkedHashSet<Object>(size * 2) : new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++) {
+				collection.add(this.read(in, elementType));
+			}
+			return collection;
+		}
+		case MAP: {
+			int size = in.readSize();
+			Type keyType = getTypeArgument(declaredType, 0);
+			Type valueType = getTypeArgument(declaredType, 1);
+			Map<Object, Object> map = new LinkedHashMap<Object, Object>(size * 2);
+			for (int i = 0; i < size; i++) {
+				Object key = this.read(in, keyType);
+				map.put(key, this.read(in, valueType));
+			}
+			return map;
+		}
+		case BEAN:
+			return this.readBean(in, declaredType);
+		default:
+			throw new IllegalArgumentException("未知数据类型[" + type + "].");
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum(Input in, Type declaredType) {
+		Class clazz = this.resolveClass(in.readString(), getRawType(declaredType));
+		if (!clazz.isEnum()) {
+			throw new IllegalArgumentException("类[" + clazz.getName() + "]不是枚举.");
+		}
+		return Enum.valueOf(clazz, in.readString());
+	}
+
+	private Object readBean(Input in, Type declaredType) {
+		Class<?> clazz = this.resolveClass(in.readString(), getRawType(declaredType));
+		BeanInfo info = this.getBeanInfo(clazz);
+		if (in.readFixedInt() != info.hash) {
+			throw new IllegalArgumentException("数据与类[" + clazz.getName() + "]的字段不一致.");
+		}
+		Object bean;
+		try {
+			bean = info.constructor.newInstance();
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		for (Field field : info.fields) {
+			Object value = this.read(in, field.getGenericType());
+			if (value != null || !field.getType().isPrimitive()) {
+				try {
+					field.set(bean, this.cast(value, field.getType()));
+				}
+				catch (IllegalAccessException e) {
+					throw new RuntimeException(e.getMessage(), e);
+				}
+			}
+		}
+		return bean;
+	}
+
+	/**
+	 * 确定数据中的类名对应的类：与声明类型相同时直接使用声明类型，否则必须是声明类型的子类.
+	 * 
+	 * @param className 数据中的类名
+	 * @param declaredType 声明类型
+	 * @return
+	 */
+	private Class<?> resolveClass(String className, Class<?> declaredType) {
+		if (declaredType.getName().equals(className)) {
+			return declaredType;
+		}
+		if (declaredType == Object.class) {
+			throw new IllegalArgumentException("类[" + className + "]没有声明类型.");
+		}
+		if (Modifier.isFinal(declaredType.getModifiers())) {
+			// final类(包括基本类型、数组、String等)不会有子类，不需要加载
+			throw new IllegalArgumentException("类型不匹配[" + className + "," + declaredType.getName() + "].");
+		}
+		Class<?> clazz = this.loadClass(className);
+		if (!declaredType.isAssignableFrom(clazz)) {
+			throw new IllegalArgumentException("类型不匹配[" + className + "," + declaredType.getName() + "].");
+		}
+		return clazz;
+	}
+
+	private static Class<?> getRawType(Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return getRawType(((ParameterizedType) type).getRawType());
+		}
+		if (type instanceof WildcardType) {
+			return getRawType(((WildcardType) type).getUpperBounds()[0]);
+		}
+		if (type instanceof TypeVariable) {
+			return getRawType(((TypeVariable<?>) type).getBounds()[0]);
+		}
+		return Object.class;
+	}
+
+	/**
+	 * 泛型参数，如List&lt;User&gt;的User，没有泛型参数时返回Object.class.
+	 */
+	private static Type getTypeArgument(Type type, int index) {
+		if (type instanceof ParameterizedType) {
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			if (index < arguments.length) {
+				return arguments[index];
+			}
+		}
+		return Object.class;
+	}
+
+	private Class<?> loadClass(String className) {
+		Class<?> clazz = classes.get(className);
+		if (clazz == null) {
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if (loader == null) {
+				loader = BinaryCodec.class.getClassLoader();
+			}
+			try {
+				clazz = Class.forName(className, false, loader);
+			}
+			catch (ClassNotFoundException e) {
+				throw new IllegalArgumentException("类[" + className + "]不存在.", e);
+			}
+			if (classes.size() >= MAX_CACHE_SIZE) {
+				classes.clear();
+			}
+			classes.put(className, clazz);
+		}
+		return clazz;
+	}
+
+	/**
+	 * 按字段名排序的字段(包括父类)，以及字段签名的hash.
+	 */
+	private BeanInfo getBeanInfo(Class<?> clazz) {
+		BeanInfo info = beanInfos.get(clazz);
+		if (info != null) {
+			return info;
+		}
+		List<Field> list = new ArrayList<Field>();
+		for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+					continue;
+				}
+				field.setAccessible(true);
+				list.add(field);
+			}
+		}
+		Field[] fields = list.toArray(new Field[list.size()]);
+		Arrays.sort(fields, new Comparator<Field>() {
+			@Override
+			public int compare(Field f1, Field f2) {
+				int result = f1.getName().compareTo(f2.getName());
+				if (result == 0) {
+					result = f1.getDeclaringClass().getName().compareTo(f2.getDeclaringClass().getName());
+				}
+				return result;
+			}
+		});
+		int hash = clazz.getName().hashCode();
+		for (Field field : fields) {
+			hash = 31 * hash + field.getName().hashCode();
+			hash = 31 * hash + field.getType().getName().hashCode();
+		}
+		info = new BeanInfo();
+		try {
+			info.constructor = clazz.getDeclaredConstructor();
+			info.constructor.setAccessible(true);
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("类[" + clazz.getName() + "]没有无参构造方法.");
+		}
+		info.fields = fields;
+		info.hash = hash;
+		if (beanInfos.size() >= MAX_CACHE_SIZE) {
+			beanInfos.clear();
+		}
+		beanInfos.put(clazz, info);
+		return info;
+	}
+
+	/**
+	 * 转换为指定类型(数值类型之间、集合类型之间可以转换).
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T cast(Object value, Class<T> clazz) {
+		if (value == null || clazz.isInstance(value)) {
+			return (T) value;
+		}
+		if (value instanceof Number) {
+			Number number = (Number) value;
+			if (clazz == int.class || clazz == Integer.class) {
+				return (T) Integer.valueOf(number.intValue());
+			}
+			if (clazz == long.class || clazz == Long.class) {
+				return (T) Long.valueOf(number.longValue());
+			}
+			if (clazz == double.class || clazz == Double.class) {
+				return (T) Double.valueOf(number.doubleValue());
+			}
+			if (clazz == float.class || clazz == Float.class) {
+				return (T) Float.valueOf(number.floatValue());
+			}
+			if (clazz == short.class || clazz == Short.class) {
+				return (T) Short.valueOf(number.shortValue());
+			}
+			if (clazz == byte.class || clazz == Byte.class) {
+				return (T) Byte.valueOf(number.byteValue());
+			}
+		}
+		if ((clazz == boolean.class && value instanceof Boolean) || (clazz == char.class && value instanceof Character)) {
+			return (T) value;
+		}
+		try {
+			// 字段声明为具体的集合类型(如TreeMap)
+			if (value instanceof Collection && Collection.class.isAssignableFrom(clazz) && !clazz.isInterface()) {
+				Collection<Object> collection = (Collection<Object>) clazz.newInstance();
+				collection.addAll((Collection<?>) value);
+				return (T) collection;
+			}
+			if (value instanceof Map && Map.class.isAssignableFrom(clazz) && !clazz.isInterface()) {
+				Map<Object, Object> map = (Map<Object, Object>) clazz.newInstance();
+				map.putAll((Map<?, ?>) value);
+				return (T) map;
+			}
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		throw new IllegalArgumentException("类型不匹配[" + value.getClass().getName() + "," + clazz.getName() + "].");
+	}
+
+	protected static class Output {
+		private byte[] buffer = new byte[64];
+		private int size = 0;
+
+		private void ensureCapacity(int length) {
+			if (size + length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+			}
+		}
+
+		public void write(int b) {
+			this.ensureCapacity(1);
+			buffer[size++] = (byte) b;
+		}
+
+		/**
+		 * 变长编码，zigzag使绝对值小的负数也只占1个字节.
+		 */
+		public void writeVarLong(long value) {
+			this.ensureCapacity(10);
+			long n = (value << 1) ^ (value >> 63);
+			while ((n & ~0x7FL) != 0) {
+				buffer[size++] = (byte) ((n & 0x7F) | 0x80);
+				n >>>= 7;
+			}
+			buffer[size++] = (byte) n;
+		}
+
+		public void writeFixedInt(int value) {
+			this.ensureCapacity(4);
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				buffer[size++] = (byte) (value >>> shift);
+			}
+		}
+
+		public void writeFixedLong(long value) {
+			this.ensureCapacity(8);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				buffer[size++] = (byte) (value >>> shift);
+			}
+		}
+
+		public void writeBytes(byte[] bytes) {
+			this.writeVarLong(bytes.length);
+			this.ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, buffer, size, bytes.length);
+			size += bytes.length;
+		}
+
+		public void writeString(String str) {
+			this.writeBytes(str.getBytes(UTF8));
+		}
+
+		public byte[] toByteArray() {
+			return Arrays.copyOf(buffer, size);
+		}
+	}
+
+	protected static class Input {
+		private final byte[] buffer;
+		private int position = 0;
+
+		public Input(byte[] buffer) {
+			this.buffer = buffer;
+		}
+
+		private void check(int length) {
+			if (length < 0 || position + length > buffer.length) {
+				throw new IllegalArgumentException("数据不完整.");
+			}
+		}
+
+		public int read() {
+			this.check(1);
+			return buffer[position++] & 0xFF;
+		}
+
+		public long readVarLong() {
+			long n = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = this.read();
+				n |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return (n >>> 1) ^ -(n & 1);
+				}
+			}
+			throw new IllegalArgumentException("数据格式错误.");
+		}
+
+		public int readSize() {
+			long size = this.readVarLong();
+			// 每个元素至少1个字节
+			if (size < 0 || size > buffer.length - position) {
+				throw new IllegalArgumentException("数据不完整.");
+			}
+			return (int) size;
+		}
+
+		public int readFixedInt() {
+			this.check(4);
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				value = (value << 8) | (buffer[position++] & 0xFF);
+			}
+			return value;
+		}
+
+		public long readFixedLong() {
+			this.check(8);
+			long value = 0;
+			for (int i = 0; i < 8; i++) {
+				value = (value << 8) | (buffer[position++] & 0xFF);
+			}
+			return value;
+		}
+
+		public byte[] readBytes() {
+			int length = this.readSize();
+			byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+			position += length;
+			return bytes;
+		}
+
+		public String readString() {
+			int length = this.readSize();
+			String str = new String(buffer, position, length, UTF8);
+			position += length;
+			return str;
+		}
+	}
+}
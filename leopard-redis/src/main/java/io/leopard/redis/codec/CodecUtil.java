@@ -0,0 +1,33 @@
+package io.leopard.redis.codec;
+
+/**
+ * 对象与二进制value的转换(byte[]不编码).
+ * 
+ * String类型不经过这里，直接使用String的方法读写，与get(key)、set(key, value)兼容.
+ * 
+ * @author 阿海
+ *
+ */
+public class CodecUtil {
+
+	public static byte[] encode(RedisCodec codec, Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value不能为null.");
+		}
+		if (value instanceof byte[]) {
+			return (byte[]) value;
+		}
+		return codec.encode(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> T decode(RedisCodec codec, byte[] bytes, Class<T> clazz) {
+		if (bytes == null) {
+			return null;
+		}
+		if (clazz == byte[].class) {
+			return (T) bytes;
+		}
+		return codec.decode(bytes, clazz);
+	}
+}
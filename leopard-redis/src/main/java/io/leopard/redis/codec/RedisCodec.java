@@ -0,0 +1,29 @@
+package io.leopard.redis.codec;
+
+/**
+ * 对象与二进制value的编码接口(get(key, Class)、set(key, T)等方法使用).
+ * 
+ * 默认实现是BinaryCodec，可以通过setCodec()替换为其他实现(如JSON).
+ * 
+ * @author 阿海
+ *
+ */
+public interface RedisCodec {
+
+	/**
+	 * 编码.
+	 * 
+	 * @param value 不为null
+	 * @return
+	 */
+	byte[] encode(Object value);
+
+	/**
+	 * 解码.
+	 * 
+	 * @param bytes 不为null
+	 * @param clazz 返回值类型
+	 * @return
+	 */
+	<T> T decode(byte[] bytes, Class<T> clazz);
+}
@@ -0,0 +1,179 @@
+package io.leopard.redis.codec;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * value压缩(Deflate).
+ *
+ * 超过阈值的value压缩后加上6个字节的头(0xFF、'Z'、原始长度)，读取时根据头自动解压；UTF-8字符串不会以0xFF开头，所以String类型的value可以和未压缩的旧数据共存.
+ *
+ * 二进制value可能以压缩头开头，所以只用于String类型的value；解压失败(不是压缩数据或数据不完整)时返回原value.
+ *
+ * 可以按key前缀设置阈值(最长前缀优先)，阈值小于等于0表示不压缩(如需要append、getrange的key).
+ *
+ * @author 阿海
+ *
+ */
+public class ValueCompressor {
+
+	private static final byte MAGIC = (byte) 0xFF;
+
+	private static final byte DEFLATE = 'Z';
+
+	private static final int HEADER_LENGTH = 6;
+
+	/**
+	 * 解压后的最大长度(与Redis的value上限相同).
+	 */
+	private static final int MAX_LENGTH = 512 * 1024 * 1024;
+
+	private final int threshold;
+
+	private final int level;
+
+	/**
+	 * key前缀 -> 阈值.
+	 */
+	private final TreeMap<String, Integer> policies = new TreeMap<String, Integer>();
+
+	private final ThreadLocal<Deflater> deflaters;
+
+	private final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
+	/**
+	 * @param threshold 默认阈值(字节)，小于等于0表示只压缩policies中的key
+	 * @param policies key前缀的阈值，可以为null
+	 */
+	public ValueCompressor(int threshold, Map<String, Integer> policies) {
+		this(threshold, policies, Deflater.BEST_SPEED);
+	}
+
+	public ValueCompressor(int threshold, Map<String, Integer> policies, final int level) {
+		this.threshold = threshold;
+		this.level = level;
+		if (policies != null) {
+			this.policies.putAll(policies);
+		}
+		this.deflaters = new ThreadLocal<Deflater>() {
+			@Override
+			protected Deflater initialValue() {
+				return new Deflater(level);
+			}
+		};
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * 返回key的压缩阈值.
+	 *
+	 * @param key
+	 * @return 小于等于0表示不压缩
+	 */
+	public int getThreshold(String key) {
+		// 前缀相同的key排在一起，从小于等于key的位置向前找第一个匹配的前缀
+		Entry<String, Integer> entry = policies.floorEntry(key);
+		while (entry != null) {
+			if (key.startsWith(entry.getKey())) {
+				return entry.getValue();
+			}
+			entry = policies.lowerEntry(entry.getKey());
+		}
+		return threshold;
+	}
+
+	/**
+	 * 压缩，value小于阈值或压缩后没有变小时返回原value.
+	 *
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	public byte[] compress(String key, byte[] value) {
+		int threshold = this.getThreshold(key);
+		if (threshold <= 0 || value.length < threshold || value.length <= HEADER_LENGTH) {
+			return value;
+		}
+		Deflater deflater = deflaters.get();
+		deflater.reset();
+		deflater.setInput(value);
+		deflater.finish();
+		byte[] buffer = new byte[value.length];
+		buffer[0] = MAGIC;
+		buffer[1] = DEFLATE;
+		buffer[2] = (byte) (value.length >>> 24);
+		buffer[3] = (byte) (value.length >>> 16);
+		buffer[4] = (byte) (value.length >>> 8);
+		buffer[5] = (byte) value.length;
+		int length = HEADER_LENGTH;
+		while (!deflater.finished() && length < buffer.length) {
+			length += deflater.deflate(buffer, length, buffer.length - length);
+		}
+		if (!deflater.finished()) {
+			return value;
+		}
+		return Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * 解压，没有压缩头时返回原value.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public byte[] decompress(byte[] value) {
+		if (!isCompressed(value)) {
+			return value;
+		}
+		int length = ((value[2] & 0xFF) << 24) | ((value[3] & 0xFF) << 16) | ((value[4] & 0xFF) << 8) | (value[5] & 0xFF);
+		if (length < 0 || length > MAX_LENGTH) {
+			return value;
+		}
+		Inflater inflater = inflaters.get();
+		inflater.reset();
+		inflater.setInput(value, HEADER_LENGTH, value.length - HEADER_LENGTH);
+		byte[] buffer = new byte[length];
+		try {
+			int count = 0;
+			while (!inflater.finished()) {
+				int n = inflater.inflate(buffer, count, length - count);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary() || count == length)) {
+					break;
+				}
+				count += n;
+			}
+			if (count != length || !inflater.finished()) {
+				// 数据不完整，不是压缩数据
+				return value;
+			}
+		}
+		catch (DataFormatException e) {
+			// value恰好以压缩头开头，不是压缩数据
+			return value;
+		}
+		return buffer;
+	}
+
+	/**
+	 * 是否有压缩头.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static boolean isCompressed(byte[] value) {
+		return value != null && value.length > HEADER_LENGTH && value[0] == MAGIC && value[1] == DEFLATE;
+	}
+}
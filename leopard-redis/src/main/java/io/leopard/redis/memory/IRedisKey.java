@@ -1,5 +1,7 @@
 package io.leopard.redis.memory;
 
+import java.util.Set;
+
 /**
  * Redis Key命令.
  * 
@@ -15,4 +17,19 @@ public interface IRedisKey {
 	Long del(String key);
 
 	boolean flushAll();
+
+	/**
+	 * 返回所有key(快照).
+	 * 
+	 * @return
+	 */
+	Set<String> keys();
+
+	/**
+	 * 估算key占用的内存(字节)，key不存在返回0.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	long memoryUsage(String key);
 }
@@ -0,0 +1,107 @@
+package io.leopard.redis.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 按key加锁的数据类型代理，每个命令执行期间持有它访问的key的锁(分段锁)，保证命令是原子的.
+ *
+ * 默认第一个参数是key；多key命令锁定所有String参数和String[]参数中的key.
+ *
+ * @author 阿海
+ *
+ */
+public class KeyLockHandler implements InvocationHandler {
+
+	/**
+	 * 多key命令.
+	 */
+	private static final Set<String> MULTI_KEY_METHODS = new HashSet<String>(Arrays.asList("sdiff", "zinterstore", "zunionstore", "zunionStoreInJava", "zunionStoreByScoreInJava"));
+
+	private final Object store;
+
+	private final RedisKeyspace keyspace;
+
+	protected KeyLockHandler(Object store, RedisKeyspace keyspace) {
+		this.store = store;
+		this.keyspace = keyspace;
+	}
+
+	/**
+	 * 创建按key加锁的代理.
+	 *
+	 * @param type 数据类型接口
+	 * @param store
+	 * @param keyspace 提供分段锁
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T wrap(Class<T> type, T store, RedisKeyspace keyspace) {
+		KeyLockHandler handler = new KeyLockHandler(store, keyspace);
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String[] keys = this.getKeys(method, args);
+		if (keys.length == 0) {
+			return this.invoke(method, args);
+		}
+		if (keys.length == 1) {
+			Lock lock = keyspace.getLock(keys[0]);
+			lock.lock();
+			try {
+				return this.invoke(method, args);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		Lock[] locks = keyspace.lock(keys);
+		try {
+			return this.invoke(method, args);
+		}
+		finally {
+			keyspace.unlock(locks);
+		}
+	}
+
+	private Object invoke(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(store, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	protected String[] getKeys(Method method, Object[] args) {
+		if (args == null || args.length == 0 || method.getDeclaringClass() == Object.class) {
+			return new String[0];
+		}
+		if (!MULTI_KEY_METHODS.contains(method.getName())) {
+			if (args[0] instanceof String) {
+				return new String[] { (String) args[0] };
+			}
+			return new String[0];
+		}
+		List<String> keys = new ArrayList<String>();
+		for (Object arg : args) {
+			if (arg instanceof String) {
+				keys.add((String) arg);
+			}
+			else if (arg instanceof String[]) {
+				keys.addAll(Arrays.asList((String[]) arg));
+			}
+		}
+		return keys.toArray(new String[keys.size()]);
+	}
+}
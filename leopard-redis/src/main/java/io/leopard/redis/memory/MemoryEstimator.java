@@ -0,0 +1,87 @@
+package io.leopard.redis.memory;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 估算内存占用(字节).
+ *
+ * 集合类型只抽样前几个元素，按平均大小乘以元素数估算(与Redis的MEMORY USAGE相同)，估算的开销是常数.
+ *
+ * @author 阿海
+ *
+ */
+public class MemoryEstimator {
+
+	/**
+	 * 集合类型抽样的元素数.
+	 */
+	public static final int SAMPLES = 5;
+
+	/**
+	 * 每个key的固定开销(Map.Entry、过期时间等).
+	 */
+	public static final int KEY_OVERHEAD = 64;
+
+	/**
+	 * 集合每个元素的固定开销(节点、引用等).
+	 */
+	public static final int ELEMENT_OVERHEAD = 32;
+
+	public static long sizeOf(String str) {
+		if (str == null) {
+			return 0;
+		}
+		// 对象头、hash、char[]
+		return 40 + 2L * str.length();
+	}
+
+	/**
+	 * 估算集合大小.
+	 *
+	 * @param elements
+	 * @param size 元素数
+	 * @param extraOverhead 每个元素的额外开销(如score)
+	 * @return
+	 */
+	public static long sizeOf(Collection<String> elements, int size, int extraOverhead) {
+		if (size == 0) {
+			return 0;
+		}
+		long sampled = 0;
+		int count = 0;
+		Iterator<String> iterator = elements.iterator();
+		while (count < SAMPLES && iterator.hasNext()) {
+			sampled += sizeOf(iterator.next());
+			count++;
+		}
+		long average = count == 0 ? 0 : sampled / count;
+		return size * (average + ELEMENT_OVERHEAD + extraOverhead);
+	}
+
+	public static long sizeOf(Collection<String> elements) {
+		return sizeOf(elements, elements.size(), 0);
+	}
+
+	/**
+	 * 估算哈希表大小.
+	 */
+	public static long sizeOf(Map<String, String> map) {
+		int size = map.size();
+		if (size == 0) {
+			return 0;
+		}
+		long sampled = 0;
+		int count = 0;
+		Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+		while (count < SAMPLES && iterator.hasNext()) {
+			Entry<String, String> entry = iterator.next();
+			sampled += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+			count++;
+		}
+		long average = count == 0 ? 0 : sampled / count;
+		return size * (average + ELEMENT_OVERHEAD);
+	}
+}
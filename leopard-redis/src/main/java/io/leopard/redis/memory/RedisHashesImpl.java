@@ -2,6 +2,7 @@ package io.leopard.redis.memory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -10,9 +11,22 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class RedisHashesImpl implements IRedisHashes {
-	private Map<String, Map<String, String>> data = new ConcurrentHashMap<String, Map<String, String>>();
+	private final RedisKeyspace keyspace;
 
-	private Map<String, Long> expire = new ConcurrentHashMap<String, Long>();
+	private final Map<String, Map<String, String>> data;
+
+	public RedisHashesImpl() {
+		this(new RedisKeyspace());
+	}
+
+	/**
+	 * @param keyspace 共享的key空间(过期时间)
+	 */
+	public RedisHashesImpl(RedisKeyspace keyspace) {
+		this.keyspace = keyspace;
+		this.data = keyspace.newMap();
+		keyspace.register(this);
+	}
 
 	protected Map<String, String> getMap(String key) {
 		Map<String, String> map = data.get(key);
@@ -70,7 +84,7 @@ public class RedisHashesImpl implements IRedisHashes {
 	@Override
 	public Long hincrBy(String key, String field, long value) {
 		String oldValue = this.hget(key, field);
-		long num = oldValue == null ? Long.parseLong(oldValue) : 0;
+		long num = oldValue == null ? 0 : Long.parseLong(oldValue);
 		num = num + value;
 		this.hset(key, field, Long.toString(num));
 		return num;
@@ -125,19 +139,13 @@ public class RedisHashesImpl implements IRedisHashes {
 
 	@Override
 	public Long expire(String key, int seconds) {
-		if (!this.exists(key)) {
-			return 0L;
-		}
-		long expireTime = System.currentTimeMillis() + seconds * 1000L;
-		this.expire.put(key, expireTime);
-		return 1L;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
 	public Long del(String key) {
 		Object value = data.remove(key);
 
-		this.expire.remove(key);
 		if (value == null) {
 			return 0L;
 		}
@@ -149,8 +157,20 @@ public class RedisHashesImpl implements IRedisHashes {
 	@Override
 	public boolean flushAll() {
 		data.clear();
-		expire.clear();
 		return true;
 	}
 
+	@Override
+	public Set<String> keys() {
+		return new HashSet<String>(data.keySet());
+	}
+
+	@Override
+	public long memoryUsage(String key) {
+		Map<String, String> map = data.get(key);
+		if (map == null) {
+			return 0;
+		}
+		return MemoryEstimator.sizeOf(map);
+	}
 }
@@ -0,0 +1,839 @@
+package io.leopard.redis.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内存实现的统一key空间(所有数据类型共享过期时间).
+ *
+ * 过期的key在访问时删除(惰性过期)，并由activeExpireCycle()每次检查有限个设置了过期时间的key，回收不再访问的过期key(主动过期).
+ *
+ * 每个key对应一个分段锁(getLock)，命令通过KeyLockHandler持有key的锁执行，过期、淘汰删除key时也要持有锁.
+ *
+ * 设置了maxmemory时，每次访问key前检查估算的内存占用，超出时按maxmemoryPolicy抽样淘汰key(与Redis的近似LRU/LFU相同，淘汰的开销是常数)；无法淘汰时拒绝创建新key.
+ *
+ * 没有设置maxmemory时访问key不做统计(touch、beforeAccess直接返回)，getUsedMemory()调用时遍历所有key估算.
+ *
+ * @author 阿海
+ *
+ */
+public class RedisKeyspace {
+
+	/**
+	 * 过期时间(毫秒时间戳).
+	 */
+	private final Map<String, Long> expires = new ConcurrentHashMap<String, Long>();
+
+	private final List<IRedisKey> stores = new CopyOnWriteArrayList<IRedisKey>();
+
+	private final AtomicLong expiredCount = new AtomicLong();
+
+	/**
+	 * 分段锁数量(2的幂).
+	 */
+	private static final int LOCK_STRIPES = 1024;
+
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+	/**
+	 * 主动过期的迭代位置，下次从这里继续.
+	 */
+	private Iterator<Entry<String, Long>> expireCursor;
+
+	/**
+	 * 主动过期使用单独的锁，不能和evict()共用(evict()在持有key锁时调用).
+	 */
+	private final Object expireCycleLock = new Object();
+
+	/**
+	 * 淘汰策略.
+	 */
+	public static enum MaxmemoryPolicy {
+		/**
+		 * 不淘汰，超出maxmemory时拒绝创建新key.
+		 */
+		NOEVICTION("noeviction"),
+		/**
+		 * 淘汰最久没有访问的key.
+		 */
+		ALLKEYS_LRU("allkeys-lru"),
+		/**
+		 * 淘汰访问频率最低的key.
+		 */
+		ALLKEYS_LFU("allkeys-lfu"),
+		/**
+		 * 淘汰设置了过期时间且剩余时间最短的key.
+		 */
+		VOLATILE_TTL("volatile-ttl");
+
+		private final String name;
+
+		private MaxmemoryPolicy(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public static MaxmemoryPolicy toPolicy(String name) {
+			for (MaxmemoryPolicy policy : values()) {
+				if (policy.name.equalsIgnoreCase(name)) {
+					return policy;
+				}
+			}
+			throw new IllegalArgumentException("未知淘汰策略[" + name + "].");
+		}
+	}
+
+	/**
+	 * LFU计数器初始值(与Redis一致，新key不会马上被淘汰).
+	 */
+	private static final int LFU_INIT_VAL = 5;
+
+	private static final int LFU_LOG_FACTOR = 10;
+
+	/**
+	 * LFU计数器衰减周期(毫秒)，每个周期没有访问减1.
+	 */
+	private static final long LFU_DECAY_TIME = 60 * 1000L;
+
+	/**
+	 * key的访问统计和估算的内存占用.
+	 */
+	private static class KeyStats {
+		private long accessTime;
+		/**
+		 * 访问序号，LRU按序号比较(毫秒时间戳区分不了同一毫秒内的访问).
+		 */
+		private long accessSeq;
+		private int counter = LFU_INIT_VAL;
+		private long size;
+
+		public KeyStats(long now, long seq) {
+			this.accessTime = now;
+			this.accessSeq = seq;
+		}
+
+		public synchronized void access(long now, long seq, Random random) {
+			this.counter = this.decay(now);
+			if (counter < 255) {
+				double baseval = Math.max(counter - LFU_INIT_VAL, 0);
+				if (random.nextDouble() < 1.0 / (baseval * LFU_LOG_FACTOR + 1)) {
+					counter++;
+				}
+			}
+			this.accessTime = now;
+			this.accessSeq = seq;
+		}
+
+		public synchronized int decay(long now) {
+			long periods = (now - accessTime) / LFU_DECAY_TIME;
+			return periods > counter ? 0 : (int) (counter - periods);
+		}
+
+		public synchronized long getAccessSeq() {
+			return accessSeq;
+		}
+	}
+
+	/**
+	 * 内存上限(字节)，小于等于0表示不限制.
+	 */
+	private volatile long maxmemory = 0;
+
+	private volatile MaxmemoryPolicy maxmemoryPolicy = MaxmemoryPolicy.NOEVICTION;
+
+	/**
+	 * 每次淘汰抽样的key数量.
+	 */
+	private volatile int maxmemorySamples = 5;
+
+	private final ConcurrentMap<String, KeyStats> stats = new ConcurrentHashMap<String, KeyStats>();
+
+	/**
+	 * 访问过、需要重新估算内存的key.
+	 */
+	private final Set<String> dirty = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private final AtomicLong usedMemory = new AtomicLong();
+
+	private final AtomicLong evictedCount = new AtomicLong();
+
+	private final AtomicLong accessSeq = new AtomicLong();
+
+	private final Random random = new Random();
+
+	/**
+	 * 估算内存、淘汰时会访问数据Map，不能再次进入.
+	 */
+	private final ThreadLocal<Boolean> evicting = new ThreadLocal<Boolean>();
+
+	/**
+	 * 淘汰抽样的迭代位置.
+	 */
+	private Iterator<String> sampleCursor;
+
+	private Iterator<Entry<String, Long>> volatileCursor;
+
+	/**
+	 * 数据Map，get、containsKey时删除过期的key.
+	 */
+	@SuppressWarnings("serial")
+	private static class KeyspaceMap<V> extends ConcurrentHashMap<String, V> {
+		private final RedisKeyspace keyspace;
+
+		public KeyspaceMap(RedisKeyspace keyspace) {
+			this.keyspace = keyspace;
+		}
+
+		@Override
+		public V get(Object key) {
+			keyspace.beforeAccess();
+			keyspace.expireIfNeeded((String) key);
+			V value = super.get(key);
+			if (value != null) {
+				keyspace.touch((String) key);
+			}
+			return value;
+		}
+
+		@Override
+		public V put(String key, V value) {
+			keyspace.beforeAccess();
+			if (!super.containsKey(key)) {
+				keyspace.checkMemory();
+			}
+			V old = super.put(key, value);
+			keyspace.touch(key);
+			return old;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			keyspace.expireIfNeeded((String) key);
+			return super.containsKey(key);
+		}
+	}
+
+	public RedisKeyspace() {
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	private static int stripe(String key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return h & (LOCK_STRIPES - 1);
+	}
+
+	/**
+	 * 返回key的锁(分段锁，不同的key可能共用一个锁).
+	 *
+	 * @param key
+	 * @return
+	 */
+	public Lock getLock(String key) {
+		return locks[stripe(key)];
+	}
+
+	/**
+	 * 锁定多个key，按锁的序号依次加锁，避免死锁.
+	 *
+	 * @param keys
+	 * @return 已加的锁，用unlock()释放
+	 */
+	public Lock[] lock(String... keys) {
+		int[] stripes = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			stripes[i] = stripe(keys[i]);
+		}
+		Arrays.sort(stripes);
+		List<Lock> list = new ArrayList<Lock>(stripes.length);
+		for (int i = 0; i < stripes.length; i++) {
+			if (i > 0 && stripes[i] == stripes[i - 1]) {
+				continue;
+			}
+			Lock lock = locks[stripes[i]];
+			lock.lock();
+			list.add(lock);
+		}
+		return list.toArray(new Lock[list.size()]);
+	}
+
+	public void unlock(Lock[] locks) {
+		for (int i = locks.length - 1; i >= 0; i--) {
+			locks[i].unlock();
+		}
+	}
+
+	/**
+	 * 创建数据类型的存储Map.
+	 *
+	 * @return
+	 */
+	public <V> Map<String, V> newMap() {
+		return new KeyspaceMap<V>(this);
+	}
+
+	/**
+	 * 注册数据类型，过期时从所有数据类型中删除key.
+	 *
+	 * @param store
+	 */
+	public void register(IRedisKey store) {
+		stores.add(store);
+	}
+
+	/**
+	 * key已过期时删除.
+	 *
+	 * @param key
+	 * @return 已过期返回true
+	 */
+	public boolean expireIfNeeded(String key) {
+		Long expireTime = expires.get(key);
+		if (expireTime == null || expireTime > System.currentTimeMillis()) {
+			return false;
+		}
+		if (evicting.get() != null) {
+			// 估算内存、淘汰时不持有这个key的锁，不处理过期
+			return false;
+		}
+		Lock lock = this.getLock(key);
+		lock.lock();
+		try {
+			expireTime = expires.get(key);
+			if (expireTime == null || expireTime > System.currentTimeMillis()) {
+				return false;
+			}
+			// 先删除过期时间，store.del()内部访问数据Map时不会再次进入
+			expires.remove(key);
+			for (IRedisKey store : stores) {
+				store.del(key);
+			}
+			this.removeStats(key);
+			expiredCount.incrementAndGet();
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean exists(String key) {
+		Lock lock = this.getLock(key);
+		lock.lock();
+		try {
+			for (IRedisKey store : stores) {
+				if (store.exists(key)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 从所有数据类型中删除key.
+	 *
+	 * @param key
+	 * @return key存在返回true
+	 */
+	public boolean del(String key) {
+		Lock lock = this.getLock(key);
+		lock.lock();
+		try {
+			boolean exists = false;
+			for (IRedisKey store : stores) {
+				if (store.del(key) > 0) {
+					exists = true;
+				}
+			}
+			expires.remove(key);
+			this.removeStats(key);
+			return exists;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * key已不在任何数据类型中时(如集合元素被删完)清除过期时间.
+	 *
+	 * @param key
+	 */
+	public void removeIfAbsent(String key) {
+		if (!this.exists(key)) {
+			expires.remove(key);
+			this.removeStats(key);
+		}
+	}
+
+	/**
+	 * 设置过期时间.
+	 *
+	 * @param key
+	 * @param seconds
+	 * @return key不存在返回0
+	 */
+	public Long expire(String key, int seconds) {
+		return this.pexpireAt(key, System.currentTimeMillis() + seconds * 1000L);
+	}
+
+	/**
+	 * 设置过期时间(毫秒时间戳).
+	 *
+	 * @param key
+	 * @param millisecondsTimestamp
+	 * @return key不存在返回0
+	 */
+	public Long pexpireAt(String key, long millisecondsTimestamp) {
+		Lock lock = this.getLock(key);
+		lock.lock();
+		try {
+			if (!this.exists(key)) {
+				return 0L;
+			}
+			expires.put(key, millisecondsTimestamp);
+			this.expireIfNeeded(key);
+			return 1L;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 返回剩余过期时间(毫秒)，key不存在返回-2，没有设置过期时间返回-1(与Redis一致).
+	 *
+	 * @param key
+	 * @return
+	 */
+	public long pttl(String key) {
+		Lock lock = this.getLock(key);
+		lock.lock();
+		try {
+			if (!this.exists(key)) {
+				return -2;
+			}
+			Long expireTime = expires.get(key);
+			if (expireTime == null) {
+				return -1;
+			}
+			return Math.max(expireTime - System.currentTimeMillis(), 0);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 返回过期时间(毫秒时间戳)，没有设置过期时间返回null.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public Long getExpireAt(String key) {
+		return expires.get(key);
+	}
+
+	/**
+	 * 清除过期时间.
+	 *
+	 * @param key
+	 * @return 有过期时间返回1
+	 */
+	public Long persist(String key) {
+		return expires.remove(key) == null ? 0L : 1L;
+	}
+
+	/**
+	 * 返回所有未过期的key.
+	 *
+	 * @return
+	 */
+	public Set<String> keys() {
+		Set<String> keySet = new HashSet<String>();
+		for (IRedisKey store : stores) {
+			for (String key : store.keys()) {
+				if (!this.expireIfNeeded(key)) {
+					keySet.add(key);
+				}
+			}
+		}
+		return keySet;
+	}
+
+	public boolean flushAll() {
+		for (IRedisKey store : stores) {
+			store.flushAll();
+		}
+		expires.clear();
+		stats.clear();
+		dirty.clear();
+		usedMemory.set(0);
+		return true;
+	}
+
+	/**
+	 * 主动过期：从上次的位置继续检查最多maxKeys个设置了过期时间的key，删除已过期的.
+	 *
+	 * 每次的工作量有上限，不会因为key多而长时间占用CPU.
+	 *
+	 * @param maxKeys 最多检查的key数量
+	 * @return 删除的key数量
+	 */
+	public int activeExpireCycle(int maxKeys) {
+		synchronized (expireCycleLock) {
+			if (expireCursor == null || !expireCursor.hasNext()) {
+				// 上一轮检查结束，从头开始
+				expireCursor = expires.entrySet().iterator();
+			}
+			int expired = 0;
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < maxKeys && expireCursor.hasNext(); i++) {
+				Entry<String, Long> entry = expireCursor.next();
+				if (entry.getValue() <= now && this.expireIfNeeded(entry.getKey())) {
+					expired++;
+				}
+			}
+			return expired;
+		}
+	}
+
+	/**
+	 * 访问key前调用：重新估算上次访问过的key，超出maxmemory时淘汰.
+	 */
+	protected void beforeAccess() {
+		if (maxmemory <= 0 || evicting.get() != null) {
+			return;
+		}
+		evicting.set(Boolean.TRUE);
+		try {
+			if (!dirty.isEmpty()) {
+				List<String> busy = null;
+				Iterator<String> iterator = dirty.iterator();
+				while (iterator.hasNext()) {
+					String key = iterator.next();
+					iterator.remove();
+					if (!this.refresh(key)) {
+						if (busy == null) {
+							busy = new ArrayList<String>();
+						}
+						busy.add(key);
+					}
+				}
+				if (busy != null) {
+					// 其他线程正在修改，下次再估算
+					dirty.addAll(busy);
+				}
+			}
+			if (usedMemory.get() > maxmemory) {
+				this.evict();
+			}
+		}
+		finally {
+			evicting.remove();
+		}
+	}
+
+	/**
+	 * 记录key的访问.
+	 */
+	protected void touch(String key) {
+		if (maxmemory <= 0 || evicting.get() != null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long seq = accessSeq.incrementAndGet();
+		KeyStats keyStats = stats.get(key);
+		if (keyStats == null) {
+			keyStats = new KeyStats(now, seq);
+			KeyStats old = stats.putIfAbsent(key, keyStats);
+			if (old != null) {
+				keyStats = old;
+			}
+		}
+		else {
+			keyStats.access(now, seq, random);
+		}
+		// 访问后key可能被修改，下次访问前重新估算
+		dirty.add(key);
+	}
+
+	/**
+	 * 超出maxmemory且无法淘汰时拒绝创建新key.
+	 */
+	protected void checkMemory() {
+		if (maxmemory > 0 && usedMemory.get() > maxmemory) {
+			throw new IllegalStateException("OOM command not allowed when used memory > 'maxmemory'[" + usedMemory.get() + ">" + maxmemory + "].");
+		}
+	}
+
+	/**
+	 * 重新估算key的内存占用.
+	 *
+	 * 调用时可能持有其他key的锁，这里只尝试加锁，避免死锁.
+	 *
+	 * @return 没有拿到锁返回false
+	 */
+	private boolean refresh(String key) {
+		KeyStats keyStats = stats.get(key);
+		if (keyStats == null) {
+			return true;
+		}
+		Lock lock = this.getLock(key);
+		if (!lock.tryLock()) {
+			return false;
+		}
+		try {
+			long size = 0;
+			for (IRedisKey store : stores) {
+				size += store.memoryUsage(key);
+			}
+			if (size == 0) {
+				this.removeStats(key);
+				return true;
+			}
+			size += MemoryEstimator.KEY_OVERHEAD + MemoryEstimator.sizeOf(key);
+			long delta;
+			synchronized (keyStats) {
+				delta = size - keyStats.size;
+				keyStats.size = size;
+			}
+			usedMemory.addAndGet(delta);
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void removeStats(String key) {
+		KeyStats keyStats = stats.remove(key);
+		if (keyStats != null) {
+			synchronized (keyStats) {
+				usedMemory.addAndGet(-keyStats.size);
+				keyStats.size = 0;
+			}
+		}
+		dirty.remove(key);
+	}
+
+	/**
+	 * 淘汰key直到内存不超出maxmemory，没有可淘汰的key时停止.
+	 */
+	private synchronized void evict() {
+		int busy = 0;
+		while (usedMemory.get() > maxmemory) {
+			String key = this.sample();
+			if (key == null) {
+				return;
+			}
+			// 调用时可能持有其他key的锁，这里只尝试加锁，避免死锁
+			Lock lock = this.getLock(key);
+			if (!lock.tryLock()) {
+				if (++busy > maxmemorySamples) {
+					return;
+				}
+				continue;
+			}
+			try {
+				this.del(key);
+			}
+			finally {
+				lock.unlock();
+			}
+			evictedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * 抽样maxmemorySamples个key，返回最应该淘汰的.
+	 *
+	 * @return 没有可淘汰的key返回null
+	 */
+	private String sample() {
+		switch (maxmemoryPolicy) {
+		case ALLKEYS_LRU:
+		case ALLKEYS_LFU:
+			return this.sampleAllKeys();
+		case VOLATILE_TTL:
+			return this.sampleVolatile();
+		default:
+			return null;
+		}
+	}
+
+	private String sampleAllKeys() {
+		long now = System.currentTimeMillis();
+		String best = null;
+		long bestScore = Long.MAX_VALUE;
+		int sampled = 0;
+		boolean restarted = false;
+		while (sampled < maxmemorySamples) {
+			if (sampleCursor == null || !sampleCursor.hasNext()) {
+				if (restarted || stats.isEmpty()) {
+					break;
+				}
+				sampleCursor = stats.keySet().iterator();
+				restarted = true;
+				continue;
+			}
+			String key = sampleCursor.next();
+			KeyStats keyStats = stats.get(key);
+			if (keyStats == null) {
+				continue;
+			}
+			long score;
+			if (maxmemoryPolicy == MaxmemoryPolicy.ALLKEYS_LFU) {
+				// 频率相同时淘汰最久没有访问的
+				score = ((long) keyStats.decay(now) << 48) + keyStats.getAccessSeq();
+			}
+			else {
+				score = keyStats.getAccessSeq();
+			}
+			if (score < bestScore) {
+				bestScore = score;
+				best = key;
+			}
+			sampled++;
+		}
+		return best;
+	}
+
+	private String sampleVolatile() {
+		String best = null;
+		long bestExpireTime = Long.MAX_VALUE;
+		int sampled = 0;
+		boolean restarted = false;
+		while (sampled < maxmemorySamples) {
+			if (volatileCursor == null || !volatileCursor.hasNext()) {
+				if (restarted || expires.isEmpty()) {
+					break;
+				}
+				volatileCursor = expires.entrySet().iterator();
+				restarted = true;
+				continue;
+			}
+			Entry<String, Long> entry = volatileCursor.next();
+			if (entry.getValue() < bestExpireTime) {
+				bestExpireTime = entry.getValue();
+				best = entry.getKey();
+			}
+			sampled++;
+		}
+		return best;
+	}
+
+	public long getMaxmemory() {
+		return maxmemory;
+	}
+
+	/**
+	 * 设置内存上限(估算的字节数)，需要在写入数据前设置.
+	 *
+	 * @param maxmemory 小于等于0表示不限制
+	 */
+	public void setMaxmemory(long maxmemory) {
+		this.maxmemory = maxmemory;
+	}
+
+	public String getMaxmemoryPolicy() {
+		return maxmemoryPolicy.getName();
+	}
+
+	/**
+	 * 设置淘汰策略(noeviction、allkeys-lru、allkeys-lfu、volatile-ttl).
+	 *
+	 * @param maxmemoryPolicy
+	 */
+	public void setMaxmemoryPolicy(String maxmemoryPolicy) {
+		this.maxmemoryPolicy = MaxmemoryPolicy.toPolicy(maxmemoryPolicy);
+	}
+
+	public void setMaxmemorySamples(int maxmemorySamples) {
+		if (maxmemorySamples <= 0) {
+			throw new IllegalArgumentException("maxmemorySamples必须大于0.");
+		}
+		this.maxmemorySamples = maxmemorySamples;
+	}
+
+	/**
+	 * 估算的内存占用(字节).
+	 *
+	 * 设置了maxmemory时返回访问时维护的统计值；没有设置时遍历所有key估算，开销与key数量成正比.
+	 *
+	 * @return
+	 */
+	public long getUsedMemory() {
+		if (maxmemory > 0) {
+			return usedMemory.get();
+		}
+		long used = 0;
+		for (String key : this.keys()) {
+			Lock lock = this.getLock(key);
+			lock.lock();
+			try {
+				long size = 0;
+				for (IRedisKey store : stores) {
+					size += store.memoryUsage(key);
+				}
+				if (size > 0) {
+					used += size + MemoryEstimator.KEY_OVERHEAD + MemoryEstimator.sizeOf(key);
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		return used;
+	}
+
+	/**
+	 * 已淘汰的key数量.
+	 *
+	 * @return
+	 */
+	public long getEvictedCount() {
+		return evictedCount.get();
+	}
+
+	/**
+	 * 设置了过期时间的key数量.
+	 *
+	 * @return
+	 */
+	public int getExpiresSize() {
+		return expires.size();
+	}
+
+	/**
+	 * 已删除的过期key数量.
+	 *
+	 * @return
+	 */
+	public long getExpiredCount() {
+		return expiredCount.get();
+	}
+}
@@ -1,245 +1,150 @@
 package io.leopard.redis.memory;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 public class RedisListImpl implements IRedisList {
 
-	private Map<String, List<String>> data = new ConcurrentHashMap<String, List<String>>();
+	private final RedisKeyspace keyspace;
 
-	protected List<String> getList(String key) {
-		List<String> list = this.data.get(key);
+	private final Map<String, RingList> data;
+
+	public RedisListImpl() {
+		this(new RedisKeyspace());
+	}
+
+	/**
+	 * @param keyspace 共享的key空间(过期时间)
+	 */
+	public RedisListImpl(RedisKeyspace keyspace) {
+		this.keyspace = keyspace;
+		this.data = keyspace.newMap();
+		keyspace.register(this);
+	}
+
+	protected RingList getList(String key) {
+		RingList list = this.data.get(key);
 		if (list == null) {
-			list = new ArrayList<String>();
+			list = new RingList();
 			data.put(key, list);
 		}
 		return list;
 	}
 
-	protected List<String> revlist(String key) {
-		List<String> result = new ArrayList<String>();
-		List<String> list = this.getList(key);
-		for (String element : list) {
-			result.add(0, element);
+	/**
+	 * 返回列表，不存在时不创建.
+	 */
+	protected RingList findList(String key) {
+		return this.data.get(key);
+	}
+
+	/**
+	 * 列表为空时删除key(与Redis一致).
+	 */
+	protected void removeIfEmpty(String key, RingList list) {
+		if (list.isEmpty()) {
+			this.data.remove(key);
+			keyspace.removeIfAbsent(key);
 		}
-		return result;
 	}
 
 	@Override
 	public Long rpush(String key, String... strings) {
+		RingList list = this.getList(key);
 		for (String str : strings) {
-			this.getList(key).add(0, str);
+			list.addLast(str);
 		}
-		return this.llen(key);
+		return (long) list.size();
 	}
 
 	@Override
 	public Long lpush(String key, String... strings) {
+		RingList list = this.getList(key);
 		for (String str : strings) {
-			this.getList(key).add(str);
+			list.addFirst(str);
 		}
-		return this.llen(key);
+		return (long) list.size();
 	}
 
 	@Override
 	public Long llen(String key) {
-		return (long) this.getList(key).size();
+		RingList list = this.findList(key);
+		if (list == null) {
+			return 0L;
+		}
+		return (long) list.size();
 	}
 
 	@Override
 	public List<String> lrange(String key, long start, long end) {
-		List<String> result = new ArrayList<String>();
-		List<String> list = this.revlist(key);
-		long index = 0;
-		for (String element : list) {
-			boolean checkIndex = this.checkIndex(start, end, index);
-			// System.out.println("checkIndex:" + checkIndex + " index:" + index
-			// + " element:" + element);
-			if (checkIndex) {
-				result.add(element);
-			}
-			index++;
-		}
-		return result;
-	}
-
-	protected boolean checkIndex(long start, long end, long index) {
-		if (index < start) {
-			return false;
-		}
-		if (end == -1) {
-			return true;
-		}
-		if (index <= end) {
-			return true;
+		RingList list = this.findList(key);
+		if (list == null) {
+			return new ArrayList<String>(0);
 		}
-		return false;
+		return list.range(start, end);
 	}
 
 	@Override
 	public String ltrim(String key, long start, long end) {
-		List<String> result = new ArrayList<String>();
-		List<String> list = this.revlist(key);
-		long index = 0;
-		for (String element : list) {
-			boolean checkIndex = this.checkIndex(start, end, index);
-			// System.out.println("checkIndex:" + checkIndex + " index:" + index
-			// + " element:" + element);
-			if (checkIndex) {
-				result.add(0, element);
-			}
-			index++;
-		}
-		if (result.isEmpty()) {
-			this.data.remove(key);
-		}
-		else {
-			this.data.put(key, result);
+		RingList list = this.findList(key);
+		if (list != null) {
+			list.trim(start, end);
+			this.removeIfEmpty(key, list);
 		}
 		return "OK";
 	}
 
 	@Override
 	public String lindex(String key, long index) {
-		List<String> list = this.getList(key);
-		if (index >= list.size()) {
+		RingList list = this.findList(key);
+		if (list == null) {
 			return null;
 		}
-		else if (index < 0) {
-			index = list.size() + index;
-		}
-		return list.get((int) index);
+		return list.get(index);
 	}
 
 	@Override
 	public String lset(String key, long index, String value) {
-		List<String> list = this.revlist(key);
-		// System.out.println("list:" + list);
-		if (index < 0) {
-			index = list.size() + index;
-		}
-		list.set((int) index, value);
-		List<String> result = new ArrayList<String>();
-		for (String str : list) {
-			result.add(0, str);
+		RingList list = this.findList(key);
+		if (list == null || !list.set(index, value)) {
+			throw new IndexOutOfBoundsException("索引超出范围[" + key + "," + index + "].");
 		}
-		this.data.put(key, result);
 		return "OK";
 	}
 
 	@Override
 	public Long lrem(String key, long count, String value) {
-		List<String> list = this.getList(key);
-		if (list == null || list.size() == 0) {
+		RingList list = this.findList(key);
+		if (list == null) {
 			return 0L;
 		}
-		long deletedCount = 0;
-		if (count == 0) {
-			deletedCount = this.lrem0(key, count, value);
-		}
-		else if (count > 0) {
-			deletedCount = this.lrem1(key, count, value);
-		}
-		else if (count < 0) {
-			deletedCount = this.lrem2(key, -count, value);
-		}
-		else {
-			throw new IllegalArgumentException("未知类型[" + count + "].");
-		}
-
-		// System.out.println("list:" + list.size() + " result:" +
-		// result.size());
-		return deletedCount;
-	}
-
-	protected long lrem0(String key, long count, String value) {
-		List<String> list = this.getList(key);
-		List<String> result = new ArrayList<String>();
-		long deletedCount = 0;
-		for (String member : list) {
-			if (member.equals(value)) {
-				deletedCount++;
-			}
-			else {
-				result.add(0, member);
-			}
-
-		}
-		this.data.put(key, result);
-		return deletedCount;
-	}
-
-	protected long lrem1(String key, long count, String value) {
-		List<String> list = this.getList(key);
-		List<String> result = new ArrayList<String>();
-		long deletedCount = 0;
-		for (String member : list) {
-			System.out.println("member:" + member);
-			if (member.equals(value)) {
-				if (deletedCount >= count) {
-					result.add(0, member);
-				}
-				else {
-					// System.out.println("member:" + member + " deletedCount:"
-					// + deletedCount);
-					deletedCount++;
-				}
-			}
-			else {
-				result.add(member);
-			}
-		}
-		System.out.println("result:" + result);
-		this.data.put(key, result);
-		return deletedCount;
-	}
-
-	protected long lrem2(String key, long count, String value) {
-		List<String> list = this.getList(key);
-		List<String> result = new ArrayList<String>();
-		System.out.println("count:" + count);
-		long deletedCount = 0;
-		for (int i = list.size() - 1; i >= 0; i--) {
-			String member = list.get(i);
-			if (member.equals(value)) {
-				if (deletedCount >= count) {
-					result.add(member);
-				}
-				else {
-					deletedCount++;
-				}
-			}
-			else {
-				result.add(member);
-			}
-			// if (result.size() >= max) {
-			// System.out.println("max:" + max + " size:" + result.size());
-			// break;
-			// }
-		}
-		this.data.put(key, result);
+		long deletedCount = list.remove(count, value);
+		this.removeIfEmpty(key, list);
 		return deletedCount;
 	}
 
 	@Override
 	public String lpop(String key) {
-		List<String> list = this.getList(key);
-		if (list.isEmpty()) {
+		RingList list = this.findList(key);
+		if (list == null) {
 			return null;
 		}
-		String element = list.remove(list.size() - 1);
+		String element = list.pollFirst();
+		this.removeIfEmpty(key, list);
 		return element;
 	}
 
 	@Override
 	public String rpop(String key) {
-		List<String> list = this.getList(key);
-		if (list.isEmpty()) {
+		RingList list = this.findList(key);
+		if (list == null) {
 			return null;
 		}
-		String element = list.remove(0);
+		String element = list.pollLast();
+		this.removeIfEmpty(key, list);
 		return element;
 	}
 
@@ -250,10 +155,7 @@ public class RedisListImpl implements IRedisList {
 
 	@Override
 	public Long expire(String key, int seconds) {
-		if (!this.exists(key)) {
-			return 0L;
-		}
-		return 1L;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
@@ -274,13 +176,17 @@ public class RedisListImpl implements IRedisList {
 		return true;
 	}
 
+	@Override
+	public Set<String> keys() {
+		return new HashSet<String>(data.keySet());
+	}
+
 	@Override
 	public Long lpushx(String key, String string) {
 		if (!data.containsKey(key)) {
 			return 0L;
 		}
-		this.lpush(key, string);
-		return (long) this.getList(key).size();
+		return this.lpush(key, string);
 	}
 
 	@Override
@@ -288,7 +194,15 @@ public class RedisListImpl implements IRedisList {
 		if (!data.containsKey(key)) {
 			return 0L;
 		}
-		this.rpush(key, string);
-		return (long) this.getList(key).size();
+		return this.rpush(key, string);
+	}
+
+	@Override
+	public long memoryUsage(String key) {
+		RingList list = data.get(key);
+		if (list == null) {
+			return 0;
+		}
+		return MemoryEstimator.sizeOf(list.range(0, MemoryEstimator.SAMPLES - 1), list.size(), 0);
 	}
 }
@@ -1,17 +1,32 @@
 package io.leopard.redis.memory;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class RedisSetImpl implements IRedisSet {
 
-	private Map<String, Set<String>> data = new ConcurrentHashMap<String, Set<String>>();
+	private final RedisKeyspace keyspace;
+
+	private final Map<String, Set<String>> data;
+
+	public RedisSetImpl() {
+		this(new RedisKeyspace());
+	}
+
+	/**
+	 * @param keyspace 共享的key空间(过期时间)
+	 */
+	public RedisSetImpl(RedisKeyspace keyspace) {
+		this.keyspace = keyspace;
+		this.data = keyspace.newMap();
+		keyspace.register(this);
+	}
 
 	protected Set<String> getSet(String key) {
 		Set<String> set = this.data.get(key);
@@ -132,10 +147,7 @@ public class RedisSetImpl implements IRedisSet {
 
 	@Override
 	public Long expire(String key, int seconds) {
-		if (!this.exists(key)) {
-			return 0L;
-		}
-		return 1L;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
@@ -155,4 +167,17 @@ public class RedisSetImpl implements IRedisSet {
 		return true;
 	}
 
+	@Override
+	public Set<String> keys() {
+		return new HashSet<String>(data.keySet());
+	}
+
+	@Override
+	public long memoryUsage(String key) {
+		Set<String> set = data.get(key);
+		if (set == null) {
+			return 0;
+		}
+		return MemoryEstimator.sizeOf(set);
+	}
 }
@@ -0,0 +1,326 @@
+package io.leopard.redis.memory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * 内存实现的快照(二进制文件).
+ *
+ * 文件格式：魔数LRDB、版本号，然后是每个key的记录(类型、key、过期时间、数据)，最后是结束标记和CRC32校验码.
+ *
+ * 保存时先写临时文件再改名，保存失败不会破坏上一个快照；加载时使用内存映射文件读取，已过期的key不加载.
+ *
+ * 没有fork，后台保存期间的修改可能部分写入快照(每个key的数据是一致的).
+ *
+ * @author 阿海
+ *
+ */
+public class RedisSnapshot {
+
+	private static final byte[] MAGIC = { 'L', 'R', 'D', 'B' };
+
+	private static final int VERSION = 1;
+
+	private static final int TYPE_STRING = 0;
+	private static final int TYPE_LIST = 1;
+	private static final int TYPE_SET = 2;
+	private static final int TYPE_ZSET = 3;
+	private static final int TYPE_HASH = 4;
+	private static final int EOF = 0xFF;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final RedisKeyspace keyspace;
+	private final IRedisString redisString;
+	private final IRedisHashes redisHashes;
+	private final IRedisList redisList;
+	private final IRedisSet redisSet;
+	private final IRedisSortedSet redisSortedSet;
+
+	public RedisSnapshot(RedisKeyspace keyspace, IRedisString redisString, IRedisHashes redisHashes, IRedisList redisList, IRedisSet redisSet, IRedisSortedSet redisSortedSet) {
+		this.keyspace = keyspace;
+		this.redisString = redisString;
+		this.redisHashes = redisHashes;
+		this.redisList = redisList;
+		this.redisSet = redisSet;
+		this.redisSortedSet = redisSortedSet;
+	}
+
+	/**
+	 * 保存快照.
+	 *
+	 * @param file
+	 * @return 保存的key数量
+	 * @throws IOException
+	 */
+	public long save(File file) throws IOException {
+		File tmpFile = new File(file.getPath() + ".tmp");
+		CRC32 crc = new CRC32();
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(new FileOutputStream(tmpFile), crc), 64 * 1024));
+		long count = 0;
+		try {
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			for (String key : redisString.keys()) {
+				String value = redisString.get(key);
+				if (value != null) {
+					this.writeHeader(out, TYPE_STRING, key);
+					this.writeString(out, value);
+					count++;
+				}
+			}
+			for (String key : redisList.keys()) {
+				List<String> list = redisList.lrange(key, 0, -1);
+				if (!list.isEmpty()) {
+					this.writeHeader(out, TYPE_LIST, key);
+					this.writeStrings(out, list);
+					count++;
+				}
+			}
+			for (String key : redisSet.keys()) {
+				if (!redisSet.exists(key)) {
+					continue;
+				}
+				Set<String> set = redisSet.smembers(key);
+				if (!set.isEmpty()) {
+					this.writeHeader(out, TYPE_SET, key);
+					this.writeStrings(out, new ArrayList<String>(set));
+					count++;
+				}
+			}
+			for (String key : redisSortedSet.keys()) {
+				Set<Tuple> set = redisSortedSet.zrangeWithScores(key, 0, -1);
+				if (!set.isEmpty()) {
+					this.writeHeader(out, TYPE_ZSET, key);
+					out.writeInt(set.size());
+					for (Tuple tuple : set) {
+						this.writeString(out, tuple.getElement());
+						out.writeDouble(tuple.getScore());
+					}
+					count++;
+				}
+			}
+			for (String key : redisHashes.keys()) {
+				if (!redisHashes.exists(key)) {
+					continue;
+				}
+				Map<String, String> map = new HashMap<String, String>(redisHashes.hgetAll(key));
+				if (!map.isEmpty()) {
+					this.writeHeader(out, TYPE_HASH, key);
+					out.writeInt(map.size());
+					for (Entry<String, String> entry : map.entrySet()) {
+						this.writeString(out, entry.getKey());
+						this.writeString(out, entry.getValue());
+					}
+					count++;
+				}
+			}
+			out.writeByte(EOF);
+			out.flush();
+			out.writeLong(crc.getValue());
+		}
+		finally {
+			out.close();
+		}
+		// 改名是原子操作，Windows下目标文件存在时需要先删除
+		if (!tmpFile.renameTo(file)) {
+			file.delete();
+			if (!tmpFile.renameTo(file)) {
+				throw new IOException("快照文件改名失败[" + tmpFile + "].");
+			}
+		}
+		return count;
+	}
+
+	private void writeHeader(DataOutputStream out, int type, String key) throws IOException {
+		out.writeByte(type);
+		this.writeString(out, key);
+		Long expireAt = keyspace.getExpireAt(key);
+		out.writeLong(expireAt == null ? -1 : expireAt);
+	}
+
+	private void writeString(DataOutputStream out, String str) throws IOException {
+		byte[] bytes = str.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private void writeStrings(DataOutputStream out, List<String> list) throws IOException {
+		out.writeInt(list.size());
+		for (String str : list) {
+			this.writeString(out, str);
+		}
+	}
+
+	/**
+	 * 加载快照，已存在的key会被覆盖(合并).
+	 *
+	 * @param file
+	 * @return 加载的key数量(不包括已过期的)
+	 * @throws IOException
+	 */
+	public long load(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("快照文件太大[" + file + "].");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			this.checkFile(file, buffer);
+			return this.load(buffer);
+		}
+		finally {
+			raf.close();
+		}
+	}
+
+	private void checkFile(File file, ByteBuffer buffer) throws IOException {
+		int limit = buffer.limit() - 8;
+		if (limit < MAGIC.length + 4 + 1) {
+			throw new IOException("快照文件不完整[" + file + "].");
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (buffer.get(i) != MAGIC[i]) {
+				throw new IOException("不是快照文件[" + file + "].");
+			}
+		}
+		int version = buffer.getInt(MAGIC.length);
+		if (version != VERSION) {
+			throw new IOException("不支持的快照版本[" + version + "].");
+		}
+		CRC32 crc = new CRC32();
+		ByteBuffer data = buffer.duplicate();
+		data.limit(limit);
+		byte[] chunk = new byte[64 * 1024];
+		while (data.hasRemaining()) {
+			int length = Math.min(chunk.length, data.remaining());
+			data.get(chunk, 0, length);
+			crc.update(chunk, 0, length);
+		}
+		if (crc.getValue() != buffer.getLong(limit)) {
+			throw new IOException("快照文件校验失败[" + file + "].");
+		}
+	}
+
+	private long load(ByteBuffer buffer) {
+		buffer.position(MAGIC.length + 4);
+		long now = System.currentTimeMillis();
+		long count = 0;
+		while (true) {
+			int type = buffer.get() & 0xFF;
+			if (type == EOF) {
+				break;
+			}
+			String key = this.readString(buffer);
+			long expireAt = buffer.getLong();
+			// 已过期的key也要读完数据
+			boolean expired = expireAt != -1 && expireAt <= now;
+			switch (type) {
+			case TYPE_STRING: {
+				String value = this.readString(buffer);
+				if (!expired) {
+					redisString.set(key, value);
+				}
+				break;
+			}
+			case TYPE_LIST: {
+				String[] elements = this.readStrings(buffer);
+				if (!expired) {
+					redisList.del(key);
+					redisList.rpush(key, elements);
+				}
+				break;
+			}
+			case TYPE_SET: {
+				String[] members = this.readStrings(buffer);
+				if (!expired) {
+					redisSet.del(key);
+					// smembers按添加顺序的逆序返回，逆序添加以保持原来的顺序
+					for (int i = members.length - 1; i >= 0; i--) {
+						redisSet.sadd(key, members[i]);
+					}
+				}
+				break;
+			}
+			case TYPE_ZSET: {
+				int size = buffer.getInt();
+				Map<String, Double> scoreMembers = new HashMap<String, Double>(size * 2);
+				for (int i = 0; i < size; i++) {
+					String member = this.readString(buffer);
+					scoreMembers.put(member, buffer.getDouble());
+				}
+				if (!expired) {
+					redisSortedSet.del(key);
+					for (Entry<String, Double> entry : scoreMembers.entrySet()) {
+						redisSortedSet.zadd(key, entry.getValue(), entry.getKey());
+					}
+				}
+				break;
+			}
+			case TYPE_HASH: {
+				int size = buffer.getInt();
+				Map<String, String> hash = new HashMap<String, String>(size * 2);
+				for (int i = 0; i < size; i++) {
+					String field = this.readString(buffer);
+					hash.put(field, this.readString(buffer));
+				}
+				if (!expired) {
+					redisHashes.del(key);
+					redisHashes.hmset(key, hash);
+				}
+				break;
+			}
+			default:
+				throw new IllegalStateException("未知数据类型[" + type + "].");
+			}
+			if (expired) {
+				continue;
+			}
+			// 字符串set()时会设置默认过期时间，以快照为准
+			if (expireAt == -1) {
+				keyspace.persist(key);
+			}
+			else {
+				keyspace.pexpireAt(key, expireAt);
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	private String[] readStrings(ByteBuffer buffer) {
+		int size = buffer.getInt();
+		String[] strings = new String[size];
+		for (int i = 0; i < size; i++) {
+			strings[i] = this.readString(buffer);
+		}
+		return strings;
+	}
+}
@@ -3,35 +3,70 @@ package io.leopard.redis.memory;
 import io.leopard.redis.util.RedisUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.ZParams;
 
+/**
+ * 有序集内存实现(跳表，排名和范围查询O(log n)).
+ * 
+ * @author 阿海
+ * 
+ */
 public class RedisSortedSetImpl implements IRedisSortedSet {
 
-	private Map<String, Map<String, Double>> data = new ConcurrentHashMap<String, Map<String, Double>>();
+	private final RedisKeyspace keyspace;
 
-	private Map<String, Long> expire = new ConcurrentHashMap<String, Long>();
+	private final Map<String, SkipList> data;
 
-	protected Map<String, Double> getMap(String key) {
-		Map<String, Double> map = data.get(key);
-		if (map == null) {
-			map = new TreeMap<String, Double>();
-			data.put(key, map);
+	public RedisSortedSetImpl() {
+		this(new RedisKeyspace());
+	}
+
+	/**
+	 * @param keyspace 共享的key空间(过期时间)
+	 */
+	public RedisSortedSetImpl(RedisKeyspace keyspace) {
+		this.keyspace = keyspace;
+		this.data = keyspace.newMap();
+		keyspace.register(this);
+	}
+
+	/**
+	 * 返回有序集，不存在时创建.
+	 */
+	protected SkipList getSet(String key) {
+		SkipList set = data.get(key);
+		if (set == null) {
+			set = new SkipList();
+			data.put(key, set);
+		}
+		return set;
+	}
+
+	/**
+	 * 返回有序集，不存在返回null.
+	 */
+	protected SkipList findSet(String key) {
+		return data.get(key);
+	}
+
+	/**
+	 * 有序集为空时删除key(与Redis一致).
+	 */
+	protected void removeIfEmpty(String key, SkipList set) {
+		if (set.size() == 0) {
+			data.remove(key);
+			keyspace.removeIfAbsent(key);
 		}
-		return map;
 	}
 
 	@Override
@@ -41,19 +76,13 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 
 	@Override
 	public Long expire(String key, int seconds) {
-		if (!this.exists(key)) {
-			return 0L;
-		}
-		long expireTime = System.currentTimeMillis() + seconds * 1000L;
-		this.expire.put(key, expireTime);
-		return 1L;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
 	public Long del(String key) {
 		Object value = data.remove(key);
 
-		this.expire.remove(key);
 		if (value == null) {
 			return 0L;
 		}
@@ -65,20 +94,17 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 	@Override
 	public boolean flushAll() {
 		data.clear();
-		expire.clear();
 		return true;
 	}
 
+	@Override
+	public Set<String> keys() {
+		return new HashSet<String>(data.keySet());
+	}
+
 	@Override
 	public Long zadd(String key, double score, String member) {
-		Double old = this.zscore(key, member);
-		this.getMap(key).put(member, score);
-		if (old == null) {
-			return 1L;
-		}
-		else {
-			return 0L;
-		}
+		return this.getSet(key).add(member, score) ? 1L : 0L;
 	}
 
 	@Override
@@ -114,295 +140,232 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 
 	@Override
 	public Long zrem(String key, String... members) {
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return 0L;
+		}
 		long count = 0;
 		for (String member : members) {
-			Double score = this.getMap(key).remove(member);
-			if (score != null) {
+			if (set.remove(member)) {
 				count++;
 			}
 		}
+		this.removeIfEmpty(key, set);
 		return count;
 	}
 
 	@Override
 	public Double zincrby(String key, double score, String member) {
-		Double total = this.getMap(key).get(member);
+		SkipList set = this.getSet(key);
+		Double total = set.score(member);
 		if (total == null) {
 			total = 0D;
 		}
 		total += score;
-		// System.out.println("zincrby total:" + total + " score:" + score);
-		this.zadd(key, total, member);
+		set.add(member, total);
 		return total;
 	}
 
-	protected List<Map.Entry<String, Double>> list(String key) {
-		Map<String, Double> map = this.getMap(key);
-		// Json.printMap(map, "mapmap");
-		List<Map.Entry<String, Double>> list = new ArrayList<Map.Entry<String, Double>>(map.entrySet());
-		Collections.sort(list, new Comparator<Map.Entry<String, Double>>() {
-			public int compare(Map.Entry<String, Double> o1, Map.Entry<String, Double> o2) {
-				return (int) (o1.getValue() - o2.getValue());
-			}
-		});
-		return list;
-	}
-
-	protected List<Map.Entry<String, Double>> list(String key, double min, double max) {
-		List<Map.Entry<String, Double>> list = list(key);
-		// System.out.println("list:" + list);
-		List<Map.Entry<String, Double>> result = new ArrayList<Map.Entry<String, Double>>();
-		for (Map.Entry<String, Double> entry : list) {
-			Double score = entry.getValue();
-			System.out.println("member:" + entry.getKey() + " score:" + score);
-			if (this.checkScore(min, max, score)) {
-				result.add(entry);
-			}
+	/**
+	 * 解析score，支持-inf、+inf.
+	 */
+	protected static double parseScore(String score) {
+		if ("-inf".equalsIgnoreCase(score)) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		if ("+inf".equalsIgnoreCase(score) || "inf".equalsIgnoreCase(score)) {
+			return Double.POSITIVE_INFINITY;
 		}
-		return result;
+		return Double.parseDouble(score);
 	}
 
-	protected boolean checkScore(double min, double max, double score) {
-		if (score >= min) {
-			if (score <= max) {
-				return true;
-			}
-			if (max < 0) {
-				return true;
-			}
-		}
-		return false;
+	/**
+	 * max小于0时表示不限制最大值(兼容以前的实现).
+	 */
+	protected static double toMax(double max) {
+		return max < 0 ? Double.POSITIVE_INFINITY : max;
 	}
 
-	protected List<Map.Entry<String, Double>> revlist(String key) {
-		Map<String, Double> map = this.getMap(key);
-		System.out.println("map:" + map);
-		List<Map.Entry<String, Double>> list = new ArrayList<Map.Entry<String, Double>>(map.entrySet());
-		Collections.sort(list, new Comparator<Map.Entry<String, Double>>() {
-			public int compare(Map.Entry<String, Double> o1, Map.Entry<String, Double> o2) {
-				return (int) (o2.getValue() - o1.getValue());
-			}
-		});
-		return list;
+	protected static Set<String> toMembers(List<Tuple> list) {
+		Set<String> set = new LinkedHashSet<String>();
+		for (Tuple tuple : list) {
+			set.add(tuple.getElement());
+		}
+		return set;
 	}
 
-	protected List<Map.Entry<String, Double>> revlist(String key, double min, double max) {
-		List<Map.Entry<String, Double>> list = revlist(key);
-		List<Map.Entry<String, Double>> result = new ArrayList<Map.Entry<String, Double>>();
-		for (Map.Entry<String, Double> entry : list) {
-			Double score = entry.getValue();
-			System.out.println("member:" + entry.getKey() + " score:" + score);
-			if (score >= min && score <= max) {
+	protected List<Tuple> range(String key, long start, long end, boolean reverse) {
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return new ArrayList<Tuple>(0);
+		}
+		return set.range(start, end, reverse);
+	}
 
-				result.add(entry);
-			}
+	protected List<Tuple> rangeByScore(String key, double min, double max, int offset, int count, boolean reverse) {
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return new ArrayList<Tuple>(0);
 		}
-		return result;
+		return set.rangeByScore(min, toMax(max), offset, count, reverse);
 	}
 
 	@Override
 	public Long zrank(String key, String member) {
-		Map<String, Double> map = this.getMap(key);
-		if (!map.containsKey(member)) {
+		SkipList set = this.findSet(key);
+		if (set == null) {
 			return null;
 		}
-		List<Map.Entry<String, Double>> list = this.list(key);
-
-		long rank = -1;
-		for (Map.Entry<String, Double> entry : list) {
-			rank++;
-			if (entry.getKey().equals(member)) {
-				break;
-			}
-		}
-		return rank;
+		long rank = set.rank(member);
+		return rank < 0 ? null : rank;
 	}
 
 	@Override
 	public Long zrevrank(String key, String member) {
-		Map<String, Double> map = this.getMap(key);
-		if (!map.containsKey(member)) {
+		SkipList set = this.findSet(key);
+		if (set == null) {
 			return null;
 		}
-		List<Map.Entry<String, Double>> list = this.revlist(key);
-
-		Set<String> keySet = map.keySet();
-		System.out.println("keySet:" + keySet);
-		long rank = -1;
-		for (Map.Entry<String, Double> entry : list) {
-			rank++;
-			if (entry.getKey().equals(member)) {
-				break;
-			}
-		}
-		return rank;
+		long rank = set.rank(member);
+		return rank < 0 ? null : set.size() - 1 - rank;
 	}
 
 	@Override
 	public Set<Tuple> zrangeWithScores(String key, long start, long end) {
-		Set<Tuple> set = new LinkedHashSet<Tuple>();
-		List<Entry<String, Double>> list = this.list(key);
-		long index = 0;
-		for (Entry<String, Double> entry : list) {
-			System.out.println("key:" + entry.getKey() + " value:" + entry.getValue());
-			if (this.checkIndex(start, end, index)) {
-				Tuple tuple = new Tuple(entry.getKey(), entry.getValue());
-				set.add(tuple);
-			}
-			index++;
-		}
-		return set;
-	}
-
-	private boolean checkIndex(long start, long end, long index) {
-		return true;
+		return new LinkedHashSet<Tuple>(this.range(key, start, end, false));
 	}
 
 	@Override
 	public Double zscore(String key, String member) {
-		return this.getMap(key).get(member);
+		SkipList set = this.findSet(key);
+		return set == null ? null : set.score(member);
 	}
 
 	@Override
 	public Long zcount(String key, double min, double max) {
-		Set<String> set = zrangeByScore(key, min, max);
-		return (long) set.size();
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return 0L;
+		}
+		return set.count(min, toMax(max));
 	}
 
 	@Override
 	public Long zcount(String key, String min, String max) {
-		return this.zcount(key, Double.parseDouble(min), Double.parseDouble(max));
+		return this.zcount(key, parseScore(min), parseScore(max));
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, double min, double max) {
-		List<Map.Entry<String, Double>> list = this.list(key, min, max);
-		Set<String> set = new LinkedHashSet<String>();
-		for (Map.Entry<String, Double> entry : list) {
-			set.add(entry.getKey());
-		}
-		return set;
+		return this.zrangeByScore(key, min, max, 0, -1);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, String min, String max) {
-		return this.zrangeByScore(key, Double.parseDouble(min), Double.parseDouble(max));
+		return this.zrangeByScore(key, parseScore(min), parseScore(max));
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, String min, String max, int offset, int count) {
-		return this.zrangeByScore(key, Double.parseDouble(min), Double.parseDouble(max), offset, count);
+		return this.zrangeByScore(key, parseScore(min), parseScore(max), offset, count);
 	}
 
 	@Override
 	public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
-		// TODO ahai 忽略了offset和count两个参数
-		List<Map.Entry<String, Double>> list = this.list(key, min, max);
-		Set<String> set = new LinkedHashSet<String>();
-		for (Map.Entry<String, Double> entry : list) {
-			set.add(entry.getKey());
-		}
-		return set;
+		return toMembers(this.rangeByScore(key, min, max, offset, count, false));
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, double max, double min) {
-		return this.zrevrangeByScore(key, max, min, 0, Integer.MAX_VALUE);
+		return this.zrevrangeByScore(key, max, min, 0, -1);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, String max, String min) {
-		return this.zrevrangeByScore(key, Double.parseDouble(max), Double.parseDouble(min));
+		return this.zrevrangeByScore(key, parseScore(max), parseScore(min));
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, String max, String min, int offset, int count) {
-		return this.zrevrangeByScore(key, Double.parseDouble(max), Double.parseDouble(min), offset, count);
+		return this.zrevrangeByScore(key, parseScore(max), parseScore(min), offset, count);
 	}
 
 	@Override
 	public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
-		List<Map.Entry<String, Double>> list = this.list(key, min, max);
-		List<String> list2 = new ArrayList<String>();
-		for (Map.Entry<String, Double> entry : list) {
-			list2.add(0, entry.getKey());
-		}
-		System.out.println("list2:" + list2);
-		Set<String> set = new LinkedHashSet<String>();
-		set.addAll(list2);
-		System.out.println("set:" + set);
-		return set;
+		return toMembers(this.rangeByScore(key, min, max, offset, count, true));
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max) {
-
-		return null;
+		return this.zrangeByScoreWithScores(key, min, max, 0, -1);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max, int offset, int count) {
-
-		return null;
+		return this.zrangeByScoreWithScores(key, parseScore(min), parseScore(max), offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, String min, String max) {
-
-		return null;
+		return this.zrangeByScoreWithScores(key, parseScore(min), parseScore(max));
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min) {
-
-		return null;
+		return this.zrevrangeByScoreWithScores(key, max, min, 0, -1);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min, int offset, int count) {
-
-		return null;
+		return this.zrevrangeByScoreWithScores(key, parseScore(max), parseScore(min), offset, count);
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, String max, String min) {
-
-		return null;
+		return this.zrevrangeByScoreWithScores(key, parseScore(max), parseScore(min));
 	}
 
 	@Override
 	public Set<Tuple> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
-
-		return null;
+		return new LinkedHashSet<Tuple>(this.rangeByScore(key, min, max, offset, count, false));
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
-
-		return null;
+		return new LinkedHashSet<Tuple>(this.rangeByScore(key, min, max, offset, count, true));
 	}
 
 	@Override
 	public Long zremrangeByRank(String key, long start, long end) {
-
-		return null;
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return 0L;
+		}
+		long count = set.removeRangeByRank(start, end);
+		this.removeIfEmpty(key, set);
+		return count;
 	}
 
 	@Override
 	public Long zremrangeByScore(String key, double start, double end) {
-
-		return null;
+		SkipList set = this.findSet(key);
+		if (set == null) {
+			return 0L;
+		}
+		long count = set.removeRangeByScore(start, end);
+		this.removeIfEmpty(key, set);
+		return count;
 	}
 
 	@Override
 	public Long zremrangeByScore(String key, String start, String end) {
-
-		return null;
+		return this.zremrangeByScore(key, parseScore(start), parseScore(end));
 	}
 
 	@Override
 	public Long zcard(String key) {
-		return (long) this.getMap(key).size();
+		SkipList set = this.findSet(key);
+		return set == null ? 0L : set.size();
 	}
 
 	@SuppressWarnings("deprecation")
@@ -419,57 +382,56 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 
 	@Override
 	public Long zinterstore(String dstkey, ZParams params, String... sets) {
-		Map<String, Double> map = this.getMap(sets[0]);
-		Set<String> keySet = map.keySet();
-		Set<String> interKeySet = new HashSet<String>();
-
-		for (String member : keySet) {
-			boolean exist = true;
-			for (int i = 1; i < sets.length; i++) {
-				exist = exist & this.getMap(sets[i]).containsKey(member);
-			}
-			if (!exist) {
-				continue;
+		SkipList[] lists = new SkipList[sets.length];
+		for (int i = 0; i < sets.length; i++) {
+			lists[i] = this.findSet(sets[i]);
+			if (lists[i] == null) {
+				this.del(dstkey);
+				return 0L;
 			}
-			interKeySet.add(member);
-		}
-		this.del(dstkey);
-		if (interKeySet.isEmpty()) {
-			return 0L;
 		}
 
 		List<Double> weightList = RedisUtil.getWeights(params);
-		Double[] weights = new Double[weightList.size()];
-		weightList.toArray(weights);
-
-		// ZParams.Aggregate.SUM
 		ZParams.Aggregate aggregate = RedisUtil.getAggregate(params);
-		Map<String, Double> dstMap = new LinkedHashMap<String, Double>();
-		if (aggregate == ZParams.Aggregate.SUM) {
-			for (String member : interKeySet) {
-				Double total = 0D;
-				for (int i = 0; i < sets.length; i++) {
-					String key = sets[i];
-					Double score = this.getMap(key).get(member);
-					total += score * weights[i];
+		if (aggregate != ZParams.Aggregate.SUM && aggregate != ZParams.Aggregate.MAX && aggregate != ZParams.Aggregate.MIN) {
+			throw new IllegalArgumentException("未知类型[" + aggregate + "].");
+		}
+		// 先计算结果再写入，dstkey可以是sets之一
+		Map<String, Double> dstMap = new HashMap<String, Double>();
+		for (Entry<String, Double> entry : lists[0].toMap().entrySet()) {
+			String member = entry.getKey();
+			Double result = null;
+			for (int i = 0; i < lists.length; i++) {
+				Double score = lists[i].score(member);
+				if (score == null) {
+					result = null;
+					break;
+				}
+				double weight = (weightList != null && i < weightList.size()) ? weightList.get(i) : 1D;
+				double value = score * weight;
+				if (result == null) {
+					result = value;
+				}
+				else if (aggregate == ZParams.Aggregate.SUM) {
+					result += value;
+				}
+				else if (aggregate == ZParams.Aggregate.MAX) {
+					result = Math.max(result, value);
+				}
+				else {
+					result = Math.min(result, value);
 				}
-				dstMap.put(member, total);
+			}
+			if (result != null) {
+				dstMap.put(member, result);
 			}
 		}
-		else if (aggregate == ZParams.Aggregate.MAX) {
-			throw new UnsupportedOperationException("Not Implemented");
-		}
-		else if (aggregate == ZParams.Aggregate.MIN) {
-			throw new UnsupportedOperationException("Not Implemented");
-		}
-		else {
-			throw new IllegalArgumentException("未知类型[" + aggregate + "].");
+		this.del(dstkey);
+		if (dstMap.isEmpty()) {
+			return 0L;
 		}
 		this.zadd2(dstkey, dstMap);
-
-		// System.out.println("dstkey:" + dstkey + " dstMap:" + Json.toJson(dstMap));
-		System.out.println("dstkey:" + dstkey + " dstList:" + this.list(dstkey));
-		return (long) interKeySet.size();
+		return (long) dstMap.size();
 	}
 
 	@Override
@@ -479,49 +441,17 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 
 	@Override
 	public Set<String> zrevrange(String key, long start, long end) {
-		Set<String> set = new LinkedHashSet<String>();
-		List<Map.Entry<String, Double>> list = this.revlist(key);
-		System.out.println("list:" + list);
-		long index = 0;
-		for (Entry<String, Double> entry : list) {
-			System.out.println("key:" + entry.getKey() + " value:" + entry.getValue());
-			if (this.checkIndex(start, end, index)) {
-				set.add(entry.getKey());
-			}
-			index++;
-		}
-		return set;
+		return toMembers(this.range(key, start, end, true));
 	}
 
 	@Override
 	public Set<Tuple> zrevrangeWithScores(String key, long start, long end) {
-		Set<Tuple> set = new LinkedHashSet<Tuple>();
-		List<Entry<String, Double>> list = this.revlist(key);
-		long index = 0;
-		for (Entry<String, Double> entry : list) {
-			System.out.println("key:" + entry.getKey() + " value:" + entry.getValue());
-			if (this.checkIndex(start, end, index)) {
-				Tuple tuple = new Tuple(entry.getKey(), entry.getValue());
-				set.add(tuple);
-			}
-			index++;
-		}
-		return set;
+		return new LinkedHashSet<Tuple>(this.range(key, start, end, true));
 	}
 
 	@Override
 	public Set<String> zrange(String key, long start, long end) {
-		Set<String> set = new LinkedHashSet<String>();
-		List<Map.Entry<String, Double>> list = this.list(key);
-		long index = 0;
-		for (Entry<String, Double> entry : list) {
-			System.out.println("key:" + entry.getKey() + " value:" + entry.getValue());
-			if (this.checkIndex(start, end, index)) {
-				set.add(entry.getKey());
-			}
-			index++;
-		}
-		return set;
+		return toMembers(this.range(key, start, end, false));
 	}
 
 	@Override
@@ -534,4 +464,13 @@ public class RedisSortedSetImpl implements IRedisSortedSet {
 		return null;
 	}
 
+	@Override
+	public long memoryUsage(String key) {
+		SkipList set = data.get(key);
+		if (set == null) {
+			return 0;
+		}
+		// score和跳表节点
+		return MemoryEstimator.sizeOf(set.toMap().keySet(), set.size(), 48);
+	}
 }
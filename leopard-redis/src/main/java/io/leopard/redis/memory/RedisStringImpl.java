@@ -1,11 +1,26 @@
 package io.leopard.redis.memory;
 
+import java.util.HashSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 public class RedisStringImpl implements IRedisString {
-	private Map<String, String> data = new ConcurrentHashMap<String, String>();
-	private Map<String, Long> expire = new ConcurrentHashMap<String, Long>();
+	private final RedisKeyspace keyspace;
+
+	private final Map<String, String> data;
+
+	public RedisStringImpl() {
+		this(new RedisKeyspace());
+	}
+
+	/**
+	 * @param keyspace 共享的key空间(过期时间)
+	 */
+	public RedisStringImpl(RedisKeyspace keyspace) {
+		this.keyspace = keyspace;
+		this.data = keyspace.newMap();
+		keyspace.register(this);
+	}
 
 	@Override
 	public Long setnx(String key, String value) {
@@ -31,13 +46,8 @@ public class RedisStringImpl implements IRedisString {
 
 	@Override
 	public String get(String key) {
-		String value = this.data.get(key);
-		Long expireTime = this.expire.get(key);
-		if (expireTime == null || expireTime < System.currentTimeMillis()) {
-			// 记录已过期
-			return null;
-		}
-		return value;
+		// 已过期的记录在data.get()时删除
+		return this.data.get(key);
 	}
 
 	@Override
@@ -49,7 +59,7 @@ public class RedisStringImpl implements IRedisString {
 	public Long decrBy(String key, long integer) {
 		String value = this.get(key);
 		// long num = NumberUtils.toLong(value);
-		long num = value == null ? Long.parseLong(value) : 0;
+		long num = value == null ? 0 : Long.parseLong(value);
 		num -= integer;
 		this.set(key, Long.toString(num));
 		return num;
@@ -77,18 +87,12 @@ public class RedisStringImpl implements IRedisString {
 
 	@Override
 	public Long expire(String key, int seconds) {
-		if (!this.exists(key)) {
-			return 0L;
-		}
-		long expireTime = System.currentTimeMillis() + seconds * 1000L;
-		this.expire.put(key, expireTime);
-		return 1L;
+		return keyspace.expire(key, seconds);
 	}
 
 	@Override
 	public Long del(String key) {
 		String value = data.remove(key);
-		this.expire.remove(key);
 		if (value == null) {
 			return 0L;
 		}
@@ -100,10 +104,14 @@ public class RedisStringImpl implements IRedisString {
 	@Override
 	public boolean flushAll() {
 		data.clear();
-		expire.clear();
 		return true;
 	}
 
+	@Override
+	public Set<String> keys() {
+		return new HashSet<String>(data.keySet());
+	}
+
 	@Override
 	public Long setrange(String key, long offset, String value) {
 		String oldValue = this.get(key);
@@ -123,4 +131,9 @@ public class RedisStringImpl implements IRedisString {
 		this.set(key, sb.toString());
 		return (long) sb.length();
 	}
+
+	@Override
+	public long memoryUsage(String key) {
+		return MemoryEstimator.sizeOf(data.get(key));
+	}
 }
@@ -0,0 +1,604 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.Redis;
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.locks.Lock;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Tuple;
+
+/**
+ * RESP2协议的命令处理，把客户端的命令转换为RedisMemoryImpl的方法调用.
+ *
+ * 连接、事务、SET选项、HMSET、SCAN等命令单独处理，其他命令按名称和参数个数查找Redis接口的方法(参数按方法的参数类型转换).
+ *
+ * @author 阿海
+ *
+ */
+public class RespCommandHandler {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * 参数和bulk应答按ISO-8859-1转换(每个字节对应一个字符)，二进制值可以原样读写，与RedisMemoryImpl.set(key, byte[])一致.
+	 */
+	protected static final Charset BINARY = Charset.forName("ISO-8859-1");
+
+	private static final byte[] CRLF = { '\r', '\n' };
+
+	/**
+	 * Redis接口的方法，按小写的方法名分组.
+	 */
+	private static final Map<String, List<Method>> METHODS = new HashMap<String, List<Method>>();
+
+	static {
+		for (Method method : Redis.class.getMethods()) {
+			String name = method.getName().toLowerCase();
+			List<Method> list = METHODS.get(name);
+			if (list == null) {
+				list = new ArrayList<Method>();
+				METHODS.put(name, list);
+			}
+			list.add(method);
+		}
+		// 优先使用String参数的方法(如zrangeByScore的min、max可以是-inf)
+		for (List<Method> list : METHODS.values()) {
+			Collections.sort(list, new Comparator<Method>() {
+				@Override
+				public int compare(Method m1, Method m2) {
+					return countString(m2) - countString(m1);
+				}
+			});
+		}
+	}
+
+	private static int countString(Method method) {
+		int count = 0;
+		for (Class<?> type : method.getParameterTypes()) {
+			if (type == String.class || type == String[].class) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 连接的状态(事务).
+	 */
+	public static class Session {
+		private List<String[]> queued;
+		private boolean closed;
+
+		public boolean isClosed() {
+			return closed;
+		}
+
+		/**
+		 * 发送完应答后关闭连接.
+		 */
+		public void close() {
+			this.closed = true;
+		}
+	}
+
+	private final RedisMemoryImpl redis;
+
+	/**
+	 * 服务器地址(host:port)，CLUSTER NODES返回单个节点时使用.
+	 */
+	private String address;
+
+	public RespCommandHandler(RedisMemoryImpl redis) {
+		this.redis = redis;
+	}
+
+	public void setAddress(String address) {
+		this.address = address;
+	}
+
+	/**
+	 * 执行命令，把应答写入out.
+	 *
+	 * @param session
+	 * @param args 命令名和参数
+	 * @param out
+	 */
+	public void handle(Session session, String[] args, ByteArrayOutputStream out) {
+		String name = args[0].toUpperCase();
+		if (session.queued != null && !"EXEC".equals(name) && !"DISCARD".equals(name) && !"MULTI".equals(name)) {
+			session.queued.add(args);
+			writeStatus(out, "QUEUED");
+			return;
+		}
+		try {
+			this.execute(session, name, args, out);
+		}
+		catch (UnsupportedOperationException e) {
+			writeError(out, "ERR unknown command '" + args[0] + "'");
+		}
+		catch (NumberFormatException e) {
+			writeError(out, "ERR value is not a valid number");
+		}
+		catch (RuntimeException e) {
+			writeError(out, "ERR " + e.getMessage());
+		}
+	}
+
+	protected void execute(Session session, String name, String[] args, ByteArrayOutputStream out) {
+		if ("PING".equals(name)) {
+			if (args.length > 1) {
+				writeBulk(out, args[1]);
+			}
+			else {
+				writeStatus(out, "PONG");
+			}
+		}
+		else if ("ECHO".equals(name)) {
+			this.checkArgs(args, 2);
+			writeBulk(out, args[1]);
+		}
+		else if ("SELECT".equals(name) || "AUTH".equals(name)) {
+			// 只有一个数据库，不检查密码
+			writeStatus(out, "OK");
+		}
+		else if ("QUIT".equals(name)) {
+			session.closed = true;
+			writeStatus(out, "OK");
+		}
+		else if ("COMMAND".equals(name)) {
+			writeArray(out, 0);
+		}
+		else if ("MULTI".equals(name)) {
+			if (session.queued != null) {
+				throw new IllegalStateException("MULTI calls can not be nested");
+			}
+			session.queued = new ArrayList<String[]>();
+			writeStatus(out, "OK");
+		}
+		else if ("DISCARD".equals(name)) {
+			if (session.queued == null) {
+				throw new IllegalStateException("DISCARD without MULTI");
+			}
+			session.queued = null;
+			writeStatus(out, "OK");
+		}
+		else if ("EXEC".equals(name)) {
+			if (session.queued == null) {
+				throw new IllegalStateException("EXEC without MULTI");
+			}
+			List<String[]> queued = session.queued;
+			session.queued = null;
+			writeArray(out, queued.size());
+			for (String[] command : queued) {
+				this.handle(session, command, out);
+			}
+		}
+		else if ("INFO".equals(name)) {
+			writeBulk(out, this.info());
+		}
+		else if ("CLUSTER".equals(name)) {
+			this.cluster(args, out);
+		}
+		else if ("DBSIZE".equals(name)) {
+			writeInteger(out, redis.getKeyspace().keys().size());
+		}
+		else if ("FLUSHALL".equals(name) || "FLUSHDB".equals(name)) {
+			redis.flushAll();
+			writeStatus(out, "OK");
+		}
+		else if ("TTL".equals(name)) {
+			this.checkArgs(args, 2);
+			writeInteger(out, redis.ttl(args[1]));
+		}
+		else if ("SET".equals(name)) {
+			this.set(args, out);
+		}
+		else if ("MSET".equals(name)) {
+			if (args.length < 3 || args.length % 2 == 0) {
+				throw new IllegalArgumentException("wrong number of arguments for 'mset' command");
+			}
+			List<String> keyList = new ArrayList<String>();
+			List<String> valueList = new ArrayList<String>();
+			for (int i = 1; i < args.length; i += 2) {
+				keyList.add(args[i]);
+				valueList.add(args[i + 1]);
+			}
+			redis.set(keyList, valueList);
+			writeStatus(out, "OK");
+		}
+		else if ("HMSET".equals(name)) {
+			if (args.length < 4 || args.length % 2 != 0) {
+				throw new IllegalArgumentException("wrong number of arguments for 'hmset' command");
+			}
+			Map<String, String> hash = new LinkedHashMap<String, String>();
+			for (int i = 2; i < args.length; i += 2) {
+				hash.put(args[i], args[i + 1]);
+			}
+			redis.hmset(args[1], hash);
+			writeStatus(out, "OK");
+		}
+		else if ("ZADD".equals(name)) {
+			this.zadd(args, out);
+		}
+		else if (name.endsWith("SCAN")) {
+			this.scan(name, args, out);
+		}
+		else {
+			writeObject(out, this.invoke(args));
+		}
+	}
+
+	/**
+	 * 模拟只有一个master节点、拥有全部slot的集群，用于测试集群客户端.
+	 */
+	private void cluster(String[] args, ByteArrayOutputStream out) {
+		if (args.length < 2 || address == null) {
+			throw new IllegalArgumentException("This instance has cluster support disabled");
+		}
+		String subcommand = args[1].toUpperCase();
+		if ("NODES".equals(subcommand)) {
+			writeBulk(out, "0000000000000000000000000000000000000000 " + address + " myself,master - 0 0 0 connected 0-16383\n");
+		}
+		else if ("INFO".equals(subcommand)) {
+			writeBulk(out, "cluster_enabled:1\r\ncluster_state:ok\r\ncluster_slots_assigned:16384\r\ncluster_known_nodes:1\r\ncluster_size:1\r\n");
+		}
+		else {
+			throw new UnsupportedOperationException("Not Implemented");
+		}
+	}
+
+	private void checkArgs(String[] args, int length) {
+		if (args.length != length) {
+			throw new IllegalArgumentException("wrong number of arguments for '" + args[0].toLowerCase() + "' command");
+		}
+	}
+
+	/**
+	 * SET key value [EX seconds] [PX milliseconds] [NX|XX].
+	 */
+	private void set(String[] args, ByteArrayOutputStream out) {
+		if (args.length < 3) {
+			throw new IllegalArgumentException("wrong number of arguments for 'set' command");
+		}
+		String key = args[1];
+		long expire = -1;
+		boolean nx = false;
+		boolean xx = false;
+		for (int i = 3; i < args.length; i++) {
+			String option = args[i].toUpperCase();
+			if ("NX".equals(option)) {
+				nx = true;
+			}
+			else if ("XX".equals(option)) {
+				xx = true;
+			}
+			else if (("EX".equals(option) || "PX".equals(option)) && i + 1 < args.length) {
+				expire = Long.parseLong(args[++i]);
+				if ("EX".equals(option)) {
+					expire *= 1000;
+				}
+			}
+			else {
+				throw new IllegalArgumentException("syntax error");
+			}
+		}
+		Lock lock = redis.getKeyspace().getLock(key);
+		lock.lock();
+		try {
+			boolean exists = redis.exists(key);
+			if ((nx && exists) || (xx && !exists)) {
+				writeBulk(out, null);
+				return;
+			}
+			redis.set(key, args[2]);
+			// 与Redis一致，没有指定过期时间时清除过期时间
+			if (expire > 0) {
+				redis.pexpire(key, expire);
+			}
+			else {
+				redis.persist(key);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		writeStatus(out, "OK");
+	}
+
+	/**
+	 * ZADD key score member [score member ...].
+	 */
+	private void zadd(String[] args, ByteArrayOutputStream out) {
+		if (args.length < 4 || args.length % 2 != 0) {
+			throw new IllegalArgumentException("wrong number of arguments for 'zadd' command");
+		}
+		String key = args[1];
+		Lock lock = redis.getKeyspace().getLock(key);
+		lock.lock();
+		long count = 0;
+		try {
+			for (int i = 2; i < args.length; i += 2) {
+				count += redis.zadd(key, parseDouble(args[i]), args[i + 1]);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		writeInteger(out, count);
+	}
+
+	/**
+	 * SCAN cursor [MATCH pattern] [COUNT count]，HSCAN、SSCAN、ZSCAN多一个key参数.
+	 */
+	private void scan(String name, String[] args, ByteArrayOutputStream out) {
+		int start = "SCAN".equals(name) ? 1 : 2;
+		if (args.length <= start || (args.length - start) % 2 == 0) {
+			throw new IllegalArgumentException("wrong number of arguments for '" + name.toLowerCase() + "' command");
+		}
+		String cursor = args[start];
+		ScanParams params = new ScanParams();
+		for (int i = start + 1; i < args.length; i += 2) {
+			String option = args[i].toUpperCase();
+			if ("MATCH".equals(option)) {
+				params.match(args[i + 1]);
+			}
+			else if ("COUNT".equals(option)) {
+				params.count(Integer.parseInt(args[i + 1]));
+			}
+			else {
+				throw new IllegalArgumentException("syntax error");
+			}
+		}
+		ScanResult<?> result;
+		if ("SCAN".equals(name)) {
+			result = redis.scan(cursor, params);
+		}
+		else if ("HSCAN".equals(name)) {
+			result = redis.hscan(args[1], cursor, params);
+		}
+		else if ("SSCAN".equals(name)) {
+			result = redis.sscan(args[1], cursor, params);
+		}
+		else if ("ZSCAN".equals(name)) {
+			result = redis.zscan(args[1], cursor, params);
+		}
+		else {
+			throw new UnsupportedOperationException("Not Implemented");
+		}
+		writeArray(out, 2);
+		writeBulk(out, result.getStringCursor());
+		writeObject(out, result.getResult());
+	}
+
+	private String info() {
+		RedisKeyspace keyspace = redis.getKeyspace();
+		StringBuilder sb = new StringBuilder();
+		sb.append("# Server\r\n");
+		sb.append("redis_version:2.8.0\r\n");
+		sb.append("redis_mode:standalone\r\n");
+		sb.append("# Replication\r\n");
+		sb.append("role:master\r\n");
+		sb.append("# Memory\r\n");
+		sb.append("used_memory:").append(keyspace.getUsedMemory()).append("\r\n");
+		sb.append("maxmemory:").append(keyspace.getMaxmemory()).append("\r\n");
+		sb.append("maxmemory_policy:").append(keyspace.getMaxmemoryPolicy()).append("\r\n");
+		sb.append("# Stats\r\n");
+		sb.append("expired_keys:").append(keyspace.getExpiredCount()).append("\r\n");
+		sb.append("evicted_keys:").append(keyspace.getEvictedCount()).append("\r\n");
+		sb.append("# Keyspace\r\n");
+		sb.append("db0:keys=").append(keyspace.keys().size()).append(",expires=").append(keyspace.getExpiresSize()).append("\r\n");
+		return sb.toString();
+	}
+
+	/**
+	 * 按命令名和参数查找Redis接口的方法并调用.
+	 */
+	protected Object invoke(String[] args) {
+		String name = args[0].toLowerCase();
+		String[] params = Arrays.copyOfRange(args, 1, args.length);
+		if (name.startsWith("z") && name.contains("range")) {
+			// ZRANGEBYSCORE key min max [WITHSCORES] [LIMIT offset count]
+			List<String> list = new ArrayList<String>(Arrays.asList(params));
+			for (int i = list.size() - 1; i >= 0; i--) {
+				String option = list.get(i);
+				if ("WITHSCORES".equalsIgnoreCase(option)) {
+					name += "withscores";
+					list.remove(i);
+				}
+				else if ("LIMIT".equalsIgnoreCase(option)) {
+					list.remove(i);
+				}
+			}
+			params = list.toArray(new String[list.size()]);
+		}
+		List<Method> methods = METHODS.get(name);
+		if (methods == null) {
+			throw new UnsupportedOperationException("Not Implemented");
+		}
+		for (Method method : methods) {
+			Object[] values = this.convert(method, params);
+			if (values == null) {
+				continue;
+			}
+			try {
+				return method.invoke(redis, values);
+			}
+			catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new RuntimeException(cause.getMessage(), cause);
+			}
+			catch (IllegalAccessException e) {
+				throw new RuntimeException(e.getMessage(), e);
+			}
+		}
+		throw new IllegalArgumentException("wrong number of arguments for '" + args[0].toLowerCase() + "' command");
+	}
+
+	/**
+	 * 按方法的参数类型转换参数，不匹配返回null.
+	 */
+	protected Object[] convert(Method method, String[] params) {
+		Class<?>[] types = method.getParameterTypes();
+		boolean varargs = method.isVarArgs();
+		if (varargs ? params.length < types.length - 1 : params.length != types.length) {
+			return null;
+		}
+		Object[] values = new Object[types.length];
+		try {
+			for (int i = 0; i < types.length; i++) {
+				Class<?> type = types[i];
+				if (varargs && i == types.length - 1) {
+					if (type != String[].class) {
+						return null;
+					}
+					values[i] = Arrays.copyOfRange(params, i, params.length);
+				}
+				else if (type == String.class) {
+					values[i] = params[i];
+				}
+				else if (type == long.class || type == Long.class) {
+					values[i] = Long.parseLong(params[i]);
+				}
+				else if (type == int.class || type == Integer.class) {
+					values[i] = Integer.parseInt(params[i]);
+				}
+				else if (type == double.class || type == Double.class) {
+					values[i] = parseDouble(params[i]);
+				}
+				else {
+					return null;
+				}
+			}
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+		return values;
+	}
+
+	private static double parseDouble(String str) {
+		if ("+inf".equalsIgnoreCase(str) || "inf".equalsIgnoreCase(str)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if ("-inf".equalsIgnoreCase(str)) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return Double.parseDouble(str);
+	}
+
+	protected static void writeStatus(ByteArrayOutputStream out, String status) {
+		write(out, "+" + status);
+	}
+
+	protected static void writeError(ByteArrayOutputStream out, String message) {
+		write(out, "-" + message.replace('\r', ' ').replace('\n', ' '));
+	}
+
+	protected static void writeInteger(ByteArrayOutputStream out, long value) {
+		write(out, ":" + value);
+	}
+
+	protected static void writeArray(ByteArrayOutputStream out, int size) {
+		write(out, "*" + size);
+	}
+
+	protected static void writeBulk(ByteArrayOutputStream out, String str) {
+		if (str == null) {
+			write(out, "$-1");
+			return;
+		}
+		byte[] bytes = str.getBytes(BINARY);
+		write(out, "$" + bytes.length);
+		out.write(bytes, 0, bytes.length);
+		out.write(CRLF, 0, CRLF.length);
+	}
+
+	private static void write(ByteArrayOutputStream out, String line) {
+		byte[] bytes = line.getBytes(UTF8);
+		out.write(bytes, 0, bytes.length);
+		out.write(CRLF, 0, CRLF.length);
+	}
+
+	/**
+	 * 按返回值类型写应答.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static void writeObject(ByteArrayOutputStream out, Object value) {
+		if (value == null) {
+			writeBulk(out, null);
+		}
+		else if (value instanceof String) {
+			writeBulk(out, (String) value);
+		}
+		else if (value instanceof Long || value instanceof Integer) {
+			writeInteger(out, ((Number) value).longValue());
+		}
+		else if (value instanceof Boolean) {
+			writeInteger(out, ((Boolean) value) ? 1 : 0);
+		}
+		else if (value instanceof Double) {
+			writeBulk(out, formatDouble((Double) value));
+		}
+		else if (value instanceof Map) {
+			Map<String, String> map = (Map<String, String>) value;
+			writeArray(out, map.size() * 2);
+			for (Entry<String, String> entry : map.entrySet()) {
+				writeBulk(out, entry.getKey());
+				writeBulk(out, entry.getValue());
+			}
+		}
+		else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			int size = collection.size();
+			if (!collection.isEmpty()) {
+				Object first = collection.iterator().next();
+				if (first instanceof Tuple || first instanceof Entry) {
+					size *= 2;
+				}
+			}
+			writeArray(out, size);
+			for (Object element : collection) {
+				if (element instanceof Tuple) {
+					writeBulk(out, ((Tuple) element).getElement());
+					writeBulk(out, formatDouble(((Tuple) element).getScore()));
+				}
+				else if (element instanceof Entry) {
+					writeBulk(out, (String) ((Entry<?, ?>) element).getKey());
+					writeBulk(out, (String) ((Entry<?, ?>) element).getValue());
+				}
+				else {
+					writeObject(out, element);
+				}
+			}
+		}
+		else {
+			writeBulk(out, value.toString());
+		}
+	}
+
+	private static String formatDouble(double value) {
+		if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+}
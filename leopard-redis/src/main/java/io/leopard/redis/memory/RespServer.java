@@ -0,0 +1,378 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * 内嵌的Redis服务器(RESP2协议)，把RedisMemoryImpl暴露在本地端口上，Jedis、RedisImpl可以直接连接(用于测试，不需要安装Redis).
+ *
+ * 单线程NIO(与Redis相同)：一个线程处理所有连接的读写，一次读到的多个命令依次执行(支持pipeline).
+ *
+ * MULTI/EXEC只是按顺序执行排队的命令，其他连接的命令可能穿插执行.
+ *
+ * 参数按字节保存(ISO-8859-1)，客户端写入的中文在RedisMemoryImpl中是UTF-8字节对应的字符，通过服务器读取时还原.
+ *
+ * @author 阿海
+ *
+ */
+public class RespServer {
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	/**
+	 * 命令参数个数和单个参数长度的上限，超出时关闭连接.
+	 */
+	private static final int MAX_ARGS = 1024 * 1024;
+	private static final int MAX_BULK_LENGTH = 512 * 1024 * 1024;
+
+	private final RespCommandHandler handler;
+
+	private final String host;
+
+	private int port;
+
+	private Selector selector;
+
+	private ServerSocketChannel serverChannel;
+
+	private Thread thread;
+
+	private volatile boolean running;
+
+	/**
+	 * 连接的读缓冲区和待发送的应答.
+	 */
+	private static class Connection {
+		private final RespCommandHandler.Session session = new RespCommandHandler.Session();
+		private byte[] buffer = new byte[1024];
+		private int start = 0;
+		private int length = 0;
+		private final LinkedList<ByteBuffer> output = new LinkedList<ByteBuffer>();
+	}
+
+	/**
+	 * 命令格式错误.
+	 */
+	private static class ProtocolException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		public ProtocolException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * @param redis
+	 * @param port 端口，0表示随机选择一个可用端口
+	 */
+	public RespServer(RedisMemoryImpl redis, int port) {
+		this(redis, "127.0.0.1", port);
+	}
+
+	public RespServer(RedisMemoryImpl redis, String host, int port) {
+		this.handler = new RespCommandHandler(redis);
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * 监听端口并启动处理线程.
+	 */
+	public synchronized void start() {
+		if (running) {
+			throw new IllegalStateException("服务器已启动.");
+		}
+		try {
+			selector = Selector.open();
+			serverChannel = ServerSocketChannel.open();
+			serverChannel.socket().setReuseAddress(true);
+			serverChannel.socket().bind(new InetSocketAddress(host, port));
+			serverChannel.configureBlocking(false);
+			serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+			port = serverChannel.socket().getLocalPort();
+			handler.setAddress(host + ":" + port);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		running = true;
+		thread = new Thread("leopard-redis-server") {
+			@Override
+			public void run() {
+				RespServer.this.loop();
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+		logger.info("start server " + host + ":" + port);
+	}
+
+	/**
+	 * 关闭所有连接并停止处理线程.
+	 */
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		try {
+			thread.join(5000);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 监听的端口(端口为0时返回实际端口).
+	 *
+	 * @return
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	public String getServer() {
+		return host + ":" + port;
+	}
+
+	private void loop() {
+		ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+		try {
+			while (running) {
+				selector.select();
+				Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+				while (iterator.hasNext()) {
+					SelectionKey key = iterator.next();
+					iterator.remove();
+					try {
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							this.accept();
+						}
+						else {
+							if (key.isReadable()) {
+								this.read(key, readBuffer);
+							}
+							if (key.isValid() && key.isWritable()) {
+								this.write(key);
+							}
+						}
+					}
+					catch (IOException e) {
+						// 客户端断开
+						this.close(key);
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+		finally {
+			for (SelectionKey key : selector.keys()) {
+				this.close(key);
+			}
+			try {
+				selector.close();
+			}
+			catch (IOException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = serverChannel.accept();
+		if (channel == null) {
+			return;
+		}
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		channel.register(selector, SelectionKey.OP_READ, new Connection());
+	}
+
+	private void close(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		}
+		catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	private void read(SelectionKey key, ByteBuffer readBuffer) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Connection conn = (Connection) key.attachment();
+		readBuffer.clear();
+		int count = channel.read(readBuffer);
+		if (count < 0) {
+			this.close(key);
+			return;
+		}
+		readBuffer.flip();
+		this.append(conn, readBuffer);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			String[] args;
+			while (!conn.session.isClosed() && (args = this.parse(conn)) != null) {
+				if (args.length > 0) {
+					handler.handle(conn.session, args, out);
+				}
+			}
+		}
+		catch (ProtocolException e) {
+			RespCommandHandler.writeError(out, "ERR Protocol error: " + e.getMessage());
+			conn.session.close();
+		}
+		if (out.size() > 0) {
+			conn.output.add(ByteBuffer.wrap(out.toByteArray()));
+			this.write(key);
+		}
+		else if (conn.session.isClosed()) {
+			this.close(key);
+		}
+	}
+
+	private void write(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Connection conn = (Connection) key.attachment();
+		while (!conn.output.isEmpty()) {
+			ByteBuffer buffer = conn.output.getFirst();
+			channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				// 发送缓冲区满了，等待可写
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+			conn.output.removeFirst();
+		}
+		if (conn.session.isClosed()) {
+			this.close(key);
+			return;
+		}
+		key.interestOps(SelectionKey.OP_READ);
+	}
+
+	private void append(Connection conn, ByteBuffer data) {
+		int remaining = data.remaining();
+		if (conn.length + remaining > conn.buffer.length) {
+			int unread = conn.length - conn.start;
+			byte[] buffer = conn.buffer;
+			if (unread + remaining > buffer.length) {
+				buffer = new byte[Math.max(buffer.length * 2, unread + remaining)];
+			}
+			System.arraycopy(conn.buffer, conn.start, buffer, 0, unread);
+			conn.buffer = buffer;
+			conn.start = 0;
+			conn.length = unread;
+		}
+		data.get(conn.buffer, conn.length, remaining);
+		conn.length += remaining;
+	}
+
+	/**
+	 * 从读缓冲区解析一个完整的命令，数据不完整时返回null.
+	 *
+	 * 支持RESP数组(*n\r\n$len\r\narg\r\n...)和inline命令(空格分隔，用于telnet).
+	 */
+	private String[] parse(Connection conn) throws ProtocolException {
+		if (conn.start >= conn.length) {
+			conn.start = 0;
+			conn.length = 0;
+			return null;
+		}
+		byte[] buffer = conn.buffer;
+		int position = conn.start;
+		if (buffer[position] != '*') {
+			int end = this.findLineEnd(buffer, position, conn.length);
+			if (end < 0) {
+				return null;
+			}
+			String line = new String(buffer, position, end - position, RespCommandHandler.BINARY).trim();
+			conn.start = end + 1;
+			if (line.length() == 0) {
+				return new String[0];
+			}
+			return line.split("\\s+");
+		}
+		int end = this.findLineEnd(buffer, position, conn.length);
+		if (end < 0) {
+			return null;
+		}
+		int count = this.parseLength(buffer, position + 1, end);
+		if (count > MAX_ARGS) {
+			throw new ProtocolException("invalid multibulk length");
+		}
+		position = end + 1;
+		List<String> args = new ArrayList<String>(Math.max(count, 0));
+		for (int i = 0; i < count; i++) {
+			end = this.findLineEnd(buffer, position, conn.length);
+			if (end < 0) {
+				return null;
+			}
+			if (buffer[position] != '$') {
+				throw new ProtocolException("expected '$', got '" + (char) buffer[position] + "'");
+			}
+			int length = this.parseLength(buffer, position + 1, end);
+			if (length < 0 || length > MAX_BULK_LENGTH) {
+				throw new ProtocolException("invalid bulk length");
+			}
+			position = end + 1;
+			if (conn.length - position < length + 2) {
+				return null;
+			}
+			args.add(new String(buffer, position, length, RespCommandHandler.BINARY));
+			position += length + 2;
+		}
+		conn.start = position;
+		return args.toArray(new String[args.size()]);
+	}
+
+	/**
+	 * 查找\n的位置，没有找到返回-1.
+	 */
+	private int findLineEnd(byte[] buffer, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (buffer[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 解析from到\r\n之间的整数.
+	 */
+	private int parseLength(byte[] buffer, int from, int end) throws ProtocolException {
+		if (end > from && buffer[end - 1] == '\r') {
+			end--;
+		}
+		String str = new String(buffer, from, end - from, RespCommandHandler.BINARY);
+		try {
+			return Integer.parseInt(str);
+		}
+		catch (NumberFormatException e) {
+			throw new ProtocolException("invalid length[" + str + "]");
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package io.leopard.redis.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列表数据结构(环形数组).
+ *
+ * 两端插入、删除是O(1)(均摊)，按下标访问是O(1)，lrange只复制请求的范围；元素减少到容量的1/4时缩容.
+ *
+ * 所有方法都已同步，可以多线程访问.
+ *
+ * @author 阿海
+ *
+ */
+public class RingList {
+
+	private static final int MIN_CAPACITY = 16;
+
+	/**
+	 * 容量总是2的幂，下标用位运算取模.
+	 */
+	private String[] elements = new String[MIN_CAPACITY];
+
+	/**
+	 * 第一个元素的位置.
+	 */
+	private int head = 0;
+
+	private int size = 0;
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 在头部插入(LPUSH).
+	 */
+	public synchronized void addFirst(String element) {
+		this.ensureCapacity(size + 1);
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = element;
+		size++;
+	}
+
+	/**
+	 * 在尾部插入(RPUSH).
+	 */
+	public synchronized void addLast(String element) {
+		this.ensureCapacity(size + 1);
+		elements[this.position(size)] = element;
+		size++;
+	}
+
+	/**
+	 * 删除并返回第一个元素(LPOP)，列表为空返回null.
+	 */
+	public synchronized String pollFirst() {
+		if (size == 0) {
+			return null;
+		}
+		String element = elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		this.shrinkIfNeeded();
+		return element;
+	}
+
+	/**
+	 * 删除并返回最后一个元素(RPOP)，列表为空返回null.
+	 */
+	public synchronized String pollLast() {
+		if (size == 0) {
+			return null;
+		}
+		int position = this.position(size - 1);
+		String element = elements[position];
+		elements[position] = null;
+		size--;
+		this.shrinkIfNeeded();
+		return element;
+	}
+
+	/**
+	 * 按下标返回元素，index可以为负数(-1表示最后一个)，超出范围返回null.
+	 */
+	public synchronized String get(long index) {
+		if (index < 0) {
+			index = size + index;
+		}
+		if (index < 0 || index >= size) {
+			return null;
+		}
+		return elements[this.position((int) index)];
+	}
+
+	/**
+	 * 按下标设置元素，index可以为负数.
+	 *
+	 * @return 超出范围返回false
+	 */
+	public synchronized boolean set(long index, String element) {
+		if (index < 0) {
+			index = size + index;
+		}
+		if (index < 0 || index >= size) {
+			return false;
+		}
+		elements[this.position((int) index)] = element;
+		return true;
+	}
+
+	/**
+	 * 返回下标范围内的元素(与LRANGE一致，start、end可以为负数).
+	 */
+	public synchronized List<String> range(long start, long end) {
+		if (start < 0) {
+			start = Math.max(size + start, 0);
+		}
+		if (end < 0) {
+			end = size + end;
+		}
+		if (end >= size) {
+			end = size - 1;
+		}
+		if (start > end) {
+			return new ArrayList<String>(0);
+		}
+		List<String> list = new ArrayList<String>((int) (end - start + 1));
+		for (int i = (int) start; i <= end; i++) {
+			list.add(elements[this.position(i)]);
+		}
+		return list;
+	}
+
+	/**
+	 * 只保留下标范围内的元素(与LTRIM一致).
+	 */
+	public synchronized void trim(long start, long end) {
+		if (start < 0) {
+			start = Math.max(size + start, 0);
+		}
+		if (end < 0) {
+			end = size + end;
+		}
+		if (end >= size) {
+			end = size - 1;
+		}
+		if (start > end) {
+			this.clear();
+			return;
+		}
+		for (int i = 0; i < start; i++) {
+			elements[this.position(i)] = null;
+		}
+		for (int i = (int) end + 1; i < size; i++) {
+			elements[this.position(i)] = null;
+		}
+		head = this.position((int) start);
+		size = (int) (end - start + 1);
+		this.shrinkIfNeeded();
+	}
+
+	/**
+	 * 删除等于value的元素(与LREM一致).
+	 *
+	 * @param count 大于0从头部开始删除count个，小于0从尾部开始删除-count个，等于0删除所有
+	 * @param value
+	 * @return 删除的元素数
+	 */
+	public synchronized long remove(long count, String value) {
+		long limit = count == 0 ? Long.MAX_VALUE : Math.abs(count);
+		int removed = 0;
+		if (count >= 0) {
+			int write = 0;
+			for (int read = 0; read < size; read++) {
+				String element = elements[this.position(read)];
+				if (removed < limit && element.equals(value)) {
+					removed++;
+					continue;
+				}
+				elements[this.position(write++)] = element;
+			}
+			for (int i = write; i < size; i++) {
+				elements[this.position(i)] = null;
+			}
+		}
+		else {
+			int write = size - 1;
+			for (int read = size - 1; read >= 0; read--) {
+				String element = elements[this.position(read)];
+				if (removed < limit && element.equals(value)) {
+					removed++;
+					continue;
+				}
+				elements[this.position(write--)] = element;
+			}
+			for (int i = write; i >= 0; i--) {
+				elements[this.position(i)] = null;
+			}
+			head = this.position(removed);
+		}
+		size -= removed;
+		this.shrinkIfNeeded();
+		return removed;
+	}
+
+	public synchronized void clear() {
+		elements = new String[MIN_CAPACITY];
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * 返回所有元素.
+	 */
+	public synchronized List<String> toList() {
+		return this.range(0, -1);
+	}
+
+	private int position(int index) {
+		return (head + index) & (elements.length - 1);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > elements.length) {
+			this.resize(elements.length << 1);
+		}
+	}
+
+	private void shrinkIfNeeded() {
+		if (elements.length > MIN_CAPACITY && size < (elements.length >> 2)) {
+			this.resize(elements.length >> 1);
+		}
+	}
+
+	private void resize(int capacity) {
+		String[] array = new String[capacity];
+		int first = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, array, 0, first);
+		System.arraycopy(elements, 0, array, first, size - first);
+		elements = array;
+		head = 0;
+	}
+}
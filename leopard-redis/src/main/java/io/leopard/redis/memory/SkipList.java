@@ -0,0 +1,364 @@
+package io.leopard.redis.memory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * 有序集数据结构(跳表 + 哈希索引，与Redis的zset相同).
+ *
+ * 按score从小到大排序，score相同时按member排序；每层记录跨度，排名和按排名、score范围查找都是O(log n).
+ *
+ * 非线程安全.
+ *
+ * @author 阿海
+ *
+ */
+public class SkipList {
+
+	private static final int MAX_LEVEL = 32;
+
+	private static final double P = 0.25;
+
+	private static class Node {
+		private final String member;
+		private final double score;
+		private final Node[] forward;
+		private final long[] span;
+		private Node backward;
+
+		public Node(String member, double score, int level) {
+			this.member = member;
+			this.score = score;
+			this.forward = new Node[level];
+			this.span = new long[level];
+		}
+	}
+
+	private final Map<String, Double> dict = new HashMap<String, Double>();
+
+	private final Node header = new Node(null, 0, MAX_LEVEL);
+
+	private Node tail;
+
+	private int level = 1;
+
+	private final Random random = new Random();
+
+	/**
+	 * 添加成员，已存在时更新score.
+	 *
+	 * @param member
+	 * @param score
+	 * @return 新增返回true，更新返回false
+	 */
+	public boolean add(String member, double score) {
+		if (Double.isNaN(score)) {
+			throw new IllegalArgumentException("score不能为NaN.");
+		}
+		Double old = dict.put(member, score);
+		if (old != null) {
+			if (old.doubleValue() != score) {
+				this.delete(old, member);
+				this.insert(score, member);
+			}
+			return false;
+		}
+		this.insert(score, member);
+		return true;
+	}
+
+	/**
+	 * 删除成员.
+	 *
+	 * @param member
+	 * @return 成员不存在返回false
+	 */
+	public boolean remove(String member) {
+		Double score = dict.remove(member);
+		if (score == null) {
+			return false;
+		}
+		this.delete(score, member);
+		return true;
+	}
+
+	/**
+	 * 返回成员的score，不存在返回null.
+	 */
+	public Double score(String member) {
+		return dict.get(member);
+	}
+
+	public int size() {
+		return dict.size();
+	}
+
+	/**
+	 * 返回所有成员和score(只读).
+	 */
+	public Map<String, Double> toMap() {
+		return Collections.unmodifiableMap(dict);
+	}
+
+	/**
+	 * 返回成员的排名(从0开始)，不存在返回-1.
+	 */
+	public long rank(String member) {
+		Double score = dict.get(member);
+		if (score == null) {
+			return -1;
+		}
+		return this.getRank(score, member) - 1;
+	}
+
+	/**
+	 * 按排名范围返回成员，start、end可以为负数(-1表示最后一个).
+	 *
+	 * @param start
+	 * @param end
+	 * @param reverse 是否按score从大到小
+	 * @return
+	 */
+	public List<Tuple> range(long start, long end, boolean reverse) {
+		long size = dict.size();
+		if (start < 0) {
+			start = Math.max(size + start, 0);
+		}
+		if (end < 0) {
+			end = size + end;
+		}
+		if (end >= size) {
+			end = size - 1;
+		}
+		if (start > end || start >= size) {
+			return new ArrayList<Tuple>(0);
+		}
+		List<Tuple> list = new ArrayList<Tuple>((int) (end - start + 1));
+		Node node = this.getByRank(reverse ? size - start : start + 1);
+		for (long i = start; i <= end && node != null; i++) {
+			list.add(new Tuple(node.member, node.score));
+			node = reverse ? node.backward : node.forward[0];
+		}
+		return list;
+	}
+
+	/**
+	 * 按score范围返回成员.
+	 *
+	 * @param min
+	 * @param max
+	 * @param offset 跳过的成员数
+	 * @param count 返回的最大成员数，小于0表示不限制
+	 * @param reverse 是否按score从大到小
+	 * @return
+	 */
+	public List<Tuple> rangeByScore(double min, double max, int offset, int count, boolean reverse) {
+		List<Tuple> list = new ArrayList<Tuple>();
+		Node node = reverse ? this.lastInRange(min, max) : this.firstInRange(min, max);
+		while (node != null && offset > 0) {
+			node = reverse ? node.backward : node.forward[0];
+			offset--;
+		}
+		while (node != null && count != 0) {
+			if (reverse ? node.score < min : node.score > max) {
+				break;
+			}
+			list.add(new Tuple(node.member, node.score));
+			node = reverse ? node.backward : node.forward[0];
+			count--;
+		}
+		return list;
+	}
+
+	/**
+	 * 返回score在范围内的成员数.
+	 */
+	public long count(double min, double max) {
+		Node first = this.firstInRange(min, max);
+		if (first == null) {
+			return 0;
+		}
+		Node last = this.lastInRange(min, max);
+		return this.getRank(last.score, last.member) - this.getRank(first.score, first.member) + 1;
+	}
+
+	/**
+	 * 删除排名范围内的成员.
+	 *
+	 * @return 删除的成员数
+	 */
+	public long removeRangeByRank(long start, long end) {
+		List<Tuple> list = this.range(start, end, false);
+		for (Tuple tuple : list) {
+			this.remove(tuple.getElement());
+		}
+		return list.size();
+	}
+
+	/**
+	 * 删除score范围内的成员.
+	 *
+	 * @return 删除的成员数
+	 */
+	public long removeRangeByScore(double min, double max) {
+		List<Tuple> list = this.rangeByScore(min, max, 0, -1, false);
+		for (Tuple tuple : list) {
+			this.remove(tuple.getElement());
+		}
+		return list.size();
+	}
+
+	private static boolean less(Node node, double score, String member) {
+		return node.score < score || (node.score == score && node.member.compareTo(member) < 0);
+	}
+
+	private int randomLevel() {
+		int level = 1;
+		while (level < MAX_LEVEL && random.nextDouble() < P) {
+			level++;
+		}
+		return level;
+	}
+
+	private void insert(double score, String member) {
+		Node[] update = new Node[MAX_LEVEL];
+		long[] rank = new long[MAX_LEVEL];
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+			while (x.forward[i] != null && less(x.forward[i], score, member)) {
+				rank[i] += x.span[i];
+				x = x.forward[i];
+			}
+			update[i] = x;
+		}
+		int newLevel = this.randomLevel();
+		if (newLevel > level) {
+			for (int i = level; i < newLevel; i++) {
+				rank[i] = 0;
+				update[i] = header;
+				update[i].span[i] = dict.size() - 1;
+			}
+			level = newLevel;
+		}
+		x = new Node(member, score, newLevel);
+		for (int i = 0; i < newLevel; i++) {
+			x.forward[i] = update[i].forward[i];
+			update[i].forward[i] = x;
+			x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+			update[i].span[i] = (rank[0] - rank[i]) + 1;
+		}
+		for (int i = newLevel; i < level; i++) {
+			update[i].span[i]++;
+		}
+		x.backward = (update[0] == header) ? null : update[0];
+		if (x.forward[0] != null) {
+			x.forward[0].backward = x;
+		}
+		else {
+			tail = x;
+		}
+	}
+
+	private void delete(double score, String member) {
+		Node[] update = new Node[MAX_LEVEL];
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.forward[i] != null && less(x.forward[i], score, member)) {
+				x = x.forward[i];
+			}
+			update[i] = x;
+		}
+		x = x.forward[0];
+		if (x == null || x.score != score || !x.member.equals(member)) {
+			throw new IllegalStateException("跳表和索引不一致[" + member + "].");
+		}
+		for (int i = 0; i < level; i++) {
+			if (update[i].forward[i] == x) {
+				update[i].span[i] += x.span[i] - 1;
+				update[i].forward[i] = x.forward[i];
+			}
+			else {
+				update[i].span[i] -= 1;
+			}
+		}
+		if (x.forward[0] != null) {
+			x.forward[0].backward = x.backward;
+		}
+		else {
+			tail = x.backward;
+		}
+		while (level > 1 && header.forward[level - 1] == null) {
+			level--;
+		}
+	}
+
+	/**
+	 * 返回排名(从1开始).
+	 */
+	private long getRank(double score, String member) {
+		long rank = 0;
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.forward[i] != null && (less(x.forward[i], score, member) || x.forward[i].member.equals(member))) {
+				rank += x.span[i];
+				x = x.forward[i];
+			}
+			if (x != header && x.member.equals(member)) {
+				return rank;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * 按排名(从1开始)查找.
+	 */
+	private Node getByRank(long rank) {
+		long traversed = 0;
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.forward[i] != null && traversed + x.span[i] <= rank) {
+				traversed += x.span[i];
+				x = x.forward[i];
+			}
+			if (traversed == rank) {
+				return x;
+			}
+		}
+		return null;
+	}
+
+	private Node firstInRange(double min, double max) {
+		if (min > max || tail == null || tail.score < min || header.forward[0].score > max) {
+			return null;
+		}
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.forward[i] != null && x.forward[i].score < min) {
+				x = x.forward[i];
+			}
+		}
+		x = x.forward[0];
+		return x.score <= max ? x : null;
+	}
+
+	private Node lastInRange(double min, double max) {
+		if (min > max || tail == null || tail.score < min || header.forward[0].score > max) {
+			return null;
+		}
+		Node x = header;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.forward[i] != null && x.forward[i].score <= max) {
+				x = x.forward[i];
+			}
+		}
+		return x.score >= min ? x : null;
+	}
+}
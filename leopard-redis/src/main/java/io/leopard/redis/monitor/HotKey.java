@@ -0,0 +1,70 @@
+package io.leopard.redis.monitor;
+
+/**
+ * 热点key.
+ * 
+ * @author 阿海
+ *
+ */
+public class HotKey {
+
+	private String server;
+
+	private String command;
+
+	private String key;
+
+	/**
+	 * 估算的访问次数(已按采样率还原).
+	 */
+	private long count;
+
+	public HotKey() {
+
+	}
+
+	public HotKey(String server, String command, String key, long count) {
+		this.server = server;
+		this.command = command;
+		this.key = key;
+		this.count = count;
+	}
+
+	public String getServer() {
+		return server;
+	}
+
+	public void setServer(String server) {
+		this.server = server;
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public void setCommand(String command) {
+		this.command = command;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	@Override
+	public String toString() {
+		return "HotKey [server=" + server + ", command=" + command + ", key=" + key + ", count=" + count + "]";
+	}
+
+}
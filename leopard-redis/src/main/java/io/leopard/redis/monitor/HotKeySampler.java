@@ -0,0 +1,230 @@
+package io.leopard.redis.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 热点key采样(Count-Min Sketch + Top-K).
+ *
+ * 每sampleRate次访问采样一次，按时间窗口统计command+key的访问次数，窗口结束时保存访问次数最多的topSize个key.
+ *
+ * @author 阿海
+ *
+ */
+public class HotKeySampler {
+
+	private static final int DEPTH = 4;
+
+	private static final int WIDTH = 4096;
+
+	private final String server;
+
+	private final int sampleRate;
+
+	private final int sampleMask;
+
+	private final int topSize;
+
+	private final long windowMillis;
+
+	private final AtomicIntegerArray sketch = new AtomicIntegerArray(DEPTH * WIDTH);
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	private volatile long windowEnd;
+
+	/**
+	 * 当前窗口的候选热点key(command+key -> 采样次数).
+	 */
+	private final Map<String, Candidate> top = new HashMap<String, Candidate>();
+
+	private volatile int topMin = 0;
+
+	private volatile List<HotKey> hotKeyList = Collections.emptyList();
+
+	private volatile Map<String, Long> hotKeyMap = Collections.emptyMap();
+
+	private static class Candidate {
+		private final String command;
+		private final String key;
+		private int count;
+
+		public Candidate(String command, String key, int count) {
+			this.command = command;
+			this.key = key;
+			this.count = count;
+		}
+	}
+
+	/**
+	 * @param server 服务器
+	 * @param sampleRate 采样率(每sampleRate次采样一次)，向上取2的幂
+	 * @param topSize 保存的热点key数量
+	 * @param windowMillis 统计窗口(毫秒)
+	 */
+	public HotKeySampler(String server, int sampleRate, int topSize, long windowMillis) {
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException("sampleRate必须大于0.");
+		}
+		int rate = 1;
+		while (rate < sampleRate) {
+			rate <<= 1;
+		}
+		this.server = server;
+		this.sampleRate = rate;
+		this.sampleMask = rate - 1;
+		this.topSize = topSize;
+		this.windowMillis = windowMillis;
+		this.windowEnd = System.currentTimeMillis() + windowMillis;
+	}
+
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * 记录一次访问.
+	 *
+	 * @param command 指令
+	 * @param key
+	 */
+	public void sample(String command, String key) {
+		if (key == null) {
+			return;
+		}
+		if ((counter.incrementAndGet() & sampleMask) != 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (now >= windowEnd) {
+			this.rotate(now);
+		}
+		String item = command + " " + key;
+		int hash1 = item.hashCode();
+		int hash2 = (hash1 >>> 16) | (hash1 << 16);
+		hash2 = hash2 * 0x85ebca6b + 1;
+		int estimate = Integer.MAX_VALUE;
+		for (int i = 0; i < DEPTH; i++) {
+			int index = (hash1 + i * hash2) & (WIDTH - 1);
+			int count = sketch.incrementAndGet(i * WIDTH + index);
+			if (count < estimate) {
+				estimate = count;
+			}
+		}
+		if (estimate > topMin) {
+			this.offer(item, command, key, estimate);
+		}
+	}
+
+	private synchronized void offer(String item, String command, String key, int estimate) {
+		Candidate candidate = top.get(item);
+		if (candidate != null) {
+			candidate.count = estimate;
+		}
+		else if (top.size() < topSize) {
+			top.put(item, new Candidate(command, key, estimate));
+		}
+		else {
+			String minItem = null;
+			int min = Integer.MAX_VALUE;
+			for (Map.Entry<String, Candidate> entry : top.entrySet()) {
+				if (entry.getValue().count < min) {
+					min = entry.getValue().count;
+					minItem = entry.getKey();
+				}
+			}
+			if (estimate <= min) {
+				return;
+			}
+			top.remove(minItem);
+			top.put(item, new Candidate(command, key, estimate));
+		}
+		if (top.size() >= topSize) {
+			int min = Integer.MAX_VALUE;
+			for (Candidate c : top.values()) {
+				if (c.count < min) {
+					min = c.count;
+				}
+			}
+			this.topMin = min;
+		}
+	}
+
+	/**
+	 * 结束当前窗口，保存热点key并清空计数.
+	 */
+	private synchronized void rotate(long now) {
+		if (now < windowEnd) {
+			return;
+		}
+		List<HotKey> list = new ArrayList<HotKey>(top.size());
+		Map<String, Long> map = new HashMap<String, Long>();
+		for (Map.Entry<String, Candidate> entry : top.entrySet()) {
+			Candidate candidate = entry.getValue();
+			long count = (long) candidate.count * sampleRate;
+			list.add(new HotKey(server, candidate.command, candidate.key, count));
+			map.put(entry.getKey(), count);
+		}
+		Collections.sort(list, COUNT_COMPARATOR);
+		this.hotKeyList = Collections.unmodifiableList(list);
+		this.hotKeyMap = map;
+		top.clear();
+		topMin = 0;
+		for (int i = 0; i < sketch.length(); i++) {
+			sketch.set(i, 0);
+		}
+		// 期间没有访问时跳过空窗口
+		long end = windowEnd + windowMillis;
+		if (end <= now) {
+			end = now + windowMillis;
+		}
+		this.windowEnd = end;
+	}
+
+	/**
+	 * 返回上一个统计窗口的热点key，按访问次数从多到少排序.
+	 *
+	 * @return
+	 */
+	public List<HotKey> getHotKeys() {
+		long now = System.currentTimeMillis();
+		if (now >= windowEnd) {
+			this.rotate(now);
+		}
+		return hotKeyList;
+	}
+
+	/**
+	 * 判断上一个统计窗口command+key的访问次数是否达到threshold.
+	 *
+	 * @param command
+	 * @param key
+	 * @param threshold
+	 * @return
+	 */
+	public boolean isHot(String command, String key, long threshold) {
+		Map<String, Long> map = this.hotKeyMap;
+		if (map.isEmpty()) {
+			return false;
+		}
+		Long count = map.get(command + " " + key);
+		return count != null && count >= threshold;
+	}
+
+	public static final Comparator<HotKey> COUNT_COMPARATOR = new Comparator<HotKey>() {
+		@Override
+		public int compare(HotKey o1, HotKey o2) {
+			if (o1.getCount() == o2.getCount()) {
+				return 0;
+			}
+			return o1.getCount() > o2.getCount() ? -1 : 1;
+		}
+	};
+
+}
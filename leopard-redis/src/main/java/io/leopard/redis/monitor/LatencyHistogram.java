@@ -0,0 +1,173 @@
+package io.leopard.redis.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图(无锁，单位:微秒).
+ *
+ * 小于16微秒每个值一个桶，之后每个2的幂区间分为8个桶，相对误差不超过12.5%.
+ *
+ * @author 阿海
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int LINEAR = 16;
+
+	private static final int SUB_BUCKETS = 8;
+
+	private static final int MAX_EXPONENT = 40;
+
+	private static final int BUCKETS = LINEAR + (MAX_EXPONENT - 4 + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong total = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * 记录一次耗时.
+	 *
+	 * @param micros 耗时(微秒)
+	 */
+	public void record(long micros) {
+		if (micros < 0) {
+			micros = 0;
+		}
+		buckets.incrementAndGet(index(micros));
+		count.incrementAndGet();
+		total.addAndGet(micros);
+		long current = max.get();
+		while (micros > current && !max.compareAndSet(current, micros)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * 合并另一个直方图的数据.
+	 *
+	 * @param other
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long value = other.buckets.get(i);
+			if (value > 0) {
+				buckets.addAndGet(i, value);
+			}
+		}
+		count.addAndGet(other.count.get());
+		total.addAndGet(other.total.get());
+		long otherMax = other.max.get();
+		long current = max.get();
+		while (otherMax > current && !max.compareAndSet(current, otherMax)) {
+			current = max.get();
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * 总耗时(微秒).
+	 *
+	 * @return
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * 最大耗时(微秒).
+	 *
+	 * @return
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * 平均耗时(微秒).
+	 *
+	 * @return
+	 */
+	public double getMean() {
+		long count = this.count.get();
+		if (count == 0) {
+			return 0;
+		}
+		return (double) total.get() / count;
+	}
+
+	/**
+	 * 返回百分位耗时(微秒，取所在桶的上限).
+	 *
+	 * @param percentile 百分位，如99表示p99
+	 * @return
+	 */
+	public long getPercentile(double percentile) {
+		long count = 0;
+		long[] values = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			values[i] = buckets.get(i);
+			count += values[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * percentile / 100D);
+		if (rank < 1) {
+			rank = 1;
+		}
+		long sum = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			sum += values[i];
+			if (sum >= rank) {
+				return Math.min(upperBound(i), this.getMax());
+			}
+		}
+		return this.getMax();
+	}
+
+	/**
+	 * 清空统计数据.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	protected static int index(long value) {
+		if (value < LINEAR) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		int sub = (int) ((value >> (exponent - 3)) & (SUB_BUCKETS - 1));
+		return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+	}
+
+	protected static long upperBound(int index) {
+		if (index < LINEAR) {
+			return index;
+		}
+		int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+		int sub = (index - LINEAR) % SUB_BUCKETS;
+		return (1L << exponent) + ((long) (sub + 1) << (exponent - 3)) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "count:" + getCount() + " mean:" + (long) getMean() + " p50:" + getPercentile(50) + " p99:" + getPercentile(99) + " max:" + getMax();
+	}
+}
@@ -0,0 +1,177 @@
+package io.leopard.redis.monitor;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis客户端统计(每个指令的耗时、获取连接耗时、错误数).
+ *
+ * @author 阿海
+ *
+ */
+public class RedisMetrics {
+
+	private final String server;
+
+	private final ConcurrentMap<String, LatencyHistogram> commandMap = new ConcurrentHashMap<String, LatencyHistogram>();
+
+	private final LatencyHistogram poolWait = new LatencyHistogram();
+
+	private final AtomicLong errorCount = new AtomicLong();
+
+	private final AtomicLong brokenCount = new AtomicLong();
+
+	private final AtomicLong poolErrorCount = new AtomicLong();
+
+	public RedisMetrics(String server) {
+		this.server = server;
+	}
+
+	public String getServer() {
+		return server;
+	}
+
+	/**
+	 * 记录指令耗时(不包含获取连接的时间).
+	 *
+	 * @param command 指令
+	 * @param micros 耗时(微秒)
+	 */
+	public void recordCommand(String command, long micros) {
+		this.getCommand(command, true).record(micros);
+	}
+
+	/**
+	 * 记录从连接池获取连接的耗时.
+	 *
+	 * @param micros 耗时(微秒)
+	 */
+	public void recordPoolWait(long micros) {
+		poolWait.record(micros);
+	}
+
+	/**
+	 * 指令执行出错(包括连接断开).
+	 */
+	public void incrError() {
+		errorCount.incrementAndGet();
+	}
+
+	/**
+	 * 连接断开(JedisConnectionException).
+	 */
+	public void incrBroken() {
+		brokenCount.incrementAndGet();
+	}
+
+	/**
+	 * 从连接池获取连接出错.
+	 */
+	public void incrPoolError() {
+		poolErrorCount.incrementAndGet();
+	}
+
+	private LatencyHistogram getCommand(String command, boolean create) {
+		LatencyHistogram histogram = commandMap.get(command);
+		if (histogram == null && create) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram old = commandMap.putIfAbsent(command, histogram);
+			if (old != null) {
+				histogram = old;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * 返回指令的耗时直方图，没有执行过返回null.
+	 *
+	 * @param command
+	 * @return
+	 */
+	public LatencyHistogram getCommandLatency(String command) {
+		return this.getCommand(command, false);
+	}
+
+	/**
+	 * 返回所有指令的耗时直方图(按指令排序).
+	 *
+	 * @return
+	 */
+	public Map<String, LatencyHistogram> getCommandLatencyMap() {
+		return new TreeMap<String, LatencyHistogram>(commandMap);
+	}
+
+	/**
+	 * 返回所有指令合并后的耗时直方图.
+	 *
+	 * @return
+	 */
+	public LatencyHistogram getTotalLatency() {
+		LatencyHistogram total = new LatencyHistogram();
+		for (LatencyHistogram histogram : commandMap.values()) {
+			total.add(histogram);
+		}
+		return total;
+	}
+
+	public LatencyHistogram getPoolWait() {
+		return poolWait;
+	}
+
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	public long getBrokenCount() {
+		return brokenCount.get();
+	}
+
+	public long getPoolErrorCount() {
+		return poolErrorCount.get();
+	}
+
+	/**
+	 * 合并另一个统计的数据(如汇总多台服务器).
+	 *
+	 * @param other
+	 */
+	public void add(RedisMetrics other) {
+		for (Entry<String, LatencyHistogram> entry : other.commandMap.entrySet()) {
+			this.getCommand(entry.getKey(), true).add(entry.getValue());
+		}
+		poolWait.add(other.poolWait);
+		errorCount.addAndGet(other.getErrorCount());
+		brokenCount.addAndGet(other.getBrokenCount());
+		poolErrorCount.addAndGet(other.getPoolErrorCount());
+	}
+
+	/**
+	 * 清空统计数据.
+	 */
+	public void reset() {
+		commandMap.clear();
+		poolWait.reset();
+		errorCount.set(0);
+		brokenCount.set(0);
+		poolErrorCount.set(0);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("server:").append(server);
+		sb.append(" error:").append(getErrorCount());
+		sb.append(" broken:").append(getBrokenCount());
+		sb.append(" poolError:").append(getPoolErrorCount());
+		sb.append(" poolWait[").append(poolWait).append("]");
+		for (Entry<String, LatencyHistogram> entry : this.getCommandLatencyMap().entrySet()) {
+			sb.append(" ").append(entry.getKey()).append("[").append(entry.getValue()).append("]");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,112 @@
+package io.leopard.redis.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 熔断器.
+ *
+ * 连续失败failureThreshold次后打开(请求直接失败)，openTime毫秒后放行一个探测请求(半开)，探测成功则关闭，失败则重新打开.
+ *
+ * 探测请求openTime毫秒内没有结果(阻塞或抛出Error)时再放行一个探测请求，避免一直处于半开状态.
+ *
+ * @author 阿海
+ *
+ */
+public class CircuitBreaker {
+
+	public static final int CLOSED = 0;
+
+	public static final int OPEN = 1;
+
+	public static final int HALF_OPEN = 2;
+
+	private final int failureThreshold;
+
+	private final long openTime;
+
+	private final AtomicInteger state = new AtomicInteger(CLOSED);
+
+	private final AtomicInteger failures = new AtomicInteger();
+
+	/**
+	 * 下一次放行探测请求的时间.
+	 */
+	private final AtomicLong probeTime = new AtomicLong();
+
+	/**
+	 * @param failureThreshold 连续失败次数
+	 * @param openTime 打开时间(毫秒)
+	 */
+	public CircuitBreaker(int failureThreshold, long openTime) {
+		if (failureThreshold <= 0) {
+			throw new IllegalArgumentException("failureThreshold必须大于0.");
+		}
+		this.failureThreshold = failureThreshold;
+		this.openTime = openTime;
+	}
+
+	/**
+	 * 是否允许请求.
+	 *
+	 * @return
+	 */
+	public boolean allowRequest() {
+		int state = this.state.get();
+		if (state == CLOSED) {
+			return true;
+		}
+		long now = System.currentTimeMillis();
+		long probeTime = this.probeTime.get();
+		if (now < probeTime) {
+			return false;
+		}
+		// 只放行一个探测请求
+		if (this.probeTime.compareAndSet(probeTime, now + openTime)) {
+			this.state.compareAndSet(state, HALF_OPEN);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 请求成功(服务器有响应).
+	 */
+	public void onSuccess() {
+		failures.set(0);
+		if (state.get() != CLOSED) {
+			state.set(CLOSED);
+		}
+	}
+
+	/**
+	 * 请求失败(连接异常).
+	 */
+	public void onFailure() {
+		if (state.get() == HALF_OPEN) {
+			this.open();
+			return;
+		}
+		if (failures.incrementAndGet() >= failureThreshold) {
+			this.open();
+		}
+	}
+
+	private void open() {
+		probeTime.set(System.currentTimeMillis() + openTime);
+		state.set(OPEN);
+	}
+
+	public int getState() {
+		return state.get();
+	}
+
+	public boolean isOpen() {
+		return state.get() != CLOSED;
+	}
+
+	public int getFailures() {
+		return failures.get();
+	}
+
+}
@@ -0,0 +1,126 @@
+package io.leopard.redis.util;
+
+import io.leopard.redis.Redis;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * 带熔断器的Redis代理.
+ *
+ * 连接异常时记录失败，熔断器打开后请求不再访问服务器，有备用服务器时转发到备用服务器，否则直接抛出JedisConnectionException.
+ *
+ * @author 阿海
+ *
+ */
+public class CircuitBreakerRedis implements InvocationHandler {
+
+	/**
+	 * 不经过熔断器的方法.
+	 */
+	private static final Set<String> IGNORE_METHODS = new HashSet<String>(Arrays.asList("init", "destroy", "getMetrics", "pipelined"));
+
+	private static final Log logger = LogFactory.getLog(CircuitBreakerRedis.class);
+
+	private final String server;
+
+	private final Redis redis;
+
+	private final Redis fallback;
+
+	private final CircuitBreaker circuitBreaker;
+
+	protected CircuitBreakerRedis(String server, Redis redis, Redis fallback, CircuitBreaker circuitBreaker) {
+		this.server = server;
+		this.redis = redis;
+		this.fallback = fallback;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * 创建带熔断器的Redis.
+	 *
+	 * @param server 服务器(用于错误信息)
+	 * @param redis
+	 * @param fallback 备用服务器，可以为null
+	 * @param circuitBreaker 熔断器
+	 * @return
+	 */
+	public static Redis wrap(String server, Redis redis, Redis fallback, CircuitBreaker circuitBreaker) {
+		CircuitBreakerRedis handler = new CircuitBreakerRedis(server, redis, fallback, circuitBreaker);
+		return (Redis) Proxy.newProxyInstance(Redis.class.getClassLoader(), new Class<?>[] { Redis.class }, handler);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class || IGNORE_METHODS.contains(method.getName())) {
+			return invoke(redis, method, args);
+		}
+		if (!circuitBreaker.allowRequest()) {
+			if (fallback != null) {
+				return invoke(fallback, method, args);
+			}
+			throw new JedisConnectionException("redis[" + server + "]熔断中.");
+		}
+		try {
+			Object result = invoke(redis, method, args);
+			circuitBreaker.onSuccess();
+			return result;
+		}
+		catch (JedisConnectionException e) {
+			if (isPoolExhausted(e)) {
+				// 连接池耗尽说明服务器繁忙，不是服务器故障
+				throw e;
+			}
+			circuitBreaker.onFailure();
+			if (fallback != null) {
+				logger.error("redis[" + server + "]连接出错，使用备用服务器:" + e.getMessage());
+				return invoke(fallback, method, args);
+			}
+			throw e;
+		}
+		catch (RuntimeException e) {
+			// 服务器有响应
+			circuitBreaker.onSuccess();
+			throw e;
+		}
+	}
+
+	/**
+	 * 是否连接池耗尽(等待空闲连接超时)，建立连接失败时NoSuchElementException的cause不为null.
+	 *
+	 * @param e
+	 * @return
+	 */
+	public static boolean isPoolExhausted(JedisConnectionException e) {
+		Throwable cause = e;
+		while (cause != null) {
+			if (cause instanceof NoSuchElementException) {
+				return cause.getCause() == null;
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	private static Object invoke(Redis redis, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(redis, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+}
@@ -6,10 +6,49 @@ public interface IJedisPool {
 
 	Jedis getResource();
 
+	/**
+	 * 获取执行单个指令的连接，多路复用连接池返回共享连接(不能用于事务、阻塞指令和订阅).
+	 * 
+	 * @return
+	 */
+	Jedis getCommandResource();
+
 	void returnBrokenResource(Jedis jedis);
 
 	void returnResource(Jedis jedis);
 
 	void destroy();
 
+	/**
+	 * 并行建立连接，预热连接池.
+	 * 
+	 * @param size 连接数
+	 * @return 成功建立的连接数
+	 */
+	int warmUp(int size);
+
+	/**
+	 * 正在使用的连接数.
+	 */
+	int getNumActive();
+
+	/**
+	 * 空闲连接数.
+	 */
+	int getNumIdle();
+
+	/**
+	 * 等待获取连接的线程数.
+	 */
+	int getNumWaiters();
+
+	/**
+	 * 获取连接的平均等待时间(毫秒).
+	 */
+	long getMeanBorrowWaitTimeMillis();
+
+	/**
+	 * 获取连接的最大等待时间(毫秒).
+	 */
+	long getMaxBorrowWaitTimeMillis();
 }
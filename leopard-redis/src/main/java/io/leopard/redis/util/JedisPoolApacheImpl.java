@@ -1,14 +1,56 @@
 package io.leopard.redis.util;
 
 import io.leopard.redis.JedisPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPoolConfig;
 
 public class JedisPoolApacheImpl implements IJedisPool {
+
+	private static final int WARM_UP_THREADS = 8;
+
+	private static ScheduledExecutorService resizeExecutor;
+
+	protected Log logger = LogFactory.getLog(this.getClass());
+
 	private JedisPool pool;
 
+	private final int minIdle;
+
+	/**
+	 * 上次调整以来的最大活动连接数.
+	 */
+	private final AtomicInteger peakActive = new AtomicInteger();
+
+	private ScheduledFuture<?> resizeFuture;
+
 	public JedisPoolApacheImpl(String host, int port, int timeout, int maxActive, String password) {
+		this(host, port, timeout, maxActive, password, 0, 0);
+	}
 
+	/**
+	 * 创建连接池.
+	 *
+	 * idleTimeout大于0时按需调整连接数：每idleTimeout秒把最小空闲连接数调整为这段时间的最大活动连接数(不小于minIdle)，超出的空闲连接空闲idleTimeout秒后回收.
+	 *
+	 * @param minIdle 最小空闲连接数
+	 * @param idleTimeout 空闲连接回收时间(秒)，小于等于0表示已建立的连接不回收
+	 */
+	public JedisPoolApacheImpl(String host, int port, int timeout, int maxActive, String password, int minIdle, int idleTimeout) {
 		JedisPoolConfig poolConfig = new JedisPoolConfig();
 		// poolConfig.setMaxActive(maxActive);
 		poolConfig.setMaxTotal(maxActive);
@@ -16,14 +58,73 @@ public class JedisPoolApacheImpl implements IJedisPool {
 		// poolConfig.setMinEvictableIdleTimeMillis(24 * 3600 * 1000);
 		poolConfig.setMinEvictableIdleTimeMillis(-1);// ahai 20131024 已建立的连接不回收，高并发时建立连接会很耗资源
 		// poolConfig.setTimeBetweenEvictionRunsMillis(-1);
+		this.minIdle = Math.min(Math.max(minIdle, 0), maxActive);
+		if (idleTimeout > 0) {
+			long idleTimeoutMillis = idleTimeout * 1000L;
+			// 只回收超出minIdle的空闲连接
+			poolConfig.setSoftMinEvictableIdleTimeMillis(idleTimeoutMillis);
+			poolConfig.setTimeBetweenEvictionRunsMillis(Math.min(idleTimeoutMillis, 30 * 1000L));
+			poolConfig.setMinIdle(this.minIdle);
+		}
 
 		pool = new JedisPool(poolConfig, host, port, timeout, password);
 		// System.err.println("pool:"+pool);
+		if (idleTimeout > 0) {
+			this.resizeFuture = getResizeExecutor().scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					resize();
+				}
+			}, idleTimeout, idleTimeout, TimeUnit.SECONDS);
+		}
+	}
+
+	private static synchronized ScheduledExecutorService getResizeExecutor() {
+		if (resizeExecutor == null) {
+			resizeExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "leopard-redis-pool-resize");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return resizeExecutor;
+	}
+
+	/**
+	 * 按最近的最大活动连接数调整最小空闲连接数.
+	 */
+	public void resize() {
+		try {
+			int peak = peakActive.getAndSet(pool.getNumActive());
+			int target = Math.max(minIdle, Math.min(peak, pool.getMaxTotal()));
+			if (target != pool.getMinIdle()) {
+				pool.setMinIdle(target);
+			}
+		}
+		catch (RuntimeException e) {
+			logger.error(e.getMessage(), e);
+		}
 	}
 
 	@Override
 	public Jedis getResource() {
-		return pool.getResource();
+		Jedis jedis = pool.getResource();
+		if (resizeFuture != null) {
+			int active = pool.getNumActive();
+			int peak = peakActive.get();
+			while (active > peak && !peakActive.compareAndSet(peak, active)) {
+				peak = peakActive.get();
+			}
+		}
+		return jedis;
+	}
+
+	@Override
+	public Jedis getCommandResource() {
+		return this.getResource();
 	}
 
 	@Override
@@ -38,6 +139,71 @@ public class JedisPoolApacheImpl implements IJedisPool {
 
 	@Override
 	public void destroy() {
+		if (resizeFuture != null) {
+			resizeFuture.cancel(false);
+		}
 		pool.destroy();
 	}
+
+	@Override
+	public int warmUp(int size) {
+		size = Math.min(size, pool.getMaxTotal());
+		if (size <= 0) {
+			return 0;
+		}
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(size);
+		for (int i = 0; i < size; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					try {
+						pool.addObject();
+						return true;
+					}
+					catch (Exception e) {
+						logger.error("预热redis连接出错:" + e.getMessage());
+						return false;
+					}
+				}
+			});
+		}
+		ExecutorService executor = RedisUtil.newExecutor("leopard-redis-warmup", Math.min(size, WARM_UP_THREADS));
+		try {
+			int count = 0;
+			for (Boolean success : RedisUtil.invokeAll(executor, tasks)) {
+				if (success) {
+					count++;
+				}
+			}
+			return count;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Override
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	@Override
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	@Override
+	public int getNumWaiters() {
+		return pool.getNumWaiters();
+	}
+
+	@Override
+	public long getMeanBorrowWaitTimeMillis() {
+		return pool.getMeanBorrowWaitTimeMillis();
+	}
+
+	@Override
+	public long getMaxBorrowWaitTimeMillis() {
+		return pool.getMaxBorrowWaitTimeMillis();
+	}
 }
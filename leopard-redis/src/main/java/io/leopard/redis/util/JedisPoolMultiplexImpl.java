@@ -0,0 +1,168 @@
+package io.leopard.redis.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * 多路复用连接池.
+ * 
+ * 单个指令通过少量共享的NIO连接执行(getCommandResource)，并发指令自动合并发送；事务、阻塞指令、订阅和管道等需要独占连接的操作使用普通连接池(getResource).
+ * 
+ * @author 阿海
+ * 
+ */
+public class JedisPoolMultiplexImpl implements IJedisPool {
+
+	protected Log logger = LogFactory.getLog(this.getClass());
+
+	private final String host;
+
+	private final int port;
+
+	private final int timeout;
+
+	private final String password;
+
+	private final MultiplexConnection[] connections;
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	/**
+	 * 独占连接池.
+	 */
+	private final IJedisPool pool;
+
+	/**
+	 * @param connections 多路复用连接数
+	 */
+	public JedisPoolMultiplexImpl(String host, int port, int timeout, int maxActive, String password, int connections) {
+		if (connections <= 0) {
+			throw new IllegalArgumentException("connections必须大于0.");
+		}
+		this.host = host;
+		this.port = port;
+		this.timeout = timeout;
+		this.password = password;
+		this.connections = new MultiplexConnection[connections];
+		this.pool = new JedisPoolApacheImpl(host, port, timeout, maxActive, password);
+	}
+
+	@Override
+	public Jedis getResource() {
+		return pool.getResource();
+	}
+
+	@Override
+	public Jedis getCommandResource() {
+		int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % connections.length;
+		return new MultiplexJedis(this.getConnection(index));
+	}
+
+	/**
+	 * 返回多路复用连接，连接已关闭时重新建立.
+	 */
+	protected MultiplexConnection getConnection(int index) {
+		MultiplexConnection connection = connections[index];
+		if (connection != null && !connection.isClosed()) {
+			return connection;
+		}
+		synchronized (this) {
+			connection = connections[index];
+			if (connection == null || connection.isClosed()) {
+				connection = new MultiplexConnection(host, port, timeout, password);
+				connections[index] = connection;
+			}
+			return connection;
+		}
+	}
+
+	@Override
+	public void returnBrokenResource(Jedis jedis) {
+		// 多路复用连接出错时自己关闭，下次使用时重新建立
+		if (!(jedis instanceof MultiplexJedis)) {
+			pool.returnBrokenResource(jedis);
+		}
+	}
+
+	@Override
+	public void returnResource(Jedis jedis) {
+		if (!(jedis instanceof MultiplexJedis)) {
+			pool.returnResource(jedis);
+		}
+	}
+
+	@Override
+	public synchronized void destroy() {
+		for (MultiplexConnection connection : connections) {
+			if (connection != null) {
+				connection.close();
+			}
+		}
+		pool.destroy();
+	}
+
+	/**
+	 * 建立多路复用连接，size超出多路复用连接数的部分预热独占连接池.
+	 */
+	@Override
+	public int warmUp(int size) {
+		int count = 0;
+		for (int i = 0; i < connections.length && i < size; i++) {
+			try {
+				this.getConnection(i);
+				count++;
+			}
+			catch (RuntimeException e) {
+				logger.error("预热redis连接出错:" + e.getMessage());
+			}
+		}
+		if (size > connections.length) {
+			count += pool.warmUp(size - connections.length);
+		}
+		return count;
+	}
+
+	/**
+	 * 等待应答的指令数.
+	 * 
+	 * @return
+	 */
+	public int getPendingCount() {
+		int count = 0;
+		for (MultiplexConnection connection : connections) {
+			if (connection != null && !connection.isClosed()) {
+				count += connection.getPendingCount();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int getNumActive() {
+		return pool.getNumActive();
+	}
+
+	@Override
+	public int getNumIdle() {
+		return pool.getNumIdle();
+	}
+
+	@Override
+	public int getNumWaiters() {
+		return pool.getNumWaiters();
+	}
+
+	@Override
+	public long getMeanBorrowWaitTimeMillis() {
+		return pool.getMeanBorrowWaitTimeMillis();
+	}
+
+	@Override
+	public long getMaxBorrowWaitTimeMillis() {
+		return pool.getMaxBorrowWaitTimeMillis();
+	}
+}
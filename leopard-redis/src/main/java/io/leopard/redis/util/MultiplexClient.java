@@ -0,0 +1,94 @@
+package io.leopard.redis.util;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * 通过多路复用连接收发指令的Jedis Client.
+ * 
+ * 不建立自己的socket，指令交给MultiplexConnection合并发送，读取应答时等待对应的Reply.
+ * 
+ * @author 阿海
+ * 
+ */
+public class MultiplexClient extends Client {
+
+	private final MultiplexConnection connection;
+
+	private final LinkedList<MultiplexConnection.Reply> replyList = new LinkedList<MultiplexConnection.Reply>();
+
+	public MultiplexClient(MultiplexConnection connection) {
+		this.connection = connection;
+	}
+
+	@Override
+	protected Connection sendCommand(Command cmd, byte[]... args) {
+		replyList.add(connection.send(cmd, args));
+		return this;
+	}
+
+	@Override
+	protected Object readProtocolWithCheckingBroken() {
+		MultiplexConnection.Reply reply = replyList.poll();
+		if (reply == null) {
+			throw new IllegalStateException("没有等待应答的指令.");
+		}
+		return connection.getReply(reply);
+	}
+
+	@Override
+	public List<Object> getAll(int except) {
+		List<Object> list = new ArrayList<Object>();
+		while (replyList.size() > except) {
+			try {
+				list.add(this.readProtocolWithCheckingBroken());
+			}
+			catch (JedisDataException e) {
+				list.add(e);
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public List<Object> getAll() {
+		return this.getAll(0);
+	}
+
+	@Override
+	protected void flush() {
+		// 由MultiplexConnection的发送线程写入
+	}
+
+	@Override
+	public void connect() {
+
+	}
+
+	@Override
+	public boolean isConnected() {
+		return !connection.isClosed();
+	}
+
+	@Override
+	public void disconnect() {
+
+	}
+
+	@Override
+	public void close() {
+
+	}
+
+	@Override
+	public boolean isBroken() {
+		return connection.isClosed();
+	}
+
+}
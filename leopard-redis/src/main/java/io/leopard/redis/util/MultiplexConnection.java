@@ -0,0 +1,347 @@
+package io.leopard.redis.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.util.RedisInputStream;
+import redis.clients.util.RedisOutputStream;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * 多路复用连接(一个NIO连接被多个线程共享).
+ * 
+ * 发送线程把等待发送的指令合并为一次写入(自动管道)，接收线程按发送顺序把应答分配给各指令.
+ * 
+ * 连接出错或应答超时后关闭连接，所有未完成的指令抛出JedisConnectionException.
+ * 
+ * @author 阿海
+ * 
+ */
+public class MultiplexConnection {
+
+	private static final Log logger = LogFactory.getLog(MultiplexConnection.class);
+
+	private static final int MAX_WRITE_SIZE = 64 * 1024;
+
+	private final String host;
+
+	private final int port;
+
+	private final int timeout;
+
+	private SocketChannel channel;
+
+	private final BlockingQueue<Request> writeQueue = new LinkedBlockingQueue<Request>();
+
+	private final Queue<Reply> replyQueue = new ConcurrentLinkedQueue<Reply>();
+
+	private final Object lock = new Object();
+
+	private volatile boolean closed = false;
+
+	/**
+	 * 指令的应答.
+	 */
+	public static class Reply {
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private Object data;
+		private RuntimeException exception;
+
+		private void set(Object data) {
+			this.data = data;
+			latch.countDown();
+		}
+
+		private void setException(RuntimeException exception) {
+			this.exception = exception;
+			latch.countDown();
+		}
+
+		public boolean isDone() {
+			return latch.getCount() == 0;
+		}
+	}
+
+	private static class Request {
+		private final byte[] data;
+		private final Reply reply;
+
+		public Request(byte[] data, Reply reply) {
+			this.data = data;
+			this.reply = reply;
+		}
+	}
+
+	/**
+	 * 建立连接.
+	 * 
+	 * @param timeout 连接和应答超时时间(毫秒)
+	 * @param password 密码，没有密码为null
+	 */
+	public MultiplexConnection(String host, int port, int timeout, String password) {
+		this.host = host;
+		this.port = port;
+		this.timeout = timeout;
+		try {
+			this.channel = SocketChannel.open();
+			channel.socket().setTcpNoDelay(true);
+			channel.socket().setKeepAlive(true);
+			channel.socket().connect(new InetSocketAddress(host, port), timeout);
+		}
+		catch (IOException e) {
+			this.closeChannel();
+			throw new JedisConnectionException("连接redis[" + host + ":" + port + "]出错:" + e.getMessage(), e);
+		}
+		final RedisInputStream input = new RedisInputStream(Channels.newInputStream(channel));
+		if (password != null && password.length() > 0) {
+			// 认证在启动收发线程之前同步完成
+			try {
+				this.write(ByteBuffer.wrap(encode(Command.AUTH, password.getBytes())));
+				Protocol.read(input);
+			}
+			catch (RuntimeException e) {
+				this.closeChannel();
+				throw e;
+			}
+		}
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeLoop();
+			}
+		}, "leopard-redis-multiplex-writer-" + host + ":" + port);
+		writer.setDaemon(true);
+		writer.start();
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readLoop(input);
+			}
+		}, "leopard-redis-multiplex-reader-" + host + ":" + port);
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * 把指令编码为redis协议格式.
+	 */
+	public static byte[] encode(Command command, byte[]... args) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+		RedisOutputStream os = new RedisOutputStream(out);
+		Protocol.sendCommand(os, command, args);
+		try {
+			os.flush();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * 发送指令(不等待应答).
+	 * 
+	 * @param command
+	 * @param args
+	 * @return
+	 */
+	public Reply send(Command command, byte[]... args) {
+		Reply reply = new Reply();
+		Request request = new Request(encode(command, args), reply);
+		synchronized (lock) {
+			if (closed) {
+				throw new JedisConnectionException("redis[" + host + ":" + port + "]连接已关闭.");
+			}
+			// 应答顺序和写入顺序一致
+			replyQueue.add(reply);
+			writeQueue.add(request);
+		}
+		return reply;
+	}
+
+	/**
+	 * 等待应答，redis返回错误时抛出JedisDataException，超时关闭连接并抛出JedisConnectionException.
+	 * 
+	 * @param reply
+	 * @return
+	 */
+	public Object getReply(Reply reply) {
+		boolean done;
+		try {
+			done = reply.latch.await(timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JedisConnectionException(e.getMessage(), e);
+		}
+		if (!done) {
+			JedisConnectionException exception = new JedisConnectionException("等待redis[" + host + ":" + port + "]应答超时.");
+			this.close(exception);
+			throw exception;
+		}
+		if (reply.exception != null) {
+			throw reply.exception;
+		}
+		return reply.data;
+	}
+
+	private void writeLoop() {
+		List<Request> batch = new ArrayList<Request>();
+		while (!closed) {
+			Request request;
+			try {
+				request = writeQueue.take();
+			}
+			catch (InterruptedException e) {
+				break;
+			}
+			if (closed) {
+				break;
+			}
+			batch.add(request);
+			int size = request.data.length;
+			// 合并等待发送的指令
+			while (size < MAX_WRITE_SIZE && (request = writeQueue.poll()) != null) {
+				batch.add(request);
+				size += request.data.length;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			for (Request item : batch) {
+				buffer.put(item.data);
+			}
+			batch.clear();
+			buffer.flip();
+			try {
+				this.write(buffer);
+			}
+			catch (JedisConnectionException e) {
+				this.close(e);
+			}
+		}
+	}
+
+	private void write(ByteBuffer buffer) {
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		catch (IOException e) {
+			throw new JedisConnectionException(e.getMessage(), e);
+		}
+	}
+
+	private void readLoop(RedisInputStream input) {
+		while (!closed) {
+			Object data;
+			RuntimeException exception = null;
+			try {
+				data = Protocol.read(input);
+			}
+			catch (JedisDataException e) {
+				data = null;
+				exception = e;
+			}
+			catch (RuntimeException e) {
+				this.close(new JedisConnectionException(e.getMessage(), e));
+				break;
+			}
+			Reply reply = replyQueue.poll();
+			if (reply == null) {
+				this.close(new JedisConnectionException("收到未知的redis应答."));
+				break;
+			}
+			if (exception == null) {
+				reply.set(data);
+			}
+			else {
+				reply.setException(exception);
+			}
+		}
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * 等待应答的指令数.
+	 * 
+	 * @return
+	 */
+	public int getPendingCount() {
+		return replyQueue.size();
+	}
+
+	/**
+	 * 关闭连接.
+	 */
+	public void close() {
+		if (this.shutdown(new JedisConnectionException("redis[" + host + ":" + port + "]连接已关闭."))) {
+			logger.info("关闭redis[" + host + ":" + port + "]多路复用连接.");
+		}
+	}
+
+	/**
+	 * 连接出错时关闭.
+	 */
+	private void close(JedisConnectionException exception) {
+		if (this.shutdown(exception)) {
+			logger.error("关闭redis[" + host + ":" + port + "]多路复用连接:" + exception.getMessage());
+		}
+	}
+
+	/**
+	 * 关闭连接，等待应答的指令抛出exception.
+	 * 
+	 * @param exception
+	 * @return 已经关闭过返回false
+	 */
+	private boolean shutdown(JedisConnectionException exception) {
+		synchronized (lock) {
+			if (closed) {
+				return false;
+			}
+			closed = true;
+		}
+		this.closeChannel();
+		writeQueue.clear();
+		// 唤醒发送线程
+		writeQueue.add(new Request(new byte[0], new Reply()));
+		Reply reply;
+		while ((reply = replyQueue.poll()) != null) {
+			reply.setException(exception);
+		}
+		return true;
+	}
+
+	private void closeChannel() {
+		try {
+			if (channel != null) {
+				channel.close();
+			}
+		}
+		catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+}
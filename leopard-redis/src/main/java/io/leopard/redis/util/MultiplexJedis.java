@@ -0,0 +1,22 @@
+package io.leopard.redis.util;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * 使用多路复用连接的Jedis(只用于执行单个指令，不能执行事务、阻塞指令和订阅).
+ * 
+ * @author 阿海
+ * 
+ */
+public class MultiplexJedis extends Jedis {
+
+	public MultiplexJedis(MultiplexConnection connection) {
+		this.client = new MultiplexClient(connection);
+	}
+
+	@Override
+	public void close() {
+
+	}
+
+}
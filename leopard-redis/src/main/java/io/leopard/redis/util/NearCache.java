@@ -0,0 +1,191 @@
+package io.leopard.redis.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 本地缓存(按key的LRU淘汰，元素总数不超过maxSize).
+ *
+ * 一个key下可以缓存多个字段(如GET的值、HGET的field、ZSCORE的member)，按key失效.
+ *
+ * 从服务器读取前先调用getVersion()，put时版本号已变化(期间key被失效过)则不缓存，避免缓存旧值.
+ *
+ * @author 阿海
+ *
+ */
+public class NearCache {
+
+	/**
+	 * 缓存的null值.
+	 */
+	public static final Object NULL = new Object();
+
+	private static final int STRIPES = 1024;
+
+	private final int maxSize;
+
+	private final long expireMillis;
+
+	private final LinkedHashMap<String, CacheEntry> data = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+
+	private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private int size = 0;
+
+	private static class CacheEntry {
+		private final long createTime;
+		private final Map<String, Object> fields = new HashMap<String, Object>(4);
+
+		public CacheEntry(long createTime) {
+			this.createTime = createTime;
+		}
+	}
+
+	/**
+	 * @param maxSize 最多缓存的元素个数
+	 * @param expireMillis 本地过期时间(毫秒)，小于等于0表示不过期
+	 */
+	public NearCache(int maxSize, long expireMillis) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize必须大于0.");
+		}
+		this.maxSize = maxSize;
+		this.expireMillis = expireMillis;
+	}
+
+	/**
+	 * 获取缓存，没有缓存返回null，缓存的是null值时返回NULL.
+	 *
+	 * @param key
+	 * @param field 字段，GET时为null
+	 * @return
+	 */
+	public synchronized Object get(String key, String field) {
+		CacheEntry entry = data.get(key);
+		Object value = null;
+		if (entry != null) {
+			if (expireMillis > 0 && System.currentTimeMillis() - entry.createTime > expireMillis) {
+				this.remove(key);
+			}
+			else {
+				value = entry.fields.get(field);
+			}
+		}
+		if (value == null) {
+			missCount.incrementAndGet();
+		}
+		else {
+			hitCount.incrementAndGet();
+		}
+		return value;
+	}
+
+	/**
+	 * 获取key当前的版本号.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public long getVersion(String key) {
+		return versions.get(stripe(key));
+	}
+
+	/**
+	 * 缓存服务器返回的值，key的版本号已变化时忽略.
+	 *
+	 * @param key
+	 * @param field 字段，GET时为null
+	 * @param value 值，可以为null
+	 * @param version 读取服务器前调用getVersion()返回的版本号
+	 */
+	public synchronized void put(String key, String field, Object value, long version) {
+		if (versions.get(stripe(key)) != version) {
+			return;
+		}
+		CacheEntry entry = data.get(key);
+		if (entry == null) {
+			entry = new CacheEntry(System.currentTimeMillis());
+			data.put(key, entry);
+		}
+		if (entry.fields.put(field, value == null ? NULL : value) == null) {
+			size++;
+		}
+		if (size > maxSize) {
+			this.evict(key);
+		}
+	}
+
+	/**
+	 * 失效key的所有缓存.
+	 *
+	 * @param key
+	 */
+	public void invalidate(String key) {
+		versions.incrementAndGet(stripe(key));
+		synchronized (this) {
+			this.remove(key);
+		}
+	}
+
+	/**
+	 * 清空缓存.
+	 */
+	public void clear() {
+		for (int i = 0; i < STRIPES; i++) {
+			versions.incrementAndGet(i);
+		}
+		synchronized (this) {
+			data.clear();
+			size = 0;
+		}
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	private void remove(String key) {
+		CacheEntry entry = data.remove(key);
+		if (entry != null) {
+			size -= entry.fields.size();
+		}
+	}
+
+	/**
+	 * 淘汰最久没有访问的key，直到元素个数不超过maxSize(当前key除外).
+	 */
+	private void evict(String current) {
+		Iterator<Map.Entry<String, CacheEntry>> iterator = data.entrySet().iterator();
+		while (size > maxSize && iterator.hasNext()) {
+			Map.Entry<String, CacheEntry> entry = iterator.next();
+			if (entry.getKey().equals(current)) {
+				continue;
+			}
+			size -= entry.getValue().fields.size();
+			iterator.remove();
+		}
+	}
+
+	private static int stripe(String key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return hash & (STRIPES - 1);
+	}
+
+}
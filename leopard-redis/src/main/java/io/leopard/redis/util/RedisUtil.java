@@ -1,5 +1,8 @@
 package io.leopard.redis.util;
 
+import io.leopard.redis.Redis;
+import io.leopard.redis.monitor.RedisMetrics;
+
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -8,6 +11,14 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -21,6 +32,25 @@ public class RedisUtil {
 
 	protected static Log logger = LogFactory.getLog(RedisUtil.class);
 
+	/**
+	 * 汇总多台服务器的统计数据.
+	 * 
+	 * @param redisList
+	 * @return
+	 */
+	public static RedisMetrics mergeMetrics(Redis[] redisList) {
+		RedisMetrics total = new RedisMetrics(null);
+		if (redisList != null) {
+			for (Redis redis : redisList) {
+				RedisMetrics metrics = redis.getMetrics();
+				if (metrics != null) {
+					total.add(metrics);
+				}
+			}
+		}
+		return total;
+	}
+
 	/**
 	 * 创建连接池.
 	 * 
@@ -42,6 +72,35 @@ public class RedisUtil {
 	 * @return
 	 */
 	public static IJedisPool createJedisPool(String server, int timeout, int maxActive, String password) {
+		return createJedisPool(server, timeout, maxActive, password, 0, 0);
+	}
+
+	/**
+	 * 创建连接池.
+	 * 
+	 * @param server 服务器
+	 * @param timeout 超时时间
+	 * @param maxActive 最大连接数
+	 * @param minIdle 最小空闲连接数
+	 * @param idleTimeout 空闲连接回收时间(秒)，0表示不回收
+	 * @return
+	 */
+	public static IJedisPool createJedisPool(String server, int timeout, int maxActive, String password, int minIdle, int idleTimeout) {
+		return createJedisPool(server, timeout, maxActive, password, minIdle, idleTimeout, 0);
+	}
+
+	/**
+	 * 创建连接池.
+	 * 
+	 * @param server 服务器
+	 * @param timeout 超时时间
+	 * @param maxActive 最大连接数
+	 * @param minIdle 最小空闲连接数
+	 * @param idleTimeout 空闲连接回收时间(秒)，0表示不回收
+	 * @param multiplexConnections 多路复用连接数，大于0时单个指令通过共享的NIO连接执行
+	 * @return
+	 */
+	public static IJedisPool createJedisPool(String server, int timeout, int maxActive, String password, int minIdle, int idleTimeout, int multiplexConnections) {
 		if (maxActive <= 0) {
 			maxActive = 128;
 		}
@@ -65,7 +124,10 @@ public class RedisUtil {
 			}
 		}
 		// return new JedisPoolStatImpl(host, port, timeout, maxActive);
-		return new JedisPoolApacheImpl(host, port, timeout, maxActive, password);
+		if (multiplexConnections > 0) {
+			return new JedisPoolMultiplexImpl(host, port, timeout, maxActive, password, multiplexConnections);
+		}
+		return new JedisPoolApacheImpl(host, port, timeout, maxActive, password, minIdle, idleTimeout);
 
 	}
 
@@ -91,6 +153,90 @@ public class RedisUtil {
 	//
 	// }
 
+	/**
+	 * 创建并发执行多个Redis服务器指令的线程池(守护线程).
+	 * 
+	 * @param name 线程名称前缀
+	 * @param size 线程数量
+	 * @return
+	 */
+	public static ExecutorService newExecutor(final String name, int size) {
+		final AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool(size, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * 并发执行任务，按任务顺序返回结果.
+	 * 
+	 * executor为null或只有一个任务时在当前线程执行；否则最后一个任务在当前线程执行，其他任务提交到线程池(调用者不会空等，少占用一个线程).
+	 * 
+	 * @param executor 线程池
+	 * @param tasks 任务列表
+	 * @return
+	 */
+	public static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) {
+		List<T> result = new ArrayList<T>(tasks.size());
+		if (executor == null || tasks.size() <= 1) {
+			for (Callable<T> task : tasks) {
+				result.add(call(task));
+			}
+			return result;
+		}
+		int last = tasks.size() - 1;
+		List<Future<T>> futureList = new ArrayList<Future<T>>(last);
+		for (int i = 0; i < last; i++) {
+			futureList.add(executor.submit(tasks.get(i)));
+		}
+		T lastResult = call(tasks.get(last));
+		for (Future<T> future : futureList) {
+			result.add(getFutureResult(future));
+		}
+		result.add(lastResult);
+		return result;
+	}
+
+	/**
+	 * 在当前线程执行任务，任务抛出的RuntimeException原样抛出.
+	 */
+	private static <T> T call(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<T>(task);
+		future.run();
+		return getFutureResult(future);
+	}
+
+	/**
+	 * 获取Future的执行结果，任务抛出的RuntimeException原样抛出.
+	 * 
+	 * @param future
+	 * @return
+	 */
+	public static <T> T getFutureResult(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause.getMessage(), cause);
+		}
+	}
+
 	/**
 	 * 判断key-value对List是否为空.
 	 * 
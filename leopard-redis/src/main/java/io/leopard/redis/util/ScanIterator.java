@@ -0,0 +1,140 @@
+package io.leopard.redis.util;
+
+import io.leopard.redis.Redis;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Tuple;
+
+/**
+ * 基于SCAN/HSCAN/SSCAN/ZSCAN游标的迭代器.
+ *
+ * 按需向服务器获取下一批数据(每批约count个)，不会一次性加载所有数据，也不会像keys那样阻塞服务器.
+ *
+ * 与Redis的SCAN语义一致：迭代期间一直存在的元素至少返回一次，可能重复返回.
+ *
+ * @author 阿海
+ *
+ */
+public abstract class ScanIterator<T> implements Iterator<T> {
+
+	public static final int DEFAULT_COUNT = 100;
+
+	private final ScanParams params;
+
+	private String cursor = ScanParams.SCAN_POINTER_START;
+
+	private boolean finished = false;
+
+	private Iterator<T> batch;
+
+	/**
+	 * @param pattern 模式，为null时返回全部
+	 * @param count 每批获取的数量(COUNT)
+	 */
+	public ScanIterator(String pattern, int count) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("count必须大于0.");
+		}
+		this.params = new ScanParams().count(count);
+		if (pattern != null) {
+			this.params.match(pattern);
+		}
+	}
+
+	/**
+	 * 获取下一批数据.
+	 *
+	 * @param cursor 游标
+	 * @param params
+	 * @return
+	 */
+	protected abstract ScanResult<T> scan(String cursor, ScanParams params);
+
+	@Override
+	public boolean hasNext() {
+		// 服务器可能返回空的批次，需要继续迭代直到游标为0
+		while (batch == null || !batch.hasNext()) {
+			if (finished) {
+				return false;
+			}
+			ScanResult<T> result = this.scan(cursor, params);
+			cursor = result.getStringCursor();
+			finished = ScanParams.SCAN_POINTER_START.equals(cursor);
+			List<T> list = result.getResult();
+			batch = list == null ? null : list.iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return batch.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Not Implemented");
+	}
+
+	/**
+	 * 迭代所有符合pattern的key.
+	 *
+	 * @param redis
+	 * @param pattern 模式，为null时返回全部
+	 * @param count 每批获取的数量
+	 * @return
+	 */
+	public static Iterator<String> scan(final Redis redis, String pattern, int count) {
+		return new ScanIterator<String>(pattern, count) {
+			@Override
+			protected ScanResult<String> scan(String cursor, ScanParams params) {
+				return redis.scan(cursor, params);
+			}
+		};
+	}
+
+	/**
+	 * 迭代哈希表key中符合pattern的field.
+	 */
+	public static Iterator<Entry<String, String>> hscan(final Redis redis, final String key, String pattern, int count) {
+		return new ScanIterator<Entry<String, String>>(pattern, count) {
+			@Override
+			protected ScanResult<Entry<String, String>> scan(String cursor, ScanParams params) {
+				return redis.hscan(key, cursor, params);
+			}
+		};
+	}
+
+	/**
+	 * 迭代集合key中符合pattern的元素.
+	 */
+	public static Iterator<String> sscan(final Redis redis, final String key, String pattern, int count) {
+		return new ScanIterator<String>(pattern, count) {
+			@Override
+			protected ScanResult<String> scan(String cursor, ScanParams params) {
+				return redis.sscan(key, cursor, params);
+			}
+		};
+	}
+
+	/**
+	 * 迭代有序集key中符合pattern的成员.
+	 */
+	public static Iterator<Tuple> zscan(final Redis redis, final String key, String pattern, int count) {
+		return new ScanIterator<Tuple>(pattern, count) {
+			@Override
+			protected ScanResult<Tuple> scan(String cursor, ScanParams params) {
+				return redis.zscan(key, cursor, params);
+			}
+		};
+	}
+}
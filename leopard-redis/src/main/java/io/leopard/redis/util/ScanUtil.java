@@ -0,0 +1,200 @@
+package io.leopard.redis.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * SCAN相关工具(内存实现使用).
+ *
+ * @author 阿海
+ *
+ */
+public class ScanUtil {
+
+	/**
+	 * 内存实现的游标前缀，游标为上一批最后检查的元素.
+	 */
+	private static final String CURSOR_PREFIX = "#";
+
+	/**
+	 * 返回ScanParams的MATCH参数，没有设置返回null.
+	 *
+	 * @param params
+	 * @return
+	 */
+	public static String getMatch(ScanParams params) {
+		return getParam(params, "match");
+	}
+
+	/**
+	 * 返回ScanParams的COUNT参数，没有设置返回默认值10(与Redis一致).
+	 *
+	 * @param params
+	 * @return
+	 */
+	public static int getCount(ScanParams params) {
+		String count = getParam(params, "count");
+		if (count == null) {
+			return 10;
+		}
+		return Integer.parseInt(count);
+	}
+
+	private static String getParam(ScanParams params, String name) {
+		if (params == null) {
+			return null;
+		}
+		Iterator<byte[]> iterator = params.getParams().iterator();
+		while (iterator.hasNext()) {
+			String keyword = SafeEncoder.encode(iterator.next());
+			if (!iterator.hasNext()) {
+				break;
+			}
+			byte[] value = iterator.next();
+			if (keyword.equalsIgnoreCase(name)) {
+				return SafeEncoder.encode(value);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 按游标迭代有序的数据，游标为上一批最后检查的元素，新增、删除元素不会导致遗漏.
+	 *
+	 * @param data 按名称(key、field、member)排序的数据
+	 * @param cursor 游标
+	 * @param params MATCH、COUNT参数
+	 * @return
+	 */
+	public static <T> ScanResult<T> scan(NavigableMap<String, T> data, String cursor, ScanParams params) {
+		String pattern = getMatch(params);
+		int count = getCount(params);
+		NavigableMap<String, T> tail;
+		if (ScanParams.SCAN_POINTER_START.equals(cursor)) {
+			tail = data;
+		}
+		else if (cursor != null && cursor.startsWith(CURSOR_PREFIX)) {
+			tail = data.tailMap(cursor.substring(CURSOR_PREFIX.length()), false);
+		}
+		else {
+			throw new IllegalArgumentException("非法游标[" + cursor + "].");
+		}
+		List<T> result = new ArrayList<T>();
+		String last = null;
+		int checked = 0;
+		for (Entry<String, T> entry : tail.entrySet()) {
+			if (checked >= count) {
+				return new ScanResult<T>(CURSOR_PREFIX + last, result);
+			}
+			checked++;
+			last = entry.getKey();
+			if (pattern == null || match(pattern, last)) {
+				result.add(entry.getValue());
+			}
+		}
+		return new ScanResult<T>(ScanParams.SCAN_POINTER_START, result);
+	}
+
+	/**
+	 * 判断str是否符合glob风格的模式(与Redis的KEYS、SCAN一致，支持*、?、[...]、[^...]和\转义).
+	 *
+	 * @param pattern
+	 * @param str
+	 * @return
+	 */
+	public static boolean match(String pattern, String str) {
+		return match(pattern, 0, str, 0);
+	}
+
+	private static boolean match(String pattern, int p, String str, int s) {
+		while (p < pattern.length()) {
+			char c = pattern.charAt(p);
+			if (c == '*') {
+				while (p + 1 < pattern.length() && pattern.charAt(p + 1) == '*') {
+					p++;
+				}
+				if (p + 1 == pattern.length()) {
+					return true;
+				}
+				for (int i = s; i <= str.length(); i++) {
+					if (match(pattern, p + 1, str, i)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			if (s >= str.length()) {
+				return false;
+			}
+			char ch = str.charAt(s);
+			if (c == '?') {
+				p++;
+			}
+			else if (c == '[') {
+				int end = pattern.indexOf(']', p + 1);
+				if (end == -1) {
+					// 没有结束的]按普通字符处理
+					if (ch != c) {
+						return false;
+					}
+					p++;
+				}
+				else {
+					if (!matchClass(pattern.substring(p + 1, end), ch)) {
+						return false;
+					}
+					p = end + 1;
+				}
+			}
+			else {
+				if (c == '\\' && p + 1 < pattern.length()) {
+					p++;
+					c = pattern.charAt(p);
+				}
+				if (ch != c) {
+					return false;
+				}
+				p++;
+			}
+			s++;
+		}
+		return s == str.length();
+	}
+
+	private static boolean matchClass(String chars, char ch) {
+		boolean not = chars.startsWith("^");
+		int i = not ? 1 : 0;
+		boolean matched = false;
+		while (i < chars.length()) {
+			char c = chars.charAt(i);
+			if (c == '\\' && i + 1 < chars.length()) {
+				i++;
+				c = chars.charAt(i);
+				matched |= (c == ch);
+			}
+			else if (i + 2 < chars.length() && chars.charAt(i + 1) == '-') {
+				char start = c;
+				char end = chars.charAt(i + 2);
+				if (start > end) {
+					char tmp = start;
+					start = end;
+					end = tmp;
+				}
+				matched |= (ch >= start && ch <= end);
+				i += 2;
+			}
+			else {
+				matched |= (c == ch);
+			}
+			i++;
+		}
+		return not ? !matched : matched;
+	}
+}
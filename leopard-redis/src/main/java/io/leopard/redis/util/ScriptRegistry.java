@@ -0,0 +1,92 @@
+package io.leopard.redis.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Lua脚本注册表(sha1 -> 脚本).
+ *
+ * 用于EVALSHA返回NOSCRIPT时重新加载脚本.
+ *
+ * @author 阿海
+ *
+ */
+public class ScriptRegistry {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final ConcurrentMap<String, String> shaMap = new ConcurrentHashMap<String, String>();
+
+	private final ConcurrentMap<String, String> scriptMap = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * 注册脚本，返回脚本的sha1值.
+	 *
+	 * @param script 脚本
+	 * @return
+	 */
+	public String register(String script) {
+		String sha = shaMap.get(script);
+		if (sha == null) {
+			sha = sha1(script);
+			shaMap.put(script, sha);
+			scriptMap.put(sha, script);
+		}
+		return sha;
+	}
+
+	/**
+	 * 根据sha1值获取已注册的脚本，不存在返回null.
+	 *
+	 * @param sha sha1值
+	 * @return
+	 */
+	public String getScript(String sha) {
+		return scriptMap.get(sha);
+	}
+
+	/**
+	 * 计算脚本的sha1值(与SCRIPT LOAD返回值相同).
+	 *
+	 * @param script 脚本
+	 * @return
+	 */
+	public static String sha1(String script) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		byte[] bytes;
+		try {
+			bytes = digest.digest(script.getBytes("UTF-8"));
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 判断是否服务器上不存在脚本的异常.
+	 *
+	 * @param e
+	 * @return
+	 */
+	public static boolean isNoScript(JedisDataException e) {
+		String message = e.getMessage();
+		return message != null && message.startsWith("NOSCRIPT");
+	}
+}
@@ -0,0 +1,84 @@
+package io.leopard.jedis;
+
+import java.util.Arrays;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import redis.clients.jedis.Client;
+
+public class DriverPooledObjectFactoryTest {
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void makeObject() throws Exception {
+		PooledObjectFactory<redis.clients.jedis.Jedis> factory = Mockito.mock(PooledObjectFactory.class);
+		redis.clients.jedis.Jedis jedis = Mockito.mock(redis.clients.jedis.Jedis.class);
+		PooledObject<redis.clients.jedis.Jedis> raw = new DefaultPooledObject<redis.clients.jedis.Jedis>(jedis);
+		Mockito.doReturn(raw).when(factory).makeObject();
+		Mockito.doReturn(true).when(factory).validateObject(raw);
+
+		DriverPooledObjectFactory driverFactory = new DriverPooledObjectFactory(factory);
+		// 没有驱动时不包装
+		Assert.assertFalse(DriverManager.hasDriver());
+		PooledObject<redis.clients.jedis.Jedis> pooledObject = driverFactory.makeObject();
+		Assert.assertSame(raw, pooledObject);
+		Assert.assertSame(jedis, DriverManager.wrapper(jedis));
+
+		Assert.assertTrue(driverFactory.validateObject(pooledObject));
+		driverFactory.activateObject(pooledObject);
+		driverFactory.passivateObject(pooledObject);
+		driverFactory.destroyObject(pooledObject);
+		Mockito.verify(factory).activateObject(raw);
+		Mockito.verify(factory).passivateObject(raw);
+		Mockito.verify(factory).destroyObject(raw);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void driver() throws Exception {
+		PooledObjectFactory<redis.clients.jedis.Jedis> factory = Mockito.mock(PooledObjectFactory.class);
+		redis.clients.jedis.Jedis jedis = Mockito.mock(redis.clients.jedis.Jedis.class);
+		Client client = Mockito.mock(Client.class);
+		Mockito.doReturn(client).when(jedis).getClient();
+		final PooledObject<redis.clients.jedis.Jedis> raw = new DefaultPooledObject<redis.clients.jedis.Jedis>(jedis);
+		Mockito.doReturn(raw).when(factory).makeObject();
+		Mockito.doReturn(true).when(factory).validateObject(raw);
+		Driver driver = new Driver() {
+			@Override
+			public JedisWrapper connect(redis.clients.jedis.Jedis jedis) {
+				return new JedisWrapper(jedis);
+			}
+		};
+		final DriverPooledObjectFactory driverFactory = new DriverPooledObjectFactory(factory, Arrays.asList(driver));
+
+		redis.clients.jedis.JedisPool pool = new redis.clients.jedis.JedisPool() {
+			{
+				this.initPool(new GenericObjectPoolConfig(), driverFactory);
+			}
+		};
+		redis.clients.jedis.Jedis resource = pool.getResource();
+		Assert.assertTrue(resource instanceof JedisWrapper);
+		Assert.assertSame(jedis, ((JedisWrapper) resource).getJedis());
+		Mockito.verify(factory).activateObject(raw);
+
+		// 归还时重置原始连接的状态(事务、pipeline、watch)
+		resource.close();
+		Mockito.verify(jedis).resetState();
+		Mockito.verify(factory).passivateObject(raw);
+		Assert.assertEquals(1, pool.getNumIdle());
+
+		// 原始连接已损坏时销毁
+		Assert.assertSame(resource, pool.getResource());
+		Mockito.doReturn(true).when(client).isBroken();
+		resource.close();
+		Mockito.verify(factory).destroyObject(raw);
+		Assert.assertEquals(0, pool.getNumIdle());
+		Assert.assertEquals(0, pool.getNumActive());
+	}
+}
@@ -0,0 +1,97 @@
+package io.leopard.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+public class AsyncRedisImplTest {
+
+	private RedisMemoryImpl redis = Mockito.spy(new RedisMemoryImpl());
+
+	private AsyncRedisImpl asyncRedis = new AsyncRedisImpl(redis, 2, 16);
+
+	@After
+	public void after() {
+		asyncRedis.destroy();
+	}
+
+	@Test
+	public void get() {
+		asyncRedis.set("key", "value").join();
+		Assert.assertEquals("value", asyncRedis.get("key").join());
+		Assert.assertEquals("value", redis.get("key"));
+	}
+
+	@Test
+	public void batch() {
+		List<RedisFuture<Long>> list = new ArrayList<RedisFuture<Long>>();
+		for (int i = 0; i < 100; i++) {
+			list.add(asyncRedis.incr("key"));
+		}
+		long sum = 0;
+		for (RedisFuture<Long> future : list) {
+			sum += future.join();
+		}
+		Assert.assertEquals(5050, sum);
+		Assert.assertEquals(100L, (long) asyncRedis.incrBy("key", 0).join());
+		// 合并发送，管道数少于指令数
+		Mockito.verify(redis, Mockito.atMost(100)).pipelined();
+	}
+
+	@Test
+	public void exception() {
+		asyncRedis.set("key", "value").join();
+		RedisFuture<Long> incr = asyncRedis.incr("key");
+		RedisFuture<String> get = asyncRedis.get("key");
+		try {
+			incr.join();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (NumberFormatException e) {
+
+		}
+		// 同一批的其他指令不受影响
+		Assert.assertEquals("value", get.join());
+	}
+
+	@Test
+	public void syncException() {
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(redis).pipelined();
+		try {
+			asyncRedis.get("key").join();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (JedisConnectionException e) {
+
+		}
+	}
+
+	@Test
+	public void destroy() {
+		asyncRedis.destroy();
+		try {
+			asyncRedis.get("key").join();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalStateException e) {
+
+		}
+	}
+
+	@Test
+	public void async() {
+		RedisImpl redisImpl = new RedisImpl();
+		Assert.assertSame(redisImpl.async(), redisImpl.async());
+		redisImpl.destroy();
+
+		RedisHashImpl redisHashImpl = new RedisHashImpl();
+		Assert.assertSame(redisHashImpl.async(), redisHashImpl.async());
+		redisHashImpl.destroy();
+	}
+}
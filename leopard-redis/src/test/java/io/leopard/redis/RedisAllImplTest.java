@@ -3,13 +3,17 @@ package io.leopard.redis;
 import io.leopard.redis.Redis;
 import io.leopard.redis.RedisAllImpl;
 import io.leopard.redis.RedisMemoryImpl;
+import io.leopard.redis.util.RedisUtil;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ZParams;
 
 public class RedisAllImplTest {
@@ -54,13 +58,7 @@ public class RedisAllImplTest {
 
 	@Test
 	public void sdiff() {
-		try {
-			redis.sdiff("set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.sdiff("set1", "set2");
 	}
 
 	@Test
@@ -87,13 +85,7 @@ public class RedisAllImplTest {
 
 	@Test
 	public void publish() {
-		try {
-			redis.publish("channel", "message");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.publish("channel", "message");
 	}
 
 	@Test
@@ -109,22 +101,24 @@ public class RedisAllImplTest {
 
 	@Test
 	public void save() {
+		// 没有设置快照文件
 		try {
 			redis.save();
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalStateException e) {
 
 		}
 	}
 
 	@Test
 	public void bgsave() {
+		// 没有设置快照文件
 		try {
 			redis.bgsave();
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalStateException e) {
 
 		}
 	}
@@ -207,24 +201,12 @@ public class RedisAllImplTest {
 
 	@Test
 	public void zunionStoreInJava() {
-		try {
-			redis.zunionStoreInJava("set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zunionStoreInJava("set1", "set2");
 	}
 
 	@Test
 	public void zunionStoreByScoreInJava() {
-		try {
-			redis.zunionStoreByScoreInJava(1, 2, "set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zunionStoreByScoreInJava(1, 2, "set1", "set2");
 	}
 
 	@Test
@@ -251,13 +233,7 @@ public class RedisAllImplTest {
 
 	@Test
 	public void flushDB() {
-		try {
-			redis.flushDB();
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.flushDB();
 	}
 
 	@Test
@@ -273,13 +249,8 @@ public class RedisAllImplTest {
 
 	@Test
 	public void getUsedMemory() {
-		try {
-			redis.getUsedMemory();
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.set(key, "value");
+		Assert.assertTrue(redis.getUsedMemory() > 0);
 	}
 
 	@Test
@@ -295,37 +266,21 @@ public class RedisAllImplTest {
 
 	@Test
 	public void flushAll() {
-		try {
-			redis.flushAll();
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.flushAll();
 	}
 
 	@Test
 	public void append() {
+		redis.append(key, "value");
+		Assert.assertEquals("value", redis.get(key));
+		redis.append(key, "value", 1);
+		Assert.assertEquals("valuevalue", redis.get(key));
 		try {
 			redis.append((List<String>) null, (List<String>) null, 1);
 			Assert.fail("怎么没有抛异常?");
 		}
 		catch (UnsupportedOperationException e) {
 
-		}
-		try {
-			redis.append(key, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.append(key, "value", 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
 		}
 	}
 
@@ -342,42 +297,24 @@ public class RedisAllImplTest {
 
 	@Test
 	public void zinterstore() {
-		try {
-			redis.zinterstore("dstkey", "set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zinterstore("dstkey", (ZParams) null, "set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zinterstore("dstkey", "set1", "set2");
+		redis.zinterstore("dstkey", (ZParams) null, "set1", "set2");
 	}
 
 	@Test
 	public void keys() {
-		try {
-			redis.keys("pattern");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
+		redis.keys("pattern");
+	}
 
-		}
+	@Test
+	public void scan() {
+		redis.set("key", "value");
+		Assert.assertEquals("[key]", redis.scan("0", new ScanParams().match("k*")).getResult().toString());
 	}
 
 	@Test
 	public void zunionstore() {
-		try {
-			redis.zunionstore("dstkey", "set1", "set2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zunionstore("dstkey", "set1", "set2");
 	}
 
 	@Test
@@ -393,27 +330,10 @@ public class RedisAllImplTest {
 
 	@Test
 	public void set() {
-		try {
-			redis.set(key, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.set(key, "value", 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.set((List<String>) null, (List<String>) null);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.set(key, "value");
+		Assert.assertEquals("value", redis.get(key));
+		redis.set(key, "value", 1);
+		Assert.assertEquals("value", redisMemoryImpl.get(key));
 	}
 
 	@Test
@@ -434,144 +354,67 @@ public class RedisAllImplTest {
 
 	@Test
 	public void expire() {
-		try {
-			redis.expire(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.expire(key, 1);
 	}
 
 	@Test
 	public void ttl() {
-		try {
-			redis.ttl(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		Assert.assertEquals(-2L, (long) redis.ttl(key));
+		redis.set(key, "value", 100);
+		Assert.assertEquals(100L, (long) redis.ttl(key));
 	}
 
 	@Test
 	public void incr() {
-		try {
-			redis.incr(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.incr(key);
 	}
 
 	@Test
 	public void get() {
-		try {
-			redis.get(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.get(key);
 	}
 
 	@Test
 	public void getSet() {
-		try {
-			redis.getSet(key, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.getSet(key, "value");
 	}
 
 	@Test
 	public void zcard() {
-		try {
-			redis.zcard(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zcard(key);
 	}
 
 	@Test
 	public void zrevrangeWithScores() {
-		try {
-			redis.zrevrangeWithScores(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrevrangeWithScores(key, 0, 1);
 	}
 
 	@Test
 	public void zrevrange() {
-		try {
-			redis.zrevrange(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrevrange(key, 0, 1);
 	}
 
 	@Test
 	public void zrange() {
-		try {
-			redis.zrange(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrange(key, 0, 1);
 	}
 
 	@Test
 	public void zadd() {
-		try {
-			redis.zadd(key, null);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zadd(key, 1, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-
-		redis.zadd(key, 1, 1);
-
+		redis.zadd(key, 1, "member");
+		Assert.assertEquals(1D, redis.zscore(key, "member"), 0);
+		redis.zadd(key, 2, 1);
+		Assert.assertEquals(2D, redis.zscore(key, 1), 0);
 	}
 
 	@Test
 	public void srem() {
-		try {
-			redis.srem(key, "member1", "member2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.srem(key, "member1", "member2");
 	}
 
 	@Test
 	public void exists() {
-		try {
-			redis.exists(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.exists(key);
 	}
 
 	@Test
@@ -620,68 +463,32 @@ public class RedisAllImplTest {
 
 	@Test
 	public void getrange() {
-		try {
-			redis.getrange(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.getrange(key, 0, 1);
 	}
 
 	@Test
 	public void setnx() {
-		try {
-			redis.setnx(key, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.setnx(key, "value");
 	}
 
 	@Test
 	public void setex() {
-		try {
-			redis.setex(key, 1, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.setex(key, 1, "value");
 	}
 
 	@Test
 	public void decrBy() {
-		try {
-			redis.decrBy(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.decrBy(key, 1);
 	}
 
 	@Test
 	public void decr() {
-		try {
-			redis.decr(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.decr(key);
 	}
 
 	@Test
 	public void incrBy() {
-		try {
-			redis.incrBy(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.incrBy(key, 1);
 	}
 
 	@Test
@@ -697,393 +504,176 @@ public class RedisAllImplTest {
 
 	@Test
 	public void hset() {
-		try {
-			redis.hset(key, 1, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.hset(key, "field", "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hset(key, 1, "value");
+		redis.hset(key, "field", "value");
 	}
 
 	@Test
 	public void hget() {
-		try {
-			redis.hget(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.hget(key, "field");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hget(key, 1);
+		redis.hget(key, "field");
 	}
 
 	@Test
 	public void hsetnx() {
-		try {
-			redis.hsetnx(key, "field", "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hsetnx(key, "field", "value");
 	}
 
 	@Test
 	public void hmset() {
-		try {
-			redis.hmset(key, null);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		Map<String, String> hash = new HashMap<String, String>();
+		hash.put("field", "value");
+		redis.hmset(key, hash);
+		Assert.assertEquals("value", redis.hget(key, "field"));
 	}
 
 	@Test
 	public void hmget() {
-		try {
-			redis.hmget(key, "field1", "field2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hmget(key, "field1", "field2");
 	}
 
 	@Test
 	public void hincrBy() {
-		try {
-			redis.hincrBy(key, "field", 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hincrBy(key, "field", 1);
 	}
 
 	@Test
 	public void hexists() {
-		try {
-			redis.hexists(key, "field");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hexists(key, "field");
 	}
 
 	@Test
 	public void hdel() {
-		try {
-			redis.hdel(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.hdel(key, "field1", "field2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hdel(key, 1);
+		redis.hdel(key, "field1", "field2");
 	}
 
 	@Test
 	public void hlen() {
-		try {
-			redis.hlen(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hlen(key);
 	}
 
 	@Test
 	public void hkeys() {
-		try {
-			redis.hkeys(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hkeys(key);
 	}
 
 	@Test
 	public void hvals() {
-		try {
-			redis.hvals(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hvals(key);
 	}
 
 	@Test
 	public void hgetAll() {
-		try {
-			redis.hgetAll(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.hgetAll(key);
 	}
 
 	@Test
 	public void rpush() {
-		try {
-			redis.rpush(key, "str1", "str2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.rpush(key, "str1", "str2");
 	}
 
 	@Test
 	public void lpush() {
-		try {
-			redis.lpush(key, "str1", "str2");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lpush(key, "str1", "str2");
 	}
 
 	@Test
 	public void llen() {
-		try {
-			redis.llen(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.llen(key);
 	}
 
 	@Test
 	public void lrange() {
-		try {
-			redis.lrange(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lrange(key, 0, 1);
 	}
 
 	@Test
 	public void ltrim() {
-		try {
-			redis.ltrim(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.ltrim(key, 0, 1);
 	}
 
 	@Test
 	public void lindex() {
-		try {
-			redis.lindex(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lindex(key, 1);
 	}
 
 	@Test
 	public void lset() {
-		try {
-			redis.lset(key, 1, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.rpush(key, "value1");
+		redis.lset(key, 0, "value2");
+		Assert.assertEquals("value2", redis.lindex(key, 0));
 	}
 
 	@Test
 	public void lrem() {
-		try {
-			redis.lrem(key, 0, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lrem(key, 0, "value");
 	}
 
 	@Test
 	public void lpop() {
-		try {
-			redis.lpop(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lpop(key);
 	}
 
 	@Test
 	public void rpop() {
-		try {
-			redis.rpop(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.rpop(key);
 	}
 
 	@Test
 	public void smembers() {
-		try {
-			redis.smembers(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.smembers(key);
 	}
 
 	@Test
 	public void spop() {
-		try {
-			redis.spop(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.spop(key);
 	}
 
 	@Test
 	public void scard() {
-		try {
-			redis.scard(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.scard(key);
 	}
 
 	@Test
 	public void sismember() {
-		try {
-			redis.sismember(key, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.sismember(key, "member");
 	}
 
 	@Test
 	public void srandmember() {
-		try {
-			redis.srandmember(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.srandmember(key);
 	}
 
 	@Test
 	public void zrem() {
-		try {
-			redis.zrem(key, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrem(key, "member1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrem(key, 1);
+		redis.zrem(key, "member1");
 	}
 
 	@Test
 	public void zincrby() {
-		try {
-			redis.zincrby(key, 1, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zincrby(key, 1, "member");
 	}
 
 	@Test
 	public void zrank() {
-		try {
-			redis.zrank(key, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrank(key, "member");
 	}
 
 	@Test
 	public void zrevrank() {
-		try {
-			redis.zrevrank(key, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrevrank(key, "member");
 	}
 
 	@Test
 	public void zrangeWithScores() {
-		try {
-			redis.zrangeWithScores(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrangeWithScores(key, 0, 1);
 	}
 
 	@Test
 	public void zscore() {
-		try {
-			redis.zscore(key, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zscore(key, "member");
 	}
 
 	@Test
@@ -1106,160 +696,46 @@ public class RedisAllImplTest {
 
 	@Test
 	public void zcount() {
-		try {
-			redis.zcount(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zcount(key, "0", "1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zcount(key, 0, 1);
+		redis.zcount(key, "0", "1");
 	}
 
 	@Test
 	public void zrangeByScore() {
-		try {
-			redis.zrangeByScore(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScore(key, "0", "1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScore(key, 0, 1, 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScore(key, "0", "1", 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrangeByScore(key, 0, 1);
+		redis.zrangeByScore(key, "0", "1");
+		redis.zrangeByScore(key, 0, 1, 0, 10);
+		redis.zrangeByScore(key, "0", "1", 0, 10);
 	}
 
 	@Test
 	public void zrevrangeByScore() {
-		try {
-			redis.zrevrangeByScore(key, 1, 0);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScore(key, "1", "0");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScore(key, 1, 0, 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScore(key, "1", "0", 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrevrangeByScore(key, 1, 0);
+		redis.zrevrangeByScore(key, "1", "0");
+		redis.zrevrangeByScore(key, 1, 0, 0, 10);
+		redis.zrevrangeByScore(key, "1", "0", 0, 10);
 	}
 
 	@Test
 	public void zrangeByScoreWithScores() {
 
-		try {
-			redis.zrangeByScoreWithScores(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScoreWithScores(key, "0", "1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScoreWithScores(key, 0, 1, 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrangeByScoreWithScores(key, "0", "1", 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrangeByScoreWithScores(key, 0, 1);
+		redis.zrangeByScoreWithScores(key, "0", "1");
+		redis.zrangeByScoreWithScores(key, 0, 1, 0, 10);
+		redis.zrangeByScoreWithScores(key, "0", "1", 0, 10);
 	}
 
 	@Test
 	public void zrevrangeByScoreWithScores() {
-		try {
-			redis.zrevrangeByScoreWithScores(key, 1, 0);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScoreWithScores(key, "1", "0");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zrevrangeByScoreWithScores(key, 1, 0);
+		redis.zrevrangeByScoreWithScores(key, "1", "0");
+		redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10);
+		redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10);
 	}
 
 	@Test
 	public void zremrangeByRank() {
-		try {
-			redis.zremrangeByRank(key, 0, 1);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zremrangeByRank(key, 0, 1);
 	}
 
 	@Test
@@ -1267,13 +743,7 @@ public class RedisAllImplTest {
 
 		redis.zremrangeByScore(key, 0, 1);
 
-		try {
-			redis.zremrangeByScore(key, "0", "1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.zremrangeByScore(key, "0", "1");
 	}
 
 	@Test
@@ -1289,53 +759,23 @@ public class RedisAllImplTest {
 
 	@Test
 	public void lpushx() {
-		try {
-			redis.lpushx(key, "string");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.lpushx(key, "string");
 	}
 
 	@Test
 	public void rpushx() {
-		try {
-			redis.rpushx(key, "string");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.rpushx(key, "string");
 	}
 
 	@Test
 	public void setrange() {
-		try {
-			redis.setrange(key, 1, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
-		try {
-			redis.setrange(key, 1L, "value");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.setrange(key, 1, "value");
+		redis.setrange(key, 1L, "value");
 	}
 
 	@Test
 	public void sadd() {
-		try {
-			redis.sadd(key, "member");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.sadd(key, "member");
 	}
 
 	@Test
@@ -1343,26 +783,140 @@ public class RedisAllImplTest {
 
 		redis.del("key");
 
+		redis.del("key1", "key2");
+	}
+
+	@Test
+	public void mget() {
+		redis.mget("key1", "key2");
+	}
+
+	@Test
+	public void writeAll() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl();
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.executor = RedisUtil.newExecutor("test", 4);
+		redis.set(key, "value");
+		Assert.assertEquals("value", redis1.get(key));
+		Assert.assertEquals("value", redis2.get(key));
+		Assert.assertEquals("value", redis.get(key));
+		redis.executor.shutdown();
+	}
+
+	@Test
+	public void writeQuorum() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl();
+		RedisMemoryImpl redis2 = new RedisMemoryImpl() {
+			@Override
+			public String set(String key, String value) {
+				throw new RuntimeException("down");
+			}
+		};
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.executor = RedisUtil.newExecutor("test", 4);
 		try {
-			redis.del("key1", "key2");
+			redis.set(key, "value");
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
-
+		catch (RuntimeException e) {
+			Assert.assertEquals("down", e.getMessage());
 		}
+		redis.setWriteQuorum(1);
+		redis.set(key, "value");
+		Assert.assertEquals("value", redis1.get(key));
+		redis.executor.shutdown();
 	}
 
 	@Test
-	public void mget() {
+	public void writeNonIdempotent() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl();
+		RedisMemoryImpl redis2 = new RedisMemoryImpl() {
+			@Override
+			public Long incr(String key) {
+				throw new RuntimeException("down");
+			}
+		};
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.setWriteQuorum(1);
+		// 非幂等指令要求所有服务器都成功
 		try {
-			redis.mget("key1", "key2");
+			redis.incr(key);
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		catch (RuntimeException e) {
+			Assert.assertEquals("down", e.getMessage());
+		}
+		Assert.assertEquals(1L, redis.getWriteErrorCount());
+		Assert.assertEquals("1", redis1.get(key));
+	}
+
+	@Test
+	public void spopReplicated() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl();
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.executor = RedisUtil.newExecutor("test", 4);
+		for (int i = 0; i < 10; i++) {
+			redis.sadd(key, "member" + i);
+		}
+		String member = redis.spop(key);
+		Assert.assertFalse(redis1.sismember(key, member));
+		Assert.assertEquals(redis1.smembers(key), redis2.smembers(key));
+		Assert.assertEquals(3, redis.spop(key, 3).size());
+		Assert.assertEquals(6L, (long) redis1.scard(key));
+		Assert.assertEquals(redis1.smembers(key), redis2.smembers(key));
+		redis.executor.shutdown();
+	}
+
+	@Test
+	public void readFailover() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl() {
+			@Override
+			public String get(String key) {
+				throw new RuntimeException("down");
+			}
+		};
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		redis2.set(key, "value");
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		Assert.assertEquals("value", redis.get(key));
+		redis.executor = RedisUtil.newExecutor("test", 4);
+		Assert.assertEquals("value", redis.get(key));
+		redis.executor.shutdown();
+	}
+
+	@Test
+	public void readHedge() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl() {
+			@Override
+			public String get(String key) {
+				try {
+					Thread.sleep(2000);
+				}
+				catch (InterruptedException e) {
+				}
+				return "slow";
+			}
+		};
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		redis2.set(key, "fast");
+		RedisAllImpl redis = new RedisAllImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.executor = RedisUtil.newExecutor("test", 4);
+		redis.setHedgeDelay(10);
+		long start = System.currentTimeMillis();
+		Assert.assertEquals("fast", redis.get(key));
+		Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+		redis.executor.shutdown();
 	}
 
+
 	// @Test
 	// public void zadd2() {
 	// Map<String, Double> scoreMembers = new HashMap<String, Double>();
@@ -0,0 +1,118 @@
+package io.leopard.redis;
+
+import io.leopard.redis.memory.RespServer;
+import io.leopard.redis.monitor.RedisMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.JedisPool;
+import redis.clients.util.JedisClusterCRC16;
+
+public class RedisClusterImplTest {
+
+	private RedisMemoryImpl memory;
+
+	private RespServer server;
+
+	private RedisClusterImpl redis;
+
+	@Before
+	public void before() {
+		memory = new RedisMemoryImpl();
+		server = new RespServer(memory, 0);
+		server.start();
+		redis = new RedisClusterImpl(new String[] { server.getServer() }, 4, 3000);
+		redis.init();
+	}
+
+	@After
+	public void after() {
+		redis.destroy();
+		server.stop();
+	}
+
+	@Test
+	public void groupBySlot() {
+		Map<Integer, List<String>> slots = redis.groupBySlot("{user}.name", "key1", "{user}.age", "key2");
+		Assert.assertEquals(Arrays.asList("{user}.name", "{user}.age"), slots.get(JedisClusterCRC16.getSlot("user")));
+		Assert.assertEquals(3, slots.size());
+		Assert.assertEquals(12182, JedisClusterCRC16.getSlot("foo"));
+
+		// 单节点集群，所有slot在同一个节点
+		Map<JedisPool, List<Integer>> nodes = redis.groupByNode(slots.keySet());
+		Assert.assertEquals(1, nodes.size());
+		Assert.assertNotNull(nodes.keySet().iterator().next());
+		Assert.assertEquals(3, nodes.values().iterator().next().size());
+	}
+
+	@Test
+	public void string() {
+		redis.set("key", "value");
+		Assert.assertEquals("value", redis.get("key"));
+		Assert.assertEquals("value", memory.get("key"));
+		redis.set("{key}2", "value2", 100);
+		Assert.assertEquals(100L, (long) redis.ttl("{key}2"));
+		Assert.assertEquals(2L, redis.dbSize());
+		Assert.assertEquals(2, redis.keys("*key*").size());
+
+		redis.hset("hash", "field", Arrays.asList(1L, 2L));
+		Assert.assertEquals(Arrays.asList(1L, 2L), redis.hget("hash", "field", List.class));
+		Assert.assertTrue(redis.flushAll());
+		Assert.assertEquals(0L, redis.dbSize());
+	}
+
+	@Test
+	public void multiKey() {
+		// key分布在不同的slot
+		List<String> keyList = Arrays.asList("key1", "key2", "key3", "{key1}.other");
+		List<String> valueList = Arrays.asList("value1", "value2", "value3", "other");
+		Assert.assertTrue(redis.groupBySlot(keyList.toArray(new String[keyList.size()])).size() > 1);
+		redis.set(keyList, valueList);
+		Assert.assertEquals(Arrays.asList("value3", null, "value1", "other", "value2"), redis.mget("key3", "none", "key1", "{key1}.other", "key2"));
+		Assert.assertEquals(3L, (long) redis.del("key1", "key2", "none", "key3"));
+		Assert.assertEquals(Arrays.asList(null, "other"), redis.mget("key1", "{key1}.other"));
+	}
+
+	@Test
+	public void metrics() {
+		redis.set("key", "value");
+		redis.mget("key1", "key2");
+		RedisMetrics metrics = redis.getMetrics();
+		Assert.assertEquals(server.getServer(), metrics.getServer());
+		Assert.assertEquals(1L, metrics.getCommandLatency("set").getCount());
+		Assert.assertEquals(1L, metrics.getCommandLatency("mget").getCount());
+		Assert.assertEquals(0L, metrics.getErrorCount());
+	}
+
+	@Test
+	public void unsupported() {
+		try {
+			redis.pipelined();
+			Assert.fail("没有抛出异常.");
+		}
+		catch (UnsupportedOperationException e) {
+
+		}
+		try {
+			redis.eval("return 1");
+			Assert.fail("没有抛出异常.");
+		}
+		catch (UnsupportedOperationException e) {
+
+		}
+		try {
+			redis.eval("return 1", 0);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("集群模式下脚本必须有key参数.", e.getMessage());
+		}
+	}
+}
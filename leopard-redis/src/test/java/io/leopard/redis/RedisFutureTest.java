@@ -0,0 +1,82 @@
+package io.leopard.redis;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RedisFutureTest {
+
+	private static class Listener implements RedisFutureListener<String> {
+		private String data;
+		private RuntimeException exception;
+
+		@Override
+		public void onSuccess(String data) {
+			this.data = data;
+		}
+
+		@Override
+		public void onFailure(RuntimeException exception) {
+			this.exception = exception;
+		}
+	}
+
+	@Test
+	public void set() throws Exception {
+		RedisFuture<String> future = new RedisFuture<String>();
+		Listener listener = new Listener();
+		future.addListener(listener);
+		Assert.assertFalse(future.isDone());
+		future.set("value");
+		future.set("value2");
+		Assert.assertTrue(future.isDone());
+		Assert.assertEquals("value", future.join());
+		Assert.assertEquals("value", future.get());
+		Assert.assertEquals("value", listener.data);
+
+		Listener listener2 = new Listener();
+		future.addListener(listener2);
+		Assert.assertEquals("value", listener2.data);
+	}
+
+	@Test
+	public void setException() throws InterruptedException {
+		RedisFuture<String> future = new RedisFuture<String>();
+		Listener listener = new Listener();
+		future.addListener(listener);
+		IllegalArgumentException exception = new IllegalArgumentException("error");
+		future.setException(exception);
+		Assert.assertSame(exception, listener.exception);
+		try {
+			future.join();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalArgumentException e) {
+
+		}
+		try {
+			future.get();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (ExecutionException e) {
+			Assert.assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		RedisFuture<String> future = new RedisFuture<String>();
+		try {
+			future.get(10, TimeUnit.MILLISECONDS);
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (TimeoutException e) {
+
+		}
+		Assert.assertFalse(future.cancel(true));
+		Assert.assertFalse(future.isCancelled());
+	}
+}
@@ -6,22 +6,31 @@ import io.leopard.redis.Redis;
 import io.leopard.redis.RedisHashImpl;
 import io.leopard.redis.RedisMemoryImpl;
 import io.leopard.redis.StringHashType;
+import io.leopard.redis.util.RedisUtil;
+import io.leopard.redis.util.ScanIterator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.ZParams;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 
 public class RedisHashImplTest {
 
@@ -95,7 +104,7 @@ public class RedisHashImplTest {
 			redis.set(list, null);
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalArgumentException e) {
 
 		}
 	}
@@ -583,13 +592,15 @@ public class RedisHashImplTest {
 
 	@Test
 	public void subscribe() {
-		try {
-			redis.subscribe(null, "channel1");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		final List<String> messageList = new ArrayList<String>();
+		redis.subscribe(new JedisPubSub() {
+			@Override
+			public void onMessage(String channel, String message) {
+				messageList.add(message);
+			}
+		}, "channel1");
+		redis.publish("channel1", "message");
+		Assert.assertEquals("[message]", messageList.toString());
 	}
 
 	@Test
@@ -605,13 +616,7 @@ public class RedisHashImplTest {
 
 	@Test
 	public void publish() {
-		try {
-			redis.publish("channel", "message");
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		Assert.assertEquals(1L, redis.publish("channel", "message").longValue());
 	}
 
 	@Test
@@ -700,6 +705,17 @@ public class RedisHashImplTest {
 			redis.evalsha("sha1", (List<String>) null, (List<String>) null);
 			Assert.fail("怎么没有抛异常?");
 		}
+		catch (IllegalArgumentException e) {
+
+		}
+	}
+
+	@Test
+	public void scriptLoad() {
+		try {
+			redis.scriptLoad("return 1");
+			Assert.fail("怎么没有抛异常?");
+		}
 		catch (UnsupportedOperationException e) {
 
 		}
@@ -831,7 +847,7 @@ public class RedisHashImplTest {
 			redis.append((List<String>) null, (List<String>) null, 1);
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalArgumentException e) {
 
 		}
 	}
@@ -876,6 +892,62 @@ public class RedisHashImplTest {
 		}
 	}
 
+	@Test
+	public void ketamaRedisList() {
+		RedisMemoryImpl redis1 = new RedisMemoryImpl();
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		RedisHashImpl redis = new RedisHashImpl();
+		redis.redisList = new Redis[] { redis1, redis2 };
+		redis.setHashType("ketama");
+		redis.init();
+		int count = 0;
+		for (int i = 0; i < 100; i++) {
+			redis.set("key:" + i, "value");
+			Assert.assertEquals("value", redis.get("key:" + i));
+			if (redis1.exists("key:" + i)) {
+				count++;
+			}
+		}
+		// key分布在两台服务器
+		Assert.assertTrue(count > 0 && count < 100);
+		redis.destroy();
+	}
+
+	@Test
+	public void scan() {
+		RedisHashImpl redis = new RedisHashImpl();
+		redis.redisList = new Redis[] { new RedisMemoryImpl(), new RedisMemoryImpl(), new RedisMemoryImpl() };
+		redis.setHashType("default");
+		Set<String> expected = new TreeSet<String>();
+		for (int i = 0; i < 30; i++) {
+			redis.set("key:" + i, "value");
+			expected.add("key:" + i);
+		}
+		Set<String> keySet = new TreeSet<String>();
+		Iterator<String> iterator = ScanIterator.scan(redis, "key:*", 4);
+		while (iterator.hasNext()) {
+			keySet.add(iterator.next());
+		}
+		Assert.assertEquals(expected, keySet);
+
+		ScanResult<String> result = redis.scan("0", new ScanParams().count(100));
+		Assert.assertTrue(result.getStringCursor().startsWith("1:"));
+		try {
+			redis.scan("3:0", new ScanParams());
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalArgumentException e) {
+
+		}
+	}
+
+	@Test
+	public void hscan() {
+		redis.hset("hash", "field", "value");
+		Assert.assertEquals("[field=value]", redis.hscan("hash", "0", new ScanParams()).getResult().toString());
+		Assert.assertEquals("[field=value]", redis.hscan("hash", 0).getResult().toString());
+	}
+
 	@Test
 	public void zunionstore() {
 		try {
@@ -1026,32 +1098,49 @@ public class RedisHashImplTest {
 		Assert.assertEquals("[value1, value2, value3]", list.toString());
 	}
 
+	@Test
+	public void mgetMultiServer() {
+		RedisHashImpl redis = new RedisHashImpl();
+		redis.redisList = new Redis[] { new RedisMemoryImpl(), new RedisMemoryImpl() };
+		redis.setHashType("default");
+		redis.executor = RedisUtil.newExecutor("test", 2);
+
+		redis.set(Arrays.asList("a", "b", "c", "d"), Arrays.asList("1", "2", "3", "4"));
+		Assert.assertEquals("1", redis.redisList[1].get("a"));
+		Assert.assertEquals("2", redis.redisList[0].get("b"));
+		Assert.assertEquals("[1, 2, null, 3, 4]", redis.mget("a", "b", "e", "c", "d").toString());
+
+		Assert.assertEquals(3L, (long) redis.del("a", "b", "c"));
+		Assert.assertEquals("[null, null, null, 4]", redis.mget("a", "b", "c", "d").toString());
+		redis.destroy();
+	}
+
 	@Test
 	public void zremrangeByScore() {
-		Assert.assertNull(redis.zremrangeByScore(key, 0, 1));
-		Assert.assertNull(redis.zremrangeByScore(key, "0", "1"));
+		Assert.assertEquals(0L, (long) redis.zremrangeByScore(key, 0, 1));
+		Assert.assertEquals(0L, (long) redis.zremrangeByScore(key, "0", "1"));
 	}
 
 	@Test
 	public void zremrangeByRank() {
-		Assert.assertNull(redis.zremrangeByRank(key, 0, 1));
+		Assert.assertEquals(0L, (long) redis.zremrangeByRank(key, 0, 1));
 	}
 
 	@Test
 	public void zrevrangeByScoreWithScores() {
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, 1, 0));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, "1", "0"));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10));
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, 1, 0).isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, "1", "0").isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10).isEmpty());
 
 	}
 
 	@Test
 	public void zrangeByScoreWithScores() {
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, 0, 10));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, "0", "10"));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, 0, 10, 0, 10));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, "0", "10", 0, 10));
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, "0", "10").isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, 0, 10, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, "0", "10", 0, 10).isEmpty());
 	}
 
 	@Test
@@ -1104,8 +1193,8 @@ public class RedisHashImplTest {
 		Assert.assertEquals(1, redis.rpush(key, "World").intValue());
 		Assert.assertEquals(2, redis.rpush(key, "Hello").intValue());
 
-		Assert.assertEquals("Hello", redis.lindex(key, 0));
-		Assert.assertEquals("World", redis.lindex(key, -1));
+		Assert.assertEquals("World", redis.lindex(key, 0));
+		Assert.assertEquals("Hello", redis.lindex(key, -1));
 		Assert.assertNull(redis.lindex(key, 3));
 	}
 
@@ -1157,6 +1246,77 @@ public class RedisHashImplTest {
 		// AUTO
 	}
 
+	@Test
+	public void pipelined() {
+		RedisPipeline pipeline = redis.pipelined();
+		RedisResponse<String> set = pipeline.set(key, "value");
+		RedisResponse<Long> zadd = pipeline.zadd("zkey", 1, "one");
+		RedisResponse<String> get = pipeline.get(key);
+		pipeline.sync();
+
+		Assert.assertEquals("value", set.get());
+		Assert.assertEquals(1L, (long) zadd.get());
+		Assert.assertEquals("value", get.get());
+		Assert.assertEquals(1D, redis.zscore("zkey", "one"), 0);
+	}
+
+	@Test
+	public void circuitBreaker() {
+		Redis redis1 = Mockito.mock(Redis.class);
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(redis1).get(Mockito.anyString());
+		RedisHashImpl redisHashImpl = new RedisHashImpl();
+		redisHashImpl.redisList = new Redis[] { redis1 };
+		redisHashImpl.setCircuitBreakerThreshold(3);
+		redisHashImpl.init();
+
+		for (int i = 0; i < 5; i++) {
+			try {
+				redisHashImpl.get(key);
+				Assert.fail("怎么没有抛异常?");
+			}
+			catch (JedisConnectionException e) {
+
+			}
+		}
+		Assert.assertTrue(redisHashImpl.getCircuitBreakers()[0].isOpen());
+		Mockito.verify(redis1, Mockito.times(3)).get(key);
+	}
+
+	@Test
+	public void pipelinedCircuitBreaker() {
+		RedisPipeline pipeline1 = Mockito.mock(RedisPipeline.class);
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(pipeline1).sync();
+		Redis redis1 = Mockito.mock(Redis.class);
+		Mockito.doReturn(pipeline1).when(redis1).pipelined();
+		RedisHashImpl redisHashImpl = new RedisHashImpl();
+		redisHashImpl.redisList = new Redis[] { redis1 };
+		redisHashImpl.setCircuitBreakerThreshold(2);
+		redisHashImpl.init();
+
+		for (int i = 0; i < 2; i++) {
+			RedisPipeline pipeline = redisHashImpl.pipelined();
+			pipeline.set(key, "value");
+			try {
+				pipeline.sync();
+				Assert.fail("怎么没有抛异常?");
+			}
+			catch (JedisConnectionException e) {
+
+			}
+		}
+		Assert.assertTrue(redisHashImpl.getCircuitBreakers()[0].isOpen());
+
+		// 熔断中，不再打开到该服务器的管道
+		try {
+			redisHashImpl.pipelined().set(key, "value");
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (JedisConnectionException e) {
+			Assert.assertEquals("redis[0]熔断中.", e.getMessage());
+		}
+		Mockito.verify(redis1, Mockito.times(2)).pipelined();
+	}
+
 	// @Test
 	// public void zincrby() {
 	// Assert.assertEquals(1D, this.redis.zincrby(key, 1, "member1"), 0);
@@ -78,6 +78,23 @@ public class RedisInfoTest {
 		Assert.assertEquals(-1, redisInfo.getKeyCount(""));
 	}
 
+	@Test
+	public void replication() {
+		String info = "# Replication\r\n";
+		info += "role:slave\r\n";
+		info += "master_host:127.0.0.1\r\n";
+		info += "master_link_status:up\r\n";
+		info += "slave_repl_offset:1024\r\n";
+		info += "master_repl_offset:2048\r\n";
+		RedisInfo redisInfo = new RedisInfo(info);
+		Assert.assertEquals("slave", redisInfo.getRole());
+		Assert.assertTrue(redisInfo.isMasterLinkUp());
+		Assert.assertEquals(1024, redisInfo.getSlaveReplOffset());
+		Assert.assertEquals(2048, redisInfo.getMasterReplOffset());
+
+		Assert.assertFalse(new RedisInfo("master_link_status:down\r\n").isMasterLinkUp());
+	}
+
 	@Test
 	public void getKeyCount() {
 
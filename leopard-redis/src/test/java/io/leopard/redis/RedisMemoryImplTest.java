@@ -17,6 +17,8 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.ZParams;
 
@@ -468,6 +470,35 @@ public class RedisMemoryImplTest {
 		Assert.assertEquals("value", redis.get(key));
 	}
 
+	@Test
+	public void getBytes() {
+		Assert.assertNull(redis.getBytes(key));
+		byte[] bytes = new byte[] { 0, -1, 'a', (byte) 0x80 };
+		redis.set(key, bytes);
+		Assert.assertArrayEquals(bytes, redis.getBytes(key));
+		redis.hset(key + "hash", "field", bytes);
+		Assert.assertArrayEquals(bytes, redis.hgetBytes(key + "hash", "field"));
+		redis.del(key + "hash");
+	}
+
+	@Test
+	public void getObject() {
+		Assert.assertNull(redis.get(key, Long.class));
+		redis.set(key, 10L);
+		Assert.assertEquals(10L, (long) redis.get(key, Long.class));
+		// String与get(key)兼容
+		redis.set(key, (Object) "中文");
+		Assert.assertEquals("中文", redis.get(key));
+		Assert.assertEquals("中文", redis.get(key, String.class));
+
+		Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+		map.put("a", 1);
+		redis.hset(key + "hash", "field", map);
+		Assert.assertEquals(map, redis.hget(key + "hash", "field", Map.class));
+		Assert.assertNull(redis.hget(key + "hash", "none", Map.class));
+		redis.del(key + "hash");
+	}
+
 	@Test
 	public void hlen() {
 		Map<String, String> map = new HashMap<String, String>();
@@ -661,13 +692,14 @@ public class RedisMemoryImplTest {
 
 	@Test
 	public void getUsedMemory() {
-		try {
-			redis.getUsedMemory();
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.flushAll();
+		Assert.assertEquals(0L, redis.getUsedMemory());
+		// 没有设置maxmemory时也能估算
+		redis.set(key, "value");
+		long used = redis.getUsedMemory();
+		Assert.assertTrue(used > 0);
+		redis.hset("hash", "field", "value");
+		Assert.assertTrue(redis.getUsedMemory() > used);
 	}
 
 	@Test
@@ -852,8 +884,8 @@ public class RedisMemoryImplTest {
 		Assert.assertEquals(1, redis.rpush(key, "World").intValue());
 		Assert.assertEquals(2, redis.rpush(key, "Hello").intValue());
 
-		Assert.assertEquals("Hello", redis.lindex(key, 0));
-		Assert.assertEquals("World", redis.lindex(key, -1));
+		Assert.assertEquals("World", redis.lindex(key, 0));
+		Assert.assertEquals("Hello", redis.lindex(key, -1));
 		Assert.assertNull(redis.lindex(key, 3));
 	}
 
@@ -946,11 +978,12 @@ public class RedisMemoryImplTest {
 
 	@Test
 	public void save() {
+		// 没有设置快照文件
 		try {
 			redis.save();
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalStateException e) {
 
 		}
 	}
@@ -982,11 +1015,12 @@ public class RedisMemoryImplTest {
 
 	@Test
 	public void bgsave() {
+		// 没有设置快照文件
 		try {
 			redis.bgsave();
 			Assert.fail("怎么没有抛异常?");
 		}
-		catch (UnsupportedOperationException e) {
+		catch (IllegalStateException e) {
 
 		}
 	}
@@ -1026,13 +1060,11 @@ public class RedisMemoryImplTest {
 
 	@Test
 	public void ttl() {
-		try {
-			redis.ttl(key);
-			Assert.fail("怎么没有抛异常?");
-		}
-		catch (UnsupportedOperationException e) {
-
-		}
+		redis.del(key);
+		Assert.assertEquals(-2L, (long) redis.ttl(key));
+		redis.set(key, "value");
+		redis.expire(key, 100);
+		Assert.assertEquals(100L, (long) redis.ttl(key));
 	}
 
 	@Test
@@ -1054,6 +1086,20 @@ public class RedisMemoryImplTest {
 		Assert.assertEquals("[key:1, key:2]", redis.keys("key:*").toString());
 	}
 
+	@Test
+	public void scan() {
+		redis.set("key:1", "value");
+		redis.hset("key:2", "field", "value");
+		redis.sadd("key:3", "member");
+		redis.set("key", "value");
+
+		ScanResult<String> result = redis.scan("0", new ScanParams().match("key:*").count(2));
+		Assert.assertEquals("[key:1]", result.getResult().toString());
+		result = redis.scan(result.getStringCursor(), new ScanParams().match("key:*").count(2));
+		Assert.assertEquals("[key:2, key:3]", result.getResult().toString());
+		Assert.assertEquals("0", result.getStringCursor());
+	}
+
 	@Test
 	public void zunionStoreInJava() {
 		Assert.assertNull(redis.zunionStoreInJava("set1"));
@@ -1072,29 +1118,29 @@ public class RedisMemoryImplTest {
 
 	@Test
 	public void zremrangeByScore() {
-		Assert.assertNull(redis.zremrangeByScore(key, 0, 1));
-		Assert.assertNull(redis.zremrangeByScore(key, "0", "1"));
+		Assert.assertEquals(0L, (long) redis.zremrangeByScore(key, 0, 1));
+		Assert.assertEquals(0L, (long) redis.zremrangeByScore(key, "0", "1"));
 	}
 
 	@Test
 	public void zremrangeByRank() {
-		Assert.assertNull(redis.zremrangeByRank(key, 0, 1));
+		Assert.assertEquals(0L, (long) redis.zremrangeByRank(key, 0, 1));
 	}
 
 	@Test
 	public void zrevrangeByScoreWithScores() {
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, 1, 0));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, "1", "0"));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10));
-		Assert.assertNull(redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10));
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, 1, 0).isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, "1", "0").isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, 1, 0, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrevrangeByScoreWithScores(key, "1", "0", 0, 10).isEmpty());
 
 	}
 
 	@Test
 	public void zrangeByScoreWithScores() {
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, 0, 10));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, "0", "10"));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, 0, 10, 0, 10));
-		Assert.assertNull(redis.zrangeByScoreWithScores(key, "0", "10", 0, 10));
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, "0", "10").isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, 0, 10, 0, 10).isEmpty());
+		Assert.assertTrue(redis.zrangeByScoreWithScores(key, "0", "10", 0, 10).isEmpty());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package io.leopard.redis;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RedisNearCacheImplTest {
+
+	private RedisMemoryImpl redisMemoryImpl = new RedisMemoryImpl();
+
+	private RedisNearCacheImpl redis = new RedisNearCacheImpl();
+
+	@Before
+	public void before() throws InterruptedException {
+		redis.setRedis(redisMemoryImpl);
+		redis.init();
+		// 等待订阅线程启动
+		Thread.sleep(50);
+	}
+
+	@After
+	public void after() {
+		redis.destroy();
+	}
+
+	@Test
+	public void get() {
+		redis.set("key", "value1");
+		Assert.assertEquals("value1", redis.get("key"));
+		// 直接修改服务器，本地缓存未失效
+		redisMemoryImpl.set("key", "value2");
+		Assert.assertEquals("value1", redis.get("key"));
+		// 通过本对象修改
+		redis.set("key", "value3");
+		Assert.assertEquals("value3", redis.get("key"));
+	}
+
+	@Test
+	public void hget() {
+		redis.hset("key", "field", "value1");
+		Assert.assertEquals("value1", redis.hget("key", "field"));
+		Assert.assertNull(redis.hget("key", "field2"));
+		redisMemoryImpl.hset("key", "field2", "value2");
+		Assert.assertNull(redis.hget("key", "field2"));
+		redis.hdel("key", "field");
+		Assert.assertNull(redis.hget("key", "field"));
+		Assert.assertEquals("value2", redis.hget("key", "field2"));
+	}
+
+	@Test
+	public void zscore() {
+		redis.zadd("key", 1, "member");
+		Assert.assertEquals(1D, redis.zscore("key", "member"), 0);
+		redis.zincrby("key", 1, "member");
+		Assert.assertEquals(2D, redis.zscore("key", "member"), 0);
+	}
+
+	@Test
+	public void onMessage() {
+		redis.set("key", "value1");
+		Assert.assertEquals("value1", redis.get("key"));
+		redisMemoryImpl.set("key", "value2");
+		// 其他节点修改后发布失效消息
+		redisMemoryImpl.publish(redis.getChannel(), "key");
+		Assert.assertEquals("value2", redis.get("key"));
+
+		redisMemoryImpl.set("key", "value3");
+		redisMemoryImpl.publish(redis.getChannel(), RedisNearCacheImpl.CLEAR_MESSAGE);
+		Assert.assertEquals("value3", redis.get("key"));
+	}
+
+	@Test
+	public void flushAll() {
+		redis.set("key", "value");
+		Assert.assertEquals("value", redis.get("key"));
+		redis.flushAll();
+		Assert.assertEquals(0, redis.getCache().size());
+	}
+}
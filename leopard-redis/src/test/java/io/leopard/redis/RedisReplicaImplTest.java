@@ -0,0 +1,124 @@
+package io.leopard.redis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+public class RedisReplicaImplTest {
+
+	private Redis master = Mockito.spy(new RedisMemoryImpl());
+	private Redis replica1 = Mockito.spy(new RedisMemoryImpl());
+	private Redis replica2 = Mockito.spy(new RedisMemoryImpl());
+
+	private RedisReplicaImpl redis = new RedisReplicaImpl();
+
+	private static RedisInfo newInfo(String linkStatus, long offset) {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("master_link_status", linkStatus);
+		map.put("master_repl_offset", Long.toString(offset));
+		map.put("slave_repl_offset", Long.toString(offset));
+		return new RedisInfo(map);
+	}
+
+	@Before
+	public void before() {
+		Mockito.doReturn(newInfo("up", 10000)).when(master).info();
+		Mockito.doReturn(newInfo("up", 10000)).when(replica1).info();
+		Mockito.doReturn(newInfo("up", 9000)).when(replica2).info();
+		redis.setRedis(master);
+		redis.replicaList = new Redis[] { replica1, replica2 };
+		redis.setCheckInterval(0);
+		redis.setMaxLag(100);
+		redis.init();
+	}
+
+	@Test
+	public void write() {
+		redis.set("key", "value");
+		Mockito.verify(master).set("key", "value");
+		Mockito.verify(replica1, Mockito.never()).set("key", "value");
+		Mockito.verify(replica2, Mockito.never()).set("key", "value");
+	}
+
+	@Test
+	public void read() {
+		// replica2落后1000字节，不参与读
+		for (int i = 0; i < 4; i++) {
+			redis.get("key");
+		}
+		Mockito.verify(replica1, Mockito.times(4)).get("key");
+		Mockito.verify(replica2, Mockito.never()).get("key");
+		Mockito.verify(master, Mockito.never()).get("key");
+	}
+
+	@Test
+	public void roundRobin() {
+		Mockito.doReturn(newInfo("up", 9950)).when(replica2).info();
+		redis.setBalance(RedisReplicaImpl.BALANCE_ROUND_ROBIN);
+		redis.checkReplication();
+		for (int i = 0; i < 4; i++) {
+			redis.hget("key", "field");
+		}
+		Mockito.verify(replica1, Mockito.times(2)).hget("key", "field");
+		Mockito.verify(replica2, Mockito.times(2)).hget("key", "field");
+	}
+
+	@Test
+	public void scan() {
+		// 游标只在返回它的服务器有效，同一次遍历的各页都在主服务器执行
+		Mockito.doReturn(newInfo("up", 9950)).when(replica2).info();
+		redis.setBalance(RedisReplicaImpl.BALANCE_ROUND_ROBIN);
+		redis.checkReplication();
+		ScanResult<String> result = new ScanResult<String>("0", new ArrayList<String>());
+		Mockito.doReturn(result).when(master).sscan(Mockito.eq("key"), Mockito.anyString(), Mockito.any(ScanParams.class));
+		for (int i = 0; i < 4; i++) {
+			redis.sscan("key", Integer.toString(i), new ScanParams());
+		}
+		Mockito.verify(master, Mockito.times(4)).sscan(Mockito.eq("key"), Mockito.anyString(), Mockito.any(ScanParams.class));
+		Mockito.verify(replica1, Mockito.never()).sscan(Mockito.eq("key"), Mockito.anyString(), Mockito.any(ScanParams.class));
+		Mockito.verify(replica2, Mockito.never()).sscan(Mockito.eq("key"), Mockito.anyString(), Mockito.any(ScanParams.class));
+	}
+
+	@Test
+	public void checkReplication() {
+		Mockito.doReturn(newInfo("down", 10000)).when(replica1).info();
+		redis.checkReplication();
+		// 没有可用的从服务器，在主服务器读
+		redis.get("key");
+		Mockito.verify(master).get("key");
+
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(master).info();
+		Mockito.doReturn(newInfo("up", 10000)).when(replica1).info();
+		redis.checkReplication();
+		// 主服务器状态未知时保持原来的列表
+		redis.get("key");
+		Mockito.verify(master, Mockito.times(2)).get("key");
+	}
+
+	@Test
+	public void fallback() {
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(replica1).smembers("key");
+		redis.smembers("key");
+		Mockito.verify(master).smembers("key");
+	}
+
+	@Test
+	public void setBalance() {
+		try {
+			redis.setBalance("random");
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalArgumentException e) {
+
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package io.leopard.redis.codec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryCodecTest {
+
+	private BinaryCodec codec = BinaryCodec.getInstance();
+
+	public static enum Status {
+		NORMAL, DELETED
+	}
+
+	public static class User {
+		private long uid;
+		private String nickname;
+		private int age;
+		private boolean vip;
+		private double score;
+		private Date posttime;
+		private Status status;
+		private List<String> tags;
+		private TreeMap<String, Long> counts;
+		private User inviter;
+		private transient String password;
+
+		public User() {
+		}
+	}
+
+	@Test
+	public void primitive() {
+		Assert.assertEquals(Integer.valueOf(-1), codec.decode(codec.encode(-1), Integer.class));
+		Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), codec.decode(codec.encode(Long.MIN_VALUE), Long.class));
+		Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), codec.decode(codec.encode(Long.MAX_VALUE), Long.class));
+		Assert.assertEquals(1.5, codec.decode(codec.encode(1.5), Double.class), 0);
+		Assert.assertEquals(1.5f, codec.decode(codec.encode(1.5f), Float.class), 0);
+		Assert.assertEquals(Boolean.TRUE, codec.decode(codec.encode(true), Boolean.class));
+		Assert.assertEquals(Character.valueOf('中'), codec.decode(codec.encode('中'), Character.class));
+		Assert.assertEquals("中文", codec.decode(codec.encode("中文"), String.class));
+		Assert.assertEquals(Status.DELETED, codec.decode(codec.encode(Status.DELETED), Status.class));
+		Date date = new Date();
+		Assert.assertEquals(date, codec.decode(codec.encode(date), Date.class));
+		// 数值类型之间转换
+		Assert.assertEquals(Long.valueOf(1), codec.decode(codec.encode(1), Long.class));
+		// 小整数只占2个字节
+		Assert.assertEquals(2, codec.encode(-1L).length);
+	}
+
+	@Test
+	public void collection() {
+		List<Object> list = Arrays.asList((Object) 1, "a", null, 2L);
+		Assert.assertEquals(list, codec.decode(codec.encode(list), List.class));
+
+		LinkedHashSet<String> set = new LinkedHashSet<String>(Arrays.asList("b", "a"));
+		Assert.assertEquals(new ArrayList<String>(set), new ArrayList<Object>(codec.decode(codec.encode(set), LinkedHashSet.class)));
+
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("key", "value");
+		map.put("list", Arrays.asList(1, 2));
+		Assert.assertEquals(map, codec.decode(codec.encode(map), Map.class));
+		Assert.assertEquals(map, codec.decode(codec.encode(map), HashMap.class));
+	}
+
+	@Test
+	public void bean() {
+		User inviter = new User();
+		inviter.uid = 1;
+		User user = new User();
+		user.uid = 2;
+		user.nickname = "昵称";
+		user.age = 18;
+		user.vip = true;
+		user.score = 99.5;
+		user.posttime = new Date();
+		user.status = Status.NORMAL;
+		user.tags = Arrays.asList("a", "b");
+		user.counts = new TreeMap<String, Long>();
+		user.counts.put("login", 3L);
+		user.inviter = inviter;
+		user.password = "password";
+
+		byte[] bytes = codec.encode(user);
+		User user2 = codec.decode(bytes, User.class);
+		Assert.assertEquals(2, user2.uid);
+		Assert.assertEquals("昵称", user2.nickname);
+		Assert.assertEquals(18, user2.age);
+		Assert.assertTrue(user2.vip);
+		Assert.assertEquals(99.5, user2.score, 0);
+		Assert.assertEquals(user.posttime, user2.posttime);
+		Assert.assertEquals(Status.NORMAL, user2.status);
+		Assert.assertEquals(user.tags, user2.tags);
+		Assert.assertEquals(user.counts, user2.counts);
+		Assert.assertEquals(1, user2.inviter.uid);
+		Assert.assertNull(user2.inviter.nickname);
+		Assert.assertNull(user2.password);
+	}
+
+	public static class Group {
+		private List<User> users;
+		private Map<String, Status> statuses;
+		private Object owner;
+
+		public Group() {
+		}
+	}
+
+	public static class Admin extends User {
+		private int level;
+
+		public Admin() {
+		}
+	}
+
+	@Test
+	public void declaredType() {
+		Admin admin = new Admin();
+		((User) admin).uid = 1;
+		admin.level = 9;
+		Group group = new Group();
+		group.users = Arrays.asList((User) admin, new User());
+		group.statuses = new HashMap<String, Status>();
+		group.statuses.put("key", Status.DELETED);
+
+		Group group2 = codec.decode(codec.encode(group), Group.class);
+		Assert.assertEquals(9, ((Admin) group2.users.get(0)).level);
+		Assert.assertEquals(User.class, group2.users.get(1).getClass());
+		Assert.assertEquals(Status.DELETED, group2.statuses.get("key"));
+		// 子类
+		Assert.assertEquals(1, codec.decode(codec.encode(admin), User.class).uid);
+
+		// 数据中的类不是声明类型的子类
+		try {
+			codec.decode(codec.encode(new User()), Admin.class);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("类型不匹配[" + User.class.getName() + "," + Admin.class.getName() + "].", e.getMessage());
+		}
+		// 没有声明类型
+		group.owner = new User();
+		try {
+			codec.decode(codec.encode(group), Group.class);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("类[" + User.class.getName() + "]没有声明类型.", e.getMessage());
+		}
+		try {
+			codec.decode(codec.encode(Arrays.asList(new User())), List.class);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("类[" + User.class.getName() + "]没有声明类型.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void error() {
+		try {
+			codec.decode(codec.encode("a"), Long.class);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("类型不匹配[java.lang.String,java.lang.Long].", e.getMessage());
+		}
+		byte[] bytes = codec.encode("abc");
+		try {
+			codec.decode(Arrays.copyOf(bytes, bytes.length - 1), String.class);
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("数据不完整.", e.getMessage());
+		}
+		try {
+			codec.encode(new int[] { 1 });
+			Assert.fail("没有抛出异常.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertEquals("不支持的类型[[I].", e.getMessage());
+		}
+	}
+}
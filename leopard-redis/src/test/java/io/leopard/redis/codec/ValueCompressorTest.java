@@ -0,0 +1,77 @@
+package io.leopard.redis.codec;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ValueCompressorTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static byte[] json(int count) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			sb.append("{\"uid\":").append(i).append(",\"nickname\":\"昵称").append(i).append("\"},");
+		}
+		sb.append("]");
+		return sb.toString().getBytes(UTF8);
+	}
+
+	@Test
+	public void compress() {
+		ValueCompressor compressor = new ValueCompressor(1024, null);
+		byte[] value = json(1000);
+		byte[] compressed = compressor.compress("key", value);
+		Assert.assertTrue(ValueCompressor.isCompressed(compressed));
+		Assert.assertTrue(compressed.length < value.length / 4);
+		Assert.assertArrayEquals(value, compressor.decompress(compressed));
+
+		// 小于阈值不压缩
+		byte[] small = json(1);
+		Assert.assertSame(small, compressor.compress("key", small));
+		Assert.assertSame(small, compressor.decompress(small));
+		Assert.assertNull(compressor.decompress(null));
+	}
+
+	@Test
+	public void incompressible() {
+		ValueCompressor compressor = new ValueCompressor(16, null);
+		byte[] value = new byte[4096];
+		new Random(1).nextBytes(value);
+		Assert.assertSame(value, compressor.compress("key", value));
+
+		// 恰好以压缩头开头的二进制value
+		value[0] = (byte) 0xFF;
+		value[1] = 'Z';
+		Assert.assertSame(value, compressor.decompress(value));
+
+		// 压缩数据不完整时也原样返回
+		byte[] compressed = compressor.compress("key", json(100));
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length - 1);
+		Assert.assertSame(truncated, compressor.decompress(truncated));
+	}
+
+	@Test
+	public void getThreshold() {
+		Map<String, Integer> policies = new HashMap<String, Integer>();
+		policies.put("user:", 100);
+		policies.put("user:info:", 0);
+		policies.put("feed:", 10);
+		ValueCompressor compressor = new ValueCompressor(1024, policies);
+		Assert.assertEquals(100, compressor.getThreshold("user:1"));
+		Assert.assertEquals(100, compressor.getThreshold("user:z"));
+		Assert.assertEquals(0, compressor.getThreshold("user:info:1"));
+		Assert.assertEquals(10, compressor.getThreshold("feed:1"));
+		Assert.assertEquals(1024, compressor.getThreshold("key"));
+		Assert.assertEquals(1024, compressor.getThreshold("user"));
+
+		byte[] value = json(100);
+		Assert.assertSame(value, compressor.compress("user:info:1", value));
+		Assert.assertTrue(ValueCompressor.isCompressed(compressor.compress("user:1", value)));
+	}
+}
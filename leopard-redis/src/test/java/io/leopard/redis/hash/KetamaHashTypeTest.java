@@ -0,0 +1,55 @@
+package io.leopard.redis.hash;
+
+import io.leopard.redis.KetamaHashType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KetamaHashTypeTest {
+
+	@Test
+	public void getIndex() {
+		KetamaHashType hashType = new KetamaHashType();
+		hashType.init(new String[] { "127.0.0.1:6311", "127.0.0.1:6312", "127.0.0.1:6313", "127.0.0.1:6314" });
+		int[] counts = new int[4];
+		for (int i = 0; i < 10000; i++) {
+			int index = hashType.getIndex("key:" + i);
+			Assert.assertEquals(index, hashType.getIndex("key:" + i));
+			counts[index]++;
+		}
+		for (int count : counts) {
+			// 平均2500
+			Assert.assertTrue("count:" + count, count > 1800 && count < 3200);
+		}
+	}
+
+	@Test
+	public void addServer() {
+		KetamaHashType hashType = new KetamaHashType();
+		hashType.init(new String[] { "127.0.0.1:6311", "127.0.0.1:6312", "127.0.0.1:6313", "127.0.0.1:6314" });
+		KetamaHashType hashType2 = new KetamaHashType();
+		hashType2.init(new String[] { "127.0.0.1:6311", "127.0.0.1:6312", "127.0.0.1:6313", "127.0.0.1:6314", "127.0.0.1:6315" });
+		int moved = 0;
+		for (int i = 0; i < 10000; i++) {
+			int index = hashType.getIndex("key:" + i);
+			int index2 = hashType2.getIndex("key:" + i);
+			if (index != index2) {
+				Assert.assertEquals(4, index2);
+				moved++;
+			}
+		}
+		// 理论上迁移1/5
+		Assert.assertTrue("moved:" + moved, moved > 1000 && moved < 3000);
+	}
+
+	@Test
+	public void password() {
+		KetamaHashType hashType = new KetamaHashType();
+		hashType.init(new String[] { "127.0.0.1:6311", "127.0.0.1:6312" });
+		KetamaHashType hashType2 = new KetamaHashType();
+		hashType2.init(new String[] { "127.0.0.1:6311:pwd", "127.0.0.1:6312:pwd" });
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(hashType.getIndex("key:" + i), hashType2.getIndex("key:" + i));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyLockHandlerTest {
+
+	private static final int THREADS = 8;
+
+	private static final int TIMES = 2000;
+
+	@Test
+	public void incr() throws Exception {
+		final RedisMemoryImpl redis = new RedisMemoryImpl();
+		final AtomicInteger setnx = new AtomicInteger();
+		run(new Runnable() {
+			@Override
+			public void run() {
+				redis.incr("counter");
+				redis.hincrBy("hash", "field", 2);
+				redis.zincrby("zset", 1, "member");
+				redis.append("string", "a");
+				if (redis.setnx("lock", "value") == 1) {
+					setnx.incrementAndGet();
+				}
+			}
+		});
+		Assert.assertEquals(Integer.toString(THREADS * TIMES), redis.get("counter"));
+		Assert.assertEquals(Integer.toString(THREADS * TIMES * 2), redis.hget("hash", "field"));
+		Assert.assertEquals(THREADS * TIMES, redis.zscore("zset", "member"), 0);
+		Assert.assertEquals(THREADS * TIMES, redis.get("string").length());
+		Assert.assertEquals(1, setnx.get());
+	}
+
+	@Test
+	public void list() throws Exception {
+		final RedisMemoryImpl redis = new RedisMemoryImpl();
+		run(new Runnable() {
+			@Override
+			public void run() {
+				redis.rpush("list", "a");
+				redis.sadd("set", Thread.currentThread().getName() + ":" + System.nanoTime());
+			}
+		});
+		Assert.assertEquals(THREADS * TIMES, (long) redis.llen("list"));
+		Assert.assertEquals(THREADS * TIMES, (long) redis.scard("set"));
+	}
+
+	@Test
+	public void lock() {
+		RedisKeyspace keyspace = new RedisKeyspace();
+		Lock[] locks = keyspace.lock("key1", "key2", "key1");
+		Assert.assertTrue(locks.length <= 2);
+		Assert.assertSame(keyspace.getLock("key1"), keyspace.getLock("key1"));
+		keyspace.unlock(locks);
+	}
+
+	private static void run(final Runnable task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						for (int j = 0; j < TIMES; j++) {
+							task.run();
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.RedisMemoryImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RedisKeyspaceTest {
+
+	@Test
+	public void lazyExpire() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.hset("hash", "field", "value");
+		redis.zadd("zset", 1, "member");
+		Assert.assertEquals(1L, (long) redis.pexpireAt("hash", System.currentTimeMillis() - 1));
+		Assert.assertEquals(1L, (long) redis.expire("zset", 100));
+		Assert.assertEquals(0L, (long) redis.expire("none", 100));
+
+		Assert.assertFalse(redis.exists("hash"));
+		Assert.assertEquals(-2L, (long) redis.pttl("hash"));
+		Assert.assertNull(redis.hget("hash", "field"));
+		Assert.assertTrue(redis.exists("zset"));
+		Assert.assertTrue(redis.pttl("zset") > 0);
+		Assert.assertEquals(1L, (long) redis.persist("zset"));
+		Assert.assertEquals(-1L, (long) redis.pttl("zset"));
+	}
+
+	@Test
+	public void activeExpire() {
+		RedisKeyspace keyspace = new RedisKeyspace();
+		RedisSetImpl set = new RedisSetImpl(keyspace);
+		RedisStringImpl string = new RedisStringImpl(keyspace);
+		for (int i = 0; i < 10; i++) {
+			set.sadd("set:" + i, "member");
+			keyspace.pexpireAt("set:" + i, System.currentTimeMillis() + 10);
+		}
+		string.set("string", "value");
+		Assert.assertEquals(11, keyspace.getExpiresSize());
+		sleep(20);
+
+		// 每次最多检查4个key
+		int expired = keyspace.activeExpireCycle(4);
+		Assert.assertTrue(expired <= 4);
+		int total = expired;
+		for (int i = 0; i < 10; i++) {
+			total += keyspace.activeExpireCycle(4);
+		}
+		Assert.assertEquals(10, total);
+		Assert.assertEquals(1, keyspace.getExpiresSize());
+		Assert.assertEquals("[string]", keyspace.keys().toString());
+		Assert.assertEquals("value", string.get("string"));
+	}
+
+	@Test
+	public void init() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setActiveExpireInterval(10);
+		redis.init();
+		try {
+			redis.sadd("set", "member");
+			redis.pexpire("set", 10);
+			sleep(100);
+			Assert.assertEquals(0, redis.getKeyspace().getExpiresSize());
+			Assert.assertEquals(1L, redis.getKeyspace().getExpiredCount());
+		}
+		finally {
+			redis.destroy();
+		}
+	}
+
+	@Test
+	public void del() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.set("key", "value");
+		redis.sadd("key", "member");
+		Assert.assertEquals(1L, (long) redis.del("key"));
+		Assert.assertFalse(redis.exists("key"));
+		Assert.assertEquals(0, redis.getKeyspace().getExpiresSize());
+	}
+
+	@Test
+	public void allkeysLru() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setMaxmemory(5000);
+		redis.setMaxmemoryPolicy("allkeys-lru");
+		redis.sadd("hot", "member");
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(redis.sismember("hot", "member"));
+			redis.sadd("key:" + i, "member");
+		}
+		RedisKeyspace keyspace = redis.getKeyspace();
+		Assert.assertTrue(keyspace.getEvictedCount() > 0);
+		Assert.assertTrue(keyspace.keys().size() < 50);
+		Assert.assertTrue(redis.exists("key:99"));
+		Assert.assertFalse(redis.exists("key:0"));
+		// 删除的key不再计入内存
+		Assert.assertTrue(keyspace.getUsedMemory() <= 5000 + 1000);
+	}
+
+	@Test
+	public void allkeysLfu() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setMaxmemory(5000);
+		redis.setMaxmemoryPolicy("allkeys-lfu");
+		redis.hset("hot", "field", "value");
+		for (int i = 0; i < 200; i++) {
+			redis.hget("hot", "field");
+		}
+		for (int i = 0; i < 100; i++) {
+			redis.hset("key:" + i, "field", "value");
+		}
+		Assert.assertTrue(redis.getKeyspace().getEvictedCount() > 0);
+		Assert.assertEquals("value", redis.hget("hot", "field"));
+	}
+
+	@Test
+	public void volatileTtl() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setMaxmemory(1000);
+		redis.setMaxmemoryPolicy("volatile-ttl");
+		redis.setMaxmemorySamples(10);
+		redis.lpush("persistent", "element");
+		redis.lpush("short", "element");
+		redis.expire("short", 10);
+		redis.lpush("long", "element");
+		redis.expire("long", 1000);
+		for (int i = 0; i < 10; i++) {
+			redis.lpush("persistent", "element");
+		}
+		Assert.assertFalse(redis.exists("short"));
+		// 没有过期时间的key不会被淘汰
+		Assert.assertTrue(redis.exists("persistent"));
+	}
+
+	@Test
+	public void noeviction() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setMaxmemory(200);
+		redis.set("key1", "value");
+		redis.set("key2", "value");
+		try {
+			redis.set("key3", "value");
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalStateException e) {
+
+		}
+		// 已存在的key可以修改
+		redis.set("key1", "value1");
+		Assert.assertEquals(0, redis.getKeyspace().getEvictedCount());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+}
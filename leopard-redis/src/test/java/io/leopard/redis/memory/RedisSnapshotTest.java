@@ -0,0 +1,121 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RedisSnapshotTest {
+
+	private File file;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("leopard-redis", ".snapshot");
+		file.delete();
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void saveAndLoad() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.set("string", "中文value");
+		redis.persist("string");
+		redis.set("expired", "value");
+		redis.rpush("list", "a", "b", "c");
+		redis.expire("list", 100);
+		redis.sadd("set", "a", "b", "c");
+		redis.zadd("zset", 2, "b");
+		redis.zadd("zset", 1, "a");
+		redis.hset("hash", "field1", "value1");
+		redis.hset("hash", "field2", "value2");
+		redis.pexpireAt("expired", System.currentTimeMillis() + 50);
+		Assert.assertEquals(6, redis.save(file));
+		Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+
+		sleep(100);
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		Assert.assertEquals(5, redis2.load(file));
+		Assert.assertEquals("中文value", redis2.get("string"));
+		Assert.assertEquals(-1L, (long) redis2.pttl("string"));
+		Assert.assertFalse(redis2.exists("expired"));
+		Assert.assertEquals("[a, b, c]", redis2.lrange("list", 0, -1).toString());
+		long pttl = redis2.pttl("list");
+		Assert.assertTrue(pttl > 0 && pttl <= 100 * 1000L);
+		Assert.assertEquals(redis.smembers("set").toString(), redis2.smembers("set").toString());
+		Assert.assertEquals("[a, b]", redis2.zrange("zset", 0, -1).toString());
+		Assert.assertEquals(2D, redis2.zscore("zset", "b"), 0);
+		Assert.assertEquals(redis.hgetAll("hash"), redis2.hgetAll("hash"));
+	}
+
+	@Test
+	public void init() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setSnapshotFile(file.getPath());
+		redis.setActiveExpireInterval(0);
+		redis.init();
+		redis.set("key", "value");
+		redis.destroy();
+		Assert.assertTrue(file.exists());
+
+		RedisMemoryImpl redis2 = new RedisMemoryImpl();
+		redis2.setSnapshotFile(file.getPath());
+		redis2.setActiveExpireInterval(0);
+		redis2.init();
+		Assert.assertEquals("value", redis2.get("key"));
+	}
+
+	@Test
+	public void bgsave() {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.setSnapshotFile(file.getPath());
+		redis.set("key", "value");
+		Assert.assertEquals("Background saving started", redis.bgsave());
+		for (int i = 0; i < 100 && redis.getLastSaveTime() == 0; i++) {
+			sleep(10);
+		}
+		Assert.assertTrue(redis.getLastSaveTime() > 0);
+		Assert.assertEquals(1, new RedisMemoryImpl().load(file));
+	}
+
+	@Test
+	public void corrupted() throws IOException {
+		RedisMemoryImpl redis = new RedisMemoryImpl();
+		redis.set("key", "value");
+		redis.save(file);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.seek(10);
+			raf.write(raf.read() + 1);
+		}
+		finally {
+			raf.close();
+		}
+		try {
+			new RedisMemoryImpl().load(file);
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (RuntimeException e) {
+			Assert.assertTrue(e.getMessage().startsWith("快照文件校验失败"));
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+}
@@ -1,12 +1,73 @@
 package io.leopard.redis.memory;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
 import org.junit.Test;
 
+import redis.clients.jedis.ZParams;
+
 public class RedisSortedSetImplTest {
 
+	private RedisSortedSetImpl redis = new RedisSortedSetImpl();
+
 	@Test
 	public void zunionstore() {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void zrank() {
+		// score相差小于1时也要正确排序
+		redis.zadd("key", 0.2, "b");
+		redis.zadd("key", 0.1, "a");
+		redis.zadd("key", 0.3, "c");
+		Assert.assertEquals(0L, (long) redis.zrank("key", "a"));
+		Assert.assertEquals(2L, (long) redis.zrank("key", "c"));
+		Assert.assertEquals(0L, (long) redis.zrevrank("key", "c"));
+		Assert.assertNull(redis.zrank("key", "d"));
+		Assert.assertNull(redis.zrank("key2", "a"));
+		Assert.assertEquals("[a, b, c]", redis.zrange("key", 0, -1).toString());
+		Assert.assertEquals("[b, a]", redis.zrevrange("key", 1, 5).toString());
+	}
+
+	@Test
+	public void zrangeByScore() {
+		for (int i = 1; i <= 5; i++) {
+			redis.zadd("key", i, "m" + i);
+		}
+		Assert.assertEquals("[m2, m3]", redis.zrangeByScore("key", 1, 5, 1, 2).toString());
+		Assert.assertEquals("[m4, m3]", redis.zrevrangeByScore("key", 5, 1, 1, 2).toString());
+		Assert.assertEquals("[m4, m5]", redis.zrangeByScore("key", "4", "+inf").toString());
+		Assert.assertEquals(2, redis.zrangeByScoreWithScores("key", 1, 2).size());
+		Assert.assertEquals(5L, (long) redis.zcount("key", "-inf", "+inf"));
+	}
+
+	@Test
+	public void zremrange() {
+		for (int i = 1; i <= 5; i++) {
+			redis.zadd("key", i, "m" + i);
+		}
+		Assert.assertEquals(2L, (long) redis.zremrangeByScore("key", 1, 2));
+		Assert.assertEquals(3L, (long) redis.zremrangeByRank("key", 0, -1));
+		Assert.assertFalse(redis.exists("key"));
+	}
+
+	@Test
+	public void zinterstore() {
+		redis.zadd("set1", 1, "one");
+		redis.zadd("set1", 5, "two");
+		redis.zadd("set2", 3, "one");
+		redis.zadd("set2", 2, "two");
+		redis.zadd("set2", 3, "three");
+		ZParams params = new ZParams().aggregate(ZParams.Aggregate.MAX);
+		Assert.assertEquals(2L, (long) redis.zinterstore("set1", params, "set1", "set2"));
+		Map<String, Double> expected = new HashMap<String, Double>();
+		expected.put("one", 3D);
+		expected.put("two", 5D);
+		Assert.assertEquals(3D, redis.zscore("set1", "one"), 0);
+		Assert.assertEquals(5D, redis.zscore("set1", "two"), 0);
+		Assert.assertEquals(2L, (long) redis.zcard("set1"));
+	}
+}
@@ -0,0 +1,264 @@
+package io.leopard.redis.memory;
+
+import io.leopard.redis.RedisImpl;
+import io.leopard.redis.RedisMemoryImpl;
+import io.leopard.redis.RedisPipeline;
+import io.leopard.redis.RedisResponse;
+import io.leopard.redis.codec.ValueCompressor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+public class RespServerTest {
+
+	private RedisMemoryImpl redis;
+
+	private RespServer server;
+
+	private Jedis jedis;
+
+	@Before
+	public void before() {
+		redis = new RedisMemoryImpl();
+		server = new RespServer(redis, 0);
+		server.start();
+		jedis = new Jedis("127.0.0.1", server.getPort());
+	}
+
+	@After
+	public void after() {
+		jedis.close();
+		server.stop();
+	}
+
+	@Test
+	public void string() {
+		Assert.assertEquals("PONG", jedis.ping());
+		Assert.assertEquals("OK", jedis.set("key", "中文value"));
+		Assert.assertEquals("中文value", jedis.get("key"));
+		jedis.set("ascii", "value");
+		Assert.assertEquals("value", redis.get("ascii"));
+		Assert.assertEquals(-1L, (long) jedis.ttl("key"));
+		Assert.assertNull(jedis.get("none"));
+		Assert.assertEquals(1L, (long) jedis.incr("num"));
+		Assert.assertEquals(11L, (long) jedis.incrBy("num", 10));
+		Assert.assertTrue(jedis.exists("num"));
+		Assert.assertEquals(2L, (long) jedis.del("key", "num"));
+		Assert.assertFalse(jedis.exists("num"));
+
+		Assert.assertEquals("OK", jedis.set("key", "value", "NX", "EX", 100));
+		Assert.assertNull(jedis.set("key", "value2", "NX", "EX", 100));
+		Assert.assertEquals(100L, (long) jedis.ttl("key"));
+		Assert.assertEquals("OK", jedis.mset("k1", "v1", "k2", "v2"));
+		Assert.assertEquals(Arrays.asList("v1", null, "v2"), jedis.mget("k1", "none", "k2"));
+	}
+
+	@Test
+	public void collections() {
+		jedis.hset("hash", "field", "value");
+		Assert.assertEquals("value", jedis.hget("hash", "field"));
+		Assert.assertEquals(1, jedis.hgetAll("hash").size());
+
+		jedis.rpush("list", "a", "b", "c");
+		Assert.assertEquals(Arrays.asList("a", "b", "c"), jedis.lrange("list", 0, -1));
+		Assert.assertEquals("c", jedis.lindex("list", -1));
+
+		Assert.assertEquals(2L, (long) jedis.sadd("set", "a", "b"));
+		Assert.assertTrue(jedis.sismember("set", "a"));
+
+		Assert.assertEquals(1L, (long) jedis.zadd("zset", 1.5, "a"));
+		jedis.zadd("zset", 2, "b");
+		Set<Tuple> tuples = jedis.zrangeWithScores("zset", 0, -1);
+		Assert.assertEquals(2, tuples.size());
+		Tuple first = tuples.iterator().next();
+		Assert.assertEquals("a", first.getElement());
+		Assert.assertEquals(1.5, first.getScore(), 0);
+		Assert.assertEquals(Double.valueOf(2), jedis.zscore("zset", "b"));
+		Assert.assertEquals(2, jedis.zrangeByScore("zset", "-inf", "+inf").size());
+	}
+
+	@Test
+	public void error() {
+		jedis.set("key", "value");
+		try {
+			jedis.incr("key");
+			Assert.fail("没有抛出异常.");
+		}
+		catch (JedisDataException e) {
+			Assert.assertTrue(e.getMessage().startsWith("ERR"));
+		}
+		// 出错后连接可以继续使用
+		Assert.assertEquals("value", jedis.get("key"));
+	}
+
+	@Test
+	public void pipeline() {
+		Pipeline pipeline = jedis.pipelined();
+		for (int i = 0; i < 1000; i++) {
+			pipeline.set("key" + i, "value" + i);
+		}
+		pipeline.get("key999");
+		List<Object> results = pipeline.syncAndReturnAll();
+		Assert.assertEquals(1001, results.size());
+		Assert.assertEquals("value999", results.get(1000));
+		Assert.assertEquals(1000L, (long) jedis.dbSize());
+	}
+
+	@Test
+	public void multi() {
+		Transaction transaction = jedis.multi();
+		transaction.set("key", "value");
+		transaction.incr("num");
+		List<Object> results = transaction.exec();
+		Assert.assertEquals(Arrays.asList((Object) "OK", 1L), results);
+	}
+
+	@Test
+	public void compress() {
+		RedisImpl redisImpl = new RedisImpl(server.getServer(), 4, 3000);
+		redisImpl.setCompressThreshold(100);
+		redisImpl.init();
+		try {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < 100; i++) {
+				sb.append("中文value").append(i);
+			}
+			String value = sb.toString();
+			redisImpl.set("key", value);
+			Assert.assertEquals(value, redisImpl.get("key"));
+			Assert.assertTrue(jedis.get("key").length() < value.length());
+			redisImpl.set("small", "value");
+			Assert.assertEquals("value", jedis.get("small"));
+
+			Map<String, String> hash = new HashMap<String, String>();
+			hash.put("big", value);
+			hash.put("small", "value");
+			redisImpl.hmset("hash", hash);
+			Assert.assertEquals(hash, redisImpl.hgetAll("hash"));
+			Assert.assertEquals(Arrays.asList(value, "value", null), redisImpl.hmget("hash", "big", "small", "none"));
+			redisImpl.hset("hash", "big2", value);
+			Assert.assertEquals(value, redisImpl.hget("hash", "big2"));
+			Assert.assertEquals(Arrays.asList(value, "value"), redisImpl.mget("key", "small"));
+
+			// 其他读取压缩value的指令
+			Assert.assertEquals(value, redisImpl.getSet("key", value + "2"));
+			Assert.assertEquals(value + "2", redisImpl.getSet("key", "value"));
+			Assert.assertEquals("value", jedis.get("key"));
+			redisImpl.hdel("hash", "big2");
+			Assert.assertEquals(new HashSet<String>(hash.values()), new HashSet<String>(redisImpl.hvals("hash")));
+			Map<String, String> scanned = new HashMap<String, String>();
+			for (Entry<String, String> entry : redisImpl.hscan("hash", "0").getResult()) {
+				scanned.put(entry.getKey(), entry.getValue());
+			}
+			Assert.assertEquals(hash, scanned);
+			scanned.clear();
+			for (Entry<String, String> entry : redisImpl.hscan("hash", "0", new ScanParams().match("b*")).getResult()) {
+				scanned.put(entry.getKey(), entry.getValue());
+			}
+			Assert.assertEquals(Collections.singletonMap("big", value), scanned);
+
+			// byte[]的value原样读写，以压缩头开头也不会被解压
+			byte[] bytes = new ValueCompressor(1, null).compress("bytes", value.getBytes());
+			Assert.assertTrue(ValueCompressor.isCompressed(bytes));
+			redisImpl.set("bytes", bytes);
+			Assert.assertArrayEquals(bytes, redisImpl.getBytes("bytes"));
+			redisImpl.hset("hash", "bytes", bytes);
+			Assert.assertArrayEquals(bytes, redisImpl.hgetBytes("hash", "bytes"));
+		}
+		finally {
+			redisImpl.destroy();
+		}
+	}
+
+	@Test
+	public void compressPipeline() throws Exception {
+		RedisImpl redisImpl = new RedisImpl(server.getServer(), 4, 3000);
+		redisImpl.setCompressThreshold(100);
+		redisImpl.init();
+		try {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < 100; i++) {
+				sb.append("中文value").append(i);
+			}
+			String value = sb.toString();
+			Map<String, String> hash = new HashMap<String, String>();
+			hash.put("big", value);
+			hash.put("small", "value");
+
+			RedisPipeline pipeline = redisImpl.pipelined();
+			pipeline.set("key", value);
+			pipeline.set("key2", value, 100);
+			pipeline.hset("hash", "big2", value);
+			pipeline.hmset("hash", hash);
+			pipeline.sync();
+			// 管道写入的value已压缩，RedisImpl可以读取
+			Assert.assertTrue(jedis.get("key").length() < value.length());
+			Assert.assertTrue(jedis.hget("hash", "big").length() < value.length());
+			Assert.assertEquals(value, redisImpl.get("key2"));
+			Assert.assertEquals(value, redisImpl.hget("hash", "big2"));
+
+			RedisResponse<String> get = pipeline.get("key");
+			RedisResponse<String> hget = pipeline.hget("hash", "big");
+			RedisResponse<List<String>> hmget = pipeline.hmget("hash", "big", "small", "none");
+			RedisResponse<Map<String, String>> hgetAll = pipeline.hgetAll("hash");
+			pipeline.sync();
+			Assert.assertEquals(value, get.get());
+			Assert.assertEquals(value, hget.get());
+			Assert.assertEquals(Arrays.asList(value, "value", null), hmget.get());
+			Assert.assertEquals(3, hgetAll.get().size());
+			Assert.assertEquals(value, hgetAll.get().get("big2"));
+
+			// 异步接口基于管道
+			Assert.assertEquals(value, redisImpl.async().get("key").get());
+			Assert.assertEquals(value, redisImpl.async().hget("hash", "big").get());
+		}
+		finally {
+			redisImpl.destroy();
+		}
+	}
+
+	@Test
+	public void redisImpl() {
+		RedisImpl redisImpl = new RedisImpl(server.getServer(), 4, 3000);
+		redisImpl.init();
+		try {
+			redisImpl.set("key", "value");
+			Assert.assertEquals("value", redisImpl.get("key"));
+			redisImpl.expire("key", 100);
+			Assert.assertEquals(100L, (long) redisImpl.ttl("key"));
+			Assert.assertEquals(1, redisImpl.info().getKeyCount());
+
+			// 二进制值原样读写
+			byte[] bytes = new byte[256];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) i;
+			}
+			redisImpl.set("bytes", bytes);
+			Assert.assertArrayEquals(bytes, redisImpl.getBytes("bytes"));
+			Assert.assertArrayEquals(bytes, redis.getBytes("bytes"));
+			redisImpl.hset("hash", "field", Arrays.asList(1L, 2L));
+			Assert.assertEquals(Arrays.asList(1L, 2L), redisImpl.hget("hash", "field", List.class));
+		}
+		finally {
+			redisImpl.destroy();
+		}
+	}
+}
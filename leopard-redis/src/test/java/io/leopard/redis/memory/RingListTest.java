@@ -0,0 +1,115 @@
+package io.leopard.redis.memory;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingListTest {
+
+	@Test
+	public void push() {
+		RingList list = new RingList();
+		list.addLast("b");
+		list.addFirst("a");
+		list.addLast("c");
+		Assert.assertEquals("[a, b, c]", list.toList().toString());
+		Assert.assertEquals("a", list.get(0));
+		Assert.assertEquals("c", list.get(-1));
+		Assert.assertNull(list.get(3));
+		Assert.assertNull(list.get(-4));
+		Assert.assertTrue(list.set(-2, "B"));
+		Assert.assertFalse(list.set(3, "d"));
+		Assert.assertEquals("a", list.pollFirst());
+		Assert.assertEquals("c", list.pollLast());
+		Assert.assertEquals("B", list.pollLast());
+		Assert.assertNull(list.pollFirst());
+		Assert.assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void range() {
+		RingList list = new RingList();
+		for (int i = 0; i < 100; i++) {
+			list.addLast(Integer.toString(i));
+		}
+		Assert.assertEquals("[10, 11, 12]", list.range(10, 12).toString());
+		Assert.assertEquals("[98, 99]", list.range(-2, -1).toString());
+		Assert.assertEquals("[98, 99]", list.range(98, 1000).toString());
+		Assert.assertEquals(0, list.range(5, 4).size());
+		Assert.assertEquals(100, list.range(-1000, -1).size());
+
+		list.trim(-10, -3);
+		Assert.assertEquals("[90, 91, 92, 93, 94, 95, 96, 97]", list.toList().toString());
+		list.trim(5, 4);
+		Assert.assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void remove() {
+		RingList list = new RingList();
+		for (String element : new String[] { "a", "b", "a", "c", "a" }) {
+			list.addLast(element);
+		}
+		Assert.assertEquals(1, list.remove(-1, "a"));
+		Assert.assertEquals("[a, b, a, c]", list.toList().toString());
+		Assert.assertEquals(1, list.remove(1, "a"));
+		Assert.assertEquals("[b, a, c]", list.toList().toString());
+		Assert.assertEquals(0, list.remove(0, "d"));
+		Assert.assertEquals(1, list.remove(0, "a"));
+		Assert.assertEquals("[b, c]", list.toList().toString());
+	}
+
+	/**
+	 * 随机操作，结果与LinkedList比较(覆盖扩容、缩容和跨越数组末尾的情况).
+	 */
+	@Test
+	public void random() {
+		Random random = new Random(1);
+		RingList list = new RingList();
+		LinkedList<String> expected = new LinkedList<String>();
+		for (int i = 0; i < 20000; i++) {
+			String element = Integer.toString(random.nextInt(10));
+			int op = random.nextInt(i % 2000 < 1000 ? 6 : 10);
+			if (op < 2) {
+				list.addFirst(element);
+				expected.addFirst(element);
+			}
+			else if (op < 5) {
+				list.addLast(element);
+				expected.addLast(element);
+			}
+			else if (op < 7) {
+				Assert.assertEquals(expected.pollFirst(), list.pollFirst());
+			}
+			else if (op < 9) {
+				Assert.assertEquals(expected.pollLast(), list.pollLast());
+			}
+			else {
+				long count = random.nextInt(5) - 2;
+				Assert.assertEquals(remove(expected, count, element), list.remove(count, element));
+			}
+			Assert.assertEquals(expected.size(), list.size());
+			if (!expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				Assert.assertEquals(expected.get(index), list.get(index));
+			}
+		}
+		Assert.assertEquals(expected, list.toList());
+	}
+
+	private static long remove(LinkedList<String> list, long count, String value) {
+		long removed = 0;
+		long limit = count == 0 ? Long.MAX_VALUE : Math.abs(count);
+		Iterator<String> iterator = count >= 0 ? list.iterator() : list.descendingIterator();
+		while (iterator.hasNext() && removed < limit) {
+			if (iterator.next().equals(value)) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+}
@@ -0,0 +1,114 @@
+package io.leopard.redis.memory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import redis.clients.jedis.Tuple;
+
+public class SkipListTest {
+
+	@Test
+	public void add() {
+		SkipList list = new SkipList();
+		Assert.assertTrue(list.add("b", 0.2));
+		Assert.assertTrue(list.add("a", 0.1));
+		Assert.assertTrue(list.add("c", 0.2));
+		Assert.assertFalse(list.add("a", 0.3));
+		Assert.assertEquals(3, list.size());
+		Assert.assertEquals(0.3D, list.score("a"), 0);
+		// score相同时按member排序
+		Assert.assertEquals("[b=0.2, c=0.2, a=0.3]", format(list.range(0, -1, false)));
+		Assert.assertEquals("[a=0.3, c=0.2, b=0.2]", format(list.range(0, -1, true)));
+		Assert.assertEquals(2, list.rank("a"));
+		Assert.assertEquals(-1, list.rank("d"));
+
+		Assert.assertTrue(list.remove("c"));
+		Assert.assertFalse(list.remove("c"));
+		Assert.assertEquals("[b=0.2, a=0.3]", format(list.range(0, -1, false)));
+	}
+
+	@Test
+	public void rangeByScore() {
+		SkipList list = new SkipList();
+		for (int i = 1; i <= 10; i++) {
+			list.add("m" + i, i);
+		}
+		Assert.assertEquals(3, list.count(2, 4));
+		Assert.assertEquals(0, list.count(11, 20));
+		Assert.assertEquals(10, list.count(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+		Assert.assertEquals("[m3=3.0, m4=4.0]", format(list.rangeByScore(2, 8, 1, 2, false)));
+		Assert.assertEquals("[m7=7.0, m6=6.0]", format(list.rangeByScore(2, 8, 1, 2, true)));
+		Assert.assertEquals("[]", format(list.rangeByScore(5, 4, 0, -1, false)));
+
+		Assert.assertEquals(3, list.removeRangeByScore(1, 3));
+		Assert.assertEquals(2, list.removeRangeByRank(-2, -1));
+		Assert.assertEquals("[m4, m5, m6, m7, m8]", members(list.range(0, -1, false)).toString());
+	}
+
+	@Test
+	public void random() {
+		// 与排序后的列表比较
+		Random random = new Random(1);
+		SkipList list = new SkipList();
+		Map<String, Double> map = new HashMap<String, Double>();
+		for (int i = 0; i < 5000; i++) {
+			String member = "m" + random.nextInt(500);
+			if (random.nextInt(4) == 0) {
+				Assert.assertEquals(map.remove(member) != null, list.remove(member));
+			}
+			else {
+				double score = random.nextInt(100) / 10D;
+				Assert.assertEquals(map.put(member, score) == null, list.add(member, score));
+			}
+		}
+		List<Tuple> expected = new ArrayList<Tuple>();
+		for (Map.Entry<String, Double> entry : map.entrySet()) {
+			expected.add(new Tuple(entry.getKey(), entry.getValue()));
+		}
+		Collections.sort(expected, new Comparator<Tuple>() {
+			@Override
+			public int compare(Tuple o1, Tuple o2) {
+				int result = Double.compare(o1.getScore(), o2.getScore());
+				return result != 0 ? result : o1.getElement().compareTo(o2.getElement());
+			}
+		});
+		Assert.assertEquals(expected.size(), list.size());
+		Assert.assertEquals(format(expected), format(list.range(0, -1, false)));
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(i, list.rank(expected.get(i).getElement()));
+		}
+		Assert.assertEquals(format(expected.subList(10, 21)), format(list.range(10, 20, false)));
+		int count = 0;
+		for (Tuple tuple : expected) {
+			if (tuple.getScore() >= 2.5 && tuple.getScore() <= 7.5) {
+				count++;
+			}
+		}
+		Assert.assertEquals(count, list.count(2.5, 7.5));
+		Assert.assertEquals(count, list.rangeByScore(2.5, 7.5, 0, -1, false).size());
+	}
+
+	private static String format(List<Tuple> list) {
+		List<String> result = new ArrayList<String>();
+		for (Tuple tuple : list) {
+			result.add(tuple.getElement() + "=" + tuple.getScore());
+		}
+		return result.toString();
+	}
+
+	private static List<String> members(List<Tuple> list) {
+		List<String> members = new ArrayList<String>();
+		for (Tuple tuple : list) {
+			members.add(tuple.getElement());
+		}
+		return members;
+	}
+}
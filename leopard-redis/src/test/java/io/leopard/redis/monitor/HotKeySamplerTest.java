@@ -0,0 +1,46 @@
+package io.leopard.redis.monitor;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HotKeySamplerTest {
+
+	@Test
+	public void getHotKeys() throws InterruptedException {
+		HotKeySampler sampler = new HotKeySampler("127.0.0.1:6379", 1, 4, 100);
+		for (int i = 0; i < 1000; i++) {
+			sampler.sample("get", "hot");
+			sampler.sample("get", "key" + i);
+			if (i % 2 == 0) {
+				sampler.sample("hget", "warm");
+			}
+		}
+		sampler.sample("get", null);
+		Assert.assertTrue(sampler.getHotKeys().isEmpty());
+		Thread.sleep(150);
+		List<HotKey> list = sampler.getHotKeys();
+		Assert.assertTrue(list.size() <= 4);
+		Assert.assertEquals("hot", list.get(0).getKey());
+		Assert.assertEquals("get", list.get(0).getCommand());
+		Assert.assertEquals("127.0.0.1:6379", list.get(0).getServer());
+		Assert.assertTrue(list.get(0).getCount() >= 1000);
+		Assert.assertEquals("warm", list.get(1).getKey());
+
+		Assert.assertTrue(sampler.isHot("get", "hot", 1000));
+		Assert.assertFalse(sampler.isHot("hget", "hot", 1));
+		Assert.assertFalse(sampler.isHot("hget", "warm", 1000));
+	}
+
+	@Test
+	public void sampleRate() throws InterruptedException {
+		HotKeySampler sampler = new HotKeySampler("server", 3, 4, 100);
+		Assert.assertEquals(4, sampler.getSampleRate());
+		for (int i = 0; i < 4000; i++) {
+			sampler.sample("get", "hot");
+		}
+		Thread.sleep(150);
+		Assert.assertEquals(4000, sampler.getHotKeys().get(0).getCount());
+	}
+}
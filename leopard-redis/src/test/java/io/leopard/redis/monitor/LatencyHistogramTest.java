@@ -0,0 +1,56 @@
+package io.leopard.redis.monitor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void index() {
+		Assert.assertEquals(0, LatencyHistogram.index(0));
+		Assert.assertEquals(15, LatencyHistogram.index(15));
+		Assert.assertEquals(16, LatencyHistogram.index(16));
+		Assert.assertEquals(16, LatencyHistogram.index(17));
+		Assert.assertEquals(17, LatencyHistogram.index(18));
+		for (long value = 1; value < 1L << 30; value = value * 3 + 1) {
+			int index = LatencyHistogram.index(value);
+			Assert.assertTrue(LatencyHistogram.upperBound(index) >= value);
+			Assert.assertTrue(LatencyHistogram.upperBound(index) <= value * 1.125 + 1);
+			if (index > 0) {
+				Assert.assertTrue(LatencyHistogram.upperBound(index - 1) < value);
+			}
+		}
+	}
+
+	@Test
+	public void getPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(0, histogram.getPercentile(99));
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(1000, histogram.getMax());
+		Assert.assertEquals(500.5D, histogram.getMean(), 0.01);
+		long p50 = histogram.getPercentile(50);
+		Assert.assertTrue(p50 >= 500 && p50 <= 563);
+		long p99 = histogram.getPercentile(99);
+		Assert.assertTrue(p99 >= 990 && p99 <= 1000);
+		Assert.assertEquals(1000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void add() {
+		LatencyHistogram histogram1 = new LatencyHistogram();
+		LatencyHistogram histogram2 = new LatencyHistogram();
+		histogram1.record(10);
+		histogram2.record(20);
+		histogram1.add(histogram2);
+		Assert.assertEquals(2, histogram1.getCount());
+		Assert.assertEquals(30, histogram1.getTotal());
+		Assert.assertEquals(20, histogram1.getMax());
+		histogram1.reset();
+		Assert.assertEquals(0, histogram1.getCount());
+		Assert.assertEquals(0, histogram1.getMax());
+	}
+}
@@ -0,0 +1,43 @@
+package io.leopard.redis.monitor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RedisMetricsTest {
+
+	@Test
+	public void recordCommand() {
+		RedisMetrics metrics = new RedisMetrics("127.0.0.1:6379");
+		Assert.assertNull(metrics.getCommandLatency("get"));
+		metrics.recordCommand("get", 100);
+		metrics.recordCommand("get", 200);
+		metrics.recordCommand("set", 300);
+		metrics.recordPoolWait(10);
+		metrics.incrError();
+		metrics.incrBroken();
+		metrics.incrPoolError();
+		Assert.assertEquals(2, metrics.getCommandLatency("get").getCount());
+		Assert.assertEquals("[get, set]", metrics.getCommandLatencyMap().keySet().toString());
+		Assert.assertEquals(3, metrics.getTotalLatency().getCount());
+		Assert.assertEquals(1, metrics.getPoolWait().getCount());
+		Assert.assertEquals(1, metrics.getErrorCount());
+		Assert.assertEquals(1, metrics.getBrokenCount());
+		Assert.assertEquals(1, metrics.getPoolErrorCount());
+	}
+
+	@Test
+	public void add() {
+		RedisMetrics metrics1 = new RedisMetrics("server1");
+		RedisMetrics metrics2 = new RedisMetrics("server2");
+		metrics1.recordCommand("get", 100);
+		metrics2.recordCommand("get", 200);
+		metrics2.incrError();
+		RedisMetrics total = new RedisMetrics(null);
+		total.add(metrics1);
+		total.add(metrics2);
+		Assert.assertEquals(2, total.getCommandLatency("get").getCount());
+		Assert.assertEquals(1, total.getErrorCount());
+		total.reset();
+		Assert.assertNull(total.getCommandLatency("get"));
+	}
+}
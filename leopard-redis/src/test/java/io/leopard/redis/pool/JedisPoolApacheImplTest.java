@@ -3,6 +3,7 @@ package io.leopard.redis.pool;
 import io.leopard.redis.JedisPool;
 import io.leopard.redis.util.JedisPoolApacheImpl;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -20,4 +21,24 @@ public class JedisPoolApacheImplTest {
 		jedisPool.destroy();
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void warmUp() {
+		// 端口没有服务，预热失败不抛异常
+		JedisPoolApacheImpl jedisPool = new JedisPoolApacheImpl("127.0.0.1", 1, 1000, 16, null);
+		Assert.assertEquals(0, jedisPool.warmUp(4));
+		Assert.assertEquals(0, jedisPool.warmUp(0));
+		Assert.assertEquals(0, jedisPool.getNumActive());
+		Assert.assertEquals(0, jedisPool.getNumIdle());
+		Assert.assertEquals(0, jedisPool.getNumWaiters());
+		jedisPool.destroy();
+	}
+
+	@Test
+	public void resize() {
+		JedisPoolApacheImpl jedisPool = new JedisPoolApacheImpl("127.0.0.1", 1, 1000, 16, null, 2, 60);
+		jedisPool.resize();
+		Assert.assertEquals(0, jedisPool.getNumActive());
+		jedisPool.destroy();
+	}
+
+}
@@ -0,0 +1,249 @@
+package io.leopard.redis.pool;
+
+import io.leopard.redis.RedisImpl;
+import io.leopard.redis.util.JedisPoolMultiplexImpl;
+import io.leopard.redis.util.MultiplexConnection;
+import io.leopard.redis.util.MultiplexJedis;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.RedisInputStream;
+
+public class JedisPoolMultiplexImplTest {
+
+	/**
+	 * 简单的redis服务端(支持PING、SET、GET、INCR、DEL).
+	 */
+	private static class MockServer implements Runnable {
+		private final ServerSocket serverSocket;
+		private final Map<String, String> data = new ConcurrentHashMap<String, String>();
+		private final List<Socket> socketList = new ArrayList<Socket>();
+
+		public MockServer() throws IOException {
+			this.serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(this);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		public int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		@Override
+		public void run() {
+			while (!serverSocket.isClosed()) {
+				final Socket socket;
+				try {
+					socket = serverSocket.accept();
+				}
+				catch (IOException e) {
+					return;
+				}
+				synchronized (socketList) {
+					socketList.add(socket);
+				}
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						handle(socket);
+					}
+				});
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void handle(Socket socket) {
+			try {
+				RedisInputStream input = new RedisInputStream(socket.getInputStream());
+				OutputStream output = socket.getOutputStream();
+				while (true) {
+					List<Object> args = (List<Object>) Protocol.read(input);
+					String command = new String((byte[]) args.get(0)).toUpperCase();
+					String key = args.size() > 1 ? new String((byte[]) args.get(1)) : null;
+					String reply;
+					if ("PING".equals(command)) {
+						reply = "+PONG\r\n";
+					}
+					else if ("SET".equals(command)) {
+						data.put(key, new String((byte[]) args.get(2)));
+						reply = "+OK\r\n";
+					}
+					else if ("GET".equals(command)) {
+						String value = data.get(key);
+						reply = value == null ? "$-1\r\n" : "$" + value.getBytes().length + "\r\n" + value + "\r\n";
+					}
+					else if ("INCR".equals(command)) {
+						synchronized (data) {
+							String value = data.get(key);
+							long count = (value == null ? 0 : Long.parseLong(value)) + 1;
+							data.put(key, Long.toString(count));
+							reply = ":" + count + "\r\n";
+						}
+					}
+					else if ("DEL".equals(command)) {
+						reply = ":" + (data.remove(key) == null ? 0 : 1) + "\r\n";
+					}
+					else {
+						reply = "-ERR unknown command '" + command + "'\r\n";
+					}
+					output.write(reply.getBytes());
+					output.flush();
+				}
+			}
+			catch (Exception e) {
+				try {
+					socket.close();
+				}
+				catch (IOException e1) {
+
+				}
+			}
+		}
+
+		public void closeClients() throws IOException {
+			synchronized (socketList) {
+				for (Socket socket : socketList) {
+					socket.close();
+				}
+				socketList.clear();
+			}
+		}
+
+		public void close() throws IOException {
+			serverSocket.close();
+			this.closeClients();
+		}
+	}
+
+	private MockServer server;
+
+	@Before
+	public void before() throws IOException {
+		server = new MockServer();
+	}
+
+	@After
+	public void after() throws IOException {
+		server.close();
+	}
+
+	@Test
+	public void multiplex() throws Exception {
+		final MultiplexConnection connection = new MultiplexConnection("127.0.0.1", server.getPort(), 3000, null);
+		ExecutorService executor = Executors.newFixedThreadPool(20);
+		List<Future<Boolean>> futureList = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 20; i++) {
+			final String key = "key" + i;
+			futureList.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					for (int j = 0; j < 100; j++) {
+						Jedis jedis = new MultiplexJedis(connection);
+						jedis.set(key, Integer.toString(j));
+						Assert.assertEquals(Integer.toString(j), jedis.get(key));
+						jedis.incr("counter");
+					}
+					return true;
+				}
+			}));
+		}
+		for (Future<Boolean> future : futureList) {
+			Assert.assertTrue(future.get());
+		}
+		executor.shutdown();
+		Jedis jedis = new MultiplexJedis(connection);
+		Assert.assertEquals("2000", jedis.get("counter"));
+		Assert.assertEquals(0, connection.getPendingCount());
+		connection.close();
+	}
+
+	@Test
+	public void error() {
+		MultiplexConnection connection = new MultiplexConnection("127.0.0.1", server.getPort(), 3000, null);
+		Jedis jedis = new MultiplexJedis(connection);
+		try {
+			jedis.hget("key", "field");
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (JedisDataException e) {
+
+		}
+		// 出错后后续指令不受影响
+		Assert.assertEquals("PONG", jedis.ping());
+		connection.close();
+	}
+
+	@Test
+	public void pipelined() {
+		MultiplexConnection connection = new MultiplexConnection("127.0.0.1", server.getPort(), 3000, null);
+		Jedis jedis = new MultiplexJedis(connection);
+		Pipeline pipeline = jedis.pipelined();
+		Response<String> set = pipeline.set("key", "value");
+		Response<Long> incr = pipeline.incr("key2");
+		Response<String> get = pipeline.get("key");
+		pipeline.sync();
+		Assert.assertEquals("OK", set.get());
+		Assert.assertEquals(1L, (long) incr.get());
+		Assert.assertEquals("value", get.get());
+		connection.close();
+	}
+
+	@Test
+	public void close() throws Exception {
+		JedisPoolMultiplexImpl pool = new JedisPoolMultiplexImpl("127.0.0.1", server.getPort(), 3000, 8, null, 2);
+		Assert.assertEquals(2, pool.warmUp(2));
+		Jedis jedis = pool.getCommandResource();
+		Assert.assertEquals("PONG", jedis.ping());
+
+		server.closeClients();
+		Thread.sleep(100);
+		try {
+			jedis.ping();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (JedisConnectionException e) {
+
+		}
+		// 重新建立连接
+		Assert.assertEquals("PONG", pool.getCommandResource().ping());
+		Assert.assertEquals("PONG", pool.getCommandResource().ping());
+		pool.destroy();
+	}
+
+	@Test
+	public void redisImpl() {
+		RedisImpl redis = new RedisImpl("127.0.0.1:" + server.getPort(), 8, 3000);
+		redis.setMultiplexConnections(2);
+		redis.init();
+		Assert.assertEquals("OK", redis.set("key", "value"));
+		Assert.assertEquals("value", redis.get("key"));
+		Assert.assertEquals(1L, (long) redis.del("key"));
+		Assert.assertEquals(0, redis.getJedisPool().getNumActive());
+		redis.destroy();
+	}
+}
@@ -0,0 +1,146 @@
+package io.leopard.redis.util;
+
+import io.leopard.redis.Redis;
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+public class CircuitBreakerTest {
+
+	@Test
+	public void open() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(2, 50);
+		Assert.assertTrue(breaker.allowRequest());
+		breaker.onFailure();
+		Assert.assertEquals(CircuitBreaker.CLOSED, breaker.getState());
+		breaker.onFailure();
+		Assert.assertEquals(CircuitBreaker.OPEN, breaker.getState());
+		Assert.assertFalse(breaker.allowRequest());
+
+		Thread.sleep(60);
+		// 只放行一个探测请求
+		Assert.assertTrue(breaker.allowRequest());
+		Assert.assertEquals(CircuitBreaker.HALF_OPEN, breaker.getState());
+		Assert.assertFalse(breaker.allowRequest());
+
+		// 探测失败重新打开
+		breaker.onFailure();
+		Assert.assertEquals(CircuitBreaker.OPEN, breaker.getState());
+		Assert.assertFalse(breaker.allowRequest());
+
+		Thread.sleep(60);
+		Assert.assertTrue(breaker.allowRequest());
+		breaker.onSuccess();
+		Assert.assertEquals(CircuitBreaker.CLOSED, breaker.getState());
+		Assert.assertEquals(0, breaker.getFailures());
+		Assert.assertTrue(breaker.allowRequest());
+	}
+
+	@Test
+	public void probeTimeout() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(1, 50);
+		breaker.onFailure();
+		Thread.sleep(60);
+		Assert.assertTrue(breaker.allowRequest());
+		Assert.assertFalse(breaker.allowRequest());
+
+		// 探测请求没有结果(阻塞或抛出Error)，超时后再放行一个探测请求
+		Thread.sleep(60);
+		Assert.assertEquals(CircuitBreaker.HALF_OPEN, breaker.getState());
+		Assert.assertTrue(breaker.allowRequest());
+		Assert.assertFalse(breaker.allowRequest());
+		breaker.onSuccess();
+		Assert.assertTrue(breaker.allowRequest());
+	}
+
+	@Test
+	public void poolExhausted() {
+		Redis redis = Mockito.mock(Redis.class);
+		JedisConnectionException exhausted = new JedisConnectionException("Could not get a resource from the pool", new NoSuchElementException("Timeout waiting for idle object"));
+		Mockito.doThrow(exhausted).when(redis).get("key");
+		CircuitBreaker breaker = new CircuitBreaker(1, 1000);
+		Redis proxy = CircuitBreakerRedis.wrap("127.0.0.1:6379", redis, null, breaker);
+
+		// 连接池耗尽不算失败
+		for (int i = 0; i < 3; i++) {
+			try {
+				proxy.get("key");
+				Assert.fail("怎么没有抛异常?");
+			}
+			catch (JedisConnectionException e) {
+
+			}
+		}
+		Assert.assertFalse(breaker.isOpen());
+
+		// 建立连接失败
+		JedisConnectionException refused = new JedisConnectionException("Could not get a resource from the pool", new JedisConnectionException("Connection refused"));
+		Assert.assertFalse(CircuitBreakerRedis.isPoolExhausted(refused));
+		Assert.assertTrue(CircuitBreakerRedis.isPoolExhausted(new JedisConnectionException("redis[127.0.0.1:6379]", exhausted)));
+	}
+
+	@Test
+	public void onSuccess() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 1000);
+		breaker.onFailure();
+		breaker.onSuccess();
+		breaker.onFailure();
+		Assert.assertFalse(breaker.isOpen());
+	}
+
+	@Test
+	public void wrap() {
+		Redis redis = Mockito.mock(Redis.class);
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(redis).get("key");
+		Mockito.doThrow(new JedisDataException("WRONGTYPE")).when(redis).hget("key", "field");
+		CircuitBreaker breaker = new CircuitBreaker(2, 1000);
+		Redis proxy = CircuitBreakerRedis.wrap("127.0.0.1:6379", redis, null, breaker);
+
+		// 非连接异常不算失败
+		for (int i = 0; i < 3; i++) {
+			try {
+				proxy.hget("key", "field");
+				Assert.fail("怎么没有抛异常?");
+			}
+			catch (JedisDataException e) {
+
+			}
+		}
+		Assert.assertFalse(breaker.isOpen());
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				proxy.get("key");
+				Assert.fail("怎么没有抛异常?");
+			}
+			catch (JedisConnectionException e) {
+
+			}
+		}
+		Assert.assertTrue(breaker.isOpen());
+		// 熔断后不再访问服务器
+		Mockito.verify(redis, Mockito.times(2)).get("key");
+	}
+
+	@Test
+	public void fallback() {
+		Redis redis = Mockito.mock(Redis.class);
+		Mockito.doThrow(new JedisConnectionException("connect timed out")).when(redis).get("key");
+		Redis fallback = new RedisMemoryImpl();
+		fallback.set("key", "value");
+		CircuitBreaker breaker = new CircuitBreaker(1, 1000);
+		Redis proxy = CircuitBreakerRedis.wrap("127.0.0.1:6379", redis, fallback, breaker);
+
+		Assert.assertEquals("value", proxy.get("key"));
+		Assert.assertTrue(breaker.isOpen());
+		Assert.assertEquals("value", proxy.get("key"));
+		Mockito.verify(redis, Mockito.times(1)).get("key");
+	}
+}
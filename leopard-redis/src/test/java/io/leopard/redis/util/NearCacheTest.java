@@ -0,0 +1,69 @@
+package io.leopard.redis.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NearCacheTest {
+
+	@Test
+	public void get() {
+		NearCache cache = new NearCache(10, 0);
+		Assert.assertNull(cache.get("key", null));
+		cache.put("key", null, "value", cache.getVersion("key"));
+		cache.put("key", "h:field", null, cache.getVersion("key"));
+		Assert.assertEquals("value", cache.get("key", null));
+		Assert.assertEquals(NearCache.NULL, cache.get("key", "h:field"));
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(2, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void invalidate() {
+		NearCache cache = new NearCache(10, 0);
+		cache.put("key", null, "value", cache.getVersion("key"));
+		cache.put("key", "h:field", "value", cache.getVersion("key"));
+		cache.invalidate("key");
+		Assert.assertNull(cache.get("key", null));
+		Assert.assertEquals(0, cache.size());
+
+		// 读取期间key被失效，不缓存旧值
+		long version = cache.getVersion("key");
+		cache.invalidate("key");
+		cache.put("key", null, "old", version);
+		Assert.assertNull(cache.get("key", null));
+	}
+
+	@Test
+	public void evict() {
+		NearCache cache = new NearCache(2, 0);
+		cache.put("key1", null, "value1", cache.getVersion("key1"));
+		cache.put("key2", null, "value2", cache.getVersion("key2"));
+		cache.get("key1", null);
+		cache.put("key3", null, "value3", cache.getVersion("key3"));
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals("value1", cache.get("key1", null));
+		Assert.assertNull(cache.get("key2", null));
+		Assert.assertEquals("value3", cache.get("key3", null));
+	}
+
+	@Test
+	public void expire() throws InterruptedException {
+		NearCache cache = new NearCache(10, 10);
+		cache.put("key", null, "value", cache.getVersion("key"));
+		Thread.sleep(20);
+		Assert.assertNull(cache.get("key", null));
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void clear() {
+		NearCache cache = new NearCache(10, 0);
+		long version = cache.getVersion("key");
+		cache.put("key", null, "value", version);
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		cache.put("key", null, "value", version);
+		Assert.assertNull(cache.get("key", null));
+	}
+}
@@ -0,0 +1,98 @@
+package io.leopard.redis.util;
+
+import io.leopard.redis.RedisMemoryImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Tuple;
+
+public class ScanIteratorTest {
+
+	private RedisMemoryImpl redis = new RedisMemoryImpl();
+
+	@Test
+	public void scan() {
+		for (int i = 0; i < 25; i++) {
+			redis.set("key:" + i, "value");
+		}
+		redis.set("other", "value");
+		Set<String> keySet = new TreeSet<String>();
+		Iterator<String> iterator = ScanIterator.scan(redis, "key:*", 10);
+		while (iterator.hasNext()) {
+			keySet.add(iterator.next());
+		}
+		Assert.assertEquals(25, keySet.size());
+		Assert.assertFalse(keySet.contains("other"));
+		try {
+			iterator.next();
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (NoSuchElementException e) {
+
+		}
+	}
+
+	@Test
+	public void hscan() {
+		redis.hset("hash", "field1", "value1");
+		redis.hset("hash", "field2", "value2");
+		Iterator<Entry<String, String>> iterator = ScanIterator.hscan(redis, "hash", null, 1);
+		Assert.assertEquals("field1=value1", iterator.next().toString());
+		Assert.assertEquals("field2=value2", iterator.next().toString());
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void sscan() {
+		redis.sadd("set", "a", "b", "c");
+		Set<String> result = new TreeSet<String>();
+		Iterator<String> iterator = ScanIterator.sscan(redis, "set", "[ab]", 2);
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+		Assert.assertEquals("[a, b]", result.toString());
+	}
+
+	@Test
+	public void zscan() {
+		redis.zadd("zset", 1, "member1");
+		redis.zadd("zset", 2, "member2");
+		Iterator<Tuple> iterator = ScanIterator.zscan(redis, "zset", "*2", 10);
+		Tuple tuple = iterator.next();
+		Assert.assertEquals("member2", tuple.getElement());
+		Assert.assertEquals(2D, tuple.getScore(), 0);
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void emptyBatch() {
+		// 服务器可能返回空批次，迭代器需要继续获取下一批
+		final String[] cursors = new String[] { "1", "2", "0" };
+		Iterator<String> iterator = new ScanIterator<String>(null, 10) {
+			private int index = 0;
+
+			@Override
+			protected ScanResult<String> scan(String cursor, ScanParams params) {
+				String next = cursors[index++];
+				if ("0".equals(next)) {
+					return new ScanResult<String>(next, Arrays.asList("key"));
+				}
+				return new ScanResult<String>(next, new ArrayList<String>());
+			}
+		};
+		Assert.assertTrue(iterator.hasNext());
+		Assert.assertEquals("key", iterator.next());
+		Assert.assertFalse(iterator.hasNext());
+	}
+}
@@ -0,0 +1,65 @@
+package io.leopard.redis.util;
+
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+public class ScanUtilTest {
+
+	@Test
+	public void match() {
+		Assert.assertTrue(ScanUtil.match("*", "key"));
+		Assert.assertTrue(ScanUtil.match("key:*", "key:1"));
+		Assert.assertFalse(ScanUtil.match("key:*", "key"));
+		Assert.assertTrue(ScanUtil.match("k?y", "key"));
+		Assert.assertFalse(ScanUtil.match("k?y", "ky"));
+		Assert.assertTrue(ScanUtil.match("h[ae]llo", "hallo"));
+		Assert.assertFalse(ScanUtil.match("h[ae]llo", "hillo"));
+		Assert.assertTrue(ScanUtil.match("h[^e]llo", "hallo"));
+		Assert.assertFalse(ScanUtil.match("h[^e]llo", "hello"));
+		Assert.assertTrue(ScanUtil.match("h[a-c]llo", "hbllo"));
+		Assert.assertTrue(ScanUtil.match("key\\*", "key*"));
+		Assert.assertFalse(ScanUtil.match("key\\*", "key1"));
+		Assert.assertTrue(ScanUtil.match("a*b*c", "axxbyyc"));
+		Assert.assertFalse(ScanUtil.match("a*b*c", "axxbyy"));
+	}
+
+	@Test
+	public void getParams() {
+		Assert.assertNull(ScanUtil.getMatch(new ScanParams()));
+		Assert.assertEquals(10, ScanUtil.getCount(new ScanParams()));
+		ScanParams params = new ScanParams().match("key:*").count(5);
+		Assert.assertEquals("key:*", ScanUtil.getMatch(params));
+		Assert.assertEquals(5, ScanUtil.getCount(params));
+	}
+
+	@Test
+	public void scan() {
+		TreeMap<String, String> data = new TreeMap<String, String>();
+		for (int i = 0; i < 5; i++) {
+			data.put("key:" + i, "value" + i);
+		}
+		data.put("other", "other");
+		ScanParams params = new ScanParams().match("key:*").count(3);
+
+		ScanResult<String> result = ScanUtil.scan(data, ScanParams.SCAN_POINTER_START, params);
+		Assert.assertEquals("[value0, value1, value2]", result.getResult().toString());
+		// 新增的元素不影响游标位置
+		data.put("key:00", "value00");
+		result = ScanUtil.scan(data, result.getStringCursor(), params);
+		Assert.assertEquals("[value3, value4]", result.getResult().toString());
+		Assert.assertEquals(ScanParams.SCAN_POINTER_START, result.getStringCursor());
+
+		try {
+			ScanUtil.scan(data, "abc", params);
+			Assert.fail("怎么没有抛异常?");
+		}
+		catch (IllegalArgumentException e) {
+
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package io.leopard.redis.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+public class ScriptRegistryTest {
+
+	private ScriptRegistry registry = new ScriptRegistry();
+
+	@Test
+	public void sha1() {
+		Assert.assertEquals("e0e1f9fabfc9d4800c877a703b823ac0578ff8db", ScriptRegistry.sha1("return 1"));
+		Assert.assertEquals("237625d44011ed8d528ae48c8f600bad6ef68312", ScriptRegistry.sha1("return \"中\""));
+	}
+
+	@Test
+	public void register() {
+		Assert.assertNull(registry.getScript("e0e1f9fabfc9d4800c877a703b823ac0578ff8db"));
+		String sha = registry.register("return 1");
+		Assert.assertEquals("e0e1f9fabfc9d4800c877a703b823ac0578ff8db", sha);
+		Assert.assertEquals("return 1", registry.getScript(sha));
+		Assert.assertEquals(sha, registry.register("return 1"));
+	}
+
+	@Test
+	public void isNoScript() {
+		Assert.assertTrue(ScriptRegistry.isNoScript(new JedisDataException("NOSCRIPT No matching script. Please use EVAL.")));
+		Assert.assertFalse(ScriptRegistry.isNoScript(new JedisDataException("ERR syntax error")));
+		Assert.assertFalse(ScriptRegistry.isNoScript(new JedisDataException((String) null)));
+	}
+}